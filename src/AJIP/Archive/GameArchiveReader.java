@@ -0,0 +1,177 @@
+package AJIP.Archive;
+
+import AJIP.Model.BoardSnapshot;
+import AJIP.Model.ChessGame;
+import AJIP.Model.ChessMove;
+import AJIP.Model.Color;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memory-mapped reader for archives produced by {@link GameArchiveWriter}.
+ * Blocks are mapped independently, so several threads can decode different blocks at once
+ * and archives larger than 2 GB need no special handling.
+ */
+public class GameArchiveReader implements Closeable {
+
+    private final FileChannel channel;
+    private final String archivePath;
+    private final String[] dictionary;
+    private final long[] blockOffsets;
+    private final int[] blockGameCounts;
+    private final long dictionaryOffset;
+
+    private GameArchiveReader(FileChannel channel, String archivePath) throws IOException {
+        this.channel = channel;
+        this.archivePath = archivePath;
+        long size = channel.size();
+        if (size < 12 + GameArchiveWriter.FOOTER_SIZE) {
+            throw new IOException("File too small to be a game archive");
+        }
+
+        ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, 12);
+        if (head.getInt() != GameArchiveWriter.MAGIC || head.getInt() != GameArchiveWriter.VERSION) {
+            throw new IOException("Not a game archive or unsupported version");
+        }
+
+        ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY,
+                size - GameArchiveWriter.FOOTER_SIZE, GameArchiveWriter.FOOTER_SIZE);
+        dictionaryOffset = footer.getLong();
+        long indexOffset = footer.getLong();
+        int blockCount = footer.getInt();
+        if (footer.getInt() != GameArchiveWriter.MAGIC) {
+            throw new IOException("Archive footer is missing, the file was not closed properly");
+        }
+
+        ByteBuffer dictionaryBuffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                dictionaryOffset, indexOffset - dictionaryOffset);
+        dictionary = new String[readVarInt(dictionaryBuffer)];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[readVarInt(dictionaryBuffer)];
+            dictionaryBuffer.get(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8).intern();
+        }
+
+        ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, blockCount * 12L);
+        blockOffsets = new long[blockCount];
+        blockGameCounts = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            blockOffsets[i] = index.getLong();
+        }
+        for (int i = 0; i < blockCount; i++) {
+            blockGameCounts[i] = index.getInt();
+        }
+    }
+
+    public static GameArchiveReader open(String archivePath) throws IOException {
+        return new GameArchiveReader(FileChannel.open(Path.of(archivePath), StandardOpenOption.READ), archivePath);
+    }
+
+    public int getBlockCount() {
+        return blockOffsets.length;
+    }
+
+    public long getGameCount() {
+        long total = 0;
+        for (int count : blockGameCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Decode all games of one block. Safe to call concurrently for different blocks.
+     */
+    public List<ChessGame> readBlock(int blockIndex) throws IOException {
+        long start = blockOffsets[blockIndex];
+        long end = blockIndex + 1 < blockOffsets.length ? blockOffsets[blockIndex + 1] : dictionaryOffset;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+
+        int gameCount = readVarInt(buffer);
+        List<ChessGame> games = new ArrayList<>(gameCount);
+        int firstGameNumber = 1;
+        for (int block = 0; block < blockIndex; block++) {
+            firstGameNumber += blockGameCounts[block];
+        }
+        for (int g = 0; g < gameCount; g++) {
+            int headerCount = readVarInt(buffer);
+            Map<String, String> headers = new LinkedHashMap<>(headerCount * 2);
+            for (int h = 0; h < headerCount; h++) {
+                String key = dictionary[readVarInt(buffer)];
+                headers.put(key, dictionary[readVarInt(buffer)]);
+            }
+
+            int moveCount = readVarInt(buffer);
+            List<ChessMove> moves = new ArrayList<>(moveCount);
+            for (int m = 0; m < moveCount; m++) {
+                moves.add(MoveCodec.unpack(buffer.getInt()));
+            }
+            ChessGame game = new ChessGame(moves, movetext(moves, firstMoveNumber(headers)), headers);
+            game.sourceFile = archivePath;
+            game.gameNumber = firstGameNumber + g;
+            games.add(game);
+        }
+        return games;
+    }
+
+    /**
+     * Movetext numbered from the given move; a game whose first move is black's starts "n..."
+     */
+    private static String movetext(List<ChessMove> moves, int moveNumber) {
+        StringBuilder text = new StringBuilder(moves.size() * 6);
+        for (int m = 0; m < moves.size(); m++) {
+            ChessMove move = moves.get(m);
+            if (move.color == Color.WHITE) {
+                text.append(moveNumber).append('.');
+            } else {
+                if (m == 0) {
+                    text.append(moveNumber).append("...");
+                }
+                moveNumber++;
+            }
+            text.append(move.notation).append(' ');
+        }
+        return text.toString().trim();
+    }
+
+    // Fullmove number of the FEN start position, 1 for the standard one or a FEN the pipeline would reject
+    private static int firstMoveNumber(Map<String, String> headers) {
+        String fen = ChessGame.startingFen(headers);
+        if (fen == null) {
+            return 1;
+        }
+        try {
+            return BoardSnapshot.fromFen(fen).fullMoveNumber();
+        } catch (IllegalArgumentException e) {
+            return 1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,174 @@
+package AJIP.Archive;
+
+import AJIP.Logger.PGNLogger;
+import AJIP.Model.ChessGame;
+import AJIP.Model.ChessMove;
+import AJIP.Parser.PGNParser;
+import AJIP.Records.ParseResult;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Serializes parsed games into the compact archive format read by {@link GameArchiveReader}.
+ * <p>
+ * File layout:
+ * <pre>
+ *  header     : int magic, int version, int blockSize
+ *  blocks     : varint gameCount, then per game
+ *               varint headerCount, (varint keyId, varint valueId)*, varint moveCount, int packedMove*
+ *  dictionary : varint count, (varint byteLength, UTF-8 bytes)*
+ *  index      : long blockOffset*, int blockGameCount*
+ *  footer     : long dictionaryOffset, long indexOffset, int blockCount, int magic
+ * </pre>
+ * Header keys and values share one interned dictionary, so repeated tags ("Event", "?", "1-0")
+ * cost a single varint per occurrence.
+ */
+public class GameArchiveWriter implements Closeable {
+
+    static final int MAGIC = 0x414A4741; // "AJGA"
+    static final int VERSION = 1;
+    static final int FOOTER_SIZE = 8 + 8 + 4 + 4;
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private final DataOutputStream out;
+    private final int blockSize;
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private final List<Long> blockOffsets = new ArrayList<>();
+    private final List<Integer> blockGameCounts = new ArrayList<>();
+
+    private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(64 * 1024);
+    private final DataOutputStream block = new DataOutputStream(blockBytes);
+    private int gamesInBlock;
+    private long position;
+    private long gamesWritten;
+
+    public GameArchiveWriter(String archivePath) throws IOException {
+        this(archivePath, DEFAULT_BLOCK_SIZE);
+    }
+
+    public GameArchiveWriter(String archivePath, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive, got: " + blockSize);
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(archivePath), 1 << 16));
+        this.blockSize = blockSize;
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(blockSize);
+        position = 12;
+    }
+
+    /**
+     * Append one parsed game to the archive
+     */
+    public synchronized void write(ChessGame game) throws IOException {
+        Map<String, String> headers = game.getHeaders() != null ? game.getHeaders() : Map.of();
+        writeVarInt(block, headers.size());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            writeVarInt(block, intern(header.getKey()));
+            writeVarInt(block, intern(header.getValue()));
+        }
+
+        List<ChessMove> moves = game.getMoves();
+        writeVarInt(block, moves.size());
+        for (ChessMove move : moves) {
+            block.writeInt(MoveCodec.pack(move));
+        }
+
+        gamesWritten++;
+        if (++gamesInBlock == blockSize) {
+            flushBlock();
+        }
+    }
+
+    public synchronized long getGamesWritten() {
+        return gamesWritten;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (gamesInBlock > 0) {
+            flushBlock();
+        }
+
+        long dictionaryOffset = position;
+        ByteArrayOutputStream dictionaryBytes = new ByteArrayOutputStream();
+        DataOutputStream dictionaryOut = new DataOutputStream(dictionaryBytes);
+        writeVarInt(dictionaryOut, dictionary.size());
+        for (String entry : dictionary) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(dictionaryOut, bytes.length);
+            dictionaryOut.write(bytes);
+        }
+        dictionaryBytes.writeTo(out);
+        position += dictionaryBytes.size();
+
+        long indexOffset = position;
+        for (long offset : blockOffsets) {
+            out.writeLong(offset);
+        }
+        for (int count : blockGameCounts) {
+            out.writeInt(count);
+        }
+
+        out.writeLong(dictionaryOffset);
+        out.writeLong(indexOffset);
+        out.writeInt(blockOffsets.size());
+        out.writeInt(MAGIC);
+        out.close();
+    }
+
+    private void flushBlock() throws IOException {
+        blockOffsets.add(position);
+        blockGameCounts.add(gamesInBlock);
+
+        ByteArrayOutputStream countBytes = new ByteArrayOutputStream(5);
+        writeVarInt(new DataOutputStream(countBytes), gamesInBlock);
+        countBytes.writeTo(out);
+        blockBytes.writeTo(out);
+        position += countBytes.size() + blockBytes.size();
+
+        blockBytes.reset();
+        gamesInBlock = 0;
+    }
+
+    private int intern(String value) {
+        Integer id = dictionaryIds.get(value);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.add(value);
+            dictionaryIds.put(value, id);
+        }
+        return id;
+    }
+
+    static void writeVarInt(DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    /**
+     * Parse the given PGN files and store every successfully parsed game in one archive
+     *
+     * @return number of games archived
+     */
+    public static long archiveFiles(List<String> pgnFiles, String archivePath) throws IOException {
+        try (GameArchiveWriter writer = new GameArchiveWriter(archivePath)) {
+            for (String file : pgnFiles) {
+                for (ChessGame game : new PGNParser().getParsedGames(file)) {
+                    writer.write(game);
+                }
+            }
+            PGNLogger.info(ParseResult.info("Archive Written", "Archive",
+                    writer.getGamesWritten() + " games from " + pgnFiles.size() + " files into " + archivePath)
+                    .getLoggerMessage());
+            return writer.getGamesWritten();
+        }
+    }
+}
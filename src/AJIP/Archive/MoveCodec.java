@@ -0,0 +1,93 @@
+package AJIP.Archive;
+
+import AJIP.Model.ChessMove;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
+
+/**
+ * Packs a parsed ChessMove into a single int and back.
+ * <p>
+ * Layout (low bit first):
+ * <pre>
+ *  0-2   toCol            3-5   toRow
+ *  6-9   fromCol (8 = unknown)    10-13 fromRow (8 = unknown)
+ *  14-16 piece type (PieceType ordinal)    17 color (1 = black)
+ *  18    capture          19    check
+ *  20    checkmate        21    castling
+ *  22    promotion        23-25 promotion piece
+ *  26    file disambiguation      27 rank disambiguation
+ *  28    castling written with zeros ("0-0")
+ * </pre>
+ */
+public final class MoveCodec {
+
+    private static final int UNKNOWN = 8;
+
+    private MoveCodec() {
+    }
+
+    public static int pack(ChessMove move) {
+        int packed = (move.toCol & 7)
+                | (move.toRow & 7) << 3
+                | (move.fromCol < 0 ? UNKNOWN : move.fromCol) << 6
+                | (move.fromRow < 0 ? UNKNOWN : move.fromRow) << 10
+                | move.pieceType.ordinal() << 14
+                | (move.color == Color.BLACK ? 1 : 0) << 17;
+
+        if (move.isCapture) packed |= 1 << 18;
+        if (move.isCheck) packed |= 1 << 19;
+        if (move.isCheckmate) packed |= 1 << 20;
+        if (move.isCastling) packed |= 1 << 21;
+        if (move.isPromotion) packed |= 1 << 22 | move.promotionPiece.ordinal() << 23;
+        if (move.disambiguationFile != null) packed |= 1 << 26;
+        if (move.disambiguationRank != null) packed |= 1 << 27;
+        if (move.isCastling && move.notation != null && move.notation.startsWith("0")) packed |= 1 << 28;
+        return packed;
+    }
+
+    public static ChessMove unpack(int packed) {
+        ChessMove move = new ChessMove();
+        move.toCol = packed & 7;
+        move.toRow = (packed >>> 3) & 7;
+        int fromCol = (packed >>> 6) & 15;
+        int fromRow = (packed >>> 10) & 15;
+        move.fromCol = fromCol == UNKNOWN ? -1 : fromCol;
+        move.fromRow = fromRow == UNKNOWN ? -1 : fromRow;
+        move.pieceType = PieceType.fromCode((packed >>> 14) & 7);
+        move.color = ((packed >>> 17) & 1) == 1 ? Color.BLACK : Color.WHITE;
+        move.isCapture = (packed & 1 << 18) != 0;
+        move.isCheck = (packed & 1 << 19) != 0;
+        move.isCheckmate = (packed & 1 << 20) != 0;
+        move.isCastling = (packed & 1 << 21) != 0;
+        move.isPromotion = (packed & 1 << 22) != 0;
+        move.promotionPiece = move.isPromotion ? PieceType.fromCode((packed >>> 23) & 7) : null;
+        move.disambiguationFile = (packed & 1 << 26) != 0 ? String.valueOf((char) ('a' + move.fromCol)) : null;
+        move.disambiguationRank = (packed & 1 << 27) != 0 ? String.valueOf((char) ('8' - move.fromRow)) : null;
+        move.notation = toSan(packed);
+        return move;
+    }
+
+    /**
+     * Rebuild the SAN text of a packed move, as the parser would have seen it
+     */
+    public static String toSan(int packed) {
+        StringBuilder san = new StringBuilder(8);
+        if ((packed & 1 << 21) != 0) {
+            boolean zeros = (packed & 1 << 28) != 0;
+            boolean queenside = (packed & 7) == 2;
+            san.append(zeros ? "0-0" : "O-O");
+            if (queenside) san.append(zeros ? "-0" : "-O");
+        } else {
+            PieceType piece = PieceType.fromCode((packed >>> 14) & 7);
+            if (piece != PieceType.PAWN) san.append(piece.getLetter());
+            if ((packed & 1 << 26) != 0) san.append((char) ('a' + ((packed >>> 6) & 15)));
+            if ((packed & 1 << 27) != 0) san.append((char) ('8' - ((packed >>> 10) & 15)));
+            if ((packed & 1 << 18) != 0) san.append('x');
+            san.append((char) ('a' + (packed & 7))).append((char) ('8' - ((packed >>> 3) & 7)));
+            if ((packed & 1 << 22) != 0) san.append('=').append(PieceType.fromCode((packed >>> 23) & 7).getLetter());
+        }
+        if ((packed & 1 << 19) != 0) san.append('+');
+        if ((packed & 1 << 20) != 0) san.append('#');
+        return san.toString();
+    }
+}
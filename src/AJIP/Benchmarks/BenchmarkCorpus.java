@@ -0,0 +1,70 @@
+package AJIP.Benchmarks;
+
+import AJIP.Generator.PgnCorpusGenerator;
+import AJIP.Model.ChessGame;
+import AJIP.Model.ChessMove;
+import AJIP.Parser.ChessMovesParser;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark input: two legal master games for the single-game benchmarks, and synthetic PGN corpora of
+ * any size for the pipeline ones. Corpora come from {@link PgnCorpusGenerator} under a seed the benchmark
+ * fixes, with full headers and some comments and variations, so every run of a benchmark reads the same
+ * bytes and results can be compared between runs and machines.
+ */
+public final class BenchmarkCorpus {
+
+    // Morphy - Duke Karl / Count Isouard, Paris 1858
+    static final String OPERA_GAME = "e4 e5 Nf3 d6 d4 Bg4 dxe5 Bxf3 Qxf3 dxe5 Bc4 Nf6 Qb3 Qe7 Nc3 c6 Bg5 b5 " +
+            "Nxb5 cxb5 Bxb5+ Nbd7 O-O-O Rd8 Rxd7 Rxd7 Rd1 Qe6 Bxd7+ Nxd7 Qb8+ Nxb8 Rd8#";
+
+    // Byrne - Fischer, New York 1956
+    static final String GAME_OF_THE_CENTURY = "Nf3 Nf6 c4 g6 Nc3 Bg7 d4 O-O Bf4 d5 Qb3 dxc4 Qxc4 c6 e4 Nbd7 " +
+            "Rd1 Nb6 Qc5 Bg4 Bg5 Na4 Qa3 Nxc3 bxc3 Nxe4 Bxe7 Qb6 Bc4 Nxc3 Bc5 Rfe8+ Kf1 Be6 Bxb6 Bxc4+ " +
+            "Kg1 Ne2+ Kf1 Nxd4+ Kg1 Ne2+ Kf1 Nc3+ Kg1 axb6 Qb4 Ra4 Qxb6 Nxd1 h3 Rxa2 Kh2 Nxf2 Re1 Rxe1 " +
+            "Qd8+ Bf8 Nxe1 Bd5 Nf3 Ne4 Qb8 b5 h4 h5 Ne5 Kg7 Kg1 Bc5+ Kf1 Ng3+ Ke1 Bb4+ Kd1 Bb3+ Kc1 Ne2+ " +
+            "Kb1 Nc3+ Kc1 Rc2#";
+
+    private static final String[][] GAMES = {
+            {OPERA_GAME, "Paul Morphy", "Duke Karl / Count Isouard", "1-0"},
+            {GAME_OF_THE_CENTURY, "Donald Byrne", "Robert James Fischer", "0-1"},
+    };
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * SAN tokens of each corpus game
+     */
+    public static List<String[]> sanTokens() {
+        return Arrays.stream(GAMES).map(game -> game[0].split(" ")).toList();
+    }
+
+    public static int size() {
+        return GAMES.length;
+    }
+
+    /**
+     * One corpus game, parsed and ready for evaluation
+     */
+    public static ChessGame parsedGame(int index) {
+        String[] game = GAMES[index % GAMES.length];
+        List<ChessMove> moves = ChessMovesParser.parse(Arrays.asList(game[0].split(" ")));
+        return new ChessGame(moves, game[0], Map.of("White", game[1], "Black", game[2], "Result", game[3]));
+    }
+
+    /**
+     * Generator for a corpus, with every optional header and the given comment and variation density.
+     * Games are legal and never corrupted, so every one of them should pass validation.
+     */
+    public static PgnCorpusGenerator generator(long seed, double commentRate, double variationRate) {
+        PgnCorpusGenerator generator = new PgnCorpusGenerator(seed);
+        generator.setHeaderRichness(1);
+        generator.setCommentRate(commentRate);
+        generator.setVariationRate(variationRate);
+        return generator;
+    }
+}
@@ -0,0 +1,29 @@
+package AJIP.Benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the AJIP benchmarks and writes the results as JSON, for tracking regressions between builds.
+ * <p>
+ * Usage: {@code java AJIP.Benchmarks.BenchmarkRunner [include-regex] [results.json]}, e.g.
+ * {@code BenchmarkRunner Evaluate evaluate.json}. Without arguments every benchmark runs and the
+ * results go to {@code jmh-results.json}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*";
+        String resultFile = args.length > 1 ? args[1] : "jmh-results.json";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,47 @@
+package AJIP.Benchmarks;
+
+import AJIP.Controller.GameMasterController;
+import AJIP.Model.ChessGame;
+import AJIP.Records.GameVerdict;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-game validation with {@link GameMasterController#Evaluate}, including the board reset after each game
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluateBenchmark {
+
+    @Param({"0", "1"})
+    public int game;
+
+    private QuietLogging quietLogging;
+    private GameMasterController controller;
+    private ChessGame chessGame;
+
+    @Setup
+    public void setUp() {
+        quietLogging = QuietLogging.start();
+        controller = new GameMasterController(true);
+        chessGame = BenchmarkCorpus.parsedGame(game);
+        if (!controller.Evaluate(chessGame).passed()) {
+            throw new IllegalStateException("Benchmark game " + game + " does not pass validation");
+        }
+    }
+
+    @Benchmark
+    public GameVerdict evaluate() {
+        return controller.Evaluate(chessGame);
+    }
+
+    @TearDown
+    public void tearDown() {
+        quietLogging.restore();
+    }
+}
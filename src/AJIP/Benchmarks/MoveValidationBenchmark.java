@@ -0,0 +1,66 @@
+package AJIP.Benchmarks;
+
+import AJIP.Engine.BoardAnalyzer;
+import AJIP.Engine.MoveValidator;
+import AJIP.Engine.SafetyChecker;
+import AJIP.Model.ChessBoard;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
+import AJIP.Records.ValidationResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-move validation and king safety on a fixed middlegame position
+ * (Byrne - Fischer after 11.Bg5, black to move)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveValidationBenchmark {
+
+    static final String POSITION = "r2q1rk1/pp2ppbp/1np2np1/2Q3B1/3PP1b1/2N2N2/PP3PPP/3RKB1R b K - 6 11";
+
+    private QuietLogging quietLogging;
+    private MoveValidator moveValidator;
+    private SafetyChecker safetyChecker;
+
+    @Setup
+    public void setUp() {
+        quietLogging = QuietLogging.start();
+        ChessBoard board = new ChessBoard();
+        board.LoadFen(POSITION);
+        moveValidator = new MoveValidator(board);
+        safetyChecker = new SafetyChecker(board, moveValidator, new BoardAnalyzer(board));
+        moveValidator.setSafetyChecker(safetyChecker);
+    }
+
+    @Benchmark
+    public ValidationResult knightMove() {
+        return moveValidator.CanMove(Color.BLACK, PieceType.KNIGHT, 2, 1, 4, 0); // 11...Na4
+    }
+
+    @Benchmark
+    public ValidationResult bishopCapture() {
+        return moveValidator.CanCapture(Color.BLACK, PieceType.BISHOP, 4, 6, 5, 5, false); // ...Bxf3
+    }
+
+    @Benchmark
+    public boolean kingSquareSafe() {
+        return safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4);
+    }
+
+    @Benchmark
+    public boolean kingSquareAttacked() {
+        return safetyChecker.IsSquareSafeForKing(Color.BLACK, 1, 4); // e7, hit by the c5 queen (the f6 knight blocks the g5 bishop)
+    }
+
+    @TearDown
+    public void tearDown() {
+        quietLogging.restore();
+    }
+}
@@ -0,0 +1,101 @@
+package AJIP.Benchmarks;
+
+import AJIP.Cli;
+import AJIP.Generator.PgnCorpusGenerator;
+import AJIP.Processor.ParallelProcessor;
+import AJIP.Records.RunReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end throughput of {@link ParallelProcessor#processFiles}: parse, queue and validate a synthetic
+ * corpus written to a temporary directory. Each invocation is one full run; divide the score by the
+ * number of games printed at setup for the time per game.
+ * <p>
+ * File {@code i} is generated from {@code seed + i}, so the same parameters always give the same corpus.
+ * Size it by games per file, or by bytes with e.g. {@code -p fileSize=256m}, which overrides the game count:
+ * <pre>
+ *  java -jar benchmarks.jar PipelineBenchmark -p files=8 -p fileSize=256m -p commentRate=0.2
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"4"})
+    public int files;
+
+    @Param({"5000"})
+    public int gamesPerFile;
+
+    // Target size of each file such as 64m; "0" writes gamesPerFile games instead
+    @Param({"0"})
+    public String fileSize;
+
+    @Param({"20240601"})
+    public long seed;
+
+    @Param({"0.05"})
+    public double commentRate;
+
+    @Param({"0.02"})
+    public double variationRate;
+
+    private QuietLogging quietLogging;
+    private Path directory;
+    private List<String> pgnFiles;
+    private long games;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        quietLogging = QuietLogging.start();
+        directory = Files.createTempDirectory("ajip-bench");
+        pgnFiles = new ArrayList<>();
+        games = 0;
+        long bytes = 0;
+        for (int i = 0; i < files; i++) {
+            Path file = directory.resolve("corpus-" + i + ".pgn");
+            PgnCorpusGenerator generator = BenchmarkCorpus.generator(seed + i, commentRate, variationRate);
+            if (fileSize.equals("0")) {
+                generator.writeGames(file, gamesPerFile);
+                games += gamesPerFile;
+            } else {
+                games += generator.writeBytes(file, Cli.parseSize("fileSize", fileSize));
+            }
+            bytes += Files.size(file);
+            pgnFiles.add(file.toString());
+        }
+        System.out.printf("%nCorpus: %d files, %d games, %d MB%n", files, games, bytes >> 20);
+    }
+
+    @Benchmark
+    public RunReport processFiles() {
+        RunReport report = new ParallelProcessor().processFiles(pgnFiles);
+        if (report.gamesPassed() != games) {
+            throw new IllegalStateException("Expected every corpus game to pass: " + report.getLoggerMessage());
+        }
+        return report;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        quietLogging.restore();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package AJIP.Benchmarks;
+
+import AJIP.Logger.GameLogger;
+import AJIP.Logger.PGNLogger;
+
+import java.util.logging.Level;
+
+/**
+ * Turns the application loggers off for a benchmark trial and back on afterwards. Validation logs every
+ * game to Games.log and the console, so a benchmark that left them on would mostly time the log writes.
+ */
+final class QuietLogging {
+
+    private final Level gameLevel;
+    private final Level pgnLevel;
+
+    private QuietLogging(Level gameLevel, Level pgnLevel) {
+        this.gameLevel = gameLevel;
+        this.pgnLevel = pgnLevel;
+    }
+
+    /**
+     * Turn both loggers off, remembering their levels for {@link #restore()}
+     */
+    static QuietLogging start() {
+        QuietLogging quiet = new QuietLogging(GameLogger.getLevel(), PGNLogger.getLevel());
+        GameLogger.setLevel(Level.OFF);
+        PGNLogger.setLevel(Level.OFF);
+        return quiet;
+    }
+
+    /**
+     * Put both loggers back to the levels they had before {@link #start()}
+     */
+    void restore() {
+        GameLogger.setLevel(gameLevel);
+        PGNLogger.setLevel(pgnLevel);
+    }
+}
@@ -0,0 +1,65 @@
+package AJIP.Benchmarks;
+
+import AJIP.Model.ChessMove;
+import AJIP.Parser.ChessMovesParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SAN parsing: one token at a time, and every move of the corpus in one go
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SanParsingBenchmark {
+
+    private QuietLogging quietLogging;
+    private String[] tokens;
+    private boolean[] whiteToMove;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        quietLogging = QuietLogging.start();
+        List<String> allTokens = new ArrayList<>();
+        List<Boolean> colors = new ArrayList<>();
+        for (String[] game : BenchmarkCorpus.sanTokens()) {
+            for (int ply = 0; ply < game.length; ply++) {
+                allTokens.add(game[ply]);
+                colors.add(ply % 2 == 0);
+            }
+        }
+        tokens = allTokens.toArray(new String[0]);
+        whiteToMove = new boolean[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            whiteToMove[i] = colors.get(i);
+        }
+    }
+
+    @Benchmark
+    public ChessMove parseMove() {
+        int index = next;
+        next = index + 1 == tokens.length ? 0 : index + 1;
+        return ChessMovesParser.parseMove(tokens[index], whiteToMove[index]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void parseCorpus(Blackhole blackhole) {
+        for (int i = 0; i < tokens.length; i++) {
+            blackhole.consume(ChessMovesParser.parseMove(tokens[i], whiteToMove[i]));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        quietLogging.restore();
+    }
+}
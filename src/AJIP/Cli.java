@@ -0,0 +1,214 @@
+package AJIP;
+
+import AJIP.Processor.DuplicateFilter;
+import AJIP.Processor.ParallelProcessor;
+import AJIP.Records.ImportOptions;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * Command line of the importer: reads the arguments into {@link ImportOptions}, expands the inputs into
+ * PGN files and parses the sizes the tools take on the command line
+ */
+public final class Cli {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    public static final int DEFAULT_OPENING_PLIES = 20;
+    public static final int DEFAULT_METRICS_INTERVAL = 10;
+
+    public static final String USAGE = """
+            Usage: java -jar ajip-importer.jar [options] <file | directory | glob>...
+                   java -jar ajip-importer.jar [options] --watch <directory>
+
+              --parsers N           Parser threads (default 4)
+              --evaluators N        Evaluator threads (default 4)
+              --queue-capacity N    Parsed games waiting for an evaluator (default 10000)
+              --log-level LEVEL     off, error, warn, info or debug (default info)
+              --verdicts FILE       Append a CSV verdict per game
+              --checkpoint-dir DIR  Resume interrupted imports and skip unchanged files
+              --opening-tree FILE   Write an opening tree of the games that pass
+              --opening-plies N     Plies per game in the opening tree (default 20)
+              --dedup SIZE          Skip duplicate games using a filter of this size, e.g. 64m
+              --watch DIR           Keep validating games appended to the PGN files of DIR
+              --metrics TARGET      Collect per-stage metrics: write them to a file (.json for JSON),
+                                    the log ("log") or publish them over JMX ("jmx")
+              --metrics-interval N  Seconds between metrics snapshots (default 10)
+
+            Exit status: 0 if every game passed, 1 if any game failed, 2 on bad usage, 3 if the run could not complete.
+            """;
+
+    private Cli() {
+    }
+
+    /**
+     * Read the command line
+     *
+     * @throws IllegalArgumentException if an option is unknown, lacks its value or has a bad value
+     */
+    public static ImportOptions parse(String[] args) {
+        List<String> inputs = new ArrayList<>();
+        int parserThreads = ParallelProcessor.DEFAULT_PARSER_THREADS;
+        int evaluatorThreads = ParallelProcessor.DEFAULT_EVALUATOR_THREADS;
+        int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        Level logLevel = Level.INFO;
+        Path verdicts = null;
+        Path checkpointDir = null;
+        Path watchDirectory = null;
+        Path openingTree = null;
+        int openingPlies = DEFAULT_OPENING_PLIES;
+        long dedupMemory = 0;
+        String metrics = null;
+        int metricsInterval = DEFAULT_METRICS_INTERVAL;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                inputs.add(arg);
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--parsers" -> parserThreads = positive(arg, value);
+                case "--evaluators" -> evaluatorThreads = positive(arg, value);
+                case "--queue-capacity" -> queueCapacity = positive(arg, value);
+                case "--log-level" -> logLevel = parseLevel(value);
+                case "--verdicts" -> verdicts = Path.of(value);
+                case "--checkpoint-dir" -> checkpointDir = Path.of(value);
+                case "--watch" -> watchDirectory = Path.of(value);
+                case "--opening-tree" -> openingTree = Path.of(value);
+                case "--opening-plies" -> openingPlies = positive(arg, value);
+                case "--dedup" -> dedupMemory = parseSize(arg, value);
+                case "--metrics" -> metrics = value;
+                case "--metrics-interval" -> metricsInterval = positive(arg, value);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (watchDirectory == null && inputs.isEmpty()) {
+            throw new IllegalArgumentException("No PGN files given");
+        }
+        if (watchDirectory != null && !inputs.isEmpty()) {
+            throw new IllegalArgumentException("--watch takes no other inputs");
+        }
+        return new ImportOptions(List.copyOf(inputs), parserThreads, evaluatorThreads, queueCapacity, logLevel,
+                verdicts, checkpointDir, watchDirectory, openingTree, openingPlies, dedupMemory, metrics, metricsInterval);
+    }
+
+    /**
+     * The PGN files the inputs stand for, sorted and without repeats: files as given, every *.pgn below
+     * a directory, and every file matching a glob (resolved against the working directory)
+     *
+     * @throws IllegalArgumentException if an input is neither an existing file or directory nor a glob
+     */
+    public static List<String> resolveInputs(List<String> inputs) throws IOException {
+        TreeSet<String> files = new TreeSet<>();
+        for (String input : inputs) {
+            Path path = Path.of(input);
+            if (Files.isRegularFile(path)) {
+                files.add(input);
+            } else if (Files.isDirectory(path)) {
+                addMatches(files, path, FileSystems.getDefault().getPathMatcher("glob:**.pgn"));
+            } else if (isGlob(input)) {
+                Path base = globBase(input);
+                if (Files.isDirectory(base)) {
+                    addMatches(files, base, FileSystems.getDefault().getPathMatcher("glob:" + input));
+                }
+            } else {
+                throw new IllegalArgumentException("No such file or directory: " + input);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * The duplicate filter asked for, sized for its memory at 1% false positives; null if deduplication is off
+     */
+    public static DuplicateFilter createDuplicateFilter(ImportOptions options) {
+        long dedupMemory = options.dedupMemory();
+        if (dedupMemory == 0) {
+            return null;
+        }
+        // About 9.6 bits per game give 1% false positives with the optimal hash count
+        return new DuplicateFilter(dedupMemory, Math.max(1, dedupMemory * 8 / 10));
+    }
+
+    private static void addMatches(TreeSet<String> files, Path base, PathMatcher matcher) throws IOException {
+        try (Stream<Path> paths = Files.walk(base)) {
+            paths.filter(Files::isRegularFile)
+                    .filter(matcher::matches)
+                    .forEach(path -> files.add(path.toString()));
+        }
+    }
+
+    private static boolean isGlob(String input) {
+        return input.chars().anyMatch(c -> c == '*' || c == '?' || c == '[' || c == '{');
+    }
+
+    // Longest leading run of path elements without glob characters, "." if the pattern starts with one
+    private static Path globBase(String pattern) {
+        Path base = null;
+        for (String element : pattern.split("[/\\\\]")) {
+            if (isGlob(element)) {
+                break;
+            }
+            base = base == null ? Path.of(element.isEmpty() ? "/" : element) : base.resolve(element);
+        }
+        return base != null ? base : Path.of(".");
+    }
+
+    private static int positive(String option, String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(option + " needs a positive number, got: " + value);
+    }
+
+    private static Level parseLevel(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "off" -> Level.OFF;
+            case "error" -> Level.SEVERE;
+            case "warn", "warning" -> Level.WARNING;
+            case "info" -> Level.INFO;
+            case "debug" -> Level.FINE;
+            case "all", "trace" -> Level.ALL;
+            default -> throw new IllegalArgumentException("Unknown log level: " + value);
+        };
+    }
+
+    /**
+     * Parse a byte size such as "4096", "64k", "64m" or "1g"; shared by the tools that take sizes on the command line
+     *
+     * @param option Option the value was given for, named in the error
+     * @throws IllegalArgumentException if the value is not a size of at least 8 bytes
+     */
+    public static long parseSize(String option, String value) {
+        String size = value.trim().toLowerCase(Locale.ROOT);
+        int shift = size.endsWith("k") ? 10 : size.endsWith("m") ? 20 : size.endsWith("g") ? 30 : 0;
+        try {
+            long bytes = Long.parseLong(shift == 0 ? size : size.substring(0, size.length() - 1)) << shift;
+            if (bytes >= 8) {
+                return bytes;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(option + " needs a size of at least 8 bytes such as 64m, got: " + value);
+    }
+}
@@ -2,8 +2,14 @@ package AJIP.Controller;
 
 import AJIP.Model.ChessBoard;
 import AJIP.Engine.*;
+import AJIP.Metrics.PipelineMetrics;
 import AJIP.Model.ChessGame;
 import AJIP.Model.ChessMove;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
+import AJIP.Openings.OpeningAccumulator;
+import AJIP.Openings.OpeningTree;
+import AJIP.Records.GameVerdict;
 import AJIP.Records.Position;
 import AJIP.Records.ValidationResult;
 import AJIP.Logger.*;
@@ -14,7 +20,17 @@ import java.util.List;
 public class GameMasterController {
     ChessBoard chessBoard;
     final boolean forMultipleGames;
-    StringBuilder errorReport;
+    // Per-controller scratch state, reused for every move of every game
+    final StringBuilder errorReport = new StringBuilder();
+    private final int[] candidateSquares = new int[64];
+    private final StringBuilder lastGoodFen = new StringBuilder(90); // Position before a move whose claims are verified after it
+    private GameVerdict.Reason failureReason;                          // Why the last MakeMove failed
+    private int lastFromSquare;                                        // Where the last executed move started
+
+    // Opening statistics of passed games, when enabled: position key and move of each opening ply
+    private OpeningAccumulator openingAccumulator;
+    private long[] openingKeys;
+    private int[] openingMoves;
 
     // Extracted components
     private final MoveValidator moveValidator;
@@ -22,6 +38,7 @@ public class GameMasterController {
     private final SpecialMoveHandler specialMoveHandler;
     private final BoardAnalyzer boardAnalyzer;
     private final MoveExecutor moveExecutor;
+    private final LegalMoveGenerator legalMoveGenerator;
 
     public GameMasterController(boolean forMultipleGames) {
         this.chessBoard = new ChessBoard();
@@ -32,50 +49,108 @@ public class GameMasterController {
         this.safetyChecker = new SafetyChecker(chessBoard, moveValidator, boardAnalyzer);
         this.specialMoveHandler = new SpecialMoveHandler(chessBoard, moveValidator, safetyChecker, boardAnalyzer);
         this.moveExecutor = new MoveExecutor(chessBoard);
+        this.legalMoveGenerator = new LegalMoveGenerator(chessBoard, safetyChecker, specialMoveHandler);
         moveValidator.setSafetyChecker(safetyChecker);
     }
 
-    public void Evaluate(ChessGame chessGame) {
-        boolean isGameCorrupt = false;
+    /**
+     * Count the first maxPlies plies of every game that passes into an accumulator owned by the calling thread
+     */
+    public void setOpeningAccumulator(OpeningAccumulator openingAccumulator, int maxPlies) {
+        this.openingAccumulator = openingAccumulator;
+        this.openingKeys = new long[maxPlies];
+        this.openingMoves = new int[maxPlies];
+    }
+
+    public GameVerdict Evaluate(ChessGame chessGame) {
         List<ChessMove> chessMoveList = chessGame.getMoves();
         String movesText = chessGame.getOriginalText();
+        String gameId = chessGame.getGameId();
+        GameVerdict verdict = null;
 
         GameLogger.info("Started evolution of game: " + movesText);
 
-        for (ChessMove move : chessMoveList) {
-            if (!MakeMove(move, movesText)) {
-                isGameCorrupt = true;
-                break;
+        try {
+            // Games with a FEN tag start from that position; the finally block puts the start position back
+            String startingFen = chessGame.getStartingFen();
+            if (startingFen != null) {
+                try {
+                    chessBoard.LoadFen(startingFen);
+                } catch (IllegalArgumentException e) {
+                    GameLogger.error("Cannot set up game " + gameId + ": " + e.getMessage());
+                    return GameVerdict.fail(gameId, 0, "", GameVerdict.Reason.INVALID_FEN, "");
+                }
             }
-        }
 
-        if (!isGameCorrupt) {
-            GameLogger.info("Evaluation was successful " + movesText);
-        }
-//        chessBoard.logBoard();
+            int ply = 0;
+            for (ChessMove move : chessMoveList) {
+                ply++;
+                boolean isOpeningPly = openingAccumulator != null && ply <= openingKeys.length;
+                if (isOpeningPly) {
+                    openingKeys[ply - 1] = chessBoard.ZobristKey();
+                }
+                long start = PipelineMetrics.start();
+                boolean made = MakeMove(move, movesText);
+                PipelineMetrics.MOVE_MAKE.recordSince(start);
+                if (!made) {
+                    String fen = failureReason == GameVerdict.Reason.FALSE_CHECK || failureReason == GameVerdict.Reason.FALSE_CHECKMATE
+                            ? lastGoodFen.toString()                             // The move was already played
+                            : chessBoard.ToFen();                                // The board is untouched
+                    verdict = GameVerdict.fail(gameId, ply, move.notation, failureReason, fen);
+                    break;
+                }
+                if (isOpeningPly) {
+                    openingMoves[ply - 1] = OpeningTree.moveCode(lastFromSquare / 8, lastFromSquare % 8, move.toRow, move.toCol,
+                            move.isPromotion ? (move.promotionPiece != null ? move.promotionPiece : PieceType.QUEEN) : null);
+                }
+            }
 
-        if (forMultipleGames) {
-            chessBoard.ResetBoard();
+            if (verdict == null && !VerifyGameEnd(chessGame)) {
+                verdict = GameVerdict.fail(gameId, 0, "", GameVerdict.Reason.RESULT_MISMATCH, chessBoard.ToFen());
+            }
+
+            if (verdict == null) {
+                GameLogger.info("Evaluation was successful " + movesText);
+                verdict = GameVerdict.pass(gameId);
+                if (openingAccumulator != null) {
+                    openingAccumulator.addGame(openingKeys, openingMoves, Math.min(ply, openingKeys.length),
+                            chessGame.getHeaders().get("Result"));
+                }
+            }
+//        chessBoard.logBoard();
+        } finally {
+            // Also after an unexpected exception, so the next game doesn't start from a broken position
+            if (forMultipleGames) {
+                chessBoard.ResetBoard();
+            }
         }
+        return verdict;
     }
 
     private boolean MakeMove(ChessMove move, String movesText) {
-        boolean moveExecuted = false;
-        errorReport = new StringBuilder();
-        var candidatePositions = boardAnalyzer.GetCandidatePositions(move.color, move.pieceType);
+        errorReport.setLength(0);
+        long start = PipelineMetrics.start();
+        int candidateCount = boardAnalyzer.CollectCandidates(move.color, move.pieceType, candidateSquares);
+        PipelineMetrics.MOVE_CANDIDATES.recordSince(start);
 
-        if (candidatePositions.isEmpty()) {
-            errorReport = new StringBuilder("No " + move.color + " candidate found on the board for: " + move.notation +
-//                    "\n" + "Terminating evaluation visualizing last position. MovesText: " + movesText);
-            "\n" + "Terminating evaluation. MovesText: " + movesText);
+        if (candidateCount == 0) {
+            errorReport.append("No ").append(move.color).append(" candidate found on the board for: ").append(move.notation)
+//                    .append("\n").append("Terminating evaluation visualizing last position. MovesText: ").append(movesText);
+                    .append("\n").append("Terminating evaluation. MovesText: ").append(movesText);
 
             GameLogger.error(errorReport.toString());
+            failureReason = GameVerdict.Reason.NO_CANDIDATE;
             return false;
         }
 
-        for (Position candidateLocation : candidatePositions) {
-            int fromRow = candidateLocation.row();
-            int fromCol = candidateLocation.col();
+        // Every candidate is tried without touching the board; SAN must leave exactly one legal mover
+        int legalCount = 0;
+        int chosenRow = -1;
+        int chosenCol = -1;
+        boolean leftKingInCheck = false;
+        for (int i = 0; i < candidateCount; i++) {
+            int fromRow = candidateSquares[i] / 8;
+            int fromCol = candidateSquares[i] % 8;
 
             // Apply disambiguation filters
             if (move.disambiguationFile != null && move.fromCol != fromCol) {
@@ -85,92 +160,135 @@ public class GameMasterController {
                 continue;
             }
 
-            // Validate the complete move considering all its aspects
-            ValidationResult result = validateCompleteMove(move, fromRow, fromCol);
-
+            start = PipelineMetrics.start();
+            ValidationResult result = validateCandidate(move, fromRow, fromCol);
+            PipelineMetrics.MOVE_VALIDATE.recordSince(start);
             if (!result.isValid()) {
                 errorReport.append(result.getLoggerMessage()).append("; \n ");
                 continue; // Try next candidate
             }
 
-            // Check king safety before executing move
-            if (!safetyChecker.IsKingSafe(move)) {
+            // Check king safety on a trial of the move (castling already checked its own path)
+            if (!move.isCastling && !safetyChecker.IsMoveSafeForKing(move.color, fromRow, fromCol,
+                    move.toRow, move.toCol, isEnPassant(move, fromRow, fromCol))) {
                 errorReport.append("Move would leave king in check; ");
-                break; // Try next candidate
+                leftKingInCheck = true;
+                continue; // Try next candidate
             }
 
-            // Execute the move based on its type
-            moveExecuted = true;
-            var log = result.getLoggerMessage();
-            break; // Move successfully executed, exit loop
+            if (legalCount++ == 0) {
+                chosenRow = fromRow;
+                chosenCol = fromCol;
+            }
         }
 
-        if (!moveExecuted) {
-            GameLogger.error("Failed to execute move: " + move.notation + ". Errors: \n " +
-                   errorReport.toString() +//  "Terminating evaluation visualizing last position. MovesText: " + movesText);
-                    "\n" + "Terminating evaluation. MovesText: " + movesText);
+        if (legalCount > 1) {
+            errorReport.append("Ambiguous move: ").append(legalCount).append(" ").append(move.color)
+                    .append(" pieces can play it; ");
+            failureReason = GameVerdict.Reason.AMBIGUOUS_MOVE;
+        } else if (legalCount == 0) {
+            failureReason = leftKingInCheck ? GameVerdict.Reason.KING_IN_CHECK : GameVerdict.Reason.ILLEGAL_MOVE;
+        } else {
+            if (move.isCheck || move.isCheckmate) {
+                lastGoodFen.setLength(0);
+                chessBoard.AppendFen(lastGoodFen);
+            }
+            executeMove(move, chosenRow, chosenCol);
+            lastFromSquare = chosenRow * 8 + chosenCol;
 
+            // Check and mate claims are verified on the final board state
+            ValidationResult claim = verifyCheckClaims(move, chosenRow, chosenCol);
+            if (claim.isValid()) {
+                return true;
+            }
+            errorReport.append(claim.getLoggerMessage()).append("; ");
         }
 
-        return moveExecuted;
+        GameLogger.error("Failed to execute move: " + move.notation + ". Errors: \n " +
+               errorReport.toString() +//  "Terminating evaluation visualizing last position. MovesText: " + movesText);
+                "\n" + "Terminating evaluation. MovesText: " + movesText);
+        return false;
+    }
+
+    private boolean isEnPassant(ChessMove move, int fromRow, int fromCol) {
+        return move.pieceType == PieceType.PAWN && move.isCapture && fromCol != move.toCol &&
+                chessBoard.board[move.toRow][move.toCol] == null &&
+                chessBoard.enPassantSquare == move.toRow * 8 + move.toCol;
     }
 
-    private ValidationResult validateCompleteMove(ChessMove move, int fromRow, int fromCol) {
+    /**
+     * Whether the piece on the candidate square can play the move, judged on the current board
+     */
+    private ValidationResult validateCandidate(ChessMove move, int fromRow, int fromCol) {
         // Handle castling first as it's a special case
         if (move.isCastling) {
-            ValidationResult castlingResult = specialMoveHandler.CanCastle(move);
-            if (!castlingResult.isValid()) {
-                return castlingResult;
-            }
-            moveExecutor.ExecuteCastling(move);
-
-            // Continue to check for other flags like isCheck
-            if (move.isCheck) {
-                return specialMoveHandler.CanCheck(move.color, move.pieceType,
-                        move.fromRow, move.fromCol, move.toRow, move.toCol);
-            }
-            return castlingResult;
+            return specialMoveHandler.CanCastle(move);
         }
 
-        // Handle promotion (executes immediately to change board state)
         if (move.isPromotion) {
-            ValidationResult promotionResult = specialMoveHandler.CanPromote(
+            return specialMoveHandler.CanPromote(
                     move.color, move.pieceType, fromRow, fromCol, move.toRow, move.toCol);
-            if (!promotionResult.isValid()) {
-                return promotionResult;
-            }
-            moveExecutor.ExecutePromotion(move, fromRow, fromCol);
-
-            // If promotion claims check, validate on the new board state
-            if (move.isCheck) {
-                return specialMoveHandler.CanCheck(move.color, move.promotionPiece, // Assuming Queen promotion
-                        fromRow, fromCol, move.toRow, move.toCol);
-            }
-            return promotionResult;
         }
 
-        // Handle regular moves/captures
-        ValidationResult baseResult;
         if (move.isCapture) {
-            baseResult = moveValidator.CanCapture(move.color, move.pieceType,
-                    fromRow, fromCol, move.toRow, move.toCol, false);
-        } else {
-            baseResult = moveValidator.CanMove(move.color, move.pieceType,
-                    fromRow, fromCol, move.toRow, move.toCol);
+            return moveValidator.CanCapture(move.color, move.pieceType,
+                    fromRow, fromCol, move.toRow, move.toCol, isEnPassant(move, fromRow, fromCol));
         }
+        return moveValidator.CanMove(move.color, move.pieceType,
+                fromRow, fromCol, move.toRow, move.toCol);
+    }
 
-        if (!baseResult.isValid()) {
-            return baseResult;
+    private void executeMove(ChessMove move, int fromRow, int fromCol) {
+        if (move.isCastling) {
+            moveExecutor.ExecuteCastling(move);
+        } else if (move.isPromotion) {
+            moveExecutor.ExecutePromotion(move, fromRow, fromCol);
+        } else {
+            moveExecutor.ExecuteMoveOrCapture(move, fromRow, fromCol);
         }
+    }
 
-        moveExecutor.ExecuteMoveOrCapture(move, fromRow, fromCol);
+    /**
+     * A "+" must give check and a "#" must give checkmate. A check that isn't annotated is accepted.
+     */
+    private ValidationResult verifyCheckClaims(ChessMove move, int fromRow, int fromCol) {
+        PieceType movedType = move.isPromotion && move.promotionPiece != null ? move.promotionPiece : move.pieceType;
+        Position from = Position.of(fromRow, fromCol);
+        Position to = Position.of(move.toRow, move.toCol);
 
-        // Check validation happens on the final board state
-        if (move.isCheck) {
-            return specialMoveHandler.CanCheck(move.color, move.pieceType,
+        if (move.isCheck || move.isCheckmate) {
+            ValidationResult checkResult = specialMoveHandler.CanCheck(move.color, movedType,
                     fromRow, fromCol, move.toRow, move.toCol);
+            if (!checkResult.isValid()) {
+                failureReason = GameVerdict.Reason.FALSE_CHECK;
+                return checkResult;
+            }
+        }
+        if (move.isCheckmate && legalMoveGenerator.HasAnyLegalMove(move.color.opposite())) {
+            failureReason = GameVerdict.Reason.FALSE_CHECKMATE;
+            return ValidationResult.invalid(move.color, movedType, from, to, "Move is annotated as checkmate but the opponent can still move");
+        }
+        return ValidationResult.valid(move.color, movedType, from, to);
+    }
+
+    /**
+     * After the last move: a mate or stalemate on the board has to agree with the Result tag, if there is one
+     */
+    private boolean VerifyGameEnd(ChessGame chessGame) {
+        Color toMove = chessBoard.sideToMove;
+        if (legalMoveGenerator.HasAnyLegalMove(toMove)) {
+            return true;
+        }
+
+        String result = chessGame.getHeaders().get("Result");
+        boolean inCheck = safetyChecker.IsInCheck(toMove);
+        String expected = !inCheck ? "1/2-1/2" : toMove == Color.WHITE ? "0-1" : "1-0";
+        if (result == null || result.equals("*") || result.equals(expected)) {
+            return true;
         }
 
-        return baseResult;
+        GameLogger.error("Game ends in " + (inCheck ? "checkmate" : "stalemate") + " but the Result tag is " + result +
+                ". MovesText: " + chessGame.getOriginalText());
+        return false;
     }
-}
\ No newline at end of file
+}
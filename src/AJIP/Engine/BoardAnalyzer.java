@@ -2,10 +2,12 @@ package AJIP.Engine;
 
 import AJIP.Model.ChessBoard;
 import AJIP.Model.ChessPiece;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
 import AJIP.Records.Position;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.IntStream;
 
 public class BoardAnalyzer {
 
@@ -17,20 +19,56 @@ public class BoardAnalyzer {
 
 
 
-    public List<Position> GetCandidatePositions(String color, String type) {
-        return IntStream.range(0, 8).
-                boxed().
-                flatMap(
-                        row -> IntStream.range(0, 8).
-                                mapToObj(col -> new Position(row, col))).
-                filter(pos -> {
-                    ChessPiece candidate = chessBoard.board[pos.row()][pos.col()];
-                    return candidate != null &&
-                            candidate.getType().equals(type) &&
-                            candidate.getColor().equals(color);
+    public List<Position> GetCandidatePositions(Color color, PieceType type) {
+        int[] squares = new int[64];
+        int count = CollectCandidates(color, type, squares);
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            positions.add(Position.of(squares[i] / 8, squares[i] % 8));
+        }
+        return positions;
+    }
 
-                }).toList();
+    /**
+     * Allocation-free variant of {@link #GetCandidatePositions}: writes the squares (row * 8 + col)
+     * of the matching pieces into a caller-owned buffer of at least 64 entries
+     *
+     * @return Number of squares written
+     */
+    public int CollectCandidates(Color color, PieceType type, int[] squares) {
+        int count = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                ChessPiece candidate = chessBoard.board[row][col];
+                if (candidate != null &&
+                        candidate.getType() == type &&
+                        candidate.getColor() == color) {
+                    squares[count++] = row * 8 + col;
+                }
+            }
+        }
+        return count;
+    }
 
+    /**
+     * Square (row * 8 + col) of the only piece of this type and color, or -1 if there is none or more than one
+     */
+    public int FindSinglePiece(Color color, PieceType type) {
+        int found = -1;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                ChessPiece candidate = chessBoard.board[row][col];
+                if (candidate != null &&
+                        candidate.getType() == type &&
+                        candidate.getColor() == color) {
+                    if (found != -1) {
+                        return -1;
+                    }
+                    found = row * 8 + col;
+                }
+            }
+        }
+        return found;
     }
 
 
@@ -0,0 +1,242 @@
+package AJIP.Engine;
+
+import AJIP.Model.ChessBoard;
+import AJIP.Model.ChessMove;
+import AJIP.Model.ChessPiece;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
+
+/**
+ * Answers "does this side have any legal move?", which is all that checkmate and stalemate
+ * verification needs. Pseudo-legal moves are generated piece by piece and each one is tried
+ * with {@link SafetyChecker#IsMoveSafeForKing}; the search stops at the first legal move.
+ * The same walk can also collect every legal move, see {@link #CollectLegalMoves}.
+ */
+public class LegalMoveGenerator {
+    private final ChessBoard chessBoard;
+    private final SafetyChecker safetyChecker;
+    private final SpecialMoveHandler specialMoveHandler;
+
+    // Reused for the castling check, so the search doesn't allocate
+    private final ChessMove castlingMove = new ChessMove();
+
+    // Where the current walk puts legal moves: null to stop at the first one
+    private int[] sink;
+    private int count;
+
+    // Square of the side's king, found once per walk (-1 if it doesn't have exactly one)
+    private int kingSquare;
+
+    public LegalMoveGenerator(ChessBoard chessBoard, SafetyChecker safetyChecker, SpecialMoveHandler specialMoveHandler) {
+        this.chessBoard = chessBoard;
+        this.safetyChecker = safetyChecker;
+        this.specialMoveHandler = specialMoveHandler;
+        this.castlingMove.pieceType = PieceType.KING;
+        this.castlingMove.isCastling = true;
+    }
+
+    public boolean HasAnyLegalMove(Color color) {
+        sink = null;
+        count = 0;
+        return Walk(color);
+    }
+
+    /**
+     * Write every legal move of a side into a caller-owned buffer as {@link #MoveCode} values.
+     * A promotion counts once per promotion piece. 256 entries are always enough.
+     *
+     * @return the number of moves written
+     */
+    public int CollectLegalMoves(Color color, int[] moves) {
+        sink = moves;
+        count = 0;
+        Walk(color);
+        sink = null;
+        return count;
+    }
+
+    /**
+     * Code of a move: from square in bits 0-5, to square in bits 6-11 (row * 8 + col),
+     * promotion piece ordinal + 1 in bits 12-14 (0 for none)
+     */
+    public static int MoveCode(int fromRow, int fromCol, int toRow, int toCol, PieceType promotion) {
+        return (fromRow * 8 + fromCol) | (toRow * 8 + toCol) << 6 | (promotion != null ? promotion.ordinal() + 1 : 0) << 12;
+    }
+
+    public static int FromSquare(int code) {
+        return code & 63;
+    }
+
+    public static int ToSquare(int code) {
+        return code >>> 6 & 63;
+    }
+
+    /**
+     * Promotion piece of a move code, null if the move is not a promotion
+     */
+    public static PieceType Promotion(int code) {
+        int promotion = code >>> 12 & 7;
+        return promotion == 0 ? null : PieceType.fromCode(promotion - 1);
+    }
+
+    // Returns true as soon as the walk should stop (first legal move found and no sink)
+    private boolean Walk(Color color) {
+        ChessPiece[][] board = chessBoard.board;
+        kingSquare = -1;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board[square / 8][square % 8];
+            if (piece != null && piece.getType() == PieceType.KING && piece.getColor() == color) {
+                if (kingSquare != -1) {
+                    kingSquare = -1;
+                    break;
+                }
+                kingSquare = square;
+            }
+        }
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = board[row][col];
+                if (piece == null || piece.getColor() != color) {
+                    continue;
+                }
+                boolean stop = switch (piece.getType()) {
+                    case PAWN -> HasPawnMove(color, row, col);
+                    case KNIGHT -> HasStepMove(color, row, col, SafetyChecker.KNIGHT_JUMPS);
+                    case BISHOP -> HasSlidingMove(color, row, col, SafetyChecker.DIAGONAL_RAYS);
+                    case ROOK -> HasSlidingMove(color, row, col, SafetyChecker.ORTHOGONAL_RAYS);
+                    case QUEEN -> HasSlidingMove(color, row, col, SafetyChecker.DIAGONAL_RAYS)
+                            || HasSlidingMove(color, row, col, SafetyChecker.ORTHOGONAL_RAYS);
+                    case KING -> HasStepMove(color, row, col, SafetyChecker.KING_STEPS) || HasCastlingMove(color, row, col);
+                };
+                if (stop) {
+                    return true;
+                }
+            }
+        }
+        return count > 0;
+    }
+
+    // Record a legal move; true if the walk can stop here
+    private boolean Found(int fromRow, int fromCol, int toRow, int toCol) {
+        if (sink == null) {
+            count++;
+            return true;
+        }
+        if (toRow == 0 || toRow == 7) {
+            ChessPiece piece = chessBoard.board[fromRow][fromCol];
+            if (piece.getType() == PieceType.PAWN) {
+                sink[count++] = MoveCode(fromRow, fromCol, toRow, toCol, PieceType.QUEEN);
+                sink[count++] = MoveCode(fromRow, fromCol, toRow, toCol, PieceType.ROOK);
+                sink[count++] = MoveCode(fromRow, fromCol, toRow, toCol, PieceType.BISHOP);
+                sink[count++] = MoveCode(fromRow, fromCol, toRow, toCol, PieceType.KNIGHT);
+                return false;
+            }
+        }
+        sink[count++] = MoveCode(fromRow, fromCol, toRow, toCol, null);
+        return false;
+    }
+
+    /**
+     * In check with no legal move
+     */
+    public boolean IsCheckmate(Color color) {
+        return safetyChecker.IsInCheck(color) && !HasAnyLegalMove(color);
+    }
+
+    /**
+     * Not in check, but no legal move either
+     */
+    public boolean IsStalemate(Color color) {
+        return !safetyChecker.IsInCheck(color) && !HasAnyLegalMove(color);
+    }
+
+    private boolean HasPawnMove(Color color, int row, int col) {
+        ChessPiece[][] board = chessBoard.board;
+        int direction = color == Color.WHITE ? -1 : 1;
+        int startRow = color == Color.WHITE ? 6 : 1;
+        int nextRow = row + direction;
+        if (nextRow < 0 || nextRow > 7) {
+            return false;
+        }
+
+        if (board[nextRow][col] == null) {
+            if (safetyChecker.IsMoveSafeForKing(color, row, col, nextRow, col, false, kingSquare)
+                    && Found(row, col, nextRow, col)) return true;
+            int doubleRow = nextRow + direction;
+            if (row == startRow && board[doubleRow][col] == null &&
+                    safetyChecker.IsMoveSafeForKing(color, row, col, doubleRow, col, false, kingSquare)
+                    && Found(row, col, doubleRow, col)) return true;
+        }
+
+        for (int side = -1; side <= 1; side += 2) {
+            int targetCol = col + side;
+            if (targetCol < 0 || targetCol > 7) {
+                continue;
+            }
+            ChessPiece target = board[nextRow][targetCol];
+            if (target != null && target.getColor() != color &&
+                    safetyChecker.IsMoveSafeForKing(color, row, col, nextRow, targetCol, false, kingSquare)
+                    && Found(row, col, nextRow, targetCol)) return true;
+            if (target == null && chessBoard.enPassantSquare == nextRow * 8 + targetCol &&
+                    safetyChecker.IsMoveSafeForKing(color, row, col, nextRow, targetCol, true, kingSquare)
+                    && Found(row, col, nextRow, targetCol)) return true;
+        }
+        return false;
+    }
+
+    private boolean HasStepMove(Color color, int row, int col, int[][] steps) {
+        for (int[] step : steps) {
+            int r = row + step[0];
+            int c = col + step[1];
+            if (r >= 0 && r < 8 && c >= 0 && c < 8 && IsFreeOrEnemy(color, r, c) &&
+                    safetyChecker.IsMoveSafeForKing(color, row, col, r, c, false, kingSquare) && Found(row, col, r, c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean HasSlidingMove(Color color, int row, int col, int[][] rays) {
+        for (int[] ray : rays) {
+            int r = row + ray[0];
+            int c = col + ray[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                if (!IsFreeOrEnemy(color, r, c)) {
+                    break;
+                }
+                if (safetyChecker.IsMoveSafeForKing(color, row, col, r, c, false, kingSquare) && Found(row, col, r, c)) {
+                    return true;
+                }
+                if (chessBoard.board[r][c] != null) {
+                    break; // Captured the first enemy piece on the ray
+                }
+                r += ray[0];
+                c += ray[1];
+            }
+        }
+        return false;
+    }
+
+    private boolean HasCastlingMove(Color color, int row, int col) {
+        int homeRow = color == Color.WHITE ? 7 : 0;
+        if (row != homeRow || col != 4) {
+            return false;
+        }
+        castlingMove.color = color;
+        castlingMove.fromRow = homeRow;
+        castlingMove.fromCol = 4;
+        castlingMove.toRow = homeRow;
+        for (int toCol = 2; toCol <= 6; toCol += 4) {
+            castlingMove.toCol = toCol;
+            if (specialMoveHandler.CanCastle(castlingMove).isValid() && Found(homeRow, 4, homeRow, toCol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean IsFreeOrEnemy(Color color, int row, int col) {
+        ChessPiece target = chessBoard.board[row][col];
+        return target == null || target.getColor() != color;
+    }
+}
@@ -3,6 +3,8 @@ package AJIP.Engine;
 import AJIP.Model.ChessBoard;
 import AJIP.Model.ChessMove;
 import AJIP.Model.ChessPiece;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
 public class MoveExecutor {
     private final ChessBoard chessBoard;
 
@@ -19,10 +21,25 @@ public class MoveExecutor {
             // If first move, mark as moved
             if (!capturingPiece.IsMoved()) capturingPiece.SetMoved();
 
+            boolean isPawn = capturingPiece.getType() == PieceType.PAWN;
+            boolean isCapture = chessBoard.board[move.toRow][move.toCol] != null || (isPawn && fromCol != move.toCol);
+            chessBoard.halfMoveClock = isPawn || isCapture ? 0 : chessBoard.halfMoveClock + 1;
+
+            // En passant: the captured pawn is beside the capturing pawn, not on the destination square
+            if (isPawn && fromCol != move.toCol && chessBoard.board[move.toRow][move.toCol] == null) {
+                chessBoard.board[fromRow][move.toCol] = null;
+            }
+
             // The captured piece is implicitly removed by being overwritten
             chessBoard.board[move.toRow][move.toCol] = capturingPiece;
             chessBoard.board[fromRow][fromCol] = null;
 
+            // A double step opens en passant on the skipped square for exactly one reply
+            chessBoard.enPassantSquare = isPawn && Math.abs(move.toRow - fromRow) == 2
+                    ? ((fromRow + move.toRow) / 2) * 8 + fromCol
+                    : -1;
+            AdvanceTurn(move);
+
 //            // Record the move source
 //            move.fromRow = fromRow;
 //            move.fromCol = fromCol;
@@ -53,6 +70,9 @@ public class MoveExecutor {
         chessBoard.board[move.toRow][rookToCol] = rook;
         chessBoard.board[move.fromRow][rookFromCol] = null;
         rook.SetMoved();
+        chessBoard.enPassantSquare = -1;
+        chessBoard.halfMoveClock++;
+        AdvanceTurn(move);
     }
 
     public void ExecuteCheck(ChessMove move, int fromRow, int fromCol) {
@@ -66,13 +86,24 @@ public class MoveExecutor {
     public void ExecutePromotion(ChessMove move, int fromRow, int fromCol) {
         chessBoard.board[fromRow][fromCol] = null;
 
-        // Create the new promoted piece
-        String promotionType = move.promotionPiece != null ? move.promotionPiece : "Queen"; // Default to Queen
-        ChessPiece promotedPiece = new ChessPiece(promotionType, move.color);
+        // Promoted pieces are shared per type and color, so promotions don't allocate
+        PieceType promotionType = move.promotionPiece != null ? move.promotionPiece : PieceType.QUEEN; // Default to Queen
+        ChessPiece promotedPiece = ChessPiece.Promoted(promotionType, move.color);
         // Place the new piece on the board
         chessBoard.board[move.toRow][move.toCol] = promotedPiece;
+        chessBoard.enPassantSquare = -1;
+        chessBoard.halfMoveClock = 0;
+        AdvanceTurn(move);
 
 
     }
 
-}
\ No newline at end of file
+    // The opponent plays next; the move number goes up after each black move
+    private void AdvanceTurn(ChessMove move) {
+        if (move.color == Color.BLACK) {
+            chessBoard.fullMoveNumber++;
+        }
+        chessBoard.sideToMove = move.color == Color.BLACK ? Color.WHITE : Color.BLACK;
+    }
+
+}
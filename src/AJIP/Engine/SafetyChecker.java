@@ -1,8 +1,11 @@
 package AJIP.Engine;
 
+import AJIP.Metrics.PipelineMetrics;
 import AJIP.Model.ChessBoard;
 import AJIP.Model.ChessMove;
 import AJIP.Model.ChessPiece;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
 
 public class SafetyChecker {
     private ChessBoard chessBoard;
@@ -15,102 +18,141 @@ public class SafetyChecker {
         this.boardAnalyzer = boardAnalyzer;
     }
 
-    public boolean IsSquareSafeForKing(String color, int row, int col) {
-        String enemyColor = color.equals("white") ? "black" : "white";
+    // Attack tables: direction vectors from the target square outwards (shared with LegalMoveGenerator)
+    static final int[][] KNIGHT_JUMPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    static final int[][] ORTHOGONAL_RAYS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    static final int[][] DIAGONAL_RAYS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
 
-        // STEP 1: Check enemy king proximity (kings must stay at least 2 squares apart)
-        for (int r = Math.max(0, row - 1); r <= Math.min(7, row + 1); r++) {
-            for (int c = Math.max(0, col - 1); c <= Math.min(7, col + 1); c++) {
-                ChessPiece piece = chessBoard.board[r][c];
-                if (piece != null && piece.getType().equals("King") && piece.getColor().equals(enemyColor)) {
-                    return false;  // Enemy king is too close
-                }
-            }
+    public boolean IsSquareSafeForKing(Color color, int row, int col) {
+        return !IsSquareAttacked(color.opposite(), row, col);
+    }
+
+    /**
+     * Whether any piece of the attacking color controls the square. Works outwards from the square
+     * (knight jumps, king steps, pawn diagonals and the eight sliding rays up to the first blocker)
+     * instead of asking every enemy piece whether it can reach it.
+     * A piece standing on the square itself is ignored.
+     */
+    public boolean IsSquareAttacked(Color attacker, int row, int col) {
+        ChessPiece[][] board = chessBoard.board;
+
+        // Enemy pawns attack diagonally forward, so they sit one row "behind" the square from their side
+        int pawnRow = attacker == Color.WHITE ? row + 1 : row - 1;
+        if (pawnRow >= 0 && pawnRow < 8) {
+            if (col > 0 && IsPiece(board[pawnRow][col - 1], attacker, PieceType.PAWN)) return true;
+            if (col < 7 && IsPiece(board[pawnRow][col + 1], attacker, PieceType.PAWN)) return true;
         }
 
-        // STEP 2: Check for enemy pawns specifically (they control diagonals)
-        int pawnRow = color.equals("white") ? row - 1 : row + 1;  // Row where enemy pawns would be to attack
-        if (pawnRow >= 0 && pawnRow < 8) {  // Check board boundaries
-            // Check left diagonal
-            if (col - 1 >= 0) {
-                ChessPiece leftPawn = chessBoard.board[pawnRow][col - 1];
-                if (leftPawn != null && leftPawn.getType().equals("Pawn") &&
-                        leftPawn.getColor().equals(enemyColor)) {
-                    return false;  // Square is under attack by enemy pawn
-                }
-            }
-            // Check right diagonal
-            if (col + 1 < 8) {
-                ChessPiece rightPawn = chessBoard.board[pawnRow][col + 1];
-                if (rightPawn != null && rightPawn.getType().equals("Pawn") &&
-                        rightPawn.getColor().equals(enemyColor)) {
-                    return false;  // Square is under attack by enemy pawn
-                }
-            }
+        for (int[] jump : KNIGHT_JUMPS) {
+            int r = row + jump[0];
+            int c = col + jump[1];
+            if (r >= 0 && r < 8 && c >= 0 && c < 8 && IsPiece(board[r][c], attacker, PieceType.KNIGHT)) return true;
         }
 
-        // STEP 3: Check all other enemy pieces by scanning the entire board
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                ChessPiece piece = chessBoard.board[r][c];
-                if (piece != null && piece.getColor().equals(enemyColor) && !piece.getType().equals("King")) {
-                    // Skip pawns as we've already handled their special case
-                    if (piece.getType().equals("Pawn")) {
-                        continue;
-                    }
+        // Kings must stay at least 2 squares apart
+        for (int[] step : KING_STEPS) {
+            int r = row + step[0];
+            int c = col + step[1];
+            if (r >= 0 && r < 8 && c >= 0 && c < 8 && IsPiece(board[r][c], attacker, PieceType.KING)) return true;
+        }
 
-                    // For all other pieces, check if they can move to this square
-                    // We must temporarily remove any piece at the destination for accurate checking
-                    ChessPiece originalPiece = chessBoard.board[row][col];
-                    chessBoard.board[row][col] = null;  // Temporarily clear the square
+        return IsAttackedAlongRays(board, attacker, row, col, ORTHOGONAL_RAYS, PieceType.ROOK)
+                || IsAttackedAlongRays(board, attacker, row, col, DIAGONAL_RAYS, PieceType.BISHOP);
+    }
+
+    private static boolean IsAttackedAlongRays(ChessPiece[][] board, Color attacker, int row, int col,
+                                               int[][] rays, PieceType slider) {
+        for (int[] ray : rays) {
+            int r = row + ray[0];
+            int c = col + ray[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                ChessPiece piece = board[r][c];
+                if (piece != null) {
+                    if (piece.getColor() == attacker &&
+                            (piece.getType() == slider || piece.getType() == PieceType.QUEEN)) {
+                        return true;
+                    }
+                    break; // First piece on the ray blocks everything behind it
+                }
+                r += ray[0];
+                c += ray[1];
+            }
+        }
+        return false;
+    }
 
-                    //if we isCapture true  then there is no need to  remove  peace temporarily
+    private static boolean IsPiece(ChessPiece piece, Color color, PieceType type) {
+        return piece != null && piece.getType() == type && piece.getColor() == color;
+    }
 
+    /**
+     * Try a move on the board and tell whether the mover's king would be safe afterwards.
+     * The board is restored before returning; moved flags and en passant state are not touched.
+     */
+    public boolean IsMoveSafeForKing(Color color, int fromRow, int fromCol, int toRow, int toCol, boolean isEnPassant) {
+        long start = PipelineMetrics.start();
+        ChessPiece moving = chessBoard.board[fromRow][fromCol];
+        int kingSquare = moving != null && moving.getType() == PieceType.KING
+                ? fromRow * 8 + fromCol
+                : boardAnalyzer.FindSinglePiece(color, PieceType.KING);
+        boolean safe = IsMoveSafeForKing(color, fromRow, fromCol, toRow, toCol, isEnPassant, kingSquare);
+        PipelineMetrics.SAFETY_CHECK.recordSince(start);
+        PipelineMetrics.SAFETY_CHECKS.increment();
+        return safe;
+    }
 
-                    boolean canAttack = false;
-                    switch (piece.getType()) {
-                        case "Queen" ->
-                                canAttack = moveValidator.canQueenMove(enemyColor, r, c, row, col, false).isValid();
-                        case "Rook" ->
-                                canAttack = moveValidator.canRookMove(enemyColor, r, c, row, col, false).isValid();
-                        case "Bishop" ->
-                                canAttack = moveValidator.canBishopMove(enemyColor, r, c, row, col, false).isValid();
-                        case "Knight" ->
-                                canAttack = moveValidator.canKnightMove(enemyColor, r, c, row, col, false).isValid();
-                    }
+    /**
+     * Same as {@link #IsMoveSafeForKing(Color, int, int, int, int, boolean)} for a caller that already knows
+     * where the mover's king stands (-1 if the side doesn't have exactly one), so trying many moves of the
+     * same position doesn't search the board for the king every time
+     */
+    public boolean IsMoveSafeForKing(Color color, int fromRow, int fromCol, int toRow, int toCol, boolean isEnPassant,
+                                     int kingSquare) {
+        ChessPiece[][] board = chessBoard.board;
+        ChessPiece moving = board[fromRow][fromCol];
+        ChessPiece captured = board[toRow][toCol];
+        ChessPiece enPassantPawn = isEnPassant ? board[fromRow][toCol] : null;
+
+        board[toRow][toCol] = moving;
+        board[fromRow][fromCol] = null;
+        if (isEnPassant) {
+            board[fromRow][toCol] = null;
+        }
 
-                    // Restore the original board state
-                    chessBoard.board[row][col] = originalPiece;
+        boolean safe;
+        if (moving != null && moving.getType() == PieceType.KING) {
+            safe = !IsSquareAttacked(color.opposite(), toRow, toCol);
+        } else {
+            safe = kingSquare != -1 && !IsSquareAttacked(color.opposite(), kingSquare / 8, kingSquare % 8);
+        }
 
-                    if (canAttack) {
-                        return false;  // Square is under attack
-                    }
-                }
-            }
+        // Undo
+        if (isEnPassant) {
+            board[fromRow][toCol] = enPassantPawn;
         }
+        board[fromRow][fromCol] = moving;
+        board[toRow][toCol] = captured;
+        return safe;
+    }
 
-        return true;  // Square is safe for the king
+    /**
+     * Whether the king of this color is currently attacked; false if the board doesn't have exactly one such king
+     */
+    public boolean IsInCheck(Color color) {
+        int kingSquare = boardAnalyzer.FindSinglePiece(color, PieceType.KING);
+        return kingSquare != -1 && IsSquareAttacked(color.opposite(), kingSquare / 8, kingSquare % 8);
     }
 
 
     public boolean IsKingSafe(ChessMove move) {
-        boolean moveMade;
-        var kingPosition = boardAnalyzer.GetCandidatePositions(move.color, "King");
-//        if (kingPosition.isEmpty()) {
-//            errorReport.append(move.color).append(" King is not present on the board");
-//            moveMade = false;
-//        } else if (kingPosition.size() > 2) {
-//            errorReport.append("More then one").append(move.color).append(" King is present on the board");
-//            moveMade = false;
-//        } else {
-//            int KingRow = kingPosition.get(0).row();
-//            int KingCol = kingPosition.get(0).col();
-//            moveMade = IsSquareSafeForKing(move.color, KingRow, KingCol);
-//        }
-        int KingRow = kingPosition.get(0).row();
-        int KingCol = kingPosition.get(0).col();
-
-        return IsSquareSafeForKing(move.color, KingRow, KingCol) && kingPosition.size() == 1;
+        // Missing king or more than one king of this color: the position can't be legal
+        int kingSquare = boardAnalyzer.FindSinglePiece(move.color, PieceType.KING);
+        if (kingSquare == -1) {
+            return false;
+        }
+
+        return IsSquareSafeForKing(move.color, kingSquare / 8, kingSquare % 8);
     }
 
 }
@@ -3,6 +3,8 @@ package AJIP.Engine;
 import AJIP.Model.ChessBoard;
 import AJIP.Model.ChessMove;
 import AJIP.Model.ChessPiece;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
 import AJIP.Records.Position;
 import AJIP.Records.ValidationResult;
 
@@ -24,20 +26,20 @@ public class SpecialMoveHandler {
         int kingRow = move.fromRow;
         int kingCol = move.fromCol;
         boolean isKingSideCastling = move.toCol == 6;
-        Position from = new Position(move.fromRow, move.fromCol);
-        Position to = new Position(move.toRow, move.toCol);
+        Position from = Position.of(move.fromRow, move.fromCol);
+        Position to = Position.of(move.toRow, move.toCol);
 
         // 1. Verify the king hasn't moved (using the isMoved flag)
         ChessPiece king = chessBoard.board[kingRow][kingCol];
-        if (king == null || !king.getType().equals("King") || king.IsMoved()) {
-            return ValidationResult.invalid(move.color, "King", from, to, "King is missing or has moved");  // King is missing or has moved
+        if (king == null || king.getType() != PieceType.KING || king.IsMoved()) {
+            return ValidationResult.invalid(move.color, PieceType.KING, from, to, "King is missing or has moved");  // King is missing or has moved
         }
 
         // 2. Identify and check the appropriate rook
         int rookCol = isKingSideCastling ? 7 : 0;  // H-file or A-file
         ChessPiece rook = chessBoard.board[kingRow][rookCol];
-        if (rook == null || !rook.getType().equals("Rook") || rook.IsMoved()) {
-            return ValidationResult.invalid(move.color, "King", from, to, "Rook is missing or has moved");  // Rook is missing or has moved
+        if (rook == null || rook.getType() != PieceType.ROOK || rook.IsMoved()) {
+            return ValidationResult.invalid(move.color, PieceType.KING, from, to, "Rook is missing or has moved");  // Rook is missing or has moved
         }
 
         // 3. Check if the path between king and rook is clear
@@ -45,7 +47,7 @@ public class SpecialMoveHandler {
         int endCol = Math.max(kingCol, rookCol);
         for (int col = startCol; col < endCol; col++) {
             if (chessBoard.board[kingRow][col] != null) {
-                return ValidationResult.invalid(move.color, "King", from, to, "Path is blocked");  // Path is blocked
+                return ValidationResult.invalid(move.color, PieceType.KING, from, to, "Path is blocked");  // Path is blocked
             }
         }
 
@@ -53,27 +55,27 @@ public class SpecialMoveHandler {
         int step = isKingSideCastling ? 1 : -1;
         for (int col = kingCol; col != move.toCol + step; col += step) {
             if (!safetyChecker.IsSquareSafeForKing(move.color, kingRow, col)) {
-                return ValidationResult.invalid(move.color, "King", from, to, "King would move through or into check");  // King would move through or into check
+                return ValidationResult.invalid(move.color, PieceType.KING, from, to, "King would move through or into check");  // King would move through or into check
             }
         }
 
-        return ValidationResult.valid(move.color, "King", from, to);  // All castling conditions are met
+        return ValidationResult.valid(move.color, PieceType.KING, from, to);  // All castling conditions are met
     }
 
-    public ValidationResult CanCheck(String color, String type, int fromRow, int fromCol, int toRow, int toCol) {
+    public ValidationResult CanCheck(Color color, PieceType type, int fromRow, int fromCol, int toRow, int toCol) {
         // En-passant is not yet implemented
-        Position from = new Position(fromRow, fromCol);
-        Position to = new Position(toRow, toCol);
+        Position from = Position.of(fromRow, fromCol);
+        Position to = Position.of(toRow, toCol);
 
         // 3. Find the opponent's king
-        String opponentColor = color.equals("white") ? "black" : "white";
-        Position kingsPosition = boardAnalyzer.GetCandidatePositions(opponentColor, "King").size() == 1 ? boardAnalyzer.GetCandidatePositions(opponentColor, "King").get(0) : null;
-        if (kingsPosition == null) {
+        Color opponentColor = color.opposite();
+        int kingSquare = boardAnalyzer.FindSinglePiece(opponentColor, PieceType.KING);
+        if (kingSquare == -1) {
             // opponents king is not found or more than 2 enemy Kings are present at the board
             return ValidationResult.invalid(color, type, from, to, "Opponent king not found or multiple kings present");
         }
-        int opponentKingRow = kingsPosition.row();
-        int opponentKingCol = kingsPosition.col();
+        int opponentKingRow = kingSquare / 8;
+        int opponentKingCol = kingSquare % 8;
 
         // we assume  if we enter this board is already updated
 
@@ -85,17 +87,17 @@ public class SpecialMoveHandler {
     }
 
 
-    public ValidationResult CanPromote(String color, String type, int fromRow, int fromCol, int toRow, int toCol) {
+    public ValidationResult CanPromote(Color color, PieceType type, int fromRow, int fromCol, int toRow, int toCol) {
         // SECURITY CHECK 1: Only pawns can be promoted
-        Position from = new Position(fromRow, fromCol);
-        Position to = new Position(toRow, toCol);
+        Position from = Position.of(fromRow, fromCol);
+        Position to = Position.of(toRow, toCol);
 
-        if (!type.equals("Pawn")) {
+        if (type != PieceType.PAWN) {
             return ValidationResult.invalid(color, type, from, to, "Only pawns can be promoted");
         }
 
         // SECURITY CHECK 2: Promotion must occur on the correct rank
-        int promotionRank = color.equals("white") ? 0 : 7; // Rank 8 for white, rank 1 for black
+        int promotionRank = color == Color.WHITE ? 0 : 7; // Rank 8 for white, rank 1 for black
         if (toRow != promotionRank) {
             return ValidationResult.invalid(color, type, from, to, "Promotion must occur on the correct rank");
         }
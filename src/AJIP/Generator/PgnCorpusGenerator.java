@@ -0,0 +1,572 @@
+package AJIP.Generator;
+
+import AJIP.Cli;
+import AJIP.Engine.BoardAnalyzer;
+import AJIP.Engine.LegalMoveGenerator;
+import AJIP.Engine.MoveExecutor;
+import AJIP.Engine.MoveValidator;
+import AJIP.Engine.SafetyChecker;
+import AJIP.Engine.SpecialMoveHandler;
+import AJIP.Model.ChessBoard;
+import AJIP.Model.ChessMove;
+import AJIP.Model.ChessPiece;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes synthetic PGN corpora of any size for scale and stress testing.
+ * <p>
+ * Every game is a random walk over legal moves, so the validator should pass it unless it was corrupted
+ * on purpose. Game {@code i} depends only on the seed and {@code i}, never on the thread that made it:
+ * the same seed and settings always give the same bytes. Games are made in batches on several threads
+ * and written in order, so memory stays flat even for corpora of many gigabytes.
+ * <p>
+ * Usage: {@code java AJIP.Generator.PgnCorpusGenerator --out corpus.pgn (--games N | --size 2g) [options]},
+ * see {@link #main} for the options.
+ */
+public class PgnCorpusGenerator {
+
+    /**
+     * Ways a corrupted game is broken; each one makes the validator reject that game and no other
+     */
+    public enum Corruption {
+        GARBLED_SAN,    // A move that cannot be parsed
+        ILLEGAL_MOVE,   // A well-formed move no piece can make
+        FALSE_CHECK     // A check or mate annotation the position does not support
+    }
+
+    private static final int BATCH_SIZE = 256;
+    private static final int LINE_WIDTH = 80;
+
+    private static final String[] FIRST_NAMES = {"Anna", "Boris", "Carmen", "David", "Elena", "Farid", "Greta", "Hikaru",
+            "Irina", "Jonas", "Kamala", "Levon", "Maria", "Nodir", "Olga", "Pavel", "Quang", "Rosa", "Sergei", "Tania"};
+    private static final String[] LAST_NAMES = {"Adams", "Berg", "Castro", "Dvorak", "Eriksen", "Fischer", "Gupta",
+            "Horvath", "Ivanov", "Jansen", "Kovacs", "Lindqvist", "Moreau", "Novak", "Okafor", "Petrov", "Rossi",
+            "Schmidt", "Tanaka", "Weber"};
+    private static final String[] EVENTS = {"Synthetic Open", "Random Walk Invitational", "Corpus Cup",
+            "Stress Test Masters", "Club Championship"};
+    private static final String[] SITES = {"Tbilisi GEO", "Berlin GER", "Madrid ESP", "Chennai IND", "Lima PER", "Online"};
+    private static final String[] TIME_CONTROLS = {"40/7200:3600", "5400+30", "900+10", "180+2", "60"};
+    private static final String[] COMMENTS = {"A natural developing move", "Inaccuracy", "Better was a quiet move",
+            "The only move", "Both sides have chances", "White is slightly better", "Black is slightly better",
+            "Time trouble", "A surprising idea", "Forced"};
+
+    private final long seed;
+    private int minPlies = 1;
+    private int maxPlies = 300;
+    private double meanPlies = 80;
+    private double stdDevPlies = 30;
+    private double commentRate;
+    private double variationRate;
+    private double headerRichness = 0.5;
+    private double corruptionRate;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // One board and engine per thread; games never share state
+    private final ThreadLocal<GameWriter> writers = ThreadLocal.withInitial(GameWriter::new);
+
+    public PgnCorpusGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Game length in plies: normally distributed with the given mean and standard deviation, clamped to [min, max].
+     * Games that end in mate or stalemate are shorter.
+     */
+    public void setPlies(int minPlies, int maxPlies, double meanPlies, double stdDevPlies) {
+        if (minPlies < 1 || maxPlies < minPlies || stdDevPlies < 0) {
+            throw new IllegalArgumentException("Invalid ply distribution: min " + minPlies + ", max " + maxPlies +
+                    ", standard deviation " + stdDevPlies);
+        }
+        this.minPlies = minPlies;
+        this.maxPlies = maxPlies;
+        this.meanPlies = meanPlies;
+        this.stdDevPlies = stdDevPlies;
+    }
+
+    /**
+     * Chance that a move is followed by a {comment}
+     */
+    public void setCommentRate(double commentRate) {
+        this.commentRate = probability("Comment rate", commentRate);
+    }
+
+    /**
+     * Chance that a move is followed by a one-move (variation) with another legal move
+     */
+    public void setVariationRate(double variationRate) {
+        this.variationRate = probability("Variation rate", variationRate);
+    }
+
+    /**
+     * Chance of each optional tag (ECO, Elo ratings, TimeControl, ...) beyond the seven-tag roster
+     */
+    public void setHeaderRichness(double headerRichness) {
+        this.headerRichness = probability("Header richness", headerRichness);
+    }
+
+    /**
+     * Chance that a game is corrupted with one of the {@link Corruption} kinds
+     */
+    public void setCorruptionRate(double corruptionRate) {
+        this.corruptionRate = probability("Corruption rate", corruptionRate);
+    }
+
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread, got: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * PGN text of one game of the corpus, followed by a blank line
+     */
+    public String game(long index) {
+        return writers.get().write(index);
+    }
+
+    /**
+     * Write a corpus of exactly this many games
+     *
+     * @return the number of bytes written
+     */
+    public long writeGames(Path file, long games) throws IOException {
+        return write(file, games, Long.MAX_VALUE)[1];
+    }
+
+    /**
+     * Write whole games until the file reaches at least this many bytes
+     *
+     * @return the number of games written
+     */
+    public long writeBytes(Path file, long targetBytes) throws IOException {
+        return write(file, Long.MAX_VALUE, targetBytes)[0];
+    }
+
+    // Returns {games, bytes}
+    private long[] write(Path file, long maxGames, long maxBytes) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pgn-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A few batches per thread in flight; results are written strictly in submission order
+        Deque<Future<String[]>> pending = new ArrayDeque<>();
+        long nextGame = 0;
+        long games = 0;
+        long bytes = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            while (games < maxGames && bytes < maxBytes) {
+                while (pending.size() < threads * 4 && nextGame < maxGames) {
+                    long first = nextGame;
+                    int count = (int) Math.min(BATCH_SIZE, maxGames - first);
+                    pending.add(pool.submit(() -> batch(first, count)));
+                    nextGame += count;
+                }
+                for (String game : pending.remove().get()) {
+                    out.write(game);
+                    bytes += game.length();
+                    if (++games == maxGames || bytes >= maxBytes) {
+                        break;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing " + file, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to generate games for " + file, e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new long[]{games, bytes};
+    }
+
+    /**
+     * Options:
+     * <pre>
+     *  --out FILE            Corpus to write (required)
+     *  --games N             Number of games, or
+     *  --size SIZE           Target file size, e.g. 500m or 2g
+     *  --seed N              Seed, default 1
+     *  --threads N           Generator threads, default: one per processor
+     *  --plies MIN:MAX:MEAN:STDDEV  Game length distribution in plies, default 1:300:80:30
+     *  --comments RATE       Chance of a comment after a move, default 0
+     *  --variations RATE     Chance of a variation after a move, default 0
+     *  --headers RATE        Chance of each optional tag, default 0.5
+     *  --corruption RATE     Chance that a game is corrupted, default 0
+     * </pre>
+     */
+    public static void main(String[] args) throws IOException {
+        Path out = null;
+        long games = -1;
+        long size = -1;
+        long seed = 1;
+        String[] plies = null;
+        double comments = 0, variations = 0, headers = 0.5, corruption = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--out" -> out = Path.of(value);
+                case "--games" -> games = Long.parseLong(value);
+                case "--size" -> size = Cli.parseSize("--size", value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--plies" -> plies = value.split(":");
+                case "--comments" -> comments = Double.parseDouble(value);
+                case "--variations" -> variations = Double.parseDouble(value);
+                case "--headers" -> headers = Double.parseDouble(value);
+                case "--corruption" -> corruption = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (out == null || (games < 0) == (size < 0) || args.length % 2 != 0) {
+            System.err.println("Usage: PgnCorpusGenerator --out FILE (--games N | --size SIZE) [--seed N] [--threads N]\n" +
+                    "       [--plies MIN:MAX:MEAN:STDDEV] [--comments RATE] [--variations RATE] [--headers RATE] [--corruption RATE]");
+            System.exit(2);
+        }
+
+        PgnCorpusGenerator generator = new PgnCorpusGenerator(seed);
+        if (plies != null) {
+            generator.setPlies(Integer.parseInt(plies[0]), Integer.parseInt(plies[1]),
+                    Double.parseDouble(plies[2]), Double.parseDouble(plies[3]));
+        }
+        generator.setCommentRate(comments);
+        generator.setVariationRate(variations);
+        generator.setHeaderRichness(headers);
+        generator.setCorruptionRate(corruption);
+        generator.setThreads(threads);
+
+        long start = System.nanoTime();
+        if (games >= 0) {
+            size = generator.writeGames(out, games);
+        } else {
+            games = generator.writeBytes(out, size);
+            size = Files.size(out);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %d games, %d MB to %s in %.1f s (%.1f MB/s)%n",
+                games, size >> 20, out, seconds, size / 1048576.0 / seconds);
+    }
+
+    private String[] batch(long first, int count) {
+        GameWriter writer = writers.get();
+        String[] games = new String[count];
+        for (int i = 0; i < count; i++) {
+            games[i] = writer.write(first + i);
+        }
+        return games;
+    }
+
+    private static double probability(String name, double value) {
+        if (!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1, got: " + value);
+        }
+        return value;
+    }
+
+    // Seeds of neighbouring games must not be correlated
+    private static long mix(long value) {
+        value = (value ^ value >>> 33) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ value >>> 33) * 0xC4CEB9FE1A85EC53L;
+        return value ^ value >>> 33;
+    }
+
+    /**
+     * Plays and prints games on a board of its own
+     */
+    private class GameWriter {
+        private final ChessBoard board = new ChessBoard();
+        private final SafetyChecker safetyChecker;
+        private final LegalMoveGenerator legalMoveGenerator;
+        private final MoveExecutor moveExecutor = new MoveExecutor(board);
+        private final ChessMove move = new ChessMove();
+        private final int[] legalMoves = new int[256];
+        private final StringBuilder movetext = new StringBuilder(2048);
+        private final StringBuilder pgn = new StringBuilder(4096);
+        private int lineLength;
+
+        GameWriter() {
+            MoveValidator moveValidator = new MoveValidator(board);
+            BoardAnalyzer boardAnalyzer = new BoardAnalyzer(board);
+            safetyChecker = new SafetyChecker(board, moveValidator, boardAnalyzer);
+            legalMoveGenerator = new LegalMoveGenerator(board, safetyChecker,
+                    new SpecialMoveHandler(board, moveValidator, safetyChecker, boardAnalyzer));
+        }
+
+        String write(long index) {
+            SplittableRandom random = new SplittableRandom(mix(seed ^ mix(index + 1)));
+            int targetPlies = (int) Math.max(minPlies, Math.min(maxPlies,
+                    Math.round(meanPlies + stdDevPlies * random.nextGaussian())));
+            boolean corrupt = random.nextDouble() < corruptionRate;
+            Corruption corruption = corrupt ? Corruption.values()[random.nextInt(Corruption.values().length)] : null;
+            int corruptPly = corrupt ? random.nextInt(targetPlies) : -1;
+
+            board.ResetBoard();
+            movetext.setLength(0);
+            lineLength = 0;
+            String result = null;
+            String lastSan = null;
+            int lastSanStart = 0;
+            boolean needsNumber = true;
+            int plies = 0;
+            while (plies < targetPlies) {
+                Color color = board.sideToMove;
+                int count = legalMoveGenerator.CollectLegalMoves(color, legalMoves);
+                if (count == 0) {
+                    break;
+                }
+                int code = legalMoves[random.nextInt(count)];
+                String san = ToSan(code, count);
+                String variation = count > 1 && random.nextDouble() < variationRate
+                        ? ToSan(OtherMove(code, count, random), count)
+                        : null;
+
+                if (color == Color.WHITE) {
+                    Append(board.fullMoveNumber + ".");
+                } else if (needsNumber) {
+                    Append(board.fullMoveNumber + "...");
+                }
+                int moveNumber = board.fullMoveNumber;
+                // An illegal move has to be chosen in the position it is played from
+                String illegal = plies == corruptPly && corruption == Corruption.ILLEGAL_MOVE
+                        ? IllegalMove(code, count, random)
+                        : null;
+                Play(code, color);
+                plies++;
+
+                Color opponent = color.opposite();
+                boolean check = safetyChecker.IsInCheck(opponent);
+                boolean mate = check && !legalMoveGenerator.HasAnyLegalMove(opponent);
+                String suffix = mate ? "#" : check ? "+" : "";
+                if (plies - 1 == corruptPly) {
+                    san = illegal != null ? illegal : Corrupt(corruption, san, suffix);
+                    suffix = "";
+                }
+                Append(san + suffix);
+                lastSan = san;
+                lastSanStart = movetext.length() - san.length() - suffix.length();
+
+                needsNumber = false;
+                if (variation != null) {
+                    Append("(" + moveNumber + (color == Color.WHITE ? ". " : "... ") + variation + ")");
+                    needsNumber = true;
+                }
+                if (random.nextDouble() < commentRate) {
+                    Append("{" + COMMENTS[random.nextInt(COMMENTS.length)] + "}");
+                    needsNumber = true;
+                }
+                if (mate) {
+                    result = color == Color.WHITE ? "1-0" : "0-1";
+                    break;
+                }
+            }
+            if (corruptPly >= plies) {
+                // The game ended in mate or stalemate before the chosen ply: garble the last move instead
+                String garbled = Corrupt(Corruption.GARBLED_SAN, lastSan, "");
+                movetext.replace(lastSanStart, lastSanStart + lastSan.length(), garbled);
+            }
+            if (result == null && !legalMoveGenerator.HasAnyLegalMove(board.sideToMove)) {
+                // Mate is caught above, so this is stalemate
+                result = "1/2-1/2";
+            }
+            if (result == null) {
+                double roll = random.nextDouble();
+                result = roll < 0.38 ? "1-0" : roll < 0.70 ? "1/2-1/2" : roll < 0.98 ? "0-1" : "*";
+            }
+            Append(result);
+
+            pgn.setLength(0);
+            WriteHeaders(index, result, plies, random);
+            pgn.append('\n').append(movetext).append("\n\n");
+            return pgn.toString();
+        }
+
+        private void WriteHeaders(long index, String result, int plies, SplittableRandom random) {
+            int year = 1990 + random.nextInt(36);
+            String date = year + "." + TwoDigits(1 + random.nextInt(12)) + "." + TwoDigits(1 + random.nextInt(28));
+            Tag("Event", EVENTS[random.nextInt(EVENTS.length)]);
+            Tag("Site", SITES[random.nextInt(SITES.length)]);
+            Tag("Date", date);
+            Tag("Round", Long.toString(index + 1));
+            Tag("White", Name(random));
+            Tag("Black", Name(random));
+            Tag("Result", result);
+            if (random.nextDouble() < headerRichness) {
+                Tag("ECO", (char) ('A' + random.nextInt(5)) + TwoDigits(random.nextInt(100)));
+            }
+            if (random.nextDouble() < headerRichness) {
+                Tag("WhiteElo", Integer.toString(1200 + random.nextInt(1600)));
+                Tag("BlackElo", Integer.toString(1200 + random.nextInt(1600)));
+            }
+            if (random.nextDouble() < headerRichness) {
+                Tag("TimeControl", TIME_CONTROLS[random.nextInt(TIME_CONTROLS.length)]);
+            }
+            if (random.nextDouble() < headerRichness) {
+                Tag("Termination", "*".equals(result) ? "unterminated" : "normal");
+            }
+            if (random.nextDouble() < headerRichness) {
+                Tag("EventDate", year + ".??.??");
+            }
+            if (random.nextDouble() < headerRichness) {
+                Tag("Annotator", Name(random));
+            }
+            if (random.nextDouble() < headerRichness) {
+                Tag("PlyCount", Integer.toString(plies));
+            }
+        }
+
+        private void Tag(String name, String value) {
+            pgn.append('[').append(name).append(" \"").append(value).append("\"]\n");
+        }
+
+        private String Name(SplittableRandom random) {
+            return LAST_NAMES[random.nextInt(LAST_NAMES.length)] + ", " + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        }
+
+        // Append a token to the movetext, wrapping lines between tokens only
+        private void Append(String token) {
+            if (lineLength > 0 && lineLength + 1 + token.length() > LINE_WIDTH) {
+                movetext.append('\n');
+                lineLength = 0;
+            } else if (lineLength > 0) {
+                movetext.append(' ');
+                lineLength++;
+            }
+            movetext.append(token);
+            lineLength += token.length();
+        }
+
+        private void Play(int code, Color color) {
+            int from = LegalMoveGenerator.FromSquare(code);
+            int to = LegalMoveGenerator.ToSquare(code);
+            ChessPiece piece = board.board[from / 8][from % 8];
+            move.color = color;
+            move.pieceType = piece.getType();
+            move.fromRow = from / 8;
+            move.fromCol = from % 8;
+            move.toRow = to / 8;
+            move.toCol = to % 8;
+            move.promotionPiece = LegalMoveGenerator.Promotion(code);
+            move.isPromotion = move.promotionPiece != null;
+            move.isCastling = piece.getType() == PieceType.KING && Math.abs(move.toCol - move.fromCol) == 2;
+            if (move.isCastling) {
+                moveExecutor.ExecuteCastling(move);
+            } else if (move.isPromotion) {
+                moveExecutor.ExecutePromotion(move, move.fromRow, move.fromCol);
+            } else {
+                moveExecutor.ExecuteMoveOrCapture(move, move.fromRow, move.fromCol);
+            }
+        }
+
+        // Standard algebraic notation of a legal move, without the check suffix
+        private String ToSan(int code, int count) {
+            int from = LegalMoveGenerator.FromSquare(code);
+            int to = LegalMoveGenerator.ToSquare(code);
+            int fromRow = from / 8, fromCol = from % 8, toRow = to / 8, toCol = to % 8;
+            PieceType type = board.board[fromRow][fromCol].getType();
+            if (type == PieceType.KING && Math.abs(toCol - fromCol) == 2) {
+                return toCol == 6 ? "O-O" : "O-O-O";
+            }
+            StringBuilder san = new StringBuilder(8);
+            boolean capture = board.board[toRow][toCol] != null;
+            if (type == PieceType.PAWN) {
+                if (fromCol != toCol) {
+                    san.append((char) ('a' + fromCol)).append('x');
+                }
+            } else {
+                san.append(type.getLetter());
+                // Name the file, the rank or both when another piece of the same type can go to the same square
+                boolean ambiguous = false, sameFile = false, sameRank = false;
+                for (int i = 0; i < count; i++) {
+                    int other = legalMoves[i];
+                    int otherFrom = LegalMoveGenerator.FromSquare(other);
+                    if (otherFrom == from || LegalMoveGenerator.ToSquare(other) != to
+                            || board.board[otherFrom / 8][otherFrom % 8].getType() != type) {
+                        continue;
+                    }
+                    ambiguous = true;
+                    sameFile |= otherFrom % 8 == fromCol;
+                    sameRank |= otherFrom / 8 == fromRow;
+                }
+                if (ambiguous && (!sameFile || sameRank)) {
+                    san.append((char) ('a' + fromCol));
+                }
+                if (ambiguous && sameFile) {
+                    san.append((char) ('8' - fromRow));
+                }
+                if (capture) {
+                    san.append('x');
+                }
+            }
+            san.append((char) ('a' + toCol)).append((char) ('8' - toRow));
+            PieceType promotion = LegalMoveGenerator.Promotion(code);
+            if (promotion != null) {
+                san.append('=').append(promotion.getLetter());
+            }
+            return san.toString();
+        }
+
+        private int OtherMove(int code, int count, SplittableRandom random) {
+            int other = legalMoves[random.nextInt(count - 1)];
+            return other == code ? legalMoves[count - 1] : other;
+        }
+
+        // Break the move just played by its annotation, or garble it
+        private String Corrupt(Corruption corruption, String san, String suffix) {
+            if (corruption == Corruption.FALSE_CHECK && !"#".equals(suffix)) {
+                return san + (suffix.isEmpty() ? "+" : "#");
+            }
+            // Off the board: no SAN pattern matches a ninth rank or a third castling step
+            return san.startsWith("O-O") ? "O-O-O-O" : san.replaceAll("[1-8]", "9");
+        }
+
+        // A well-formed move of the chosen piece's type to an empty square no piece of that type can reach
+        private String IllegalMove(int code, int count, SplittableRandom random) {
+            int from = LegalMoveGenerator.FromSquare(code);
+            PieceType type = board.board[from / 8][from % 8].getType();
+            int start = random.nextInt(64);
+            for (int offset = 0; offset < 64; offset++) {
+                int square = (start + offset) & 63;
+                int row = square / 8, col = square % 8;
+                if (board.board[row][col] != null || (type == PieceType.PAWN && (row == 0 || row == 7))
+                        || Reachable(type, square, count)) {
+                    continue;
+                }
+                String target = "" + (char) ('a' + col) + (char) ('8' - row);
+                return type == PieceType.PAWN ? target : type.getLetter() + target;
+            }
+            return null;
+        }
+
+        private boolean Reachable(PieceType type, int square, int count) {
+            for (int i = 0; i < count; i++) {
+                int from = LegalMoveGenerator.FromSquare(legalMoves[i]);
+                ChessPiece piece = board.board[from / 8][from % 8];
+                if (LegalMoveGenerator.ToSquare(legalMoves[i]) == square && piece.getType() == type) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String TwoDigits(int value) {
+            return value < 10 ? "0" + value : Integer.toString(value);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package AJIP.Logger;
 
+import AJIP.Metrics.PipelineMetrics;
+
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
@@ -16,6 +18,9 @@ public class PGNLogger {
     // Thread-specific context
     private static final ThreadLocal<String> CONTEXT = new ThreadLocal<>();
 
+    // Threshold for the main and file loggers; set before or after initialization
+    private static volatile Level level = Level.ALL;
+
     // File-specific loggers (one per PGN file)
     private static final Map<String, Logger> FILE_LOGGERS = new ConcurrentHashMap<>();
 
@@ -101,7 +106,7 @@ public class PGNLogger {
             MAIN_LOGGER.addHandler(consoleHandler);
 
             // Configure logger
-            MAIN_LOGGER.setLevel(Level.ALL);
+            MAIN_LOGGER.setLevel(level);
             MAIN_LOGGER.setUseParentHandlers(false); // Don't use parent handlers
 
             initialized = true;
@@ -110,6 +115,24 @@ public class PGNLogger {
         }
     }
 
+    /**
+     * Only log messages at or above this level, e.g. {@link Level#WARNING} for large batch runs
+     */
+    public static synchronized void setLevel(Level newLevel) {
+        level = newLevel;
+        MAIN_LOGGER.setLevel(newLevel);
+        for (Logger logger : FILE_LOGGERS.values()) {
+            logger.setLevel(newLevel);
+        }
+    }
+
+    /**
+     * The level set with {@link #setLevel(Level)}, e.g. to put it back afterwards
+     */
+    public static Level getLevel() {
+        return level;
+    }
+
     /**
      * Set the current thread's context (e.g., PGN file being processed)
      */
@@ -141,7 +164,7 @@ public class PGNLogger {
                 logger.addHandler(fileHandler);
 
                 // Configure the logger
-                logger.setLevel(Level.ALL);
+                logger.setLevel(level);
                 logger.setUseParentHandlers(false);
             } catch (IOException e) {
                 MAIN_LOGGER.severe("Failed to create logger for file: " + path + " - " + e.getMessage());
@@ -152,19 +175,27 @@ public class PGNLogger {
 
     // Standard logging methods that use the main logger
     public static void info(String message) {
+        long start = PipelineMetrics.start();
         getLogger().info(message);
+        PipelineMetrics.LOG_WRITE.recordSince(start);
     }
 
     public static void warning(String message) {
+        long start = PipelineMetrics.start();
         getLogger().warning(message);
+        PipelineMetrics.LOG_WRITE.recordSince(start);
     }
 
     public static void error(String message) {
+        long start = PipelineMetrics.start();
         getLogger().severe(message);
+        PipelineMetrics.LOG_WRITE.recordSince(start);
     }
 
     public static void error(String message, Throwable e) {
+        long start = PipelineMetrics.start();
         getLogger().log(Level.SEVERE, message, e);
+        PipelineMetrics.LOG_WRITE.recordSince(start);
     }
 
     // File-specific logging methods
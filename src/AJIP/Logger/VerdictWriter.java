@@ -0,0 +1,135 @@
+package AJIP.Logger;
+
+import AJIP.Records.GameVerdict;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends game verdicts to a CSV file from a dedicated writer thread.
+ * <p>
+ * Evaluator threads only hand verdicts over through a bounded queue; the writer thread drains it
+ * in batches and flushes whenever the queue runs empty, so the file can be followed while a run
+ * is in progress. The file is only ever appended to: a new run adds its rows after the previous ones,
+ * and the header line is written only when the file is created.
+ */
+public class VerdictWriter implements Closeable {
+
+    private static final int QUEUE_CAPACITY = 65_536;
+    private static final int BATCH_SIZE = 1024;
+
+    // Marks the end of the stream; compared by identity
+    private static final GameVerdict END = GameVerdict.pass("");
+
+    private final Path file;
+    private final BlockingQueue<GameVerdict> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BufferedWriter writer;
+    private final Thread writerThread;
+    private volatile IOException failure;
+    private volatile long written;
+
+    private VerdictWriter(Path file, BufferedWriter writer) {
+        this.file = file;
+        this.writer = writer;
+        this.writerThread = new Thread(this::drain, "verdict-writer");
+        this.writerThread.start();
+    }
+
+    /**
+     * Open (or create) a verdict file for appending
+     */
+    public static VerdictWriter open(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        boolean isNew = !Files.exists(file) || Files.size(file) == 0;
+        BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (isNew) {
+            writer.write(GameVerdict.CSV_HEADER);
+            writer.newLine();
+        }
+        return new VerdictWriter(file, writer);
+    }
+
+    /**
+     * Queue a verdict for writing; blocks only if the writer thread has fallen far behind.
+     * Verdicts are dropped once writing has failed (the failure is reported by {@link #close()}).
+     */
+    public void submit(GameVerdict verdict) {
+        try {
+            while (failure == null && !queue.offer(verdict, 100, TimeUnit.MILLISECONDS)) {
+                // Queue full: wait for the writer thread to catch up
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Number of verdicts written to the file so far
+     */
+    public long getWrittenCount() {
+        return written;
+    }
+
+    private void drain() {
+        List<GameVerdict> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+
+                for (GameVerdict verdict : batch) {
+                    if (verdict == END) {
+                        writer.flush();
+                        return;
+                    }
+                    writer.write(verdict.toCsvLine());
+                    writer.newLine();
+                    written++;
+                }
+                batch.clear();
+
+                if (queue.isEmpty()) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            PGNLogger.error("Failed to write verdicts to " + file, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write everything still queued and close the file
+     */
+    @Override
+    public void close() throws IOException {
+        if (failure == null && writerThread.isAlive()) {
+            submit(END);
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -1,24 +1,153 @@
 package AJIP;
 
-import AJIP.Controller.GameMasterController;
-import AJIP.Model.ChessGame;
-import AJIP.Parser.PGNParser;
+import AJIP.Logger.GameLogger;
+import AJIP.Logger.PGNLogger;
+import AJIP.Logger.VerdictWriter;
+import AJIP.Metrics.MetricsReporter;
+import AJIP.Metrics.PipelineMetrics;
+import AJIP.Processor.CheckpointJournal;
 import AJIP.Processor.ParallelProcessor;
+import AJIP.Records.ImportOptions;
+import AJIP.Records.RunReport;
 
-import java.util.ArrayList;
+import javax.management.JMException;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
+/**
+ * Batch PGN importer: validates every game of the given files and exits with a status for the scheduler.
+ * Run without arguments for the options, e.g. {@code java -jar ajip-importer.jar --evaluators 16 src/AJIP/testPgns}.
+ */
 public class Main {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_GAMES_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_ERROR = 3;
+
+    // Set once a signal has started JVM shutdown; System.exit would then block until the hooks time out
+    private static volatile boolean shuttingDown;
+
     public static void main(String[] args) {
+        int status = run(args);
+        if (!shuttingDown) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Run the importer
+     *
+     * @return the exit status: {@link #EXIT_OK} if every game passed, {@link #EXIT_GAMES_FAILED} if any failed,
+     * {@link #EXIT_USAGE} for a bad command line, {@link #EXIT_ERROR} if the run could not complete
+     */
+    public static int run(String[] args) {
+        ImportOptions options;
+        List<String> files;
+        try {
+            options = Cli.parse(args);
+            files = options.watchDirectory() == null ? Cli.resolveInputs(options.inputs()) : List.of();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(Cli.USAGE);
+            return EXIT_USAGE;
+        } catch (IOException e) {
+            System.err.println("Failed to list input files: " + e.getMessage());
+            return EXIT_ERROR;
+        }
+        if (options.watchDirectory() == null && files.isEmpty()) {
+            System.err.println("No PGN files match " + String.join(" ", options.inputs()));
+            return EXIT_USAGE;
+        }
+
+        if (options.metrics() != null) {
+            // Read once when the metrics class loads, which nothing above has done
+            System.setProperty("ajip.metrics", "true");
+        }
+        PGNLogger.setLevel(options.logLevel());
+        GameLogger.setLevel(options.logLevel());
+
+        ParallelProcessor processor = new ParallelProcessor();
+        processor.setThreads(options.parserThreads(), options.evaluatorThreads());
+        processor.setQueueCapacity(options.queueCapacity());
+        processor.setDuplicateFilter(Cli.createDuplicateFilter(options));
+        if (options.openingTree() != null) {
+            processor.setOpeningTree(options.openingTree(), options.openingPlies());
+        }
+
+        VerdictWriter verdictWriter = null;
+        MetricsReporter metricsReporter = null;
+        try {
+            if (options.metrics() != null) {
+                metricsReporter = startMetrics(options);
+            }
+            if (options.checkpointDir() != null) {
+                processor.setCheckpointJournal(CheckpointJournal.open(options.checkpointDir()));
+            }
+            if (options.verdicts() != null) {
+                verdictWriter = VerdictWriter.open(options.verdicts());
+                processor.setVerdictWriter(verdictWriter);
+            }
+
+            RunReport report = options.watchDirectory() != null
+                    ? watch(processor, options)
+                    : processor.processFiles(files);
+            System.out.println(report.getLoggerMessage());
+            return report.gamesFailed() > 0 ? EXIT_GAMES_FAILED : EXIT_OK;
+        } catch (IOException e) {
+            System.err.println("Import failed: " + e.getMessage());
+            return EXIT_ERROR;
+        } catch (JMException e) {
+            System.err.println("Failed to publish metrics over JMX: " + e.getMessage());
+            return EXIT_ERROR;
+        } finally {
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+            if (verdictWriter != null) {
+                try {
+                    verdictWriter.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to write verdicts: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Publish the metrics over JMX, or start writing snapshots to the log or a file
+     *
+     * @return the reporter to close at the end of the run, null for JMX
+     */
+    private static MetricsReporter startMetrics(ImportOptions options) throws JMException {
+        if (!PipelineMetrics.ENABLED) {
+            System.err.println("Metrics were switched off before the importer started; run with -Dajip.metrics=true");
+        }
+        return switch (options.metrics()) {
+            case "jmx" -> {
+                PipelineMetrics.registerMBean();
+                yield null;
+            }
+            case "log" -> new MetricsReporter(null, options.metricsInterval());
+            default -> new MetricsReporter(Path.of(options.metrics()), options.metricsInterval());
+        };
+    }
 
-        List<String> files = List.of(
-                "src/AJIP/testPgns/Philidor.pgn",
-                "src/AJIP/testPgns/Chess Lessons.pgn",
-                "src/AJIP/testPgns/WikiExample.pgn",
-              "src/AJIP/testPgns/customGame.pgn"
+    private static RunReport watch(ParallelProcessor processor, ImportOptions options) {
+        Thread mainThread = Thread.currentThread();
 
-        );
-        new ParallelProcessor().processFiles(files);
+        // On Ctrl+C / SIGTERM let the games already queued finish before the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            shuttingDown = true;
+            processor.stopWatching();
+            try {
+                mainThread.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
 
+        return processor.watchDirectory(options.watchDirectory());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package AJIP.Metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event count shared by all pipeline threads. Increments go to striped cells, so threads counting
+ * the same event don't contend; reading sums the cells. Does nothing while metrics are off.
+ */
+public final class Counter {
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        if (PipelineMetrics.ENABLED) {
+            count.increment();
+        }
+    }
+
+    public void add(long amount) {
+        if (PipelineMetrics.ENABLED) {
+            count.add(amount);
+        }
+    }
+
+    public long sum() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+}
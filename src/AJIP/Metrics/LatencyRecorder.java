@@ -0,0 +1,131 @@
+package AJIP.Metrics;
+
+import AJIP.Records.LatencySummary;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency distribution of one pipeline stage, in nanoseconds, in the manner of HdrHistogram:
+ * values below 32 get a bucket each, and every power of two above is split into 16 linear buckets,
+ * so any value is known to within 1/16 of itself (percentiles report the bucket midpoint) over the
+ * whole range of a long with under a thousand buckets.
+ * <p>
+ * Threads record into one of several stripes picked by thread id, so evaluators timing the same stage
+ * rarely touch the same cache line. Recording never allocates and does nothing while metrics are off.
+ */
+public final class LatencyRecorder {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;           // 16 per power of two
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;               // Values below 32 are exact
+    private static final int FIRST_EXPONENT = SUB_BUCKET_BITS + 1;         // 2^5 = 32
+    static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    // A power of two near the core count, at most 16 (each stripe is 7.5 KB)
+    private static final int STRIPES = Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKET_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record the time since a {@link PipelineMetrics#start()} timestamp
+     */
+    public void recordSince(long startNanos) {
+        if (PipelineMetrics.ENABLED) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Record one latency; negative values (a clock step) count as zero
+     */
+    public void record(long nanos) {
+        if (!PipelineMetrics.ENABLED) {
+            return;
+        }
+        long value = Math.max(0, nanos);
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        counts.getAndIncrement(stripe * BUCKET_COUNT + bucketOf(value));
+        totalNanos.add(value);
+        if (value > maxNanos.get()) {
+            maxNanos.accumulate(value);
+        }
+    }
+
+    /**
+     * Count, mean and percentiles of everything recorded since the start or the last reset.
+     * Taken while other threads record, so the figures may be a few samples apart.
+     */
+    public LatencySummary summary() {
+        long[] buckets = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            long value = counts.get(i);
+            buckets[i % BUCKET_COUNT] += value;
+            count += value;
+        }
+        long max = maxNanos.get();
+        return new LatencySummary(count, totalNanos.sum(),
+                percentile(buckets, count, 0.50, max), percentile(buckets, count, 0.90, max),
+                percentile(buckets, count, 0.99, max), percentile(buckets, count, 0.999, max), max);
+    }
+
+    void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowestValueOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + FIRST_EXPONENT;
+        long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long highestValueOf(int bucket) {
+        return bucket + 1 < BUCKET_COUNT ? lowestValueOf(bucket + 1) - 1 : Long.MAX_VALUE;
+    }
+
+    // Midpoint of the bucket holding the given rank, never above the largest value recorded
+    private static long percentile(long[] buckets, long count, double fraction, long max) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= rank) {
+                long low = lowestValueOf(bucket);
+                return Math.min(max, low + (highestValueOf(bucket) - low) / 2);
+            }
+        }
+        return max;
+    }
+}
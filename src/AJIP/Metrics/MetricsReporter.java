@@ -0,0 +1,70 @@
+package AJIP.Metrics;
+
+import AJIP.Logger.PGNLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a {@link PipelineMetrics} snapshot at a fixed interval and once more when closed.
+ * A file target is replaced atomically each time (JSON if its name ends in .json, text otherwise),
+ * so a monitor never reads half a snapshot; without a file the text goes to the log.
+ */
+public class MetricsReporter implements Closeable {
+
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param file            Snapshot file, null to log the snapshots instead
+     * @param intervalSeconds Seconds between snapshots
+     */
+    public MetricsReporter(Path file, long intervalSeconds) {
+        if (intervalSeconds <= 0) {
+            throw new IllegalArgumentException("Metrics interval must be positive, got: " + intervalSeconds);
+        }
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Write a snapshot now
+     */
+    public synchronized void report() {
+        if (file == null) {
+            PGNLogger.info(PipelineMetrics.snapshot().toText());
+            return;
+        }
+        String content = file.toString().endsWith(".json")
+                ? PipelineMetrics.snapshot().toJson() + "\n"
+                : PipelineMetrics.snapshot().toText();
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, content, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            PGNLogger.error("Failed to write metrics to " + file, e);
+        }
+    }
+
+    /**
+     * Stop the schedule and write the final snapshot
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        report();
+    }
+}
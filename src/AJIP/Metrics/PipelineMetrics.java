@@ -0,0 +1,145 @@
+package AJIP.Metrics;
+
+import AJIP.Records.LatencySummary;
+import AJIP.Records.MetricsSnapshot;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counters and latency recorders of the import pipeline's hot paths.
+ * <p>
+ * Metrics are off unless the JVM runs with {@code -Dajip.metrics=true} (the importer's {@code --metrics}
+ * option sets it). The switch is a static final field, so with metrics off the JIT folds every
+ * {@code if (ENABLED)} away and instrumented code runs as if it weren't instrumented. Usage at a call site:
+ * <pre>
+ *  long start = PipelineMetrics.start();
+ *  ... the stage ...
+ *  PipelineMetrics.SAN_PARSE.recordSince(start);
+ * </pre>
+ */
+public final class PipelineMetrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("ajip.metrics");
+
+    public static final String MBEAN_NAME = "AJIP:type=PipelineMetrics";
+
+    private static final List<Counter> COUNTERS = new ArrayList<>();
+    private static final List<LatencyRecorder> LATENCIES = new ArrayList<>();
+    private static volatile long startMillis = System.currentTimeMillis();
+
+    // Parsing: one sample per game for splitting the move section, one per move for SAN
+    public static final LatencyRecorder PGN_LEX = latency("pgn.lex");
+    public static final LatencyRecorder SAN_PARSE = latency("san.parse");
+    public static final Counter PGN_GAMES = counter("pgn.games");
+    public static final Counter SAN_MOVES = counter("san.moves");
+
+    // Validation: a whole MakeMove, and within it the candidate lookup and the per-candidate checks
+    public static final LatencyRecorder MOVE_MAKE = latency("move.make");
+    public static final LatencyRecorder MOVE_CANDIDATES = latency("move.candidates");
+    public static final LatencyRecorder MOVE_VALIDATE = latency("move.validate");
+    public static final LatencyRecorder SAFETY_CHECK = latency("safety.check");
+    public static final Counter SAFETY_CHECKS = counter("safety.checks");
+
+    // Logging calls, including formatting and the handlers' I/O
+    public static final LatencyRecorder LOG_WRITE = latency("log.write");
+
+    // Pipeline: time parsers block on a full queue and evaluators wait on an empty one, and whole games
+    public static final LatencyRecorder QUEUE_PUT_WAIT = latency("queue.put.wait");
+    public static final LatencyRecorder QUEUE_TAKE_WAIT = latency("queue.take.wait");
+    public static final LatencyRecorder GAME_EVALUATE = latency("game.evaluate");
+    public static final Counter GAMES_PASSED = counter("games.passed");
+    public static final Counter GAMES_FAILED = counter("games.failed");
+
+    private PipelineMetrics() {
+    }
+
+    /**
+     * Timestamp for {@link LatencyRecorder#recordSince}; 0 without reading the clock while metrics are off
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    public static MetricsSnapshot snapshot() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (Counter counter : COUNTERS) {
+            counters.put(counter.getName(), counter.sum());
+        }
+        Map<String, LatencySummary> latencies = new LinkedHashMap<>();
+        for (LatencyRecorder recorder : LATENCIES) {
+            latencies.put(recorder.getName(), recorder.summary());
+        }
+        return new MetricsSnapshot(System.currentTimeMillis() - startMillis, counters, latencies);
+    }
+
+    /**
+     * Zero every counter and recorder, e.g. between benchmark runs. Samples recorded concurrently may be lost.
+     */
+    public static void reset() {
+        COUNTERS.forEach(Counter::reset);
+        LATENCIES.forEach(LatencyRecorder::reset);
+        startMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Publish the metrics to JMX as {@value #MBEAN_NAME}, for jconsole or a monitoring agent; registering twice is harmless
+     */
+    public static void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new StandardMBean(new MBean(), PipelineMetricsMXBean.class, true), new ObjectName(MBEAN_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Already published
+        }
+    }
+
+    private static Counter counter(String name) {
+        Counter counter = new Counter(name);
+        COUNTERS.add(counter);
+        return counter;
+    }
+
+    private static LatencyRecorder latency(String name) {
+        LatencyRecorder recorder = new LatencyRecorder(name);
+        LATENCIES.add(recorder);
+        return recorder;
+    }
+
+    private static class MBean implements PipelineMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            return snapshot().counters();
+        }
+
+        @Override
+        public Map<String, String> getLatencies() {
+            Map<String, String> latencies = new LinkedHashMap<>();
+            snapshot().latencies().forEach((name, summary) -> latencies.put(name, summary.getLoggerMessage()));
+            return latencies;
+        }
+
+        @Override
+        public String getJson() {
+            return snapshot().toJson();
+        }
+
+        @Override
+        public void reset() {
+            PipelineMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package AJIP.Metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link PipelineMetrics}
+ */
+public interface PipelineMetricsMXBean {
+
+    boolean isEnabled();
+
+    Map<String, Long> getCounters();
+
+    /**
+     * Summary line per stage: count, total, mean and percentiles
+     */
+    Map<String, String> getLatencies();
+
+    String getJson();
+
+    void reset();
+}
@@ -0,0 +1,266 @@
+package AJIP.Model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable copy of a board position: one byte per square plus the FEN state fields.
+ * Cheap enough to take after every move, and it can be restored into any {@link ChessBoard}
+ * without allocating pieces.
+ *
+ * @param squares         64 piece codes, index row * 8 + col (row 0 is rank 8); 0 for an empty square
+ * @param castlingRights  Bit set of {@link #WHITE_KINGSIDE}, {@link #WHITE_QUEENSIDE},
+ *                        {@link #BLACK_KINGSIDE} and {@link #BLACK_QUEENSIDE}
+ * @param enPassantSquare Square (row * 8 + col) a pawn skipped with its last double step, -1 if none
+ * @param sideToMove      Color to play next
+ * @param halfMoveClock   Plies since the last capture or pawn move
+ * @param fullMoveNumber  Number of the move being played, starting at 1
+ */
+public record BoardSnapshot(byte[] squares, int castlingRights, int enPassantSquare, Color sideToMove,
+                            int halfMoveClock, int fullMoveNumber) {
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    private static final int BLACK_FLAG = 8;
+
+    public BoardSnapshot {
+        if (squares.length != 64) {
+            throw new IllegalArgumentException("A snapshot needs 64 squares, got: " + squares.length);
+        }
+        squares = squares.clone();
+    }
+
+    /**
+     * Code of a piece: type ordinal + 1, with bit 3 set for black; 0 for no piece
+     */
+    public static byte code(ChessPiece piece) {
+        if (piece == null) {
+            return 0;
+        }
+        return code(piece.getType(), piece.getColor());
+    }
+
+    public static byte code(PieceType type, Color color) {
+        return (byte) (type.ordinal() + 1 | (color == Color.BLACK ? BLACK_FLAG : 0));
+    }
+
+    /**
+     * Type of a non-zero piece code
+     */
+    public static PieceType typeOf(int code) {
+        return PieceType.fromCode((code & (BLACK_FLAG - 1)) - 1);
+    }
+
+    /**
+     * Color of a non-zero piece code
+     */
+    public static Color colorOf(int code) {
+        return (code & BLACK_FLAG) != 0 ? Color.BLACK : Color.WHITE;
+    }
+
+    /**
+     * Copy of the piece codes; the snapshot itself never changes
+     */
+    @Override
+    public byte[] squares() {
+        return squares.clone();
+    }
+
+    /**
+     * Piece code on a square
+     */
+    public int pieceAt(int row, int col) {
+        return squares[row * 8 + col];
+    }
+
+    /**
+     * Parse a FEN record. The halfmove clock and fullmove number may be left out, as some tools do;
+     * they then default to 0 and 1.
+     *
+     * @throws IllegalArgumentException if the FEN is malformed, or a side has no king or more than one
+     */
+    public static BoardSnapshot fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4 || fields.length > 6) {
+            throw new IllegalArgumentException("FEN must have 4 to 6 fields: " + fen);
+        }
+
+        byte[] squares = new byte[64];
+        int row = 0;
+        int col = 0;
+        int whiteKings = 0;
+        int blackKings = 0;
+        for (int i = 0; i < fields[0].length(); i++) {
+            char c = fields[0].charAt(i);
+            if (c == '/') {
+                if (col != 8 || ++row > 7) {
+                    throw new IllegalArgumentException("Bad rank " + (8 - row) + " in FEN: " + fen);
+                }
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                char upper = Character.toUpperCase(c);
+                PieceType type = upper == 'P' ? PieceType.PAWN : PieceType.fromLetter(upper);
+                if (type == null || col > 7) {
+                    throw new IllegalArgumentException("Bad piece '" + c + "' in FEN: " + fen);
+                }
+                Color color = c == upper ? Color.WHITE : Color.BLACK;
+                if (type == PieceType.PAWN && (row == 0 || row == 7)) {
+                    throw new IllegalArgumentException("Pawn on the back rank in FEN: " + fen);
+                }
+                if (type == PieceType.KING) {
+                    if (color == Color.WHITE) whiteKings++;
+                    else blackKings++;
+                }
+                squares[row * 8 + col] = code(type, color);
+                col++;
+            }
+            if (col > 8) {
+                throw new IllegalArgumentException("Rank " + (8 - row) + " is longer than 8 squares in FEN: " + fen);
+            }
+        }
+        if (row != 7 || col != 8) {
+            throw new IllegalArgumentException("FEN placement must describe 8 full ranks: " + fen);
+        }
+        if (whiteKings != 1 || blackKings != 1) {
+            throw new IllegalArgumentException("FEN must have exactly one king per side: " + fen);
+        }
+
+        Color sideToMove = switch (fields[1]) {
+            case "w" -> Color.WHITE;
+            case "b" -> Color.BLACK;
+            default -> throw new IllegalArgumentException("Bad side to move '" + fields[1] + "' in FEN: " + fen);
+        };
+
+        int castlingRights = 0;
+        if (!fields[2].equals("-")) {
+            for (int i = 0; i < fields[2].length(); i++) {
+                castlingRights |= switch (fields[2].charAt(i)) {
+                    case 'K' -> WHITE_KINGSIDE;
+                    case 'Q' -> WHITE_QUEENSIDE;
+                    case 'k' -> BLACK_KINGSIDE;
+                    case 'q' -> BLACK_QUEENSIDE;
+                    default -> throw new IllegalArgumentException("Unsupported castling rights '" + fields[2] +
+                            "' in FEN (only standard KQkq rights are supported): " + fen);
+                };
+            }
+        }
+
+        int enPassantSquare = -1;
+        if (!fields[3].equals("-")) {
+            String square = fields[3];
+            char expectedRank = sideToMove == Color.WHITE ? '6' : '3';
+            if (square.length() != 2 || square.charAt(0) < 'a' || square.charAt(0) > 'h' || square.charAt(1) != expectedRank) {
+                throw new IllegalArgumentException("Bad en passant square '" + square + "' in FEN: " + fen);
+            }
+            enPassantSquare = ('8' - square.charAt(1)) * 8 + (square.charAt(0) - 'a');
+        }
+
+        int halfMoveClock = fields.length > 4 ? parseCounter(fields[4], 0, fen) : 0;
+        int fullMoveNumber = fields.length > 5 ? parseCounter(fields[5], 1, fen) : 1;
+
+        return new BoardSnapshot(squares, castlingRights, enPassantSquare, sideToMove, halfMoveClock, fullMoveNumber);
+    }
+
+    private static int parseCounter(String field, int minimum, String fen) {
+        try {
+            int value = Integer.parseInt(field);
+            if (value >= minimum) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Bad move counter '" + field + "' in FEN: " + fen);
+    }
+
+    /**
+     * The position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        appendFen(fen, squares, castlingRights, enPassantSquare, sideToMove, halfMoveClock, fullMoveNumber);
+        return fen.toString();
+    }
+
+    /**
+     * Write a FEN record from its parts; shared with {@link ChessBoard#AppendFen}, which uses it without allocating
+     */
+    static void appendFen(StringBuilder fen, byte[] squares, int castlingRights, int enPassantSquare,
+                          Color sideToMove, int halfMoveClock, int fullMoveNumber) {
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int code = squares[row * 8 + col];
+                if (code == 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                PieceType type = typeOf(code);
+                char letter = type == PieceType.PAWN ? 'P' : type.getLetter();
+                fen.append(colorOf(code) == Color.WHITE ? letter : Character.toLowerCase(letter));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row < 7) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(' ').append(sideToMove == Color.WHITE ? 'w' : 'b').append(' ');
+
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            if ((castlingRights & WHITE_KINGSIDE) != 0) fen.append('K');
+            if ((castlingRights & WHITE_QUEENSIDE) != 0) fen.append('Q');
+            if ((castlingRights & BLACK_KINGSIDE) != 0) fen.append('k');
+            if ((castlingRights & BLACK_QUEENSIDE) != 0) fen.append('q');
+        }
+
+        fen.append(' ');
+        if (enPassantSquare == -1) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + enPassantSquare % 8)).append((char) ('8' - enPassantSquare / 8));
+        }
+
+        fen.append(' ').append(halfMoveClock).append(' ').append(fullMoveNumber);
+    }
+
+    // Records compare arrays by identity; positions should compare by content
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof BoardSnapshot that
+                && Arrays.equals(squares, that.squares)
+                && castlingRights == that.castlingRights
+                && enPassantSquare == that.enPassantSquare
+                && sideToMove == that.sideToMove
+                && halfMoveClock == that.halfMoveClock
+                && fullMoveNumber == that.fullMoveNumber;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(squares);
+        hash = 31 * hash + castlingRights;
+        hash = 31 * hash + enPassantSquare;
+        hash = 31 * hash + sideToMove.hashCode();
+        hash = 31 * hash + halfMoveClock;
+        return 31 * hash + fullMoveNumber;
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+}
@@ -7,53 +7,213 @@ public class ChessBoard {
 
     public ChessPiece[][] board;
 
+    // Square (row * 8 + col) a pawn skipped with its last double step, -1 if en passant is not possible
+    public int enPassantSquare = -1;
+
+    // Plies since the last capture or pawn move (the FEN halfmove clock)
+    public int halfMoveClock;
+
+    // Color to play next and the number of the move being played, kept up to date by the move executor
+    public Color sideToMove = Color.WHITE;
+    public int fullMoveNumber = 1;
+
+    private static final PieceType[] BACK_RANK = {PieceType.ROOK, PieceType.KNIGHT, PieceType.BISHOP, PieceType.QUEEN,
+            PieceType.KING, PieceType.BISHOP, PieceType.KNIGHT, PieceType.ROOK};
+
+    // The 32 pieces of the start position, allocated once per board and put back on every reset.
+    // Rows 2-5 stay null, so copying them clears the middle of the board.
+    private final ChessPiece[][] startPosition = new ChessPiece[8][8];
+
+    // Scratch piece codes for FEN output and snapshots
+    private final byte[] fenSquares = new byte[64];
+
 
     public ChessBoard() {
         board = new ChessPiece[8][8];
+        for (int col = 0; col < 8; col++) {
+            // Set up black pieces (top of board)
+            startPosition[0][col] = new ChessPiece(BACK_RANK[col], Color.BLACK);
+            startPosition[1][col] = new ChessPiece(PieceType.PAWN, Color.BLACK);
+            // Set up white pieces (bottom of board)
+            startPosition[6][col] = new ChessPiece(PieceType.PAWN, Color.WHITE);
+            startPosition[7][col] = new ChessPiece(BACK_RANK[col], Color.WHITE);
+        }
         SetupBoard();
     }
+
+    /**
+     * Back to the start position without allocating; the pooled pieces lose their moved flags
+     */
     public  void ResetBoard(){
         SetupBoard();
     }
 
     private void SetupBoard() {
-        // Initialize empty board (all null)
+        enPassantSquare = -1;
+        halfMoveClock = 0;
+        sideToMove = Color.WHITE;
+        fullMoveNumber = 1;
+        for (int row = 0; row < 8; row++) {
+            System.arraycopy(startPosition[row], 0, board[row], 0, 8);
+        }
+        for (int col = 0; col < 8; col++) {
+            startPosition[0][col].ResetMoved();
+            startPosition[1][col].ResetMoved();
+            startPosition[6][col].ResetMoved();
+            startPosition[7][col].ResetMoved();
+        }
+    }
+
+    /**
+     * Set the board to a position given in Forsyth-Edwards Notation
+     *
+     * @throws IllegalArgumentException if the FEN is malformed; the board is left unchanged
+     */
+    public void LoadFen(String fen) {
+        Restore(BoardSnapshot.fromFen(fen));
+    }
+
+    /**
+     * Current position in Forsyth-Edwards Notation
+     */
+    public String ToFen() {
+        StringBuilder fen = new StringBuilder(90);
+        AppendFen(fen);
+        return fen.toString();
+    }
+
+    /**
+     * Append the FEN of the current position to a caller-owned buffer (no allocation once the buffer has grown).
+     * Castling rights are derived from the moved flags of the kings and rooks on their start squares.
+     */
+    public void AppendFen(StringBuilder fen) {
+        EncodeSquares(fenSquares);
+        BoardSnapshot.appendFen(fen, fenSquares, CastlingRights(), enPassantSquare, sideToMove, halfMoveClock, fullMoveNumber);
+    }
+
+    /**
+     * Immutable copy of the current position
+     */
+    public BoardSnapshot TakeSnapshot() {
+        EncodeSquares(fenSquares);
+        return new BoardSnapshot(fenSquares, CastlingRights(), enPassantSquare, sideToMove, halfMoveClock, fullMoveNumber);
+    }
+
+    /**
+     * Put a snapshot on the board without allocating. Pieces on their start squares that still need their
+     * unmoved flag (pawns that may double step, kings and rooks that may castle) come from this board's
+     * start position pool; every other piece is a shared moved piece.
+     */
+    public void Restore(BoardSnapshot snapshot) {
+        int rights = snapshot.castlingRights();
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
-                board[row][col] = null;
+                int code = snapshot.pieceAt(row, col);
+                if (code == 0) {
+                    board[row][col] = null;
+                    continue;
+                }
+                PieceType type = BoardSnapshot.typeOf(code);
+                Color color = BoardSnapshot.colorOf(code);
+                ChessPiece pooled = startPosition[row][col];
+                boolean unmoved = pooled != null && pooled.getType() == type && pooled.getColor() == color
+                        && switch (type) {
+                    case PAWN -> true;
+                    case KING -> (rights & (color == Color.WHITE
+                            ? BoardSnapshot.WHITE_KINGSIDE | BoardSnapshot.WHITE_QUEENSIDE
+                            : BoardSnapshot.BLACK_KINGSIDE | BoardSnapshot.BLACK_QUEENSIDE)) != 0;
+                    case ROOK -> (rights & RookRight(row, col)) != 0;
+                    default -> false;
+                };
+                if (unmoved) {
+                    pooled.ResetMoved();
+                    board[row][col] = pooled;
+                } else {
+                    board[row][col] = ChessPiece.Promoted(type, color);
+                }
             }
         }
-        // Set up black pieces (top of board)
-        // Back row (row 0)
-        board[0][0] = new ChessPiece("Rook", "black");
-        board[0][1] = new ChessPiece("Knight", "black");
-        board[0][2] = new ChessPiece("Bishop", "black");
-        board[0][3] = new ChessPiece("Queen", "black");
-        board[0][4] = new ChessPiece("King", "black");
-        board[0][5] = new ChessPiece("Bishop", "black");
-        board[0][6] = new ChessPiece("Knight", "black");
-        board[0][7] = new ChessPiece("Rook", "black");
-
-        // Black pawns (row 1)
-        for (int col = 0; col < 8; col++) {
-            board[1][col] = new ChessPiece("Pawn", "black");
+        enPassantSquare = snapshot.enPassantSquare();
+        sideToMove = snapshot.sideToMove();
+        halfMoveClock = snapshot.halfMoveClock();
+        fullMoveNumber = snapshot.fullMoveNumber();
+    }
+
+    /**
+     * Zobrist hash of the position: pieces, side to move, castling rights, and the en passant file
+     * when a pawn of the side to move can actually capture there (so transpositions hash alike)
+     */
+    public long ZobristKey() {
+        long key = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = board[row][col];
+                if (piece != null) {
+                    key ^= Zobrist.PIECES[piece.getColor().ordinal()][piece.getType().ordinal()][row * 8 + col];
+                }
+            }
+        }
+        if (sideToMove == Color.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
         }
+        key ^= Zobrist.CASTLING[CastlingRights()];
+        if (enPassantSquare != -1 && CanCaptureEnPassant()) {
+            key ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        }
+        return key;
+    }
 
-        // Set up white pieces (bottom of board)
-        // White pawns (row 6)
-        for (int col = 0; col < 8; col++) {
-            board[6][col] = new ChessPiece("Pawn", "white");
+    // A pawn of the side to move stands beside the pawn that just double stepped
+    private boolean CanCaptureEnPassant() {
+        int pawnRow = sideToMove == Color.WHITE ? 3 : 4;
+        int col = enPassantSquare % 8;
+        for (int side = -1; side <= 1; side += 2) {
+            int c = col + side;
+            if (c < 0 || c > 7) {
+                continue;
+            }
+            ChessPiece piece = board[pawnRow][c];
+            if (piece != null && piece.getType() == PieceType.PAWN && piece.getColor() == sideToMove) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void EncodeSquares(byte[] squares) {
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                squares[row * 8 + col] = BoardSnapshot.code(board[row][col]);
+            }
+        }
+    }
+
+    private int CastlingRights() {
+        int rights = 0;
+        if (CanStillCastle(7, 7)) rights |= BoardSnapshot.WHITE_KINGSIDE;
+        if (CanStillCastle(7, 0)) rights |= BoardSnapshot.WHITE_QUEENSIDE;
+        if (CanStillCastle(0, 7)) rights |= BoardSnapshot.BLACK_KINGSIDE;
+        if (CanStillCastle(0, 0)) rights |= BoardSnapshot.BLACK_QUEENSIDE;
+        return rights;
+    }
+
+    // Castling right that keeps the rook on a corner square unmoved, 0 for any other square
+    private static int RookRight(int row, int col) {
+        if (row == 7) {
+            return col == 7 ? BoardSnapshot.WHITE_KINGSIDE : col == 0 ? BoardSnapshot.WHITE_QUEENSIDE : 0;
+        }
+        if (row == 0) {
+            return col == 7 ? BoardSnapshot.BLACK_KINGSIDE : col == 0 ? BoardSnapshot.BLACK_QUEENSIDE : 0;
         }
+        return 0;
+    }
 
-        // Back row (row 7)
-        board[7][0] = new ChessPiece("Rook", "white");
-        board[7][1] = new ChessPiece("Knight", "white");
-        board[7][2] = new ChessPiece("Bishop", "white");
-        board[7][3] = new ChessPiece("Queen", "white");
-        board[7][4] = new ChessPiece("King", "white");
-        board[7][5] = new ChessPiece("Bishop", "white");
-        board[7][6] = new ChessPiece("Knight", "white");
-        board[7][7] = new ChessPiece("Rook", "white");
+    private boolean CanStillCastle(int row, int rookCol) {
+        ChessPiece king = board[row][4];
+        ChessPiece rook = board[row][rookCol];
+        Color color = row == 7 ? Color.WHITE : Color.BLACK;
+        return king != null && king.getType() == PieceType.KING && king.getColor() == color && !king.IsMoved()
+                && rook != null && rook.getType() == PieceType.ROOK && rook.getColor() == color && !rook.IsMoved();
     }
 
     public void logBoard() {
@@ -1,15 +1,27 @@
 package AJIP.Model;
 
 import java.util.List;
+import java.util.Map;
 
 public class ChessGame {
     public List<ChessMove> moves;
     public String originalText;
+    public Map<String, String> headers; // PGN tag pairs, e.g. "Event" -> "London"
+
+    // Where the game came from (unset for games built by hand; the archive path for archived games)
+    public String sourceFile;
+    public int gameNumber;       // 1-based position of the game within its file
+    public long endOffset = -1;  // Byte offset just past the game's last line
 
 
     public ChessGame(List<ChessMove> moves, String movesText) {
+        this(moves, movesText, Map.of());
+    }
+
+    public ChessGame(List<ChessMove> moves, String movesText, Map<String, String> headers) {
         this.moves = moves;
         this.originalText = movesText;
+        this.headers = headers;
     }
 
 
@@ -20,4 +32,30 @@ public class ChessGame {
     public String getOriginalText() {
         return originalText;
     }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Identifies the game in verdicts: "file#number", or "#number" for games without a source file
+     */
+    public String getGameId() {
+        return (sourceFile != null ? sourceFile : "") + "#" + gameNumber;
+    }
+
+    /**
+     * FEN the game starts from, or null for the standard start position
+     */
+    public String getStartingFen() {
+        return startingFen(headers);
+    }
+
+    /**
+     * FEN tag of a game's headers; it is honoured unless SetUp is explicitly "0"
+     */
+    public static String startingFen(Map<String, String> headers) {
+        String fen = headers.get("FEN");
+        return fen == null || "0".equals(headers.get("SetUp")) ? null : fen;
+    }
 }
@@ -1,13 +1,13 @@
 package AJIP.Model;
 public class ChessMove {
     // Player information
-    public String color;        // "white" or "black"
+    public Color color;         // WHITE or BLACK
 
     // Move notation
     public String notation;      // The original SAN string (e.g., "e4", "Nxf3+")
 
     // Piece information
-    public String pieceType;     // "King", "Queen", "Rook", "Bishop", "Knight", "Pawn"
+    public PieceType pieceType;  // KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN
 
     // Board coordinates
     public int fromRow;          // Starting row (0-7)
@@ -21,7 +21,7 @@ public class ChessMove {
     public boolean isCheckmate;  // Whether this move gives checkmate
     public boolean isCastling;   // Whether this is a castling move
     public boolean isPromotion;  // Whether this is a pawn promotion
-    public String promotionPiece; // If promoting, what piece type ("Queen", "Rook", etc.)
+    public PieceType promotionPiece; // If promoting, what piece type (QUEEN, ROOK, etc.)
 
     // For disambiguation
     public String disambiguationFile;  // File used for disambiguation (if any)
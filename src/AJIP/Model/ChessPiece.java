@@ -1,18 +1,33 @@
 package AJIP.Model;
 
 public class ChessPiece {
-    private final String type;    // pawn, knight, bishop, rook, queen, king
-    private  final String color;   // white or black
+
+    // Promoted pieces count as moved, and the flag never goes back to false, so one shared instance
+    // per type and color can stand in for every promotion, and for any piece whose moved flag no longer matters
+    private static final ChessPiece[][] PROMOTED = new ChessPiece[2][PieceType.values().length];
+
+    static {
+        for (Color color : Color.values()) {
+            for (PieceType type : PieceType.values()) {
+                ChessPiece piece = new ChessPiece(type, color);
+                piece.isMoved = true;
+                PROMOTED[color.ordinal()][type.ordinal()] = piece;
+            }
+        }
+    }
+
+    private final PieceType type;
+    private  final Color color;
     private boolean isMoved; // for king and rooks (castling) and pawns
-    public ChessPiece(String type, String color) {
+    public ChessPiece(PieceType type, Color color) {
         this.type = type;
         this.color = color;
         this.isMoved = false;
     }
-    public String getType() {
+    public PieceType getType() {
         return type;
     }
-    public String getColor() {
+    public Color getColor() {
         return color;
     }
     public boolean IsMoved() {
@@ -21,16 +36,20 @@ public class ChessPiece {
     public void SetMoved() {
         isMoved = true;
     }
+
+    // Only the board that owns the piece may take the flag back, when it resets to the start position
+    void ResetMoved() {
+        isMoved = false;
+    }
+
+    /**
+     * Shared, already-moved piece to place on a promotion square, or anywhere a position is set up
+     * where the piece can no longer double step or castle
+     */
+    public static ChessPiece Promoted(PieceType type, Color color) {
+        return PROMOTED[color.ordinal()][type.ordinal()];
+    }
     public String getSymbol() {
-        return switch (this.type) {
-            case "Pawn" -> this.color.equals("white") ? "♙ " : "♟ "; // Pawn
-            case "King" -> this.color.equals("white") ? "♔ " : "♚ "; // King
-            case "Queen" -> this.color.equals("white") ? "♕ " : "♛ "; // Queen
-            case "Bishop" -> this.color.equals("white") ? "♗ " : "♝ "; // Bishop
-            case "Knight" -> this.color.equals("white") ? "♘ " : "♞ "; // Knight
-            case "Rook" -> this.color.equals("white") ? "♖ " : "♜ ";
-            default -> // Rook
-                    ". ";
-        };
+        return type.getSymbol(color);
     }
 }
@@ -0,0 +1,35 @@
+package AJIP.Model;
+
+/**
+ * Side a piece or move belongs to
+ */
+public enum Color {
+    WHITE("white"),
+    BLACK("black");
+
+    private final String name;
+
+    Color(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Color opposite() {
+        return this == WHITE ? BLACK : WHITE;
+    }
+
+    /**
+     * Color for a display name ("white" or "black"), or null if the name is unknown
+     */
+    public static Color fromName(String name) {
+        return WHITE.name.equals(name) ? WHITE : BLACK.name.equals(name) ? BLACK : null;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
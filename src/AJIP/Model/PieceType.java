@@ -0,0 +1,81 @@
+package AJIP.Model;
+
+/**
+ * Chess piece types. The ordinal doubles as the compact piece code (used by the move archive),
+ * so the order of the constants must not change.
+ */
+public enum PieceType {
+    PAWN("Pawn", ' ', "♙ ", "♟ "),
+    KNIGHT("Knight", 'N', "♘ ", "♞ "),
+    BISHOP("Bishop", 'B', "♗ ", "♝ "),
+    ROOK("Rook", 'R', "♖ ", "♜ "),
+    QUEEN("Queen", 'Q', "♕ ", "♛ "),
+    KING("King", 'K', "♔ ", "♚ ");
+
+    private static final PieceType[] CODES = values();
+
+    private final String name;
+    private final char letter;
+    private final String whiteSymbol;
+    private final String blackSymbol;
+
+    PieceType(String name, char letter, String whiteSymbol, String blackSymbol) {
+        this.name = name;
+        this.letter = letter;
+        this.whiteSymbol = whiteSymbol;
+        this.blackSymbol = blackSymbol;
+    }
+
+    /**
+     * Display name as used in logs and validation messages ("Pawn", "Knight", ...)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * SAN letter; a space for pawns, which have none
+     */
+    public char getLetter() {
+        return letter;
+    }
+
+    public String getSymbol(Color color) {
+        return color == Color.WHITE ? whiteSymbol : blackSymbol;
+    }
+
+    public static PieceType fromCode(int code) {
+        return CODES[code];
+    }
+
+    /**
+     * Piece type for a SAN letter (K, Q, R, B, N), or null if the letter is not a piece
+     */
+    public static PieceType fromLetter(char letter) {
+        return switch (letter) {
+            case 'K' -> KING;
+            case 'Q' -> QUEEN;
+            case 'R' -> ROOK;
+            case 'B' -> BISHOP;
+            case 'N' -> KNIGHT;
+            default -> null;
+        };
+    }
+
+    /**
+     * Piece type for a display name ("Queen"), or null if the name is unknown
+     */
+    public static PieceType fromName(String name) {
+        for (PieceType type : CODES) {
+            if (type.name.equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
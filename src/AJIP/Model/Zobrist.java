@@ -0,0 +1,38 @@
+package AJIP.Model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist position hashing. The seed is fixed so keys, and therefore hashes
+ * written to disk, are the same in every run.
+ */
+final class Zobrist {
+
+    // [color][piece type][square]
+    static final long[][][] PIECES = new long[2][PieceType.values().length][64];
+    // Indexed by the BoardSnapshot castling rights bit set
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x414A4950L); // "AJIP"
+        for (long[][] byType : PIECES) {
+            for (long[] bySquare : byType) {
+                for (int square = 0; square < 64; square++) {
+                    bySquare[square] = random.nextLong();
+                }
+            }
+        }
+        for (int rights = 1; rights < 16; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+}
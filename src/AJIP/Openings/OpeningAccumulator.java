@@ -0,0 +1,242 @@
+package AJIP.Openings;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Counts, for the opening plies of validated games, how often each move was played from each position
+ * and how those games ended.
+ * <p>
+ * Not thread-safe: every evaluator thread owns one accumulator, and the accumulators are merged
+ * once the threads have finished. Entries live in parallel primitive arrays forming an open-addressing
+ * table keyed by (position key, move), so adding a ply never allocates.
+ */
+public class OpeningAccumulator {
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private long[] positions;
+    private int[] moves;
+    private int[] games;      // 0 marks a free slot
+    private int[] whiteWins;
+    private int[] draws;
+    private int[] blackWins;
+    private int mask;
+    private int size;
+    private long gameCount;
+
+    public OpeningAccumulator() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Add the opening of one validated game
+     *
+     * @param positionKeys Zobrist key of the position before each ply
+     * @param moveCodes    {@link OpeningTree#moveCode} of each ply
+     * @param plies        Number of leading entries to use
+     * @param result       The game's Result tag; anything but "1-0", "0-1" and "1/2-1/2" counts as unfinished
+     */
+    public void addGame(long[] positionKeys, int[] moveCodes, int plies, String result) {
+        int white = "1-0".equals(result) ? 1 : 0;
+        int draw = "1/2-1/2".equals(result) ? 1 : 0;
+        int black = "0-1".equals(result) ? 1 : 0;
+        for (int ply = 0; ply < plies; ply++) {
+            add(positionKeys[ply], moveCodes[ply], 1, white, draw, black);
+        }
+        gameCount++;
+    }
+
+    /**
+     * Fold another accumulator's counts into this one
+     */
+    public void mergeFrom(OpeningAccumulator other) {
+        for (int slot = 0; slot < other.games.length; slot++) {
+            if (other.games[slot] != 0) {
+                add(other.positions[slot], other.moves[slot], other.games[slot],
+                        other.whiteWins[slot], other.draws[slot], other.blackWins[slot]);
+            }
+        }
+        gameCount += other.gameCount;
+    }
+
+    /**
+     * Number of distinct (position, move) pairs
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Merge the accumulators of all threads and write them as an opening tree file for {@link OpeningTree}
+     *
+     * @return the number of records written
+     */
+    public static int write(Path file, List<OpeningAccumulator> accumulators, int maxPlies) throws IOException {
+        // Fold everything into the largest accumulator rather than copying it
+        OpeningAccumulator merged = new OpeningAccumulator();
+        for (OpeningAccumulator accumulator : accumulators) {
+            if (accumulator.size > merged.size) {
+                merged = accumulator;
+            }
+        }
+        for (OpeningAccumulator accumulator : accumulators) {
+            if (accumulator != merged) {
+                merged.mergeFrom(accumulator);
+            }
+        }
+        merged.writeTo(file, maxPlies);
+        return merged.size;
+    }
+
+    /**
+     * Write this accumulator as an opening tree file: records sorted by position key,
+     * and within a position by games played, most played first
+     */
+    public void writeTo(Path file, int maxPlies) throws IOException {
+        int[] order = sortedSlots();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile()), 1 << 16))) {
+            out.writeInt(OpeningTree.MAGIC);
+            out.writeInt(OpeningTree.VERSION);
+            out.writeInt(maxPlies);
+            out.writeLong(gameCount);
+            out.writeLong(size);
+            for (int slot : order) {
+                out.writeLong(positions[slot]);
+                out.writeInt(moves[slot]);
+                out.writeInt(games[slot]);
+                out.writeInt(whiteWins[slot]);
+                out.writeInt(draws[slot]);
+                out.writeInt(blackWins[slot]);
+            }
+        }
+    }
+
+    private void add(long position, int move, int gameDelta, int whiteDelta, int drawDelta, int blackDelta) {
+        int slot = slotOf(position, move);
+        while (games[slot] != 0 && (positions[slot] != position || moves[slot] != move)) {
+            slot = (slot + 1) & mask;
+        }
+        boolean isNew = games[slot] == 0;
+        if (isNew) {
+            positions[slot] = position;
+            moves[slot] = move;
+        }
+        games[slot] += gameDelta;
+        whiteWins[slot] += whiteDelta;
+        draws[slot] += drawDelta;
+        blackWins[slot] += blackDelta;
+        if (isNew && ++size > games.length / 2) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        long[] oldPositions = positions;
+        int[] oldMoves = moves;
+        int[] oldGames = games;
+        int[] oldWhite = whiteWins;
+        int[] oldDraws = draws;
+        int[] oldBlack = blackWins;
+        allocate(oldGames.length * 2);
+        for (int old = 0; old < oldGames.length; old++) {
+            if (oldGames[old] == 0) {
+                continue;
+            }
+            int slot = slotOf(oldPositions[old], oldMoves[old]);
+            while (games[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            positions[slot] = oldPositions[old];
+            moves[slot] = oldMoves[old];
+            games[slot] = oldGames[old];
+            whiteWins[slot] = oldWhite[old];
+            draws[slot] = oldDraws[old];
+            blackWins[slot] = oldBlack[old];
+        }
+    }
+
+    private void allocate(int capacity) {
+        positions = new long[capacity];
+        moves = new int[capacity];
+        games = new int[capacity];
+        whiteWins = new int[capacity];
+        draws = new int[capacity];
+        blackWins = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    // Zobrist keys are already random, but the move code is not; spread both over the low bits
+    private int slotOf(long position, int move) {
+        long value = position ^ move * 0x9E3779B97F4A7C15L;
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        return (int) (value ^ value >>> 33) & mask;
+    }
+
+    // Occupied slots ordered by position key, then by games played (descending), then by move,
+    // so the file doesn't depend on which thread saw which game
+    private int[] sortedSlots() {
+        int[] order = new int[size];
+        int count = 0;
+        for (int slot = 0; slot < games.length; slot++) {
+            if (games[slot] != 0) {
+                order[count++] = slot;
+            }
+        }
+        sort(order, 0, count - 1);
+        return order;
+    }
+
+    private int compare(int a, int b) {
+        int byPosition = Long.compare(positions[a], positions[b]);
+        if (byPosition != 0) {
+            return byPosition;
+        }
+        int byGames = Integer.compare(games[b], games[a]);
+        return byGames != 0 ? byGames : Integer.compare(moves[a], moves[b]);
+    }
+
+    // Quicksort on slot indices, so millions of entries sort without boxing
+    private void sort(int[] order, int low, int high) {
+        while (high - low > 16) {
+            int pivot = order[low + (high - low) / 2];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(order[i], pivot) < 0) i++;
+                while (compare(order[j], pivot) > 0) j--;
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            // Recurse into the smaller half, loop on the larger one
+            if (j - low < high - i) {
+                sort(order, low, j);
+                low = i;
+            } else {
+                sort(order, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int slot = order[i];
+            int j = i - 1;
+            while (j >= low && compare(order[j], slot) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = slot;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package AJIP.Openings;
+
+import AJIP.Model.ChessBoard;
+import AJIP.Model.PieceType;
+import AJIP.Records.OpeningMove;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only, memory-mapped opening tree written by {@link OpeningAccumulator}.
+ * <p>
+ * File layout:
+ * <pre>
+ *  header  : int magic, int version, int maxPlies, long gameCount, long recordCount
+ *  records : long positionKey, int move, int games, int whiteWins, int draws, int blackWins
+ * </pre>
+ * Records are sorted by position key, so a lookup is a binary search over the mapped file followed
+ * by a short scan; nothing is read into the heap up front. Lookups may run from any number of threads.
+ */
+public class OpeningTree implements Closeable {
+
+    static final int MAGIC = 0x414A4F54; // "AJOT"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8;
+    static final int RECORD_SIZE = 8 + 4 * 5;
+
+    // A single mapping is limited to 2 GB, so large trees are mapped in segments of whole records
+    private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_SIZE;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int maxPlies;
+    private final long gameCount;
+    private final long recordCount;
+
+    private OpeningTree(FileChannel channel, Path file) throws IOException {
+        this.channel = channel;
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("Not an opening tree: " + file);
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not an opening tree: " + file);
+        }
+        this.maxPlies = header.getInt();
+        this.gameCount = header.getLong();
+        this.recordCount = header.getLong();
+        if (channel.size() != HEADER_SIZE + recordCount * RECORD_SIZE) {
+            throw new IOException("Truncated opening tree: " + file);
+        }
+
+        int segmentCount = (int) ((recordCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long first = (long) i * RECORDS_PER_SEGMENT;
+            long records = Math.min(RECORDS_PER_SEGMENT, recordCount - first);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE);
+        }
+    }
+
+    public static OpeningTree open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new OpeningTree(channel, file);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of plies from the start of each game that were counted
+     */
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    /**
+     * Number of validated games the tree was built from
+     */
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Number of distinct (position, move) records
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Moves played from the board's current position, most played first
+     */
+    public List<OpeningMove> lookup(ChessBoard board) {
+        return lookup(board.ZobristKey());
+    }
+
+    /**
+     * Moves played from a position given as FEN, most played first
+     *
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public List<OpeningMove> lookup(String fen) {
+        ChessBoard board = new ChessBoard();
+        board.LoadFen(fen);
+        return lookup(board.ZobristKey());
+    }
+
+    /**
+     * Moves played from the position with this {@link ChessBoard#ZobristKey()}, most played first;
+     * empty if the position is not in the tree
+     */
+    public List<OpeningMove> lookup(long positionKey) {
+        // Lower bound: first record whose key is not below positionKey
+        long low = 0;
+        long high = recordCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (positionAt(mid) < positionKey) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        List<OpeningMove> moves = new ArrayList<>();
+        for (long record = low; record < recordCount && positionAt(record) == positionKey; record++) {
+            ByteBuffer segment = segments[(int) (record / RECORDS_PER_SEGMENT)];
+            int offset = (int) (record % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+            moves.add(new OpeningMove(moveToString(segment.getInt(offset + 8)), segment.getInt(offset + 12),
+                    segment.getInt(offset + 16), segment.getInt(offset + 20), segment.getInt(offset + 24)));
+        }
+        return moves;
+    }
+
+    // Absolute reads only, so concurrent lookups never touch a buffer's position
+    private long positionAt(long record) {
+        return segments[(int) (record / RECORDS_PER_SEGMENT)].getLong((int) (record % RECORDS_PER_SEGMENT) * RECORD_SIZE);
+    }
+
+    /**
+     * Code of a move for the tree: from square in bits 0-5, to square in bits 6-11 (row * 8 + col),
+     * promotion piece ordinal + 1 in bits 12-14 (0 for none)
+     */
+    public static int moveCode(int fromRow, int fromCol, int toRow, int toCol, PieceType promotion) {
+        return (fromRow * 8 + fromCol) | (toRow * 8 + toCol) << 6 | (promotion != null ? promotion.ordinal() + 1 : 0) << 12;
+    }
+
+    /**
+     * Coordinate notation of a move code, e.g. "g1f3" or "e7e8q"
+     */
+    public static String moveToString(int code) {
+        int from = code & 63;
+        int to = code >>> 6 & 63;
+        int promotion = code >>> 12 & 7;
+        StringBuilder move = new StringBuilder(5)
+                .append((char) ('a' + from % 8)).append((char) ('8' - from / 8))
+                .append((char) ('a' + to % 8)).append((char) ('8' - to / 8));
+        if (promotion != 0) {
+            move.append(Character.toLowerCase(PieceType.fromCode(promotion - 1).getLetter()));
+        }
+        return move.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
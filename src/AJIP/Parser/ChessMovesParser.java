@@ -1,7 +1,10 @@
 package AJIP.Parser;
 
 import AJIP.Logger.PGNLogger;
+import AJIP.Metrics.PipelineMetrics;
 import AJIP.Model.ChessMove;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
 import AJIP.Records.ParseResult;
 
 import java.util.ArrayList;
@@ -19,7 +22,15 @@ public class ChessMovesParser {
      * Parse moves with game context for better error logging
      */
     static public List<ChessMove> parseWithContext(List<String> moves, String originalGameText, int gameNumber) {
-        boolean isWhiteToMove = true;
+        return parseWithContext(moves, originalGameText, gameNumber, true);
+    }
+
+    /**
+     * Parse moves of a game whose first move may be black's, as in games set up from a FEN tag
+     */
+    static public List<ChessMove> parseWithContext(List<String> moves, String originalGameText, int gameNumber,
+                                                   boolean whiteStarts) {
+        boolean isWhiteToMove = whiteStarts;
         List<ChessMove> chessMoves = new ArrayList<>();
 
         ParseResult startResult = ParseResult.info("Move Parsing Started", "Move",
@@ -30,7 +41,10 @@ public class ChessMovesParser {
         for (int moveIndex = 0; moveIndex < moves.size(); moveIndex++) {
             String moveText = moves.get(moveIndex);
             if (!moveText.isEmpty()) {
+                long start = PipelineMetrics.start();
                 ChessMove move = parseMoveWithContext(moveText, isWhiteToMove, originalGameText, gameNumber, moveIndex + 1);
+                PipelineMetrics.SAN_PARSE.recordSince(start);
+                PipelineMetrics.SAN_MOVES.increment();
                 if (move != null) {
                     chessMoves.add(move);
 //                    ParseResult successResult = ParseResult.moveSuccess("Move Parsed", moveText);
@@ -65,21 +79,25 @@ public class ChessMovesParser {
         try {
             ChessMove move = new ChessMove();
             move.notation = moveText;
-            move.color = isWhiteToMove ? "white" : "black";
+            move.color = isWhiteToMove ? Color.WHITE : Color.BLACK;
+
+            // Extract check/checkmate indicators
+            move.isCheck = moveText.contains("+");
+            move.isCheckmate = moveText.contains("#");
+            String cleanMove = moveText.replaceAll("[+#]", "");
 
-            // Handle castling
-            if (moveText.matches("O-O(-O)?|0-0(-0)?")) {
+            // Handle castling (it can give check or mate as well)
+            if (cleanMove.matches("O-O(-O)?|0-0(-0)?")) {
                 ChessMove castlingMove = parseCastling(moveText, isWhiteToMove);
+                if (castlingMove != null) {
+                    castlingMove.isCheck = move.isCheck;
+                    castlingMove.isCheckmate = move.isCheckmate;
+                }
                 ParseResult castlingResult = ParseResult.moveSuccess("Castling Parsed", moveText);
 //                PGNLogger.info(castlingResult.getLoggerMessage());
                 return castlingMove;
             }
 
-            // Extract check/checkmate indicators
-            move.isCheck = moveText.contains("+");
-            move.isCheckmate = moveText.contains("#");
-            String cleanMove = moveText.replaceAll("[+#]", "");
-
             // Parse regular moves using regex
             // Pattern matches: 1 [piece] 2 [from file] 3 [from rank] 4 [capture] 5 [destination] 6[promotion 7 (group 6 is full "=Q", group 7 is just "Q")]
             Pattern pattern = Pattern.compile("([KQRBN])?([a-h])?([1-8])?(x)?([a-h][1-8])(=([QRBN]))?");
@@ -88,7 +106,7 @@ public class ChessMovesParser {
             if (matcher.matches()) {
                 // Extract piece type
                 String pieceChar = matcher.group(1);
-                move.pieceType = pieceChar == null ? "Pawn" : convertPieceCode(pieceChar);
+                move.pieceType = pieceChar == null ? PieceType.PAWN : PieceType.fromLetter(pieceChar.charAt(0));
 
                 // Extract capture flag
                 move.isCapture = matcher.group(4) != null;
@@ -100,7 +118,7 @@ public class ChessMovesParser {
 
                 // Extract promotion
                 move.isPromotion = matcher.group(6) != null;
-                move.promotionPiece = move.isPromotion ? convertPieceCode(String.valueOf(matcher.group(7))) : null;
+                move.promotionPiece = move.isPromotion ? PieceType.fromLetter(matcher.group(7).charAt(0)) : null;
 
                 // Extract origin hints (for disambiguation)
                 String disambiguationFile = matcher.group(2);
@@ -111,7 +129,7 @@ public class ChessMovesParser {
                 move.fromRow = disambiguationRank != null ? rankToRow(disambiguationRank.charAt(0)) : -1;
 
                 // Special handling for pawn captures that always specify the file
-                if (move.pieceType.equals("Pawn") && move.isCapture && disambiguationFile != null) {
+                if (move.pieceType == PieceType.PAWN && move.isCapture && disambiguationFile != null) {
                     move.fromCol = fileToColumn(disambiguationFile.charAt(0));
                     // Row will be resolved later using the board state
                 }
@@ -146,8 +164,8 @@ public class ChessMovesParser {
         try {
             ChessMove move = new ChessMove();
             move.notation = moveText;
-            move.color = isWhiteToMove ? "white" : "black";
-            move.pieceType = "King";
+            move.color = isWhiteToMove ? Color.WHITE : Color.BLACK;
+            move.pieceType = PieceType.KING;
             move.isCastling = true;
 
             // Set source and destination coordinates based on castling type
@@ -177,15 +195,4 @@ public class ChessMovesParser {
     private static int rankToRow(char rank) {
         return 8 - Character.getNumericValue(rank);  // '1' -> 7, '2' -> 6, etc.
     }
-
-    private static String convertPieceCode(String code) {
-        return switch (code) {
-            case "K" -> "King";
-            case "Q" -> "Queen";
-            case "R" -> "Rook";
-            case "B" -> "Bishop";
-            case "N" -> "Knight";
-            default -> "Pawn";
-        };
-    }
 }
\ No newline at end of file
@@ -1,18 +1,18 @@
 package AJIP.Parser;
 
 import AJIP.Logger.PGNLogger;
+import AJIP.Metrics.PipelineMetrics;
 import AJIP.Model.ChessGame;
 import AJIP.Model.ChessMove;
 import AJIP.Records.ParseResult;
-import AJIP.Model.ChessMove;
-import AJIP.Records.ParseResult;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,8 +22,16 @@ import java.util.regex.Pattern;
  */
 public class PGNParser {
 
-    // Record to hold parsed game data
-    public record ParsedGameData(List<List<String>> gameList, List<String> originalGameTexts) {
+    // Patterns to detect structural elements
+    private static final Pattern HEADER_PATTERN = Pattern.compile("\\[(\\w+)\\s+\"(.*)\"]");
+    private static final Pattern MOVE_NUMBER_PATTERN = Pattern.compile("^\\d+\\."); // Starts with digits followed by dot
+    private static final Pattern RESULT_PATTERN = Pattern.compile("(1-0|0-1|1/2-1/2|\\*)\\s*$");
+
+    /**
+     * Where a streaming parse stopped: the byte offset just past the last game handed out
+     * and that game's number within the file
+     */
+    public record StreamResult(long endOffset, int lastGameNumber) {
     }
 
     // State machine states
@@ -34,99 +42,100 @@ public class PGNParser {
     }
 
     /**
-     * Processes a PGN file and extracts all games
+     * Streams the games of a PGN file to a consumer, one at a time.
+     * Every game is handed out, including those whose moves could not be parsed
+     * (they arrive with an empty move list), so callers can account for every game number.
      *
-     * @param fileName Path to the PGN file
-     * @return ParsedGameData containing move lists and original game texts
+     * @param fileName         Path to the PGN file
+     * @param startOffset      Byte offset to start reading from; must be a game boundary
+     * @param firstGameNumber  Number given to the first game found after startOffset
+     * @param includeIncomplete Whether a game still in progress at end of file is emitted;
+     *                         pass false when the file may still be appended to
+     * @param consumer         Receives each game in file order
+     * @return StreamResult describing the end of the last emitted game
      */
-    private ParsedGameData parsePGNFile(String fileName) {
-        List<List<String>> gameList = new ArrayList<>();
-        List<String> originalGameTexts = new ArrayList<>();
-        List<String> validGameTexts = new ArrayList<>();
-
-
-        ParseResult startResult = ParseResult.info("File Parse Started", "PGN", "Starting to parse PGN file: " + fileName);
+    public StreamResult parseGames(String fileName, long startOffset, int firstGameNumber,
+                                   boolean includeIncomplete, Consumer<ChessGame> consumer) {
+        ParseResult startResult = ParseResult.info("File Parse Started", "PGN", "Starting to parse PGN file: " + fileName +
+                (startOffset > 0 ? " from byte " + startOffset : ""));
         PGNLogger.info(startResult.getLoggerMessage());
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+        long lastGameEnd = startOffset;
+        int gameCount = firstGameNumber - 1;
+        int parsedCount = 0;
+
+        try (PgnLineReader reader = new PgnLineReader(fileName, startOffset)) {
             ParserState state = ParserState.BETWEEN_GAMES;
-            StringBuilder currentHeaders = new StringBuilder();
+            Map<String, String> currentHeaders = new LinkedHashMap<>();
             StringBuilder currentMoves = new StringBuilder();
 
-            // Patterns to detect structural elements
-            Pattern headerPattern = Pattern.compile("\\[(\\w+)\\s+\"(.*)\"]");
-            Pattern moveNumberPattern = Pattern.compile("^\\d+\\."); // Starts with digits followed by dot
-            Pattern resultPattern = Pattern.compile("(1-0|0-1|1/2-1/2|\\*)\\s*$");
-
             String line;
-            int lineNumber = 0;
-            int gameCount = 0;
+            long lineStart = reader.getPosition();
 
             while ((line = reader.readLine()) != null) {
-                lineNumber++;
+                if (!includeIncomplete && !reader.isLastLineTerminated()) {
+                    // The writer has not finished this line yet
+                    break;
+                }
                 line = line.trim();
 
                 // Skip empty lines but don't change state based on them
                 if (line.isEmpty()) {
+                    lineStart = reader.getPosition();
                     continue;
                 }
 
                 // Check if this line is a header tag
-                Matcher headerMatcher = headerPattern.matcher(line);
+                Matcher headerMatcher = HEADER_PATTERN.matcher(line);
                 if (headerMatcher.matches()) {
                     // Found a header tag
 
                     if (state == ParserState.IN_MOVES) {
                         // If we were in moves and found a header, this is a new game
                         // Process the completed game first
-                        processMoves(currentMoves, ++gameCount, gameList, originalGameTexts);
+                        parsedCount += emitGame(currentMoves, ++gameCount, currentHeaders, fileName, lineStart, consumer);
+                        lastGameEnd = lineStart;
                         currentMoves = new StringBuilder();
-                        currentHeaders = new StringBuilder();
+                        currentHeaders = new LinkedHashMap<>();
                     }
 
                     // Add header to current collection
+                    currentHeaders.put(headerMatcher.group(1), headerMatcher.group(2));
                     state = ParserState.IN_HEADERS;
+                    lineStart = reader.getPosition();
                     continue;
                 }
 
-                // Detect move section by looking for move numbers or algebraic notation
-                Matcher moveNumberMatcher = moveNumberPattern.matcher(line);
-                if (moveNumberMatcher.find() || containsChessNotation(line)) {
+                // Detect move section by looking for move numbers or algebraic notation,
+                // then keep adding lines while we're already in a move section
+                if (MOVE_NUMBER_PATTERN.matcher(line).find() || containsChessNotation(line)
+                        || state == ParserState.IN_MOVES) {
                     state = ParserState.IN_MOVES;
                     currentMoves.append(line).append(" ");
 
                     // Check if this line contains a game result indicator
-                    Matcher resultMatcher = resultPattern.matcher(line);
+                    Matcher resultMatcher = RESULT_PATTERN.matcher(line);
                     if (resultMatcher.find()) {
                         // We've reached the end of a game
-                        processMoves(currentMoves, ++gameCount, gameList, originalGameTexts);
-                        currentMoves = new StringBuilder();
-                        state = ParserState.BETWEEN_GAMES;
-                    }
-                    continue;
-                }
-
-                // If we're already in a move section, continue adding lines
-                if (state == ParserState.IN_MOVES) {
-                    currentMoves.append(line).append(" ");
-
-                    // Check for end of game
-                    Matcher resultMatcher = resultPattern.matcher(line);
-                    if (resultMatcher.find()) {
-                        processMoves(currentMoves, ++gameCount, gameList, originalGameTexts);
+                        parsedCount += emitGame(currentMoves, ++gameCount, currentHeaders, fileName,
+                                reader.getPosition(), consumer);
+                        lastGameEnd = reader.getPosition();
                         currentMoves = new StringBuilder();
+                        currentHeaders = new LinkedHashMap<>();
                         state = ParserState.BETWEEN_GAMES;
                     }
                 }
+                lineStart = reader.getPosition();
             }
 
             // Process the final game if there is one in progress
-            if (currentMoves.length() > 0) {
-                processMoves(currentMoves, ++gameCount, gameList, originalGameTexts);
+            if (includeIncomplete && currentMoves.length() > 0) {
+                parsedCount += emitGame(currentMoves, ++gameCount, currentHeaders, fileName, reader.getPosition(), consumer);
+                lastGameEnd = reader.getPosition();
             }
 
             ParseResult completeResult = ParseResult.info("File Parse Completed", "PGN",
-                    "Successfully parsed " + gameList.size() + " games from " + fileName);
+                    "Successfully parsed " + parsedCount + " games from " + fileName);
             PGNLogger.info(completeResult.getLoggerMessage());
 
         } catch (IOException e) {
@@ -135,7 +144,46 @@ public class PGNParser {
             PGNLogger.error(errorResult.getLoggerMessage());
         }
 
-        return new ParsedGameData(gameList, originalGameTexts);
+        return new StreamResult(lastGameEnd, gameCount);
+    }
+
+    /**
+     * Split and parse one game's move section and hand it to the consumer
+     *
+     * @return 1 if the game's moves were parsed, 0 if it was rejected
+     */
+    private int emitGame(StringBuilder moveSection, int gameNumber, Map<String, String> headers,
+                         String fileName, long endOffset, Consumer<ChessGame> consumer) {
+        String originalText = moveSection.toString().trim();
+        boolean whiteStarts = isWhiteToStart(headers);
+        long start = PipelineMetrics.start();
+        List<String> moveList = processMoves(moveSection, gameNumber, whiteStarts);
+        PipelineMetrics.PGN_LEX.recordSince(start);
+        PipelineMetrics.PGN_GAMES.increment();
+
+        // Parse moves using the method that includes game context
+        List<ChessMove> chessMoves = moveList == null ? List.of()
+                : ChessMovesParser.parseWithContext(moveList, originalText, gameNumber, whiteStarts);
+
+        ChessGame game = new ChessGame(chessMoves, originalText, headers);
+        game.sourceFile = fileName;
+        game.gameNumber = gameNumber;
+        game.endOffset = endOffset;
+        consumer.accept(game);
+        return chessMoves.isEmpty() ? 0 : 1;
+    }
+
+    /**
+     * Whether white plays the first move: true unless the game is set up from a FEN tag with black to move.
+     * The FEN itself is validated by the evaluator.
+     */
+    static boolean isWhiteToStart(Map<String, String> headers) {
+        String fen = ChessGame.startingFen(headers);
+        if (fen == null) {
+            return true;
+        }
+        String[] fields = fen.trim().split("\\s+");
+        return fields.length < 2 || !fields[1].equals("b");
     }
 
     /**
@@ -156,10 +204,11 @@ public class PGNParser {
     }
 
     /**
-     * Process moves and add to the collections
+     * Split a game's move section into individual SAN tokens
+     *
+     * @return the move tokens, or null if the move section is malformed
      */
-    private void processMoves(StringBuilder moveSection, int gameNumber,
-                              List<List<String>> gameList, List<String> originalGameTexts) {
+    private List<String> processMoves(StringBuilder moveSection, int gameNumber, boolean whiteStarts) {
         String movesText = moveSection.toString().trim();
 
 
@@ -171,17 +220,20 @@ public class PGNParser {
         movesText = movesText.replaceAll("\\([^)]*\\)", "");
 
         // Split the move text by move numbers using regex
-        // This captures the move number as group 1 and the move content as group 2
-        Pattern moveNumberPattern = Pattern.compile("(\\d+\\.)(.*?)(?=\\d+\\.|$)");
+        // This captures the move number as group 1 and the move content as group 2;
+        // "12..." numbers a group that starts with black's move
+        Pattern moveNumberPattern = Pattern.compile("(\\d+\\.(?:\\.\\.)?)(.*?)(?=\\d+\\.|$)");
         Matcher matcher = moveNumberPattern.matcher(movesText);
 
         List<String[]> potentialMoves = new ArrayList<>();
+        List<Boolean> blackFirst = new ArrayList<>();
         List<String> moveList = new ArrayList<>();
         while (matcher.find()) {
             // Get the content after the move number (group 2)
             String moveContent = matcher.group(2).trim();
             // Split this content by whitespace to get individual moves
             potentialMoves.add(moveContent.split("\\s+"));
+            blackFirst.add(matcher.group(1).endsWith("..."));
         }
 
         // Check if we found any moves
@@ -189,20 +241,40 @@ public class PGNParser {
             ParseResult noMovesResult = ParseResult.pgnFailure("Game Parse Failed", gameNumber,
                     "No recognizable moves found", moveSection.toString());
             PGNLogger.error(noMovesResult.getLoggerMessage());
-            return;
+            return null;
+        }
+
+        if (blackFirst.get(0) == whiteStarts) {
+            String errorDetails = whiteStarts ? "Game starts with white to move but the first move is numbered for black"
+                    : "Game starts with black to move but the first move is not numbered \"N...\"";
+            ParseResult errorResult = ParseResult.pgnFailure("Move Number Validation Failed", gameNumber,
+                    errorDetails, moveSection.toString());
+            PGNLogger.error(errorResult.getLoggerMessage());
+            return null;
         }
 
         for (int i = 0; i < potentialMoves.size(); i++) {
             String[] move = potentialMoves.get(i);
-            // Regular move pairs (all except the last one)
-            if (i != potentialMoves.size() - 1) {
+            // A black move on its own: the game starts with black, or white's move was split off by a comment
+            if (blackFirst.get(i)) {
+                boolean followsLoneWhiteMove = i > 0 && !blackFirst.get(i - 1) && potentialMoves.get(i - 1).length == 1;
+                if (move.length != 1 || (i > 0 && !followsLoneWhiteMove)) {
+                    String errorDetails = "Expected a single black move at move " + (i + 1) + " but found " + move.length + ": " + Arrays.toString(move);
+                    ParseResult errorResult = ParseResult.pgnFailure("Move Pair Validation Failed", gameNumber,
+                            errorDetails, moveSection.toString());
+                    PGNLogger.error(errorResult.getLoggerMessage());
+                    return null;
+                }
+            }
+            // Regular move pairs (all except the last one, or a white move continued by "N...")
+            else if (i != potentialMoves.size() - 1 && !(blackFirst.get(i + 1) && move.length == 1)) {
                 // Must have exactly 2 moves (white and black)
                 if (move.length != 2) {
                     String errorDetails = "Expected 2 moves at move " + (i + 1) + " but found " + move.length + ": " + Arrays.toString(move);
                     ParseResult errorResult = ParseResult.pgnFailure("Move Pair Validation Failed", gameNumber,
                             errorDetails, moveSection.toString());
                     PGNLogger.error(errorResult.getLoggerMessage());
-                    return;
+                    return null;
                 }
             }
             // Special case: the last move pair
@@ -213,7 +285,7 @@ public class PGNParser {
                     ParseResult errorResult = ParseResult.pgnFailure("Last Move Validation Failed", gameNumber,
                             errorDetails, moveSection.toString());
                     PGNLogger.error(errorResult.getLoggerMessage());
-                    return;
+                    return null;
                 }
             }
 
@@ -226,8 +298,7 @@ public class PGNParser {
                 moveList.size() + " moves");
         PGNLogger.info(successResult.getLoggerMessage());
 
-        gameList.add(moveList);
-        originalGameTexts.add(moveSection.toString().trim());
+        return moveList;
 
     }
 
@@ -235,20 +306,12 @@ public class PGNParser {
      * Get ChessGame objects with both parsed moves and original text
      */
     public List<ChessGame> getParsedGames(String fileName) {
-        ParsedGameData parsedData = parsePGNFile(fileName);
         List<ChessGame> games = new ArrayList<>();
-
-        for (int i = 0; i < parsedData.gameList().size(); i++) {
-            List<String> moveList = parsedData.gameList().get(i);
-            String originalText = parsedData.originalGameTexts().get(i);
-
-            // Parse moves using the new method that includes game context
-            List<ChessMove> chessMoves = ChessMovesParser.parseWithContext(moveList, originalText, i + 1);
-            if (!chessMoves.isEmpty()) {
-                games.add(new ChessGame(chessMoves, originalText));
-
+        parseGames(fileName, 0, 1, true, game -> {
+            if (!game.getMoves().isEmpty()) {
+                games.add(game);
             }
-        }
+        });
         return games;
     }
-}
\ No newline at end of file
+}
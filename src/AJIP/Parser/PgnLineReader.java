@@ -0,0 +1,123 @@
+package AJIP.Parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Line reader that knows the byte offset of every line it returns,
+ * so the PGN parser can report where each game ends and resume from there later.
+ * Reads the file in large chunks into its own buffer and scans that for line ends, rather than
+ * going through a synchronized stream one byte at a time.
+ */
+public class PgnLineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer bufferView = ByteBuffer.wrap(buffer);
+    private int bufferPosition;
+    private int bufferLimit;
+    // Holds a line that runs past the end of the buffer
+    private byte[] lineBuffer = new byte[256];
+    private long position;
+    private boolean lastLineTerminated;
+
+    public PgnLineReader(String fileName, long startOffset) throws IOException {
+        this.channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ);
+        channel.position(startOffset);
+        this.position = startOffset;
+    }
+
+    /**
+     * Read the next line without its terminator, or null at end of file
+     */
+    public String readLine() throws IOException {
+        if (bufferPosition == bufferLimit && !fill()) {
+            return null;
+        }
+
+        lastLineTerminated = false;
+        int length = 0;
+        while (true) {
+            int start = bufferPosition;
+            int end = start;
+            while (end < bufferLimit && buffer[end] != '\n') {
+                end++;
+            }
+            position += end - start;
+            if (end < bufferLimit) {
+                // Found the newline
+                bufferPosition = end + 1;
+                position++;
+                lastLineTerminated = true;
+                if (length == 0) {
+                    // The common case: the whole line is in the buffer
+                    return decode(buffer, start, end - start);
+                }
+                length = append(length, start, end);
+                return decode(lineBuffer, 0, length);
+            }
+            length = append(length, start, end);
+            bufferPosition = bufferLimit;
+            if (!fill()) {
+                return decode(lineBuffer, 0, length);
+            }
+        }
+    }
+
+    // Copy part of the buffer onto the end of the line so far
+    private int append(int length, int start, int end) {
+        int count = end - start;
+        if (length + count > lineBuffer.length) {
+            lineBuffer = Arrays.copyOf(lineBuffer, Math.max(lineBuffer.length * 2, length + count));
+        }
+        System.arraycopy(buffer, start, lineBuffer, length, count);
+        return length + count;
+    }
+
+    private static String decode(byte[] bytes, int offset, int length) {
+        if (length > 0 && bytes[offset + length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    // Read the next chunk of the file; false at end of file
+    private boolean fill() throws IOException {
+        bufferView.clear();
+        int read;
+        do {
+            read = channel.read(bufferView);
+        } while (read == 0);
+        bufferPosition = 0;
+        bufferLimit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    /**
+     * Byte offset just past the last line returned by {@link #readLine()}
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * False when the last line returned hit end of file before its newline,
+     * e.g. because another process is still appending to the file
+     */
+    public boolean isLastLineTerminated() {
+        return lastLineTerminated;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
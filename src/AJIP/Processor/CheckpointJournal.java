@@ -0,0 +1,178 @@
+package AJIP.Processor;
+
+import AJIP.Logger.PGNLogger;
+import AJIP.Parser.PGNParser;
+import AJIP.Records.Checkpoint;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-file checkpoint journal for resumable imports.
+ * <p>
+ * Games of one file are evaluated out of order by several threads, so the journal keeps a
+ * watermark per file: the highest game number for which that game and every game before it
+ * have been committed. Only the watermark is written to disk, which means a restart may
+ * re-process a handful of games but never skips one.
+ * <p>
+ * The journal is a small tab-separated text file that is rewritten atomically on every flush.
+ */
+public class CheckpointJournal {
+
+    public static final String JOURNAL_FILE_NAME = "checkpoint.journal";
+    private static final int FLUSH_EVERY_COMMITS = 1000;
+    private static final long FLUSH_EVERY_MILLIS = 2000;
+
+    private final Path journalPath;
+    private final Map<String, FileProgress> files = new HashMap<>();
+    private int commitsSinceFlush;
+    private long lastFlushMillis = System.currentTimeMillis();
+
+    // In-memory progress of one file
+    private static class FileProgress {
+        Checkpoint committed;
+        final TreeMap<Integer, Long> pending = new TreeMap<>(); // game number -> end offset, done out of order
+        int lastGameNumber = -1;                                  // known once the parser reached the end
+        long finalOffset;
+
+        FileProgress(Checkpoint committed) {
+            this.committed = committed;
+        }
+    }
+
+    private CheckpointJournal(Path journalPath) {
+        this.journalPath = journalPath;
+    }
+
+    /**
+     * Open (or create) the journal kept in the given checkpoint directory
+     */
+    public static CheckpointJournal open(Path checkpointDirectory) throws IOException {
+        Files.createDirectories(checkpointDirectory);
+        CheckpointJournal journal = new CheckpointJournal(checkpointDirectory.resolve(JOURNAL_FILE_NAME));
+
+        if (Files.exists(journal.journalPath)) {
+            for (String line : Files.readAllLines(journal.journalPath, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    Checkpoint checkpoint = Checkpoint.fromJournalLine(line);
+                    journal.files.put(checkpoint.file(), new FileProgress(checkpoint));
+                }
+            }
+            PGNLogger.info("Loaded " + journal.files.size() + " checkpoints from " + journal.journalPath);
+        }
+        return journal;
+    }
+
+    /**
+     * Where processing of a file should start. A checkpoint with complete() == true means the
+     * file is unchanged since it was fully processed and can be skipped.
+     */
+    public synchronized Checkpoint resumePoint(String file) throws IOException {
+        Path path = Path.of(file);
+        long size = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        FileProgress progress = files.get(file);
+        Checkpoint start;
+        if (progress == null || progress.committed.offset() > size) {
+            // New file, or it was truncated/replaced since the last run
+            start = Checkpoint.fresh(file, size, lastModified);
+        } else if (progress.committed.isUnchanged(size, lastModified)) {
+            return progress.committed;
+        } else {
+            // Resume after the last committed game (the file may also have grown since)
+            Checkpoint last = progress.committed;
+            start = new Checkpoint(file, size, lastModified, last.offset(), last.gameNumber(), false);
+        }
+
+        files.put(file, new FileProgress(start));
+        return start;
+    }
+
+    /**
+     * Record that one game is fully processed. Games may be committed in any order.
+     */
+    public synchronized void commit(String file, int gameNumber, long endOffset) {
+        FileProgress progress = files.get(file);
+        if (progress == null || gameNumber <= progress.committed.gameNumber()) {
+            return;
+        }
+
+        progress.pending.put(gameNumber, endOffset);
+        advance(progress);
+
+        if (++commitsSinceFlush >= FLUSH_EVERY_COMMITS
+                || System.currentTimeMillis() - lastFlushMillis >= FLUSH_EVERY_MILLIS) {
+            flush();
+        }
+    }
+
+    /**
+     * Record that the parser reached the end of a file; the file becomes complete
+     * as soon as every game up to the last one is committed
+     */
+    public synchronized void fileParsed(String file, PGNParser.StreamResult result) {
+        FileProgress progress = files.get(file);
+        if (progress == null) {
+            return;
+        }
+        progress.lastGameNumber = result.lastGameNumber();
+        progress.finalOffset = result.endOffset();
+        advance(progress);
+    }
+
+    private void advance(FileProgress progress) {
+        Checkpoint current = progress.committed;
+        int gameNumber = current.gameNumber();
+        long offset = current.offset();
+
+        while (!progress.pending.isEmpty() && progress.pending.firstKey() == gameNumber + 1) {
+            offset = progress.pending.pollFirstEntry().getValue();
+            gameNumber++;
+        }
+
+        boolean complete = progress.lastGameNumber >= 0 && gameNumber >= progress.lastGameNumber;
+        if (complete) {
+            offset = Math.max(offset, progress.finalOffset);
+        }
+        progress.committed = new Checkpoint(current.file(), current.size(), current.lastModified(),
+                offset, gameNumber, complete);
+    }
+
+    /**
+     * Write all watermarks to disk, replacing the previous journal atomically
+     */
+    public synchronized void flush() {
+        Path temp = journalPath.resolveSibling(JOURNAL_FILE_NAME + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (FileProgress progress : files.values()) {
+                    writer.write(progress.committed.toJournalLine());
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(temp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, journalPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            PGNLogger.error("Failed to write checkpoint journal " + journalPath, e);
+        }
+        commitsSinceFlush = 0;
+        lastFlushMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Current committed checkpoint of a file, or null if the journal doesn't know it
+     */
+    public synchronized Checkpoint getCheckpoint(String file) {
+        FileProgress progress = files.get(file);
+        return progress != null ? progress.committed : null;
+    }
+}
@@ -0,0 +1,136 @@
+package AJIP.Processor;
+
+import AJIP.Archive.MoveCodec;
+import AJIP.Model.ChessGame;
+import AJIP.Model.ChessMove;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over game fingerprints, used to drop duplicate games before they are queued.
+ * <p>
+ * A game's fingerprint covers its packed move sequence plus the White, Black, Date, Round and Result tags,
+ * so the same game copied between collections matches even when Event/Site spellings or comments differ.
+ * The filter never misses a duplicate, but may take a new game for a duplicate with a small probability;
+ * {@link #getFalsePositiveRate()} estimates it from the memory given and the games seen so far.
+ * Memory is fixed when the filter is created and does not grow.
+ */
+public class DuplicateFilter {
+
+    public static final long DEFAULT_MEMORY_BYTES = 64L << 20;    // 64 MB: under 1% false positives at 50M games
+    public static final long DEFAULT_EXPECTED_GAMES = 50_000_000L;
+
+    private static final String[] KEY_HEADERS = {"White", "Black", "Date", "Round", "Result"};
+
+    private final AtomicLongArray bits;
+    private final long bitMask;
+    private final int hashCount;
+    private final AtomicLong gamesAdded = new AtomicLong();
+
+    public DuplicateFilter() {
+        this(DEFAULT_MEMORY_BYTES, DEFAULT_EXPECTED_GAMES);
+    }
+
+    /**
+     * @param memoryBytes   Memory for the bit array, rounded down to a power of two (at least 8 bytes)
+     * @param expectedGames Number of distinct games the filter is sized for; sets the number of hash functions
+     */
+    public DuplicateFilter(long memoryBytes, long expectedGames) {
+        if (memoryBytes < 8 || expectedGames <= 0) {
+            throw new IllegalArgumentException("Duplicate filter needs at least 8 bytes and one expected game, got: "
+                    + memoryBytes + " bytes, " + expectedGames + " games");
+        }
+        long words = Long.highestOneBit(memoryBytes / 8);
+        if (words > Integer.MAX_VALUE) {
+            words = 1L << 30; // AtomicLongArray limit: 8 GB
+        }
+        this.bits = new AtomicLongArray((int) words);
+        this.bitMask = words * 64 - 1;
+        // Optimal k = (m / n) ln 2, kept within practical bounds
+        this.hashCount = (int) Math.max(1, Math.min(16, Math.round((double) words * 64 / expectedGames * Math.log(2))));
+    }
+
+    /**
+     * Record a game and tell whether it was seen before. Safe to call from any number of threads.
+     *
+     * @return true if the game is (very probably) a duplicate
+     */
+    public boolean isDuplicate(ChessGame game) {
+        long hash1 = fingerprint(game, 0x9E3779B97F4A7C15L);
+        long hash2 = fingerprint(game, 0xC2B2AE3D27D4EB4FL) | 1; // Odd, so every probe lands on a new bit
+
+        boolean allSet = true;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = (hash1 + i * hash2) & bitMask;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long previous = bits.get(word);
+            if ((previous & mask) == 0) {
+                previous = bits.getAndUpdate(word, value -> value | mask);
+                allSet &= (previous & mask) != 0;
+            }
+        }
+        if (!allSet) {
+            gamesAdded.incrementAndGet();
+        }
+        return allSet;
+    }
+
+    /**
+     * Memory held by the bit array
+     */
+    public long getMemoryBytes() {
+        return bits.length() * 8L;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Distinct games recorded so far
+     */
+    public long getGamesAdded() {
+        return gamesAdded.get();
+    }
+
+    /**
+     * Estimated chance that the next new game is wrongly reported as a duplicate: (1 - e^(-kn/m))^k
+     */
+    public double getFalsePositiveRate() {
+        double bitCount = bits.length() * 64.0;
+        return Math.pow(1 - Math.exp(-hashCount * gamesAdded.get() / bitCount), hashCount);
+    }
+
+    public String getLoggerMessage() {
+        return String.format("Duplicate filter: %d distinct games in %d KB, %d hashes, estimated false positive rate %.4f%%",
+                getGamesAdded(), getMemoryBytes() >> 10, hashCount, getFalsePositiveRate() * 100);
+    }
+
+    // 64-bit hash of the moves and key headers; the seed gives independent hashes for double hashing
+    static long fingerprint(ChessGame game, long seed) {
+        long hash = seed;
+        List<ChessMove> moves = game.getMoves();
+        for (ChessMove move : moves) {
+            hash = mix(hash ^ MoveCodec.pack(move));
+        }
+        hash = mix(hash ^ moves.size());
+
+        Map<String, String> headers = game.getHeaders() != null ? game.getHeaders() : Map.of();
+        for (String key : KEY_HEADERS) {
+            String value = headers.getOrDefault(key, "");
+            hash = mix(hash ^ value.hashCode() ^ (long) value.length() << 32);
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        return value ^ value >>> 33;
+    }
+}
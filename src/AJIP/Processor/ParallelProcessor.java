@@ -1,33 +1,215 @@
 package AJIP.Processor;
 
+import AJIP.Archive.GameArchiveReader;
 import AJIP.Controller.GameMasterController;
 import AJIP.Logger.PGNLogger;
+import AJIP.Logger.VerdictWriter;
+import AJIP.Metrics.PipelineMetrics;
 import AJIP.Model.ChessGame;
+import AJIP.Openings.OpeningAccumulator;
 import AJIP.Parser.PGNParser;
+import AJIP.Records.Checkpoint;
+import AJIP.Records.GameVerdict;
+import AJIP.Records.RunReport;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ParallelProcessor {
 
-    private final BlockingQueue<ChessGame> gameQueue = new LinkedBlockingQueue<>();
-    private final AtomicInteger filesRemaining = new AtomicInteger();
+    public static final int DEFAULT_PARSER_THREADS = 4;
+    public static final int DEFAULT_EVALUATOR_THREADS = 4;
 
-    public void processFiles(List<String> files) {
-        ExecutorService parsers = Executors.newFixedThreadPool(4);
-        ExecutorService evaluators = Executors.newFixedThreadPool(4);
+    private int parserThreads = DEFAULT_PARSER_THREADS;
+    private int evaluatorThreads = DEFAULT_EVALUATOR_THREADS;
+    private BlockingQueue<ChessGame> gameQueue = new LinkedBlockingQueue<>();
+    private final AtomicInteger tasksRemaining = new AtomicInteger();
+    private final AtomicLong gamesPassed = new AtomicLong();
+    private final AtomicLong gamesFailed = new AtomicLong();
+    private final AtomicLong gamesDuplicate = new AtomicLong();
+    private DuplicateFilter duplicateFilter;
+    private CheckpointJournal checkpointJournal;
+    private VerdictWriter verdictWriter;
+    private volatile PgnDirectoryTailer tailer;
 
-        filesRemaining.set(files.size());
+    // Opening tree output; each evaluator thread fills its own accumulator, merged when the run ends
+    private Path openingTreeFile;
+    private int openingTreePlies;
+    private final List<OpeningAccumulator> openingAccumulators = Collections.synchronizedList(new ArrayList<>());
 
-        // Start 4 evaluator threads
-        for (int i = 0; i < 4; i++) {
-            evaluators.submit(this::evaluateGames);
+    /**
+     * Number of threads parsing files (or decoding archive blocks) and evaluating games.
+     * Parsing is cheap next to evaluation, so machines with many cores want more evaluators than parsers.
+     */
+    public void setThreads(int parserThreads, int evaluatorThreads) {
+        if (parserThreads < 1 || evaluatorThreads < 1) {
+            throw new IllegalArgumentException("Need at least one parser and one evaluator thread, got: "
+                    + parserThreads + " parsers, " + evaluatorThreads + " evaluators");
+        }
+        this.parserThreads = parserThreads;
+        this.evaluatorThreads = evaluatorThreads;
+    }
+
+    /**
+     * Bound the number of parsed games waiting for an evaluator; parsers block while the queue is full,
+     * so memory stays flat however far parsing runs ahead. Unbounded by default.
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive, got: " + queueCapacity);
+        }
+        this.gameQueue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Make file imports resumable: committed progress is recorded per file, files unchanged since
+     * they were fully processed are skipped, and partially processed files continue where they stopped
+     */
+    public void setCheckpointJournal(CheckpointJournal checkpointJournal) {
+        this.checkpointJournal = checkpointJournal;
+    }
+
+    /**
+     * Record a verdict for every game, including games the parser rejected. The writer is not closed by the processor.
+     */
+    public void setVerdictWriter(VerdictWriter verdictWriter) {
+        this.verdictWriter = verdictWriter;
+    }
+
+    /**
+     * Drop games whose fingerprint was already seen before they are queued; they are counted in the
+     * run report but get no verdict. The filter is kept across runs, so later imports skip games of earlier ones.
+     */
+    public void setDuplicateFilter(DuplicateFilter duplicateFilter) {
+        this.duplicateFilter = duplicateFilter;
+    }
+
+    /**
+     * Build an opening tree over the first maxPlies plies of every game that passes, written to file
+     * (replacing it) at the end of each run. Query it with {@link AJIP.Openings.OpeningTree}.
+     */
+    public void setOpeningTree(Path file, int maxPlies) {
+        if (maxPlies <= 0) {
+            throw new IllegalArgumentException("Opening tree depth must be positive, got: " + maxPlies);
         }
+        this.openingTreeFile = file;
+        this.openingTreePlies = maxPlies;
+    }
 
-        // Submit parser tasks for each file
+    public RunReport processFiles(List<String> files) {
+        List<Runnable> producers = new ArrayList<>();
         for (String file : files) {
-            parsers.submit(() -> parseFile(file));
+            producers.add(() -> parseFile(file));
+        }
+        return runPipeline(producers);
+    }
+
+    /**
+     * Re-validate games stored by {@link AJIP.Archive.GameArchiveWriter}, skipping PGN text parsing.
+     * Each producer task decodes one memory-mapped block straight into the game queue.
+     */
+    public RunReport processArchive(String archivePath) {
+        try (GameArchiveReader reader = GameArchiveReader.open(archivePath)) {
+            List<Runnable> producers = new ArrayList<>();
+            for (int block = 0; block < reader.getBlockCount(); block++) {
+                int blockIndex = block;
+                producers.add(() -> readArchiveBlock(reader, blockIndex));
+            }
+            return runPipeline(producers);
+        } catch (IOException e) {
+            PGNLogger.error("Error opening archive " + archivePath, e);
+            return new RunReport(0, 0);
+        }
+    }
+
+    /**
+     * Long-running mode: follow a directory of PGN files that keep growing and validate every game
+     * as soon as it is complete. Blocks until {@link #stopWatching()} is called or the thread is interrupted.
+     */
+    public RunReport watchDirectory(Path directory) {
+        gamesPassed.set(0);
+        gamesFailed.set(0);
+        gamesDuplicate.set(0);
+        openingAccumulators.clear();
+        ExecutorService evaluators = Executors.newFixedThreadPool(evaluatorThreads);
+        for (int i = 0; i < evaluatorThreads; i++) {
+            evaluators.submit(this::evaluateGames);
+        }
+
+        try (PgnDirectoryTailer directoryTailer = new PgnDirectoryTailer(directory, this::enqueueParsedGame, checkpointJournal)) {
+            tailer = directoryTailer;
+            directoryTailer.run();
+        } catch (IOException e) {
+            PGNLogger.error("Error watching " + directory, e);
+        } finally {
+            tailer = null;
+            signalStop();
+            evaluators.shutdown();
+            try {
+                evaluators.awaitTermination(30, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (checkpointJournal != null) {
+                checkpointJournal.flush();
+            }
+        }
+        writeOpeningTree();
+        return report();
+    }
+
+    /**
+     * Ask a running {@link #watchDirectory(Path)} to finish the games already queued and return
+     */
+    public void stopWatching() {
+        PgnDirectoryTailer current = tailer;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                PGNLogger.error("Error closing directory watcher", e);
+            }
+        }
+    }
+
+    private RunReport runPipeline(List<Runnable> producers) {
+        gamesPassed.set(0);
+        gamesFailed.set(0);
+        gamesDuplicate.set(0);
+        openingAccumulators.clear();
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads);
+        ExecutorService evaluators = Executors.newFixedThreadPool(evaluatorThreads);
+
+        tasksRemaining.set(producers.size());
+
+        // Start the evaluator threads
+        for (int i = 0; i < evaluatorThreads; i++) {
+            evaluators.submit(this::evaluateGames);
+        }
+
+        // Nothing to produce: release the evaluators right away
+        if (producers.isEmpty()) {
+            signalStop();
+        }
+
+        // Submit producer tasks (one per file or archive block)
+        for (Runnable producer : producers) {
+            parsers.submit(() -> {
+                try {
+                    producer.run();
+                } finally {
+                    // Signal when all producers are done
+                    if (tasksRemaining.decrementAndGet() == 0) {
+                        signalStop();
+                    }
+                }
+            });
         }
 
         // Wait for completion
@@ -38,56 +220,195 @@ public class ParallelProcessor {
             evaluators.awaitTermination(30, TimeUnit.MINUTES);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+        } finally {
+            if (checkpointJournal != null) {
+                checkpointJournal.flush();
+            }
+        }
+        writeOpeningTree();
+        return report();
+    }
+
+    private void writeOpeningTree() {
+        if (openingTreeFile == null) {
+            return;
+        }
+        try {
+            int records = OpeningAccumulator.write(openingTreeFile, openingAccumulators, openingTreePlies);
+            PGNLogger.info("Wrote opening tree with " + records + " moves to " + openingTreeFile);
+        } catch (IOException e) {
+            PGNLogger.error("Failed to write opening tree " + openingTreeFile, e);
+        }
+    }
+
+    private RunReport report() {
+        RunReport report = new RunReport(gamesPassed.get(), gamesFailed.get(), gamesDuplicate.get());
+        PGNLogger.info(report.getLoggerMessage());
+        if (duplicateFilter != null) {
+            PGNLogger.info(duplicateFilter.getLoggerMessage());
         }
+        return report;
     }
 
     private void parseFile(String fileName) {
         try {
             PGNParser parser = new PGNParser();
-            List<ChessGame> games = parser.getParsedGames(fileName);
+            String file = fileName;
+            long startOffset = 0;
+            int lastGameNumber = 0;
 
-            // Add all games to queue
-            for (ChessGame game : games) {
-                gameQueue.offer(game);
+            if (checkpointJournal != null) {
+                file = Path.of(fileName).toAbsolutePath().normalize().toString();
+                Checkpoint start = checkpointJournal.resumePoint(file);
+                if (start.complete()) {
+                    PGNLogger.info("Skipping unchanged file " + fileName + " (" + start.gameNumber() + " games already processed)");
+                    return;
+                }
+                startOffset = start.offset();
+                lastGameNumber = start.gameNumber();
+            }
+
+            AtomicInteger queued = new AtomicInteger();
+            PGNParser.StreamResult result = parser.parseGames(file, startOffset, lastGameNumber + 1, true, game -> {
+                if (enqueueParsedGame(game)) {
+                    queued.incrementAndGet();
+                }
+            });
+            if (checkpointJournal != null) {
+                checkpointJournal.fileParsed(file, result);
             }
 
-            PGNLogger.info("Parsed " + games.size() + " games from " + fileName);
+            PGNLogger.info("Parsed " + queued.get() + " games from " + fileName +
+                    (startOffset > 0 ? " (resumed after game " + lastGameNumber + ")" : ""));
 
         } catch (Exception e) {
             PGNLogger.error("Error parsing " + fileName, e);
-        } finally {
-            // Signal when all files are parsed
-            if (filesRemaining.decrementAndGet() == 0) {
-                // Add stop signals for evaluators
-                for (int i = 0; i < 4; i++) {
-                    gameQueue.offer(new ChessGame(null, "STOP"));
+        }
+    }
+
+    /**
+     * Queue a streamed game for evaluation
+     *
+     * @return false if the parser rejected the game, which is then committed right away
+     */
+    private boolean enqueueParsedGame(ChessGame game) {
+        if (game.getMoves().isEmpty()) {
+            // Rejected by the parser: nothing to evaluate, but the game still counts as processed
+            recordVerdict(GameVerdict.fail(game.getGameId(), 0, "", GameVerdict.Reason.PARSE_ERROR, ""));
+            if (checkpointJournal != null) {
+                checkpointJournal.commit(game.sourceFile, game.gameNumber, game.endOffset);
+            }
+            return false;
+        }
+        if (isDuplicate(game)) {
+            if (checkpointJournal != null) {
+                checkpointJournal.commit(game.sourceFile, game.gameNumber, game.endOffset);
+            }
+            return false;
+        }
+        return queue(game);
+    }
+
+    private boolean isDuplicate(ChessGame game) {
+        if (duplicateFilter == null || !duplicateFilter.isDuplicate(game)) {
+            return false;
+        }
+        gamesDuplicate.incrementAndGet();
+        PGNLogger.info("Skipping duplicate game " + game.getGameId());
+        // Not a failure, but it still gets its row so a false positive of the filter can be traced
+        if (verdictWriter != null) {
+            verdictWriter.submit(GameVerdict.fail(game.getGameId(), 0, "", GameVerdict.Reason.DUPLICATE, ""));
+        }
+        return true;
+    }
+
+    private void readArchiveBlock(GameArchiveReader reader, int blockIndex) {
+        try {
+            List<ChessGame> games = reader.readBlock(blockIndex);
+            for (ChessGame game : games) {
+                if (!isDuplicate(game) && !queue(game)) {
+                    return;
                 }
             }
+        } catch (Exception e) {
+            PGNLogger.error("Error reading archive block " + blockIndex, e);
         }
     }
 
-    private void evaluateGames() {
-        GameMasterController controller = new GameMasterController(true);
+    // Blocks while a bounded queue is full; false if interrupted while waiting
+    private boolean queue(ChessGame game) {
+        long start = PipelineMetrics.start();
+        try {
+            gameQueue.put(game);
+            PipelineMetrics.QUEUE_PUT_WAIT.recordSince(start);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-        while (true) {
+    private void signalStop() {
+        // One stop signal per evaluator; queued behind the remaining games, so they are evaluated first
+        for (int i = 0; i < evaluatorThreads; i++) {
             try {
-                ChessGame game = gameQueue.take();
+                gameQueue.put(new ChessGame(null, "STOP"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
 
-                // Stop signal
-                if (game.getOriginalText().equals("STOP")) {
-                    break;
-                }
+    private void recordVerdict(GameVerdict verdict) {
+        (verdict.passed() ? gamesPassed : gamesFailed).incrementAndGet();
+        (verdict.passed() ? PipelineMetrics.GAMES_PASSED : PipelineMetrics.GAMES_FAILED).increment();
+        if (verdictWriter != null) {
+            verdictWriter.submit(verdict);
+        }
+    }
 
-                // Evaluate the game
-                controller.Evaluate(game);
+    private void evaluateGames() {
+        GameMasterController controller = new GameMasterController(true);
+        if (openingTreeFile != null) {
+            OpeningAccumulator accumulator = new OpeningAccumulator();
+            controller.setOpeningAccumulator(accumulator, openingTreePlies);
+            openingAccumulators.add(accumulator); // Read only after the evaluator pool has terminated
+        }
 
+        while (true) {
+            ChessGame game;
+            long start = PipelineMetrics.start();
+            try {
+                game = gameQueue.take();
+                PipelineMetrics.QUEUE_TAKE_WAIT.recordSince(start);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 break;
+            }
+
+            // Stop signal
+            if (game.getOriginalText().equals("STOP")) {
+                break;
+            }
+
+            GameVerdict verdict;
+            start = PipelineMetrics.start();
+            try {
+                // Evaluate the game
+                verdict = controller.Evaluate(game);
             } catch (Exception e) {
                 PGNLogger.error("Error evaluating game", e);
+                verdict = GameVerdict.fail(game.getGameId(), 0, "", GameVerdict.Reason.EVALUATION_ERROR, "");
+            }
+            PipelineMetrics.GAME_EVALUATE.recordSince(start);
+            recordVerdict(verdict);
+
+            // A game that blew up the evaluator is still done; retrying it after a restart would fail again
+            if (checkpointJournal != null && game.sourceFile != null) {
+                checkpointJournal.commit(game.sourceFile, game.gameNumber, game.endOffset);
             }
         }
     }
 
-}
\ No newline at end of file
+}
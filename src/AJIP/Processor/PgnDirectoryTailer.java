@@ -0,0 +1,171 @@
+package AJIP.Processor;
+
+import AJIP.Logger.PGNLogger;
+import AJIP.Model.ChessGame;
+import AJIP.Parser.PGNParser;
+import AJIP.Records.Checkpoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Follows a directory of PGN files that other processes keep appending to.
+ * <p>
+ * Every *.pgn file is read from the last offset it was read to, and only games that are complete
+ * (terminated by a result or followed by the next game's headers) are handed to the sink; a game
+ * still being written is picked up on a later pass. New files are discovered through a
+ * {@link WatchService}. Known files are also re-checked on a short poll interval, because some
+ * platforms implement WatchService by slow polling.
+ */
+public class PgnDirectoryTailer implements Closeable {
+
+    private static final long POLL_INTERVAL_MILLIS = 250;
+
+    private final Path directory;
+    private final Consumer<ChessGame> sink;
+    private final CheckpointJournal checkpointJournal;
+    private final Map<String, TailPosition> positions = new HashMap<>();
+    private final WatchService watchService;
+    private volatile boolean running = true;
+
+    // How far one file has been read
+    private static class TailPosition {
+        long offset;
+        int gameNumber;
+        long size = -1;
+        long lastModified = -1;
+
+        TailPosition(long offset, int gameNumber) {
+            this.offset = offset;
+            this.gameNumber = gameNumber;
+        }
+    }
+
+    /**
+     * @param directory         Directory to follow
+     * @param sink              Receives every completed game, including games the parser rejected
+     *                          (those arrive with an empty move list)
+     * @param checkpointJournal Optional journal to resume from after a restart; may be null
+     */
+    public PgnDirectoryTailer(Path directory, Consumer<ChessGame> sink, CheckpointJournal checkpointJournal) throws IOException {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.sink = sink;
+        this.checkpointJournal = checkpointJournal;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /**
+     * Follow the directory until {@link #close()} is called or the thread is interrupted
+     */
+    public void run() {
+        PGNLogger.info("Watching " + directory + " for new games");
+        scanDirectory();
+
+        while (running) {
+            WatchKey key;
+            try {
+                key = watchService.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ClosedWatchServiceException e) {
+                break;
+            }
+
+            if (key == null) {
+                // Quiet period: re-check the files we know about
+                for (String file : positions.keySet().toArray(new String[0])) {
+                    tailFile(Path.of(file));
+                }
+                continue;
+            }
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    scanDirectory();
+                } else if (event.context() instanceof Path name && isPgn(name)) {
+                    tailFile(directory.resolve(name));
+                }
+            }
+            key.reset();
+        }
+        PGNLogger.info("Stopped watching " + directory);
+    }
+
+    private void scanDirectory() {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> isPgn(path.getFileName()) && Files.isRegularFile(path))
+                    .sorted()
+                    .forEach(this::tailFile);
+        } catch (IOException e) {
+            PGNLogger.error("Error listing " + directory, e);
+        }
+    }
+
+    /**
+     * Read the games appended to one file since the last pass
+     */
+    private void tailFile(Path path) {
+        String file = path.toAbsolutePath().normalize().toString();
+        try {
+            if (!Files.isRegularFile(path)) {
+                return;
+            }
+            long size = Files.size(path);
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+            TailPosition position = positions.get(file);
+            if (position == null) {
+                position = startPosition(file);
+                positions.put(file, position);
+            }
+            if (size == position.size && lastModified == position.lastModified) {
+                return; // Nothing new
+            }
+            if (size < position.offset) {
+                // The journal's watermark is past the new end as well, so it starts the file afresh too
+                PGNLogger.warning(file + " shrank, reading it again from the start");
+                position = startPosition(file);
+                positions.put(file, position);
+            }
+            position.size = size;
+            position.lastModified = lastModified;
+
+            PGNParser.StreamResult result = new PGNParser().parseGames(file, position.offset,
+                    position.gameNumber + 1, false, sink);
+            position.offset = result.endOffset();
+            position.gameNumber = result.lastGameNumber();
+
+            if (checkpointJournal != null) {
+                checkpointJournal.fileParsed(file, result);
+            }
+        } catch (IOException e) {
+            PGNLogger.error("Error tailing " + file, e);
+        }
+    }
+
+    private TailPosition startPosition(String file) throws IOException {
+        if (checkpointJournal == null) {
+            return new TailPosition(0, 0);
+        }
+        Checkpoint checkpoint = checkpointJournal.resumePoint(file);
+        return new TailPosition(checkpoint.offset(), checkpoint.gameNumber());
+    }
+
+    private static boolean isPgn(Path name) {
+        return name.toString().toLowerCase().endsWith(".pgn");
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        watchService.close();
+    }
+}
@@ -0,0 +1,41 @@
+package AJIP.Records;
+
+/**
+ * Committed progress of one input file: every game up to gameNumber (ending at byte offset)
+ * has been fully processed. size and lastModified identify the file version the progress belongs to.
+ */
+public record Checkpoint(String file, long size, long lastModified, long offset, int gameNumber, boolean complete) {
+
+    /**
+     * Starting point for a file that has never been processed
+     */
+    public static Checkpoint fresh(String file, long size, long lastModified) {
+        return new Checkpoint(file, size, lastModified, 0, 0, false);
+    }
+
+    /**
+     * Whether this checkpoint covers the given file version completely
+     */
+    public boolean isUnchanged(long currentSize, long currentLastModified) {
+        return complete && size == currentSize && lastModified == currentLastModified;
+    }
+
+    /**
+     * Serialize as one tab-separated journal line
+     */
+    public String toJournalLine() {
+        return file + "\t" + size + "\t" + lastModified + "\t" + offset + "\t" + gameNumber + "\t" + complete;
+    }
+
+    /**
+     * Parse a journal line written by {@link #toJournalLine()}
+     */
+    public static Checkpoint fromJournalLine(String line) {
+        String[] fields = line.split("\t");
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Malformed journal line: " + line);
+        }
+        return new Checkpoint(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                Long.parseLong(fields[3]), Integer.parseInt(fields[4]), Boolean.parseBoolean(fields[5]));
+    }
+}
@@ -0,0 +1,64 @@
+package AJIP.Records;
+
+/**
+ * Outcome of evaluating one game
+ *
+ * @param gameId      Source file and game number, e.g. "games.pgn#12"
+ * @param passed      Whether every move was legal and every annotation correct
+ * @param failingPly  1-based ply of the first bad move, 0 if the game passed or failed as a whole
+ * @param san         Notation of the failing move, empty if there is none
+ * @param reason      Why the game failed, {@link Reason#OK} if it passed, {@link Reason#DUPLICATE} if it was skipped
+ * @param lastGoodFen FEN of the last position reached legally, empty if the game passed
+ */
+public record GameVerdict(String gameId, boolean passed, int failingPly, String san,
+                          Reason reason, String lastGoodFen) {
+
+    public static final String CSV_HEADER = "game_id,passed,failing_ply,san,reason,last_good_fen";
+
+    /**
+     * Machine-readable failure reasons
+     */
+    public enum Reason {
+        OK,
+        PARSE_ERROR,          // The move text could not be parsed
+        INVALID_FEN,          // The FEN tag does not describe a usable start position
+        NO_CANDIDATE,         // No piece of the named type and color on the board
+        ILLEGAL_MOVE,         // No candidate piece can make the move
+        KING_IN_CHECK,        // The move would leave the mover's king attacked
+        AMBIGUOUS_MOVE,       // More than one piece can make the move
+        FALSE_CHECK,          // Annotated "+" or "#" but gives no check
+        FALSE_CHECKMATE,      // Annotated "#" but the opponent has a legal move
+        RESULT_MISMATCH,      // Mate or stalemate on the board contradicts the Result tag
+        EVALUATION_ERROR,     // The evaluator failed unexpectedly
+        DUPLICATE             // Skipped unevaluated: the duplicate filter has seen the game before
+    }
+
+    /**
+     * Create a verdict for a game that passed
+     */
+    public static GameVerdict pass(String gameId) {
+        return new GameVerdict(gameId, true, 0, "", Reason.OK, "");
+    }
+
+    /**
+     * Create a verdict for a game that failed
+     */
+    public static GameVerdict fail(String gameId, int failingPly, String san, Reason reason, String lastGoodFen) {
+        return new GameVerdict(gameId, false, failingPly, san != null ? san : "", reason, lastGoodFen != null ? lastGoodFen : "");
+    }
+
+    /**
+     * One CSV line matching {@link #CSV_HEADER}, without the line terminator
+     */
+    public String toCsvLine() {
+        return csvField(gameId) + ',' + passed + ',' + failingPly + ',' + csvField(san) + ',' + reason + ',' + lastGoodFen;
+    }
+
+    // File names may contain commas or quotes; SAN and FEN never do
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
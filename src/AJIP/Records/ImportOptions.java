@@ -0,0 +1,27 @@
+package AJIP.Records;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Settings of one importer run, as given on the command line and read by {@link AJIP.Cli#parse(String[])}
+ *
+ * @param inputs           PGN files, directories (searched recursively for *.pgn) and glob patterns such as {@code games/**.pgn}
+ * @param parserThreads    Threads parsing PGN files
+ * @param evaluatorThreads Threads validating games
+ * @param queueCapacity    Parsed games that may wait for an evaluator
+ * @param logLevel         Threshold for the log files and console
+ * @param verdicts         CSV file the per-game verdicts are appended to, null for none
+ * @param checkpointDir    Directory of the resume journal, null to always start from scratch
+ * @param watchDirectory   Directory to follow instead of importing inputs once, null for a one-off import
+ * @param openingTree      Opening tree file to write, null for none
+ * @param openingPlies     Plies of each game counted in the opening tree
+ * @param dedupMemory      Bytes for the duplicate filter, 0 to keep duplicates
+ * @param metrics          Where pipeline metrics go: a snapshot file (JSON if it ends in .json), "log" or "jmx"; null for none
+ * @param metricsInterval  Seconds between metrics snapshots
+ */
+public record ImportOptions(List<String> inputs, int parserThreads, int evaluatorThreads, int queueCapacity,
+                            Level logLevel, Path verdicts, Path checkpointDir, Path watchDirectory,
+                            Path openingTree, int openingPlies, long dedupMemory, String metrics, int metricsInterval) {
+}
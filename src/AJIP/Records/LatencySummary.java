@@ -0,0 +1,24 @@
+package AJIP.Records;
+
+/**
+ * Latency distribution of one pipeline stage; all times in nanoseconds
+ *
+ * @param count      Samples recorded
+ * @param totalNanos Sum of all samples, i.e. the time spent in the stage over all threads
+ * @param p50        Median
+ * @param p90        90th percentile
+ * @param p99        99th percentile
+ * @param p999       99.9th percentile
+ * @param max        Largest sample
+ */
+public record LatencySummary(long count, long totalNanos, long p50, long p90, long p99, long p999, long max) {
+
+    public double meanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    public String getLoggerMessage() {
+        return String.format("%d samples, total %.1f ms, mean %.0f ns, p50 %d ns, p90 %d ns, p99 %d ns, p99.9 %d ns, max %d ns",
+                count, totalNanos / 1e6, meanNanos(), p50, p90, p99, p999, max);
+    }
+}
@@ -0,0 +1,51 @@
+package AJIP.Records;
+
+import java.util.Map;
+
+/**
+ * Pipeline counters and stage latencies at one point in time, in registration order
+ *
+ * @param uptimeMillis Time since metrics were started or last reset
+ * @param counters     Event counts by name, e.g. "san.moves"
+ * @param latencies    Latency distributions by stage name, e.g. "move.validate"
+ */
+public record MetricsSnapshot(long uptimeMillis, Map<String, Long> counters, Map<String, LatencySummary> latencies) {
+
+    /**
+     * One line per counter and stage, for logs and the console
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder("Pipeline metrics after ").append(uptimeMillis / 1000.0).append(" s\n");
+        counters.forEach((name, value) -> text.append(String.format("  %-20s %d%n", name, value)));
+        latencies.forEach((name, summary) -> text.append(String.format("  %-20s %s%n", name, summary.getLoggerMessage())));
+        return text.toString();
+    }
+
+    /**
+     * The snapshot as a JSON object; metric names never need escaping
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"uptimeMillis\":").append(uptimeMillis).append(",\"counters\":{");
+        String separator = "";
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            json.append(separator).append('"').append(counter.getKey()).append("\":").append(counter.getValue());
+            separator = ",";
+        }
+        json.append("},\"latencies\":{");
+        separator = "";
+        for (Map.Entry<String, LatencySummary> latency : latencies.entrySet()) {
+            LatencySummary summary = latency.getValue();
+            json.append(separator).append('"').append(latency.getKey()).append("\":{")
+                    .append("\"count\":").append(summary.count())
+                    .append(",\"totalNanos\":").append(summary.totalNanos())
+                    .append(",\"p50\":").append(summary.p50())
+                    .append(",\"p90\":").append(summary.p90())
+                    .append(",\"p99\":").append(summary.p99())
+                    .append(",\"p999\":").append(summary.p999())
+                    .append(",\"max\":").append(summary.max())
+                    .append('}');
+            separator = ",";
+        }
+        return json.append("}}").toString();
+    }
+}
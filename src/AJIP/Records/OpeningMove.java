@@ -0,0 +1,25 @@
+package AJIP.Records;
+
+/**
+ * One move played from a position of the opening tree, with the results of the games that played it
+ *
+ * @param move      The move in coordinate notation, e.g. "e2e4", "e7e8q"; castling is the king's move ("e1g1")
+ * @param games     Games that played the move, including unfinished ones
+ * @param whiteWins Games won by white
+ * @param draws     Drawn games
+ * @param blackWins Games won by black
+ */
+public record OpeningMove(String move, int games, int whiteWins, int draws, int blackWins) {
+
+    /**
+     * White's score over the decided and drawn games (1 = white always won), or NaN if there are none
+     */
+    public double whiteScore() {
+        int finished = whiteWins + draws + blackWins;
+        return finished == 0 ? Double.NaN : (whiteWins + draws / 2.0) / finished;
+    }
+
+    public String getLoggerMessage() {
+        return String.format("%s: %d games, +%d =%d -%d", move, games, whiteWins, draws, blackWins);
+    }
+}
@@ -2,6 +2,15 @@ package AJIP.Records;
 
 public record Position(int row, int col) {
 
+    // One shared instance per square, so hot paths don't allocate positions
+    private static final Position[] SQUARES = new Position[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new Position(square / 8, square % 8);
+        }
+    }
+
     public Position {
         if (row < 0 || row > 7) {
             throw new IllegalArgumentException("Row must be 0-7, got: " + row);
@@ -11,6 +20,16 @@ public record Position(int row, int col) {
         }
     }
 
+    /**
+     * Shared Position for a square; same validation as the constructor
+     */
+    public static Position of(int row, int col) {
+        if (row < 0 || row > 7 || col < 0 || col > 7) {
+            return new Position(row, col); // throws with the usual message
+        }
+        return SQUARES[row * 8 + col];
+    }
+
     public static Position fromNotation(String notation) {
         if (notation.length() != 2) {
             throw new IllegalArgumentException("Invalid notation: " + notation);
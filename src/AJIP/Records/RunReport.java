@@ -0,0 +1,27 @@
+package AJIP.Records;
+
+/**
+ * Totals of one processing run
+ *
+ * @param gamesPassed     Games whose every move was legal
+ * @param gamesFailed     Games rejected by the parser or the evaluator
+ * @param gamesDuplicate  Games dropped as duplicates of an earlier game, never evaluated
+ */
+public record RunReport(long gamesPassed, long gamesFailed, long gamesDuplicate) {
+
+    public RunReport(long gamesPassed, long gamesFailed) {
+        this(gamesPassed, gamesFailed, 0);
+    }
+
+    /**
+     * Games evaluated or rejected by the parser; duplicates are not included
+     */
+    public long gamesTotal() {
+        return gamesPassed + gamesFailed;
+    }
+
+    public String getLoggerMessage() {
+        return String.format("Processed %d games: %d passed, %d failed, %d duplicates skipped",
+                gamesTotal(), gamesPassed, gamesFailed, gamesDuplicate);
+    }
+}
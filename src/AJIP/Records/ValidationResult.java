@@ -1,29 +1,32 @@
 package AJIP.Records;
 
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
+
 /**
  * Result of validating a chess move
  */
-public record ValidationResult(boolean isValid, String color, String pieceType,
+public record ValidationResult(boolean isValid, Color color, PieceType pieceType,
                                Position from, Position to, String error) {
 
     /**
      * Create a successful validation result
      */
-    public static ValidationResult valid(String color, String pieceType,  Position from, Position to) {
+    public static ValidationResult valid(Color color, PieceType pieceType,  Position from, Position to) {
         return new ValidationResult(true, color, pieceType, from, to, "");
     }
 
     /**
      * Create a failed validation result
      */
-    public static ValidationResult invalid(String color, String pieceType,  Position from, Position to, String error) {
+    public static ValidationResult invalid(Color color, PieceType pieceType,  Position from, Position to, String error) {
         return new ValidationResult(false, color, pieceType, from, to, error);
     }
 
     /**
      * Create a failed validation result without positions
      */
-    public static ValidationResult invalid(String color, String pieceType, String error) {
+    public static ValidationResult invalid(Color color, PieceType pieceType, String error) {
         return new ValidationResult(false, color, pieceType, null, null, error);
     }
 
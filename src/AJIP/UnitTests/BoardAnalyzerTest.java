@@ -2,6 +2,8 @@ package AJIP.UnitTests;
 
 import AJIP.Engine.BoardAnalyzer;
 import AJIP.Model.ChessBoard;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
 import AJIP.Records.Position;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -26,8 +28,8 @@ class BoardAnalyzerTest {
     @Test
     @DisplayName("Should find all pawns of a color")
     void shouldFindAllPawns() {
-        List<Position> whitePawns = analyzer.GetCandidatePositions("white", "Pawn");
-        List<Position> blackPawns = analyzer.GetCandidatePositions("black", "Pawn");
+        List<Position> whitePawns = analyzer.GetCandidatePositions(Color.WHITE, PieceType.PAWN);
+        List<Position> blackPawns = analyzer.GetCandidatePositions(Color.BLACK, PieceType.PAWN);
 
         assertEquals(8, whitePawns.size());
         assertEquals(8, blackPawns.size());
@@ -41,8 +43,8 @@ class BoardAnalyzerTest {
     @Test
     @DisplayName("Should find king positions")
     void shouldFindKings() {
-        List<Position> whiteKing = analyzer.GetCandidatePositions("white", "King");
-        List<Position> blackKing = analyzer.GetCandidatePositions("black", "King");
+        List<Position> whiteKing = analyzer.GetCandidatePositions(Color.WHITE, PieceType.KING);
+        List<Position> blackKing = analyzer.GetCandidatePositions(Color.BLACK, PieceType.KING);
 
         assertEquals(1, whiteKing.size());
         assertEquals(1, blackKing.size());
@@ -53,8 +55,8 @@ class BoardAnalyzerTest {
     @Test
     @DisplayName("Should find all rooks")
     void shouldFindAllRooks() {
-        List<Position> whiteRooks = analyzer.GetCandidatePositions("white", "Rook");
-        List<Position> blackRooks = analyzer.GetCandidatePositions("black", "Rook");
+        List<Position> whiteRooks = analyzer.GetCandidatePositions(Color.WHITE, PieceType.ROOK);
+        List<Position> blackRooks = analyzer.GetCandidatePositions(Color.BLACK, PieceType.ROOK);
 
         assertEquals(2, whiteRooks.size());
         assertEquals(2, blackRooks.size());
@@ -65,8 +67,8 @@ class BoardAnalyzerTest {
     @Test
     @DisplayName("Should find all knights")
     void shouldFindAllKnights() {
-        List<Position> whiteKnights = analyzer.GetCandidatePositions("white", "Knight");
-        List<Position> blackKnights = analyzer.GetCandidatePositions("black", "Knight");
+        List<Position> whiteKnights = analyzer.GetCandidatePositions(Color.WHITE, PieceType.KNIGHT);
+        List<Position> blackKnights = analyzer.GetCandidatePositions(Color.BLACK, PieceType.KNIGHT);
 
         assertEquals(2, whiteKnights.size());
         assertEquals(2, blackKnights.size());
@@ -77,8 +79,8 @@ class BoardAnalyzerTest {
     @Test
     @DisplayName("Should find all bishops")
     void shouldFindAllBishops() {
-        List<Position> whiteBishops = analyzer.GetCandidatePositions("white", "Bishop");
-        List<Position> blackBishops = analyzer.GetCandidatePositions("black", "Bishop");
+        List<Position> whiteBishops = analyzer.GetCandidatePositions(Color.WHITE, PieceType.BISHOP);
+        List<Position> blackBishops = analyzer.GetCandidatePositions(Color.BLACK, PieceType.BISHOP);
 
         assertEquals(2, whiteBishops.size());
         assertEquals(2, blackBishops.size());
@@ -89,8 +91,8 @@ class BoardAnalyzerTest {
     @Test
     @DisplayName("Should find queens")
     void shouldFindQueens() {
-        List<Position> whiteQueen = analyzer.GetCandidatePositions("white", "Queen");
-        List<Position> blackQueen = analyzer.GetCandidatePositions("black", "Queen");
+        List<Position> whiteQueen = analyzer.GetCandidatePositions(Color.WHITE, PieceType.QUEEN);
+        List<Position> blackQueen = analyzer.GetCandidatePositions(Color.BLACK, PieceType.QUEEN);
 
         assertEquals(1, whiteQueen.size());
         assertEquals(1, blackQueen.size());
@@ -103,21 +105,21 @@ class BoardAnalyzerTest {
     void shouldReturnEmptyForNonExistent() {
         // Clear a square and verify
         board.board[6][0] = null;
-        List<Position> pieces = analyzer.GetCandidatePositions("white", "Pawn");
+        List<Position> pieces = analyzer.GetCandidatePositions(Color.WHITE, PieceType.PAWN);
         assertEquals(7, pieces.size()); // One less pawn
     }
 
     @Test
     @DisplayName("Should return empty list for unknown piece type")
     void shouldReturnEmptyForUnknownPieceType() {
-        List<Position> pieces = analyzer.GetCandidatePositions("white", "InvalidPiece");
+        List<Position> pieces = analyzer.GetCandidatePositions(Color.WHITE, PieceType.fromName("InvalidPiece"));
         assertTrue(pieces.isEmpty());
     }
 
     @Test
     @DisplayName("Should return empty list for invalid color")
     void shouldReturnEmptyForInvalidColor() {
-        List<Position> pieces = analyzer.GetCandidatePositions("red", "Pawn");
+        List<Position> pieces = analyzer.GetCandidatePositions(Color.fromName("red"), PieceType.PAWN);
         assertTrue(pieces.isEmpty());
     }
 }
\ No newline at end of file
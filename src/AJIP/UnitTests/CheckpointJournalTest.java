@@ -0,0 +1,142 @@
+package AJIP.UnitTests;
+
+import AJIP.Model.ChessGame;
+import AJIP.Parser.PGNParser;
+import AJIP.Processor.CheckpointJournal;
+import AJIP.Records.Checkpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Checkpoint Journal Tests")
+class CheckpointJournalTest {
+
+    private static final String PGN = """
+            [Event "One"]
+            [Result "1-0"]
+
+            1.e4 e5 2.Nf3 Nc6 1-0
+
+            [Event "Two"]
+            [Result "0-1"]
+
+            1.d4 d5 2.c4 e6 0-1
+
+            [Event "Three"]
+            [Result "*"]
+
+            1.c4 e5 *
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private String pgnFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path path = tempDir.resolve("games.pgn");
+        Files.writeString(path, PGN);
+        pgnFile = path.toString();
+    }
+
+    @Test
+    @DisplayName("Should report game end offsets that allow resuming mid-file")
+    void shouldResumeFromGameOffset() {
+        List<ChessGame> all = new ArrayList<>();
+        PGNParser.StreamResult result = new PGNParser().parseGames(pgnFile, 0, 1, true, all::add);
+
+        assertEquals(3, all.size());
+        assertEquals(3, result.lastGameNumber());
+
+        List<ChessGame> rest = new ArrayList<>();
+        new PGNParser().parseGames(pgnFile, all.get(0).endOffset, 2, true, rest::add);
+
+        assertEquals(2, rest.size());
+        assertEquals(2, rest.get(0).gameNumber);
+        assertEquals("Two", rest.get(0).getHeaders().get("Event"));
+        assertEquals(all.get(2).endOffset, rest.get(1).endOffset);
+    }
+
+    @Test
+    @DisplayName("Should hold back a game that is still being appended in tail mode")
+    void shouldHoldBackUnfinishedGameInTailMode() throws Exception {
+        Path growing = tempDir.resolve("growing.pgn");
+        Files.writeString(growing, PGN + "\n[Event \"Four\"]\n\n1.e4 c5 2.Nf3");
+
+        List<ChessGame> games = new ArrayList<>();
+        PGNParser.StreamResult result = new PGNParser().parseGames(growing.toString(), 0, 1, false, games::add);
+
+        assertEquals(3, games.size());
+        assertEquals(games.get(2).endOffset, result.endOffset());
+
+        // The writer finishes the game; the next pass picks it up from the stored offset
+        Files.writeString(growing, " d6 1/2-1/2\n", StandardOpenOption.APPEND);
+        List<ChessGame> appended = new ArrayList<>();
+        new PGNParser().parseGames(growing.toString(), result.endOffset(), result.lastGameNumber() + 1, false, appended::add);
+
+        assertEquals(1, appended.size());
+        assertEquals(4, appended.get(0).gameNumber);
+        assertEquals("Four", appended.get(0).getHeaders().get("Event"));
+        assertEquals(4, appended.get(0).getMoves().size());
+    }
+
+    @Test
+    @DisplayName("Should only advance the watermark over contiguous committed games")
+    void shouldAdvanceWatermarkContiguously() throws Exception {
+        List<ChessGame> games = new ArrayList<>();
+        PGNParser.StreamResult result = new PGNParser().parseGames(pgnFile, 0, 1, true, games::add);
+
+        CheckpointJournal journal = CheckpointJournal.open(tempDir.resolve("checkpoints"));
+        journal.resumePoint(pgnFile);
+        journal.fileParsed(pgnFile, result);
+
+        journal.commit(pgnFile, 2, games.get(1).endOffset);
+        assertEquals(0, journal.getCheckpoint(pgnFile).gameNumber());
+
+        journal.commit(pgnFile, 1, games.get(0).endOffset);
+        assertEquals(2, journal.getCheckpoint(pgnFile).gameNumber());
+        assertEquals(games.get(1).endOffset, journal.getCheckpoint(pgnFile).offset());
+        assertFalse(journal.getCheckpoint(pgnFile).complete());
+
+        journal.commit(pgnFile, 3, games.get(2).endOffset);
+        assertTrue(journal.getCheckpoint(pgnFile).complete());
+    }
+
+    @Test
+    @DisplayName("Should resume after restart and skip unchanged completed files")
+    void shouldResumeAndSkipAfterRestart() throws Exception {
+        List<ChessGame> games = new ArrayList<>();
+        PGNParser.StreamResult result = new PGNParser().parseGames(pgnFile, 0, 1, true, games::add);
+        Path checkpoints = tempDir.resolve("checkpoints");
+
+        CheckpointJournal first = CheckpointJournal.open(checkpoints);
+        first.resumePoint(pgnFile);
+        first.commit(pgnFile, 1, games.get(0).endOffset);
+        first.flush();
+
+        // Simulated crash: a new journal instance only sees what was flushed
+        CheckpointJournal second = CheckpointJournal.open(checkpoints);
+        Checkpoint resume = second.resumePoint(pgnFile);
+        assertFalse(resume.complete());
+        assertEquals(1, resume.gameNumber());
+        assertEquals(games.get(0).endOffset, resume.offset());
+
+        second.commit(pgnFile, 2, games.get(1).endOffset);
+        second.commit(pgnFile, 3, games.get(2).endOffset);
+        second.fileParsed(pgnFile, result);
+        second.flush();
+
+        CheckpointJournal third = CheckpointJournal.open(checkpoints);
+        assertTrue(third.resumePoint(pgnFile).complete());
+    }
+}
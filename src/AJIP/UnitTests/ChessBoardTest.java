@@ -1,8 +1,11 @@
 package AJIP.UnitTests;
 
 
+import AJIP.Model.BoardSnapshot;
 import AJIP.Model.ChessBoard;
 import AJIP.Model.ChessPiece;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,26 +25,26 @@ class ChessBoardTest {
     @DisplayName("Should initialize board with correct piece placement")
     void shouldInitializeBoardWithCorrectPiecePlacement() {
         // Check black pieces on row 0
-        assertEquals("Rook", board.board[0][0].getType());
-        assertEquals("black", board.board[0][0].getColor());
-        assertEquals("Knight", board.board[0][1].getType());
-        assertEquals("Bishop", board.board[0][2].getType());
-        assertEquals("Queen", board.board[0][3].getType());
-        assertEquals("King", board.board[0][4].getType());
-        assertEquals("Bishop", board.board[0][5].getType());
-        assertEquals("Knight", board.board[0][6].getType());
-        assertEquals("Rook", board.board[0][7].getType());
+        assertEquals(PieceType.ROOK, board.board[0][0].getType());
+        assertEquals(Color.BLACK, board.board[0][0].getColor());
+        assertEquals(PieceType.KNIGHT, board.board[0][1].getType());
+        assertEquals(PieceType.BISHOP, board.board[0][2].getType());
+        assertEquals(PieceType.QUEEN, board.board[0][3].getType());
+        assertEquals(PieceType.KING, board.board[0][4].getType());
+        assertEquals(PieceType.BISHOP, board.board[0][5].getType());
+        assertEquals(PieceType.KNIGHT, board.board[0][6].getType());
+        assertEquals(PieceType.ROOK, board.board[0][7].getType());
 
         // Check white pieces on row 7
-        assertEquals("Rook", board.board[7][0].getType());
-        assertEquals("white", board.board[7][0].getColor());
-        assertEquals("Knight", board.board[7][1].getType());
-        assertEquals("Bishop", board.board[7][2].getType());
-        assertEquals("Queen", board.board[7][3].getType());
-        assertEquals("King", board.board[7][4].getType());
-        assertEquals("Bishop", board.board[7][5].getType());
-        assertEquals("Knight", board.board[7][6].getType());
-        assertEquals("Rook", board.board[7][7].getType());
+        assertEquals(PieceType.ROOK, board.board[7][0].getType());
+        assertEquals(Color.WHITE, board.board[7][0].getColor());
+        assertEquals(PieceType.KNIGHT, board.board[7][1].getType());
+        assertEquals(PieceType.BISHOP, board.board[7][2].getType());
+        assertEquals(PieceType.QUEEN, board.board[7][3].getType());
+        assertEquals(PieceType.KING, board.board[7][4].getType());
+        assertEquals(PieceType.BISHOP, board.board[7][5].getType());
+        assertEquals(PieceType.KNIGHT, board.board[7][6].getType());
+        assertEquals(PieceType.ROOK, board.board[7][7].getType());
     }
 
     @Test
@@ -49,15 +52,15 @@ class ChessBoardTest {
     void shouldInitializeAllPawnsCorrectly() {
         // Check black pawns on row 1
         for (int col = 0; col < 8; col++) {
-            assertEquals("Pawn", board.board[1][col].getType());
-            assertEquals("black", board.board[1][col].getColor());
+            assertEquals(PieceType.PAWN, board.board[1][col].getType());
+            assertEquals(Color.BLACK, board.board[1][col].getColor());
             assertFalse(board.board[1][col].IsMoved());
         }
 
         // Check white pawns on row 6
         for (int col = 0; col < 8; col++) {
-            assertEquals("Pawn", board.board[6][col].getType());
-            assertEquals("white", board.board[6][col].getColor());
+            assertEquals(PieceType.PAWN, board.board[6][col].getType());
+            assertEquals(Color.WHITE, board.board[6][col].getColor());
             assertFalse(board.board[6][col].IsMoved());
         }
     }
@@ -90,7 +93,7 @@ class ChessBoardTest {
     @DisplayName("Should reset board correctly")
     void shouldResetBoardCorrectly() {
         // Modify board state
-        board.board[4][4] = new ChessPiece("Queen", "white");
+        board.board[4][4] = new ChessPiece(PieceType.QUEEN, Color.WHITE);
         board.board[0][0] = null;
         board.board[7][4].SetMoved(); // Mark king as moved
 
@@ -100,8 +103,8 @@ class ChessBoardTest {
         // Verify reset
         assertNull(board.board[4][4]);
         assertNotNull(board.board[0][0]);
-        assertEquals("Rook", board.board[0][0].getType());
-        assertEquals("black", board.board[0][0].getColor());
+        assertEquals(PieceType.ROOK, board.board[0][0].getType());
+        assertEquals(Color.BLACK, board.board[0][0].getColor());
         assertFalse(board.board[7][4].IsMoved()); // King should be unmoved again
     }
 
@@ -111,14 +114,14 @@ class ChessBoardTest {
         // Check all pieces on rows 0-1 are black
         for (int row = 0; row < 2; row++) {
             for (int col = 0; col < 8; col++) {
-                assertEquals("black", board.board[row][col].getColor());
+                assertEquals(Color.BLACK, board.board[row][col].getColor());
             }
         }
 
         // Check all pieces on rows 6-7 are white
         for (int row = 6; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
-                assertEquals("white", board.board[row][col].getColor());
+                assertEquals(Color.WHITE, board.board[row][col].getColor());
             }
         }
     }
@@ -137,7 +140,7 @@ class ChessBoardTest {
     void shouldAllowPieceModification() {
         // Test that board allows modifications
         ChessPiece originalPiece = board.board[6][0];
-        ChessPiece newPiece = new ChessPiece("Queen", "white");
+        ChessPiece newPiece = new ChessPiece(PieceType.QUEEN, Color.WHITE);
 
         board.board[6][0] = newPiece;
         assertEquals(newPiece, board.board[6][0]);
@@ -162,4 +165,129 @@ class ChessBoardTest {
         board.board[6][0] = null;
         assertNull(board.board[6][0]);
     }
+
+    @Test
+    @DisplayName("Should reuse the same piece objects across resets")
+    void shouldReusePieceObjectsAcrossResets() {
+        ChessPiece pawn = board.board[6][4];
+        ChessPiece king = board.board[7][4];
+
+        // Play some moves, capture and promote, then reset
+        board.board[4][4] = pawn;
+        board.board[6][4] = null;
+        pawn.SetMoved();
+        board.board[0][3] = null;
+        board.board[0][0] = ChessPiece.Promoted(PieceType.QUEEN, Color.WHITE);
+        board.ResetBoard();
+
+        assertSame(pawn, board.board[6][4]);
+        assertSame(king, board.board[7][4]);
+        assertFalse(pawn.IsMoved());
+        assertNull(board.board[4][4]);
+        assertEquals(PieceType.QUEEN, board.board[0][3].getType());
+        assertEquals(Color.BLACK, board.board[0][0].getColor());
+    }
+
+    @Test
+    @DisplayName("Should share promoted pieces that always count as moved")
+    void shouldSharePromotedPieces() {
+        ChessPiece queen = ChessPiece.Promoted(PieceType.QUEEN, Color.BLACK);
+
+        assertSame(queen, ChessPiece.Promoted(PieceType.QUEEN, Color.BLACK));
+        assertNotSame(queen, ChessPiece.Promoted(PieceType.QUEEN, Color.WHITE));
+        assertEquals(Color.BLACK, queen.getColor());
+        assertTrue(queen.IsMoved());
+    }
+
+    @Test
+    @DisplayName("Should write the same FEN it loaded")
+    void shouldRoundTripFen() {
+        String fen = "r3k2r/pp1n1ppp/2p5/3pP3/8/8/PPP2PPP/R3K2R w Kq d6 0 12";
+        board.LoadFen(fen);
+
+        assertEquals(fen, board.ToFen());
+        assertEquals(Color.WHITE, board.sideToMove);
+        assertEquals(2 * 8 + 3, board.enPassantSquare);
+        assertEquals(12, board.fullMoveNumber);
+    }
+
+    @Test
+    @DisplayName("Should turn FEN castling rights and pawn ranks into moved flags")
+    void shouldSetMovedFlagsFromFen() {
+        board.LoadFen("r3k2r/8/8/8/8/4P3/P7/R3K2R b Kk - 3 30");
+
+        assertFalse(board.board[7][4].IsMoved()); // White king keeps a right
+        assertFalse(board.board[7][7].IsMoved());
+        assertTrue(board.board[7][0].IsMoved());  // No Q right
+        assertFalse(board.board[0][7].IsMoved());
+        assertTrue(board.board[0][0].IsMoved());  // No q right
+        assertFalse(board.board[6][0].IsMoved()); // Pawn on its start square may double step
+        assertTrue(board.board[5][4].IsMoved());
+    }
+
+    @Test
+    @DisplayName("Should accept a FEN without move counters")
+    void shouldAcceptFenWithoutCounters() {
+        board.LoadFen("8/8/8/8/8/8/8/K6k b - -");
+
+        assertEquals(Color.BLACK, board.sideToMove);
+        assertEquals("8/8/8/8/8/8/8/K6k b - - 0 1", board.ToFen());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed FEN and leave the board unchanged")
+    void shouldRejectMalformedFen() {
+        String start = board.ToFen();
+
+        assertThrows(IllegalArgumentException.class, () -> board.LoadFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> board.LoadFen("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> board.LoadFen("8/8/8/8/8/8/8/K7 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> board.LoadFen("8/8/8/8/8/8/8/K6k x - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> board.LoadFen("8/8/8/8/8/8/8/K6k w HAha - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> board.LoadFen("8/8/8/8/8/8/8/K6k w - e4 0 1"));
+        assertEquals(start, board.ToFen());
+    }
+
+    @Test
+    @DisplayName("Should restore a snapshot and return to the start position on reset")
+    void shouldRestoreSnapshot() {
+        BoardSnapshot start = board.TakeSnapshot();
+        ChessPiece rook = board.board[7][7];
+        board.LoadFen("4k3/8/8/8/8/8/8/4K2R w K - 0 40");
+        BoardSnapshot endgame = board.TakeSnapshot();
+        assertSame(rook, board.board[7][7]); // Castling rook comes from the board's own pool
+
+        board.Restore(start);
+        assertEquals(start, board.TakeSnapshot());
+
+        board.Restore(endgame);
+        assertEquals("4k3/8/8/8/8/8/8/4K2R w K - 0 40", board.ToFen());
+        assertEquals(endgame.toFen(), board.ToFen());
+
+        board.ResetBoard();
+        assertEquals(start, board.TakeSnapshot());
+        assertEquals(start.hashCode(), board.TakeSnapshot().hashCode());
+    }
+
+    @Test
+    @DisplayName("Should hash transpositions alike and count en passant only when it can be taken")
+    void shouldComputeZobristKeys() {
+        long start = board.ZobristKey();
+        board.LoadFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 5 9");
+        assertEquals(start, board.ZobristKey()); // Move counters are not part of the position
+
+        board.LoadFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        long noCapturePossible = board.ZobristKey();
+        board.LoadFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        assertEquals(noCapturePossible, board.ZobristKey());
+
+        board.LoadFen("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 3");
+        long capturePossible = board.ZobristKey();
+        board.LoadFen("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 3");
+        assertNotEquals(capturePossible, board.ZobristKey());
+        board.LoadFen("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 3");
+        assertNotEquals(capturePossible, board.ZobristKey()); // Side to move
+        board.LoadFen("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b Kkq - 0 3");
+        assertNotEquals(capturePossible, board.ZobristKey()); // Castling rights
+    }
 }
@@ -0,0 +1,134 @@
+package AJIP.UnitTests;
+
+import AJIP.Cli;
+import AJIP.Logger.GameLogger;
+import AJIP.Logger.PGNLogger;
+import AJIP.Main;
+import AJIP.Processor.ParallelProcessor;
+import AJIP.Records.ImportOptions;
+import AJIP.Records.RunReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Level;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Command Line Tests")
+class CliTest {
+
+    private static final String GOOD_GAME = """
+            [White "A"]
+            [Black "B"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0
+
+            """;
+
+    private static final String BAD_GAME = """
+            [White "A"]
+            [Black "B"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Ke3 Nc6 1-0
+
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void restoreLogLevel() {
+        PGNLogger.setLevel(Level.ALL);
+        GameLogger.setLevel(Level.ALL);
+    }
+
+    @Test
+    @DisplayName("Should read every option and keep defaults for the rest")
+    void shouldParseOptions() {
+        ImportOptions options = Cli.parse(new String[]{"--parsers", "2", "--evaluators", "12",
+                "--queue-capacity", "500", "--log-level", "warn", "--verdicts", "out.csv", "--dedup", "64m", "a.pgn", "b"});
+
+        assertEquals(List.of("a.pgn", "b"), options.inputs());
+        assertEquals(2, options.parserThreads());
+        assertEquals(12, options.evaluatorThreads());
+        assertEquals(500, options.queueCapacity());
+        assertEquals(Level.WARNING, options.logLevel());
+        assertEquals(Path.of("out.csv"), options.verdicts());
+        assertEquals(64L << 20, options.dedupMemory());
+        assertNull(options.checkpointDir());
+        assertEquals(Cli.DEFAULT_OPENING_PLIES, options.openingPlies());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown options, bad values and missing inputs")
+    void shouldRejectBadCommandLines() {
+        assertThrows(IllegalArgumentException.class, () -> Cli.parse(new String[]{}));
+        assertThrows(IllegalArgumentException.class, () -> Cli.parse(new String[]{"--threads", "4", "a.pgn"}));
+        assertThrows(IllegalArgumentException.class, () -> Cli.parse(new String[]{"--parsers", "0", "a.pgn"}));
+        assertThrows(IllegalArgumentException.class, () -> Cli.parse(new String[]{"a.pgn", "--evaluators"}));
+        assertThrows(IllegalArgumentException.class, () -> Cli.parse(new String[]{"--log-level", "loud", "a.pgn"}));
+        assertThrows(IllegalArgumentException.class, () -> Cli.parse(new String[]{"--watch", "dir", "a.pgn"}));
+    }
+
+    @Test
+    @DisplayName("Should expand directories and globs into a sorted list of PGN files")
+    void shouldResolveInputs() throws Exception {
+        Path nested = Files.createDirectories(tempDir.resolve("2024/may"));
+        Files.writeString(tempDir.resolve("b.pgn"), GOOD_GAME);
+        Files.writeString(tempDir.resolve("a.pgn"), GOOD_GAME);
+        Files.writeString(tempDir.resolve("notes.txt"), "not a game");
+        Files.writeString(nested.resolve("c.pgn"), GOOD_GAME);
+
+        List<String> fromDirectory = Cli.resolveInputs(List.of(tempDir.toString()));
+        List<String> fromGlob = Cli.resolveInputs(List.of(tempDir + "/*.pgn"));
+        List<String> fromFile = Cli.resolveInputs(List.of(tempDir.resolve("a.pgn").toString()));
+
+        assertEquals(List.of(tempDir.resolve("2024/may/c.pgn").toString(), tempDir.resolve("a.pgn").toString(),
+                tempDir.resolve("b.pgn").toString()), fromDirectory);
+        assertEquals(List.of(tempDir.resolve("a.pgn").toString(), tempDir.resolve("b.pgn").toString()), fromGlob);
+        assertEquals(List.of(tempDir.resolve("a.pgn").toString()), fromFile);
+        assertThrows(IllegalArgumentException.class,
+                () -> Cli.resolveInputs(List.of(tempDir.resolve("missing.pgn").toString())));
+    }
+
+    @Test
+    @DisplayName("Should exit 0 when every game passes, 1 when any fails and 2 on bad usage")
+    void shouldReturnExitStatus() throws Exception {
+        Path good = tempDir.resolve("good.pgn");
+        Path bad = tempDir.resolve("bad.pgn");
+        Path verdicts = tempDir.resolve("verdicts.csv");
+        Files.writeString(good, GOOD_GAME);
+        Files.writeString(bad, GOOD_GAME + BAD_GAME);
+
+        assertEquals(Main.EXIT_OK, Main.run(new String[]{"--log-level", "off", good.toString()}));
+        assertEquals(Main.EXIT_GAMES_FAILED, Main.run(new String[]{"--log-level", "off", "--parsers", "1",
+                "--evaluators", "2", "--verdicts", verdicts.toString(), tempDir + "/*.pgn"}));
+        assertEquals(Main.EXIT_USAGE, Main.run(new String[]{"--bogus", "1", good.toString()}));
+        assertEquals(Main.EXIT_USAGE, Main.run(new String[]{tempDir + "/*.none"}));
+        assertEquals(4, Files.readAllLines(verdicts).size()); // Header and three games
+    }
+
+    @Test
+    @DisplayName("Should give the same totals with a one-game queue and single threads")
+    void shouldProcessThroughBoundedQueue() throws Exception {
+        Path file = tempDir.resolve("games.pgn");
+        Files.writeString(file, (GOOD_GAME + BAD_GAME).repeat(20));
+
+        ParallelProcessor processor = new ParallelProcessor();
+        processor.setThreads(1, 1);
+        processor.setQueueCapacity(1);
+        RunReport report = processor.processFiles(List.of(file.toString()));
+
+        assertEquals(20, report.gamesPassed());
+        assertEquals(20, report.gamesFailed());
+        assertThrows(IllegalArgumentException.class, () -> processor.setQueueCapacity(0));
+        assertThrows(IllegalArgumentException.class, () -> processor.setThreads(0, 4));
+    }
+}
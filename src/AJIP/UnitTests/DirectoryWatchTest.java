@@ -0,0 +1,187 @@
+package AJIP.UnitTests;
+
+import AJIP.Logger.VerdictWriter;
+import AJIP.Processor.CheckpointJournal;
+import AJIP.Processor.ParallelProcessor;
+import AJIP.Records.Checkpoint;
+import AJIP.Records.RunReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Directory Watch Tests")
+class DirectoryWatchTest {
+
+    // Longer than a few of the tailer's 250 ms poll intervals
+    private static final long SETTLE_MILLIS = 1000;
+
+    private static final String SCHOLARS_MATE = """
+            [Event "Mate"]
+            [Result "1-0"]
+
+            1.e4 e5 2.Bc4 Nc6 3.Qh5 Nf6 4.Qxf7# 1-0
+
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @Timeout(60)
+    @DisplayName("Should validate games as files appear and grow, each exactly once")
+    void shouldFollowGrowingFiles() throws Exception {
+        Path watched = Files.createDirectory(tempDir.resolve("incoming"));
+        Path verdicts = tempDir.resolve("verdicts.csv");
+        Path first = watched.resolve("first.pgn");
+        Files.writeString(first, SCHOLARS_MATE + """
+                [Event "Open"]
+                [Result "*"]
+
+                1.d4 d5 2.c4 *
+
+                """);
+        Files.writeString(watched.resolve("notes.txt"), SCHOLARS_MATE);
+
+        ParallelProcessor processor = new ParallelProcessor();
+        ExecutorService watcherThread = Executors.newSingleThreadExecutor();
+        try (VerdictWriter writer = VerdictWriter.open(verdicts)) {
+            processor.setVerdictWriter(writer);
+            Future<RunReport> watching = watcherThread.submit(() -> processor.watchDirectory(watched));
+
+            // Files already there are read on start; other extensions are ignored
+            awaitVerdicts(writer, 2);
+
+            // An appended game and one still being written: only the finished one is emitted
+            Files.writeString(first, """
+                    [Event "Illegal"]
+                    [Result "*"]
+
+                    1.Ke3 *
+
+                    [Event "Unfinished"]
+                    [Result "1/2-1/2"]
+
+                    1.e4 c5 2.Nf3""", StandardOpenOption.APPEND);
+            awaitVerdicts(writer, 3);
+            Thread.sleep(SETTLE_MILLIS);
+            assertEquals(3, writer.getWrittenCount(), "Unfinished game should be held back");
+
+            // Its result arrives, so the game is complete
+            Files.writeString(first, " d6 1/2-1/2\n", StandardOpenOption.APPEND);
+            awaitVerdicts(writer, 4);
+
+            // A new file is picked up
+            Path second = watched.resolve("second.pgn");
+            Files.writeString(second, SCHOLARS_MATE + SCHOLARS_MATE);
+            awaitVerdicts(writer, 6);
+
+            // A file that shrinks, e.g. rewritten from scratch, is read again from the start
+            Files.writeString(second, """
+                    [Event "Short"]
+
+                    1.e4 *
+                    """);
+            awaitVerdicts(writer, 7);
+            Thread.sleep(SETTLE_MILLIS);
+            assertEquals(7, writer.getWrittenCount(), "No game should be emitted twice");
+
+            processor.stopWatching();
+            RunReport report = watching.get(30, TimeUnit.SECONDS);
+
+            assertEquals(6, report.gamesPassed());
+            assertEquals(1, report.gamesFailed());
+            assertEquals(0, report.gamesDuplicate());
+        } finally {
+            watcherThread.shutdownNow();
+        }
+
+        List<String> ids = Files.readAllLines(verdicts).stream()
+                .skip(1)
+                .map(line -> Path.of(line.substring(0, line.indexOf(','))).getFileName().toString())
+                .sorted()
+                .toList();
+        assertEquals(List.of("first.pgn#1", "first.pgn#2", "first.pgn#3", "first.pgn#4",
+                "second.pgn#1", "second.pgn#1", "second.pgn#2"), ids);
+    }
+
+    @Test
+    @Timeout(60)
+    @DisplayName("Should start a shrunk file's checkpoint afresh")
+    void shouldRestartCheckpointWhenFileShrinks() throws Exception {
+        Path watched = Files.createDirectory(tempDir.resolve("incoming"));
+        Path file = watched.resolve("games.pgn");
+        Files.writeString(file, SCHOLARS_MATE + SCHOLARS_MATE + SCHOLARS_MATE);
+        String key = file.toAbsolutePath().normalize().toString();
+
+        CheckpointJournal journal = CheckpointJournal.open(tempDir.resolve("checkpoints"));
+        ParallelProcessor processor = new ParallelProcessor();
+        processor.setCheckpointJournal(journal);
+        ExecutorService watcherThread = Executors.newSingleThreadExecutor();
+        try {
+            Future<RunReport> watching = watcherThread.submit(() -> processor.watchDirectory(watched));
+            await(() -> isComplete(journal.getCheckpoint(key), 3));
+
+            // Rewritten shorter: the old watermark is past the new end and must not survive
+            Files.writeString(file, SCHOLARS_MATE);
+            await(() -> isComplete(journal.getCheckpoint(key), 1));
+
+            processor.stopWatching();
+            watching.get(30, TimeUnit.SECONDS);
+        } finally {
+            watcherThread.shutdownNow();
+        }
+
+        Checkpoint checkpoint = journal.getCheckpoint(key);
+        assertEquals(1, checkpoint.gameNumber());
+        assertTrue(checkpoint.offset() <= Files.size(file), "Watermark should lie within the new file");
+    }
+
+    @Test
+    @Timeout(30)
+    @DisplayName("Should return an empty report when stopped on an empty directory")
+    void shouldStopOnEmptyDirectory() throws Exception {
+        Path watched = Files.createDirectory(tempDir.resolve("empty"));
+        ParallelProcessor processor = new ParallelProcessor();
+        ExecutorService watcherThread = Executors.newSingleThreadExecutor();
+        try {
+            Future<RunReport> watching = watcherThread.submit(() -> processor.watchDirectory(watched));
+            // The watcher may not have started yet; stopping has to keep working until it has
+            await(() -> {
+                processor.stopWatching();
+                return watching.isDone();
+            });
+
+            assertEquals(0, watching.get().gamesTotal());
+        } finally {
+            watcherThread.shutdownNow();
+        }
+    }
+
+    private static boolean isComplete(Checkpoint checkpoint, int games) {
+        return checkpoint != null && checkpoint.complete() && checkpoint.gameNumber() == games;
+    }
+
+    private static void awaitVerdicts(VerdictWriter writer, long count) throws InterruptedException {
+        await(() -> writer.getWrittenCount() >= count);
+        assertEquals(count, writer.getWrittenCount());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Thread.sleep(50);
+        }
+    }
+}
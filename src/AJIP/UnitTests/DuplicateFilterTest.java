@@ -0,0 +1,104 @@
+package AJIP.UnitTests;
+
+import AJIP.Logger.VerdictWriter;
+import AJIP.Model.ChessGame;
+import AJIP.Parser.ChessMovesParser;
+import AJIP.Processor.DuplicateFilter;
+import AJIP.Processor.ParallelProcessor;
+import AJIP.Records.RunReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Duplicate Filter Tests")
+class DuplicateFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static ChessGame game(String moves, Map<String, String> headers) {
+        return new ChessGame(ChessMovesParser.parse(Arrays.asList(moves.split(" "))), moves, headers);
+    }
+
+    @Test
+    @DisplayName("Should report a game seen before, ignoring tags outside the fingerprint")
+    void shouldDetectDuplicates() {
+        DuplicateFilter filter = new DuplicateFilter(1 << 16, 1000);
+
+        assertFalse(filter.isDuplicate(game("e4 e5 Nf3", Map.of("White", "A", "Black", "B", "Event", "Club"))));
+        assertTrue(filter.isDuplicate(game("e4 e5 Nf3", Map.of("White", "A", "Black", "B", "Event", "Club ch"))));
+        assertEquals(1, filter.getGamesAdded());
+    }
+
+    @Test
+    @DisplayName("Should tell apart games with other moves or players")
+    void shouldKeepDistinctGames() {
+        DuplicateFilter filter = new DuplicateFilter(1 << 16, 1000);
+
+        assertFalse(filter.isDuplicate(game("e4 e5 Nf3", Map.of("White", "A", "Black", "B"))));
+        assertFalse(filter.isDuplicate(game("e4 e5 Nc3", Map.of("White", "A", "Black", "B"))));
+        assertFalse(filter.isDuplicate(game("e4 e5", Map.of("White", "A", "Black", "B"))));
+        assertFalse(filter.isDuplicate(game("e4 e5 Nf3", Map.of("White", "B", "Black", "A"))));
+        assertEquals(4, filter.getGamesAdded());
+    }
+
+    @Test
+    @DisplayName("Should use the configured memory and estimate its false positive rate")
+    void shouldMeasureMemory() {
+        DuplicateFilter filter = new DuplicateFilter(20_000, 10_000);
+
+        assertEquals(16_384, filter.getMemoryBytes()); // Rounded down to a power of two
+        assertEquals(9, filter.getHashCount());        // 131072 bits / 10000 games * ln 2
+        assertEquals(0.0, filter.getFalsePositiveRate());
+        for (int i = 0; i < 10_000; i++) {
+            filter.isDuplicate(game("e4", Map.of("Round", Integer.toString(i))));
+        }
+        assertTrue(filter.getFalsePositiveRate() < 0.01, "rate " + filter.getFalsePositiveRate());
+        assertThrows(IllegalArgumentException.class, () -> new DuplicateFilter(4, 10));
+    }
+
+    @Test
+    @DisplayName("Should drop duplicates before evaluation, count them in the run report and give each a verdict row")
+    void shouldCountDuplicatesInRunReport() throws Exception {
+        String game = """
+                [White "A"]
+                [Black "B"]
+                [Result "1-0"]
+
+                1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0
+
+                """;
+        Path first = tempDir.resolve("first.pgn");
+        Path second = tempDir.resolve("second.pgn");
+        Files.writeString(first, game + game);
+        Files.writeString(second, game);
+
+        Path verdicts = tempDir.resolve("verdicts.csv");
+        ParallelProcessor processor = new ParallelProcessor();
+        processor.setDuplicateFilter(new DuplicateFilter(1 << 16, 1000));
+        RunReport report;
+        try (VerdictWriter writer = VerdictWriter.open(verdicts)) {
+            processor.setVerdictWriter(writer);
+            report = processor.processFiles(List.of(first.toString(), second.toString()));
+        }
+
+        assertEquals(1, report.gamesPassed());
+        assertEquals(0, report.gamesFailed());
+        assertEquals(2, report.gamesDuplicate());
+
+        List<String> reasons = Files.readAllLines(verdicts).stream()
+                .skip(1)
+                .map(line -> line.split(",")[4])
+                .sorted()
+                .toList();
+        assertEquals(List.of("DUPLICATE", "DUPLICATE", "OK"), reasons, "Every input game should have one row");
+    }
+}
@@ -0,0 +1,102 @@
+package AJIP.UnitTests;
+
+import AJIP.Archive.GameArchiveReader;
+import AJIP.Archive.GameArchiveWriter;
+import AJIP.Archive.MoveCodec;
+import AJIP.Model.ChessGame;
+import AJIP.Model.ChessMove;
+import AJIP.Model.Color;
+import AJIP.Parser.ChessMovesParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Game Archive Tests")
+class GameArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should round-trip SAN through the packed move format")
+    void shouldRoundTripSan() {
+        String[] notations = {"e4", "Nf3", "exd5", "Nbd7", "R1e2", "Qh4xe1+", "O-O", "O-O-O", "0-0", "e8=Q#", "bxa1=N+"};
+        boolean white = true;
+        for (String notation : notations) {
+            ChessMove move = ChessMovesParser.parseMove(notation, white);
+            assertNotNull(move, notation);
+            ChessMove decoded = MoveCodec.unpack(MoveCodec.pack(move));
+
+            assertEquals(notation, decoded.notation);
+            assertEquals(move.color, decoded.color);
+            assertEquals(move.pieceType, decoded.pieceType);
+            assertEquals(move.fromRow, decoded.fromRow);
+            assertEquals(move.fromCol, decoded.fromCol);
+            assertEquals(move.toRow, decoded.toRow);
+            assertEquals(move.toCol, decoded.toCol);
+            assertEquals(move.promotionPiece, decoded.promotionPiece);
+            assertEquals(move.disambiguationFile, decoded.disambiguationFile);
+            assertEquals(move.disambiguationRank, decoded.disambiguationRank);
+            white = !white;
+        }
+    }
+
+    @Test
+    @DisplayName("Should write and read back games across several blocks")
+    void shouldWriteAndReadBackGames() throws Exception {
+        String archive = tempDir.resolve("games.ajga").toString();
+        List<String> sans = List.of("e4", "e5", "Nf3", "Nc6", "Bb5");
+
+        try (GameArchiveWriter writer = new GameArchiveWriter(archive, 2)) {
+            for (int i = 0; i < 5; i++) {
+                writer.write(new ChessGame(ChessMovesParser.parse(sans), "",
+                        Map.of("Event", "Test", "Round", String.valueOf(i))));
+            }
+        }
+
+        try (GameArchiveReader reader = GameArchiveReader.open(archive)) {
+            assertEquals(3, reader.getBlockCount());
+            assertEquals(5, reader.getGameCount());
+
+            List<ChessGame> games = new ArrayList<>();
+            for (int block = 0; block < reader.getBlockCount(); block++) {
+                games.addAll(reader.readBlock(block));
+            }
+
+            assertEquals(5, games.size());
+            assertEquals("1.e4 e5 2.Nf3 Nc6 3.Bb5", games.get(0).getOriginalText());
+            assertEquals("Test", games.get(4).getHeaders().get("Event"));
+            assertEquals("4", games.get(4).getHeaders().get("Round"));
+            assertEquals(Color.BLACK, games.get(2).getMoves().get(3).color);
+        }
+    }
+
+    @Test
+    @DisplayName("Should number moves from the FEN start when black moves first")
+    void shouldNumberMovesFromBlackToMoveStart() throws Exception {
+        String archive = tempDir.resolve("black.ajga").toString();
+        String fen = "4k3/8/8/8/8/8/4P3/4K3 b - - 0 12";
+        List<String> sans = List.of("Kd7", "e4", "Kd6", "Kd2", "Ke5");
+        String movetext = "12...Kd7 13.e4 Kd6 14.Kd2 Ke5";
+
+        try (GameArchiveWriter writer = new GameArchiveWriter(archive, 2)) {
+            writer.write(new ChessGame(ChessMovesParser.parseWithContext(sans, movetext, 1, false), movetext,
+                    Map.of("SetUp", "1", "FEN", fen)));
+        }
+
+        try (GameArchiveReader reader = GameArchiveReader.open(archive)) {
+            ChessGame game = reader.readBlock(0).get(0);
+
+            assertEquals(movetext, game.getOriginalText());
+            assertEquals(Color.BLACK, game.getMoves().get(0).color);
+            assertEquals(fen, game.getStartingFen());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package AJIP.UnitTests;
+
+import AJIP.Controller.GameMasterController;
+import AJIP.Logger.VerdictWriter;
+import AJIP.Model.ChessBoard;
+import AJIP.Model.ChessGame;
+import AJIP.Model.Color;
+import AJIP.Parser.ChessMovesParser;
+import AJIP.Parser.PGNParser;
+import AJIP.Records.GameVerdict;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Game Verdict Tests")
+class GameVerdictTest {
+
+    private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @TempDir
+    Path tempDir;
+
+    private GameMasterController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new GameMasterController(true);
+    }
+
+    private static ChessGame game(String moves, String result) {
+        ChessGame game = new ChessGame(ChessMovesParser.parse(Arrays.asList(moves.split(" "))), moves,
+                Map.of("Result", result));
+        game.sourceFile = "test.pgn";
+        game.gameNumber = 7;
+        return game;
+    }
+
+    @Test
+    @DisplayName("Should write the start position as FEN")
+    void shouldWriteStartPositionAsFen() {
+        assertEquals(START_FEN, new ChessBoard().ToFen());
+    }
+
+    @Test
+    @DisplayName("Should pass a legal game")
+    void shouldPassLegalGame() {
+        GameVerdict verdict = controller.Evaluate(game("e4 e5 Bc4 Nc6 Qh5 Nf6 Qxf7#", "1-0"));
+
+        assertTrue(verdict.passed());
+        assertEquals("test.pgn#7", verdict.gameId());
+        assertEquals(GameVerdict.Reason.OK, verdict.reason());
+    }
+
+    @Test
+    @DisplayName("Should report the failing ply and the position before it")
+    void shouldReportFailingPlyAndPosition() {
+        GameVerdict verdict = controller.Evaluate(game("e4 e5 Ke3", "*"));
+
+        assertFalse(verdict.passed());
+        assertEquals(3, verdict.failingPly());
+        assertEquals("Ke3", verdict.san());
+        assertEquals(GameVerdict.Reason.ILLEGAL_MOVE, verdict.reason());
+        assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2", verdict.lastGoodFen());
+    }
+
+    @Test
+    @DisplayName("Should reject a false checkmate claim with the position before the move")
+    void shouldRejectFalseCheckmate() {
+        GameVerdict verdict = controller.Evaluate(game("e4 e5 Qh5 Nc6 Qxf7#", "1-0"));
+
+        assertEquals(GameVerdict.Reason.FALSE_CHECKMATE, verdict.reason());
+        assertEquals(5, verdict.failingPly());
+        assertEquals("r1bqkbnr/pppp1ppp/2n5/4p2Q/4P3/8/PPPP1PPP/RNB1KBNR w KQkq - 2 3", verdict.lastGoodFen());
+    }
+
+    @Test
+    @DisplayName("Should reject a stalemate recorded as a win")
+    void shouldRejectResultMismatch() {
+        String stalemate = "e3 a5 Qh5 Ra6 Qxa5 h5 h4 Rah6 Qxc7 f6 Qxd7+ Kf7 Qxb7 Qd3 Qxb8 Qh7 Qxc8 Kg6 Qe6";
+
+        assertTrue(controller.Evaluate(game(stalemate, "1/2-1/2")).passed());
+        assertEquals(GameVerdict.Reason.RESULT_MISMATCH, controller.Evaluate(game(stalemate, "1-0")).reason());
+    }
+
+    @Test
+    @DisplayName("Should append verdicts to a CSV file with a single header")
+    void shouldAppendVerdictsWithSingleHeader() throws Exception {
+        Path file = tempDir.resolve("verdicts.csv");
+
+        try (VerdictWriter writer = VerdictWriter.open(file)) {
+            writer.submit(GameVerdict.pass("a.pgn#1"));
+            writer.submit(GameVerdict.fail("b,c.pgn#2", 3, "Ke3", GameVerdict.Reason.ILLEGAL_MOVE, START_FEN));
+        }
+        try (VerdictWriter writer = VerdictWriter.open(file)) {
+            writer.submit(GameVerdict.pass("a.pgn#3"));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(4, lines.size());
+        assertEquals(GameVerdict.CSV_HEADER, lines.get(0));
+        assertEquals("a.pgn#1,true,0,,OK,", lines.get(1));
+        assertEquals("\"b,c.pgn#2\",false,3,Ke3,ILLEGAL_MOVE," + START_FEN, lines.get(2));
+        assertEquals("a.pgn#3,true,0,,OK,", lines.get(3));
+    }
+
+    @Test
+    @DisplayName("Should evaluate a game set up from a FEN tag with black to move")
+    void shouldEvaluateGameFromFen() throws Exception {
+        Path pgn = tempDir.resolve("puzzle.pgn");
+        Files.writeString(pgn, """
+                [Event "Puzzle"]
+                [SetUp "1"]
+                [FEN "6k1/5ppp/8/3r4/8/8/5PPP/6K1 b - - 0 30"]
+                [Result "0-1"]
+
+                30... Rd1# 0-1
+                """);
+        List<ChessGame> games = new ArrayList<>();
+        new PGNParser().parseGames(pgn.toString(), 0, 1, true, games::add);
+
+        assertEquals(1, games.size());
+        assertEquals(Color.BLACK, games.get(0).getMoves().get(0).color);
+        assertTrue(controller.Evaluate(games.get(0)).passed());
+    }
+
+    @Test
+    @DisplayName("Should report the position before a failing move of a FEN game")
+    void shouldReportPositionOfFenGame() {
+        ChessGame game = new ChessGame(ChessMovesParser.parseWithContext(Arrays.asList("Rd8", "h3", "Ra1"), "", 0, false),
+                "30... Rd8 31. h3 Ra1", Map.of("SetUp", "1", "FEN", "6k1/5ppp/8/3r4/8/8/5PPP/6K1 b - - 0 30"));
+
+        GameVerdict verdict = controller.Evaluate(game);
+
+        assertEquals(GameVerdict.Reason.ILLEGAL_MOVE, verdict.reason());
+        assertEquals(3, verdict.failingPly());
+        assertEquals("3r2k1/5ppp/8/8/8/7P/5PP1/6K1 b - - 0 31", verdict.lastGoodFen());
+    }
+
+    @Test
+    @DisplayName("Should reject a game whose FEN tag cannot be loaded")
+    void shouldRejectInvalidFen() {
+        ChessGame game = game("e4", "*");
+        game.headers = Map.of("SetUp", "1", "FEN", "8/8/8/8/8/8/8/8 w - - 0 1");
+
+        GameVerdict verdict = controller.Evaluate(game);
+
+        assertEquals(GameVerdict.Reason.INVALID_FEN, verdict.reason());
+        assertTrue(controller.Evaluate(game("e4 e5", "*")).passed()); // The board is back at the start position
+    }
+}
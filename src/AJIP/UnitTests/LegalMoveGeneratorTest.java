@@ -0,0 +1,143 @@
+package AJIP.UnitTests;
+
+import AJIP.Engine.*;
+import AJIP.Model.*;
+import AJIP.Parser.ChessMovesParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Legal Move Generator Tests")
+class LegalMoveGeneratorTest {
+
+    private ChessBoard board;
+    private SafetyChecker safetyChecker;
+    private LegalMoveGenerator generator;
+    private MoveExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        board = new ChessBoard();
+        MoveValidator validator = new MoveValidator(board);
+        BoardAnalyzer analyzer = new BoardAnalyzer(board);
+        safetyChecker = new SafetyChecker(board, validator, analyzer);
+        SpecialMoveHandler specialMoveHandler = new SpecialMoveHandler(board, validator, safetyChecker, analyzer);
+        validator.setSafetyChecker(safetyChecker);
+        generator = new LegalMoveGenerator(board, safetyChecker, specialMoveHandler);
+        executor = new MoveExecutor(board);
+    }
+
+    private void clearBoard() {
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                board.board[row][col] = null;
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Mate and stalemate")
+    class MateAndStalemate {
+
+        @Test
+        @DisplayName("Should find legal moves in the initial position")
+        void shouldFindLegalMovesInInitialPosition() {
+            assertTrue(generator.HasAnyLegalMove(Color.WHITE));
+            assertTrue(generator.HasAnyLegalMove(Color.BLACK));
+            assertFalse(generator.IsCheckmate(Color.WHITE));
+        }
+
+        @Test
+        @DisplayName("Should detect a back rank checkmate")
+        void shouldDetectBackRankCheckmate() {
+            clearBoard();
+            board.board[0][6] = new ChessPiece(PieceType.KING, Color.BLACK);
+            board.board[1][5] = new ChessPiece(PieceType.PAWN, Color.BLACK);
+            board.board[1][6] = new ChessPiece(PieceType.PAWN, Color.BLACK);
+            board.board[1][7] = new ChessPiece(PieceType.PAWN, Color.BLACK);
+            board.board[0][0] = new ChessPiece(PieceType.ROOK, Color.WHITE);
+            board.board[7][4] = new ChessPiece(PieceType.KING, Color.WHITE);
+
+            assertTrue(generator.IsCheckmate(Color.BLACK));
+        }
+
+        @Test
+        @DisplayName("Should not call it mate when the checking piece can be captured")
+        void shouldNotCallMateWhenCheckerCanBeCaptured() {
+            clearBoard();
+            board.board[0][6] = new ChessPiece(PieceType.KING, Color.BLACK);
+            board.board[1][5] = new ChessPiece(PieceType.PAWN, Color.BLACK);
+            board.board[1][6] = new ChessPiece(PieceType.PAWN, Color.BLACK);
+            board.board[1][7] = new ChessPiece(PieceType.PAWN, Color.BLACK);
+            board.board[4][4] = new ChessPiece(PieceType.BISHOP, Color.BLACK); // Bishop e4 covers a8
+            board.board[0][0] = new ChessPiece(PieceType.ROOK, Color.WHITE);
+            board.board[7][4] = new ChessPiece(PieceType.KING, Color.WHITE);
+
+            assertTrue(safetyChecker.IsInCheck(Color.BLACK));
+            assertFalse(generator.IsCheckmate(Color.BLACK));
+        }
+
+        @Test
+        @DisplayName("Should detect stalemate")
+        void shouldDetectStalemate() {
+            clearBoard();
+            board.board[0][0] = new ChessPiece(PieceType.KING, Color.BLACK);
+            board.board[2][1] = new ChessPiece(PieceType.QUEEN, Color.WHITE);
+            board.board[7][4] = new ChessPiece(PieceType.KING, Color.WHITE);
+
+            assertTrue(generator.IsStalemate(Color.BLACK));
+            assertFalse(generator.IsCheckmate(Color.BLACK));
+        }
+    }
+
+    @Nested
+    @DisplayName("King safety and en passant")
+    class KingSafetyAndEnPassant {
+
+        @Test
+        @DisplayName("Should reject moving a pinned piece")
+        void shouldRejectMovingPinnedPiece() {
+            clearBoard();
+            board.board[7][4] = new ChessPiece(PieceType.KING, Color.WHITE);
+            board.board[6][4] = new ChessPiece(PieceType.KNIGHT, Color.WHITE);
+            board.board[0][4] = new ChessPiece(PieceType.ROOK, Color.BLACK);
+            board.board[0][0] = new ChessPiece(PieceType.KING, Color.BLACK);
+
+            assertFalse(safetyChecker.IsMoveSafeForKing(Color.WHITE, 6, 4, 4, 5, false));
+            assertSame(PieceType.KNIGHT, board.board[6][4].getType()); // Board restored
+            assertNull(board.board[4][5]);
+        }
+
+        @Test
+        @DisplayName("Should open en passant after a double step and capture the passed pawn")
+        void shouldCaptureEnPassant() {
+            board.board[3][4] = board.board[6][4]; // White pawn on e5
+            board.board[6][4] = null;
+
+            ChessMove doubleStep = ChessMovesParser.parseMove("d5", false);
+            executor.ExecuteMoveOrCapture(doubleStep, 1, 3);
+            assertEquals(2 * 8 + 3, board.enPassantSquare);
+
+            ChessMove capture = ChessMovesParser.parseMove("exd6", true);
+            executor.ExecuteMoveOrCapture(capture, 3, 4);
+
+            assertNull(board.board[3][3]); // Passed pawn removed
+            assertEquals(PieceType.PAWN, board.board[2][3].getType());
+            assertEquals(-1, board.enPassantSquare);
+        }
+
+        @Test
+        @DisplayName("Should parse castling that gives check")
+        void shouldParseCastlingWithCheck() {
+            ChessMove move = ChessMovesParser.parseMove("O-O-O+", true);
+
+            assertNotNull(move);
+            assertTrue(move.isCastling);
+            assertTrue(move.isCheck);
+            assertEquals(2, move.toCol);
+        }
+    }
+}
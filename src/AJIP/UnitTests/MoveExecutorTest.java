@@ -4,6 +4,8 @@ import AJIP.Engine.MoveExecutor;
 import AJIP.Model.ChessBoard;
 import AJIP.Model.ChessMove;
 import AJIP.Model.ChessPiece;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -41,7 +43,7 @@ class MoveExecutorTest {
     @DisplayName("Should execute captures correctly")
     void shouldExecuteCapturesCorrectly() {
         // Place enemy piece
-        board.board[5][0] = new ChessPiece("Pawn", "black");
+        board.board[5][0] = new ChessPiece(PieceType.PAWN, Color.BLACK);
 
         ChessMove move = new ChessMove();
         move.toRow = 5;
@@ -142,25 +144,25 @@ class MoveExecutorTest {
     @DisplayName("Should execute promotion correctly")
     void shouldExecutePromotionCorrectly() {
         ChessMove promotion = new ChessMove();
-        promotion.color = "white";
+        promotion.color = Color.WHITE;
         promotion.toRow = 0;
         promotion.toCol = 0;
-        promotion.promotionPiece = "Queen";
+        promotion.promotionPiece = PieceType.QUEEN;
 
         executor.ExecutePromotion(promotion, 1, 0);
 
         assertNull(board.board[1][0]);
         ChessPiece promotedPiece = board.board[0][0];
         assertNotNull(promotedPiece);
-        assertEquals("Queen", promotedPiece.getType());
-        assertEquals("white", promotedPiece.getColor());
+        assertEquals(PieceType.QUEEN, promotedPiece.getType());
+        assertEquals(Color.WHITE, promotedPiece.getColor());
     }
 
     @Test
     @DisplayName("Should default to Queen promotion when promotion piece is null")
     void shouldDefaultToQueenPromotionWhenPromotionPieceIsNull() {
         ChessMove promotion = new ChessMove();
-        promotion.color = "white";
+        promotion.color = Color.WHITE;
         promotion.toRow = 0;
         promotion.toCol = 0;
         promotion.promotionPiece = null; // Should default to Queen
@@ -168,23 +170,23 @@ class MoveExecutorTest {
         executor.ExecutePromotion(promotion, 1, 0);
 
         ChessPiece promotedPiece = board.board[0][0];
-        assertEquals("Queen", promotedPiece.getType());
+        assertEquals(PieceType.QUEEN, promotedPiece.getType());
     }
 
     @Test
     @DisplayName("Should promote to specified piece type")
     void shouldPromoteToSpecifiedPieceType() {
         ChessMove promotion = new ChessMove();
-        promotion.color = "black";
+        promotion.color = Color.BLACK;
         promotion.toRow = 7;
         promotion.toCol = 0;
-        promotion.promotionPiece = "Knight";
+        promotion.promotionPiece = PieceType.KNIGHT;
 
         executor.ExecutePromotion(promotion, 6, 0);
 
         ChessPiece promotedPiece = board.board[7][0];
-        assertEquals("Knight", promotedPiece.getType());
-        assertEquals("black", promotedPiece.getColor());
+        assertEquals(PieceType.KNIGHT, promotedPiece.getType());
+        assertEquals(Color.BLACK, promotedPiece.getColor());
     }
 
     @Test
@@ -195,7 +197,7 @@ class MoveExecutorTest {
         move.toCol = 0;
 
         ChessPiece movingPiece = board.board[6][0];
-        board.board[5][0] = new ChessPiece("Pawn", "black"); // Place piece to capture
+        board.board[5][0] = new ChessPiece(PieceType.PAWN, Color.BLACK); // Place piece to capture
 
         executor.ExecuteCheck(move, 6, 0);
 
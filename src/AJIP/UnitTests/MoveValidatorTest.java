@@ -5,6 +5,8 @@ import AJIP.Engine.MoveValidator;
 import AJIP.Engine.SafetyChecker;
 import AJIP.Model.ChessBoard;
 import AJIP.Model.ChessPiece;
+import AJIP.Model.Color;
+import AJIP.Model.PieceType;
 import AJIP.Records.ValidationResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -37,11 +39,11 @@ class MoveValidatorTest {
         @DisplayName("Should allow valid pawn moves")
         void shouldAllowValidPawnMoves() {
             // One square forward
-            ValidationResult result = validator.CanMove("white", "Pawn", 6, 0, 5, 0);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.PAWN, 6, 0, 5, 0);
             assertTrue(result.isValid());
 
             // Two squares forward on first move
-            result = validator.CanMove("white", "Pawn", 6, 0, 4, 0);
+            result = validator.CanMove(Color.WHITE, PieceType.PAWN, 6, 0, 4, 0);
             assertTrue(result.isValid());
         }
 
@@ -49,15 +51,15 @@ class MoveValidatorTest {
         @DisplayName("Should reject invalid pawn moves")
         void shouldRejectInvalidPawnMoves() {
             // Backward move
-            ValidationResult result = validator.CanMove("white", "Pawn", 6, 0, 7, 0);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.PAWN, 6, 0, 7, 0);
             assertFalse(result.isValid());
 
             // Sideways move
-            result = validator.CanMove("white", "Pawn", 6, 0, 6, 1);
+            result = validator.CanMove(Color.WHITE, PieceType.PAWN, 6, 0, 6, 1);
             assertFalse(result.isValid());
 
             // Three squares forward
-            result = validator.CanMove("white", "Pawn", 6, 0, 3, 0);
+            result = validator.CanMove(Color.WHITE, PieceType.PAWN, 6, 0, 3, 0);
             assertFalse(result.isValid());
         }
 
@@ -65,13 +67,13 @@ class MoveValidatorTest {
         @DisplayName("Should handle pawn captures correctly")
         void shouldHandlePawnCaptures() {
             // Place enemy piece diagonally
-            board.board[5][1] = new ChessPiece("Pawn", "black");
+            board.board[5][1] = new ChessPiece(PieceType.PAWN, Color.BLACK);
 
-            ValidationResult result = validator.CanCapture("white", "Pawn", 6, 0, 5, 1, false);
+            ValidationResult result = validator.CanCapture(Color.WHITE, PieceType.PAWN, 6, 0, 5, 1, false);
             assertTrue(result.isValid());
 
             // Cannot capture forward
-            result = validator.CanCapture("white", "Pawn", 6, 0, 5, 0, false);
+            result = validator.CanCapture(Color.WHITE, PieceType.PAWN, 6, 0, 5, 0, false);
             assertFalse(result.isValid());
         }
 
@@ -81,25 +83,25 @@ class MoveValidatorTest {
             ChessPiece pawn = board.board[6][0];
             pawn.SetMoved();
 
-            ValidationResult result = validator.CanMove("white", "Pawn", 6, 0, 4, 0);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.PAWN, 6, 0, 4, 0);
             assertFalse(result.isValid());
         }
 
         @Test
         @DisplayName("Should reject pawn move to occupied square")
         void shouldRejectPawnMoveToOccupiedSquare() {
-            board.board[5][0] = new ChessPiece("Pawn", "black");
+            board.board[5][0] = new ChessPiece(PieceType.PAWN, Color.BLACK);
 
-            ValidationResult result = validator.CanMove("white", "Pawn", 6, 0, 5, 0);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.PAWN, 6, 0, 5, 0);
             assertFalse(result.isValid());
         }
 
         @Test
         @DisplayName("Should handle en passant capture")
         void shouldHandleEnPassantCapture() {
-            board.board[3][1] = new ChessPiece("Pawn", "black");
+            board.board[3][1] = new ChessPiece(PieceType.PAWN, Color.BLACK);
 
-            ValidationResult result = validator.CanCapture("white", "Pawn", 3, 0, 2, 1, true);
+            ValidationResult result = validator.CanCapture(Color.WHITE, PieceType.PAWN, 3, 0, 2, 1, true);
             assertTrue(result.isValid());
         }
     }
@@ -119,19 +121,19 @@ class MoveValidatorTest {
         @DisplayName("Should allow valid rook moves")
         void shouldAllowValidRookMoves() {
             // Vertical move
-            ValidationResult result = validator.CanMove("white", "Rook", 7, 0, 5, 0);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.ROOK, 7, 0, 5, 0);
             assertTrue(result.isValid());
 
             // Horizontal move
             board.board[7][1] = null; //
-            result = validator.CanMove("white", "Rook", 7, 0, 7, 1);
+            result = validator.CanMove(Color.WHITE, PieceType.ROOK, 7, 0, 7, 1);
             assertTrue(result.isValid());
         }
 
         @Test
         @DisplayName("Should reject diagonal rook moves")
         void shouldRejectDiagonalRookMoves() {
-            ValidationResult result = validator.CanMove("white", "Rook", 7, 0, 6, 1);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.ROOK, 7, 0, 6, 1);
             assertFalse(result.isValid());
         }
 
@@ -139,16 +141,16 @@ class MoveValidatorTest {
         @DisplayName("Should detect blocked paths")
         void shouldDetectBlockedPaths() {
             // Path blocked by own piece
-            ValidationResult result = validator.CanMove("white", "Rook", 7, 1, 6, 0);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.ROOK, 7, 1, 6, 0);
             assertFalse(result.isValid());
         }
 
         @Test
         @DisplayName("Should allow rook captures")
         void shouldAllowRookCaptures() {
-            board.board[5][0] = new ChessPiece("Pawn", "black");
+            board.board[5][0] = new ChessPiece(PieceType.PAWN, Color.BLACK);
 
-            ValidationResult result = validator.CanCapture("white", "Rook", 7, 0, 5, 0, false);
+            ValidationResult result = validator.CanCapture(Color.WHITE, PieceType.ROOK, 7, 0, 5, 0, false);
             assertTrue(result.isValid());
         }
     }
@@ -167,29 +169,29 @@ class MoveValidatorTest {
         @Test
         @DisplayName("Should allow valid bishop moves")
         void shouldAllowValidBishopMoves() {
-            ValidationResult result = validator.CanMove("white", "Bishop", 7, 2, 5, 0);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.BISHOP, 7, 2, 5, 0);
             assertTrue(result.isValid());
 
-            result = validator.CanMove("white", "Bishop", 7, 2, 4, 5);
+            result = validator.CanMove(Color.WHITE, PieceType.BISHOP, 7, 2, 4, 5);
             assertTrue(result.isValid());
         }
 
         @Test
         @DisplayName("Should reject non-diagonal bishop moves")
         void shouldRejectNonDiagonalBishopMoves() {
-            ValidationResult result = validator.CanMove("white", "Bishop", 7, 2, 7, 5);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.BISHOP, 7, 2, 7, 5);
             assertFalse(result.isValid());
 
-            result = validator.CanMove("white", "Bishop", 7, 2, 5, 2);
+            result = validator.CanMove(Color.WHITE, PieceType.BISHOP, 7, 2, 5, 2);
             assertFalse(result.isValid());
         }
 
         @Test
         @DisplayName("Should detect blocked diagonal paths")
         void shouldDetectBlockedDiagonalPaths() {
-            board.board[6][1] = new ChessPiece("Pawn", "white"); // Replace pawn
+            board.board[6][1] = new ChessPiece(PieceType.PAWN, Color.WHITE); // Replace pawn
 
-            ValidationResult result = validator.CanMove("white", "Bishop", 7, 2, 5, 0);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.BISHOP, 7, 2, 5, 0);
             assertFalse(result.isValid());
         }
     }
@@ -201,10 +203,10 @@ class MoveValidatorTest {
         @Test
         @DisplayName("Should allow valid knight moves")
         void shouldAllowValidKnightMoves() {
-            ValidationResult result = validator.CanMove("white", "Knight", 7, 1, 5, 0);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.KNIGHT, 7, 1, 5, 0);
             assertTrue(result.isValid());
 
-            result = validator.CanMove("white", "Knight", 7, 1, 5, 2);
+            result = validator.CanMove(Color.WHITE, PieceType.KNIGHT, 7, 1, 5, 2);
             assertTrue(result.isValid());
         }
 
@@ -212,10 +214,10 @@ class MoveValidatorTest {
         @DisplayName("Should reject invalid knight moves")
         void shouldRejectInvalidKnightMoves() {
             // Not L-shaped
-            ValidationResult result = validator.CanMove("white", "Knight", 7, 1, 6, 1);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.KNIGHT, 7, 1, 6, 1);
             assertFalse(result.isValid());
 
-            result = validator.CanMove("white", "Knight", 7, 1, 5, 1);
+            result = validator.CanMove(Color.WHITE, PieceType.KNIGHT, 7, 1, 5, 1);
             assertFalse(result.isValid());
         }
 
@@ -223,16 +225,16 @@ class MoveValidatorTest {
         @DisplayName("Should allow knight to jump over pieces")
         void shouldAllowKnightToJumpOverPieces() {
             // Knight can jump over pawns
-            ValidationResult result = validator.CanMove("white", "Knight", 7, 1, 5, 0);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.KNIGHT, 7, 1, 5, 0);
             assertTrue(result.isValid());
         }
 
         @Test
         @DisplayName("Should allow knight captures")
         void shouldAllowKnightCaptures() {
-            board.board[5][0] = new ChessPiece("Pawn", "black");
+            board.board[5][0] = new ChessPiece(PieceType.PAWN, Color.BLACK);
 
-            ValidationResult result = validator.CanCapture("white", "Knight", 7, 1, 5, 0, false);
+            ValidationResult result = validator.CanCapture(Color.WHITE, PieceType.KNIGHT, 7, 1, 5, 0, false);
             assertTrue(result.isValid());
         }
     }
@@ -252,16 +254,16 @@ class MoveValidatorTest {
         @DisplayName("Should allow valid queen moves")
         void shouldAllowValidQueenMoves() {
             // Vertical move
-            ValidationResult result = validator.CanMove("white", "Queen", 7, 3, 5, 3);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.QUEEN, 7, 3, 5, 3);
             assertTrue(result.isValid());
 
             // Diagonal move
-            result = validator.CanMove("white", "Queen", 7, 3, 5, 1);
+            result = validator.CanMove(Color.WHITE, PieceType.QUEEN, 7, 3, 5, 1);
             assertTrue(result.isValid());
 
             // Horizontal move
             board.board[7][2] = null; // Remove bishop
-            result = validator.CanMove("white", "Queen", 7, 3, 7, 2);
+            result = validator.CanMove(Color.WHITE, PieceType.QUEEN, 7, 3, 7, 2);
             assertTrue(result.isValid());
         }
 
@@ -269,7 +271,7 @@ class MoveValidatorTest {
         @DisplayName("Should reject invalid queen moves")
         void shouldRejectInvalidQueenMoves() {
             // Knight-like move
-            ValidationResult result = validator.CanMove("white", "Queen", 7, 3, 5, 2);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.QUEEN, 7, 3, 5, 2);
             assertFalse(result.isValid());
         }
     }
@@ -283,7 +285,7 @@ class MoveValidatorTest {
         void shouldAllowValidKingMoves() {
             board.board[6][4] = null; // Remove pawn in front of king
 
-            ValidationResult result = validator.CanMove("white", "King", 7, 4, 6, 4);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.KING, 7, 4, 6, 4);
             assertTrue(result.isValid());
         }
 
@@ -293,16 +295,16 @@ class MoveValidatorTest {
             board.board[6][4] = null;
             board.board[5][4] = null;
 
-            ValidationResult result = validator.CanMove("white", "King", 7, 4, 5, 4);
+            ValidationResult result = validator.CanMove(Color.WHITE, PieceType.KING, 7, 4, 5, 4);
             assertFalse(result.isValid());
         }
 
         @Test
         @DisplayName("Should allow king captures")
         void shouldAllowKingCaptures() {
-            board.board[6][4] = new ChessPiece("Pawn", "black");
+            board.board[6][4] = new ChessPiece(PieceType.PAWN, Color.BLACK);
 
-            ValidationResult result = validator.CanCapture("white", "King", 7, 4, 6, 4, false);
+            ValidationResult result = validator.CanCapture(Color.WHITE, PieceType.KING, 7, 4, 6, 4, false);
             assertTrue(result.isValid());
         }
     }
@@ -310,14 +312,14 @@ class MoveValidatorTest {
     @Test
     @DisplayName("Should reject moves for unknown piece type")
     void shouldRejectMovesForUnknownPieceType() {
-        ValidationResult result = validator.CanMove("white", "InvalidPiece", 7, 0, 6, 0);
+        ValidationResult result = validator.CanMove(Color.WHITE, PieceType.fromName("InvalidPiece"), 7, 0, 6, 0);
         assertFalse(result.isValid());
     }
 
     @Test
     @DisplayName("Should reject captures for unknown piece type")
     void shouldRejectCapturesForUnknownPieceType() {
-        ValidationResult result = validator.CanCapture("white", "InvalidPiece", 7, 0, 6, 0, false);
+        ValidationResult result = validator.CanCapture(Color.WHITE, PieceType.fromName("InvalidPiece"), 7, 0, 6, 0, false);
         assertFalse(result.isValid());
     }
 }
\ No newline at end of file
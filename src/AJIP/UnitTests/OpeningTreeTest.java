@@ -0,0 +1,133 @@
+package AJIP.UnitTests;
+
+import AJIP.Controller.GameMasterController;
+import AJIP.Model.ChessBoard;
+import AJIP.Model.ChessGame;
+import AJIP.Model.PieceType;
+import AJIP.Openings.OpeningAccumulator;
+import AJIP.Openings.OpeningTree;
+import AJIP.Parser.ChessMovesParser;
+import AJIP.Records.OpeningMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Opening Tree Tests")
+class OpeningTreeTest {
+
+    @TempDir
+    Path tempDir;
+
+    private OpeningAccumulator accumulator;
+    private GameMasterController controller;
+
+    @BeforeEach
+    void setUp() {
+        accumulator = new OpeningAccumulator();
+        controller = new GameMasterController(true);
+        controller.setOpeningAccumulator(accumulator, 4);
+    }
+
+    private void evaluate(String moves, String result) {
+        controller.Evaluate(new ChessGame(ChessMovesParser.parse(Arrays.asList(moves.split(" "))), moves,
+                Map.of("Result", result)));
+    }
+
+    private OpeningTree write(OpeningAccumulator... accumulators) throws IOException {
+        Path file = tempDir.resolve("openings.tree");
+        OpeningAccumulator.write(file, List.of(accumulators), 4);
+        return OpeningTree.open(file);
+    }
+
+    @Test
+    @DisplayName("Should count moves and results from the start position, most played first")
+    void shouldCountMovesFromStartPosition() throws IOException {
+        evaluate("e4 e5 Nf3 Nc6 Bb5", "1-0");
+        evaluate("e4 c5 Nf3", "0-1");
+        evaluate("d4 d5", "1/2-1/2");
+
+        try (OpeningTree tree = write(accumulator)) {
+            List<OpeningMove> moves = tree.lookup(new ChessBoard());
+
+            assertEquals(3, tree.getGameCount());
+            assertEquals(4, tree.getMaxPlies());
+            assertEquals(2, moves.size());
+            assertEquals(new OpeningMove("e2e4", 2, 1, 0, 1), moves.get(0));
+            assertEquals(new OpeningMove("d2d4", 1, 0, 1, 0), moves.get(1));
+            assertEquals(0.5, moves.get(0).whiteScore());
+        }
+    }
+
+    @Test
+    @DisplayName("Should find a position by FEN and merge transpositions")
+    void shouldMergeTranspositions() throws IOException {
+        evaluate("Nf3 Nf6 Nc3 e6", "*");
+        evaluate("Nc3 Nf6 Nf3 d5", "*");
+
+        try (OpeningTree tree = write(accumulator)) {
+            List<OpeningMove> moves = tree.lookup("rnbqkb1r/pppppppp/5n2/8/8/2N2N2/PPPPPPPP/R1BQKB1R b KQkq - 3 2");
+
+            assertEquals(2, moves.size());
+            assertTrue(moves.stream().allMatch(move -> move.games() == 1));
+            assertTrue(Double.isNaN(moves.get(0).whiteScore())); // Unfinished games have no score
+        }
+    }
+
+    @Test
+    @DisplayName("Should only count the first plies of games that pass")
+    void shouldOnlyCountPassedGames() throws IOException {
+        evaluate("e4 e5 Ke3", "*");          // Fails at ply 3
+        evaluate("d4 d5 c4 e6 Nc3 Nf6", "*"); // Deeper than 4 plies
+
+        try (OpeningTree tree = write(accumulator)) {
+            assertEquals(1, tree.getGameCount());
+            assertEquals(4, tree.getRecordCount());
+            assertEquals("d2d4", tree.lookup(new ChessBoard()).get(0).move());
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge the accumulators of several threads")
+    void shouldMergeAccumulators() throws IOException {
+        evaluate("e4 e5", "1-0");
+        OpeningAccumulator other = new OpeningAccumulator();
+        GameMasterController otherController = new GameMasterController(true);
+        otherController.setOpeningAccumulator(other, 4);
+        otherController.Evaluate(new ChessGame(ChessMovesParser.parse(List.of("e4", "c5")), "e4 c5", Map.of("Result", "0-1")));
+
+        try (OpeningTree tree = write(accumulator, other)) {
+            assertEquals(2, tree.getGameCount());
+            assertEquals(new OpeningMove("e2e4", 2, 1, 0, 1), tree.lookup(new ChessBoard()).get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should write castling and promotion moves in coordinate notation")
+    void shouldFormatSpecialMoves() {
+        assertEquals("e1g1", OpeningTree.moveToString(OpeningTree.moveCode(7, 4, 7, 6, null)));
+        assertEquals("a7a8n", OpeningTree.moveToString(OpeningTree.moveCode(1, 0, 0, 0, PieceType.KNIGHT)));
+    }
+
+    @Test
+    @DisplayName("Should return nothing for an unknown position and reject other files")
+    void shouldHandleUnknownPositionsAndFiles() throws IOException {
+        evaluate("e4", "*");
+        try (OpeningTree tree = write(accumulator)) {
+            assertTrue(tree.lookup(42L).isEmpty());
+        }
+
+        Path notATree = tempDir.resolve("notes.txt");
+        Files.writeString(notATree, "not an opening tree at all");
+        assertThrows(IOException.class, () -> OpeningTree.open(notATree));
+    }
+}
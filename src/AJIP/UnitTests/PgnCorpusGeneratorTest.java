@@ -0,0 +1,101 @@
+package AJIP.UnitTests;
+
+import AJIP.Generator.PgnCorpusGenerator;
+import AJIP.Processor.ParallelProcessor;
+import AJIP.Records.RunReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PGN Corpus Generator Tests")
+class PgnCorpusGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static PgnCorpusGenerator generator(long seed) {
+        PgnCorpusGenerator generator = new PgnCorpusGenerator(seed);
+        generator.setPlies(1, 200, 60, 40);
+        return generator;
+    }
+
+    @Test
+    @DisplayName("Should write the same bytes for the same seed, whatever the thread count")
+    void shouldBeReproducible() throws Exception {
+        Path single = tempDir.resolve("single.pgn");
+        Path parallel = tempDir.resolve("parallel.pgn");
+        PgnCorpusGenerator first = generator(42);
+        first.setThreads(1);
+        PgnCorpusGenerator second = generator(42);
+        second.setThreads(4);
+
+        long bytes = first.writeGames(single, 600);
+        second.writeGames(parallel, 600);
+
+        assertEquals(bytes, Files.size(single));
+        assertArrayEquals(Files.readAllBytes(single), Files.readAllBytes(parallel));
+        assertNotEquals(generator(42).game(0), generator(43).game(0));
+    }
+
+    @Test
+    @DisplayName("Should stop at the first whole game past the target size")
+    void shouldWriteTargetSize() throws Exception {
+        Path file = tempDir.resolve("sized.pgn");
+
+        long games = generator(7).writeBytes(file, 64 << 10);
+
+        long size = Files.size(file);
+        assertTrue(size >= 64 << 10, "size " + size);
+        assertTrue(size < (64 << 10) + 8192, "size " + size);
+        assertEquals(games, Files.readString(file).split("\\[Event ").length - 1);
+    }
+
+    @Test
+    @DisplayName("Should write games that all pass validation, with comments and variations")
+    void shouldWriteLegalGames() throws Exception {
+        Path file = tempDir.resolve("legal.pgn");
+        PgnCorpusGenerator generator = generator(1);
+        generator.setCommentRate(0.1);
+        generator.setVariationRate(0.1);
+        generator.setHeaderRichness(1);
+        generator.writeGames(file, 300);
+
+        String pgn = Files.readString(file);
+        assertTrue(pgn.contains("{") && pgn.contains("(") && pgn.contains("[PlyCount "));
+        RunReport report = new ParallelProcessor().processFiles(List.of(file.toString()));
+
+        assertEquals(300, report.gamesPassed());
+        assertEquals(0, report.gamesFailed());
+    }
+
+    @Test
+    @DisplayName("Should make every corrupted game fail validation")
+    void shouldCorruptGames() throws Exception {
+        Path file = tempDir.resolve("corrupt.pgn");
+        PgnCorpusGenerator generator = generator(3);
+        generator.setCorruptionRate(1);
+        generator.writeGames(file, 300);
+
+        RunReport report = new ParallelProcessor().processFiles(List.of(file.toString()));
+
+        assertEquals(0, report.gamesPassed());
+        assertEquals(300, report.gamesFailed());
+    }
+
+    @Test
+    @DisplayName("Should reject rates outside [0, 1] and impossible ply ranges")
+    void shouldValidateSettings() {
+        PgnCorpusGenerator generator = new PgnCorpusGenerator(1);
+
+        assertThrows(IllegalArgumentException.class, () -> generator.setCorruptionRate(1.5));
+        assertThrows(IllegalArgumentException.class, () -> generator.setCommentRate(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> generator.setPlies(10, 5, 7, 1));
+        assertThrows(IllegalArgumentException.class, () -> generator.setThreads(0));
+    }
+}
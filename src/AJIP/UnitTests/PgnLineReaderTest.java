@@ -0,0 +1,60 @@
+package AJIP.UnitTests;
+
+import AJIP.Parser.PgnLineReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PGN Line Reader Tests")
+class PgnLineReaderTest {
+
+    // A line longer than the reader's 64 KB buffer, CRLF endings, and an unterminated last line
+    private static final String LONG_LINE = "{" + "x".repeat(100_000) + "}";
+    private static final String HEADER = "[Event \"Long\"]\r\n";
+    private static final String CONTENT = HEADER + LONG_LINE + "\r\n\r\n1.e4 e5 *";
+
+    @TempDir
+    Path tempDir;
+
+    private String pgnFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path path = tempDir.resolve("long.pgn");
+        Files.writeString(path, CONTENT);
+        pgnFile = path.toString();
+    }
+
+    @Test
+    @DisplayName("Should track line offsets across read buffer boundaries")
+    void shouldTrackOffsetsAcrossBufferBoundaries() throws Exception {
+        try (PgnLineReader reader = new PgnLineReader(pgnFile, 0)) {
+            assertEquals("[Event \"Long\"]", reader.readLine());
+            assertEquals(HEADER.length(), reader.getPosition());
+            assertEquals(LONG_LINE, reader.readLine());
+            assertEquals(HEADER.length() + LONG_LINE.length() + 2, reader.getPosition());
+            assertEquals("", reader.readLine());
+            assertTrue(reader.isLastLineTerminated());
+            assertEquals("1.e4 e5 *", reader.readLine());
+            assertFalse(reader.isLastLineTerminated());
+            assertEquals(CONTENT.length(), reader.getPosition());
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    @DisplayName("Should start reading at a given byte offset")
+    void shouldStartAtOffset() throws Exception {
+        try (PgnLineReader reader = new PgnLineReader(pgnFile, HEADER.length())) {
+            assertEquals(HEADER.length(), reader.getPosition());
+            assertEquals(LONG_LINE, reader.readLine());
+            assertEquals("", reader.readLine());
+        }
+    }
+}
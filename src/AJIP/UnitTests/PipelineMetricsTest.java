@@ -0,0 +1,163 @@
+package AJIP.UnitTests;
+
+import AJIP.Logger.GameLogger;
+import AJIP.Logger.PGNLogger;
+import AJIP.Main;
+import AJIP.Metrics.LatencyRecorder;
+import AJIP.Metrics.PipelineMetrics;
+import AJIP.Processor.ParallelProcessor;
+import AJIP.Records.LatencySummary;
+import AJIP.Records.MetricsSnapshot;
+import AJIP.Records.RunReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs with -Dajip.metrics=true, which the build sets for the test suite
+ */
+@DisplayName("Pipeline Metrics Tests")
+class PipelineMetricsTest {
+
+    private static final String GAMES = """
+            [White "A"]
+            [Black "B"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0
+
+            [White "A"]
+            [Black "B"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Ke3 Nc6 1-0
+
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void resetMetrics() {
+        assertTrue(PipelineMetrics.ENABLED, "the suite must run with -Dajip.metrics=true");
+        PipelineMetrics.reset();
+    }
+
+    @AfterEach
+    void restoreLogLevel() {
+        PGNLogger.setLevel(Level.ALL);
+        GameLogger.setLevel(Level.ALL);
+    }
+
+    @Test
+    @DisplayName("Should report percentiles within 1/16 of the true value")
+    void shouldReportPercentiles() {
+        LatencyRecorder recorder = PipelineMetrics.GAME_EVALUATE;
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            recorder.record(nanos);
+        }
+
+        LatencySummary summary = recorder.summary();
+
+        assertEquals(100_000, summary.count());
+        assertEquals(100_000L * 100_001 / 2, summary.totalNanos());
+        assertEquals(100_000, summary.max());
+        assertEquals(50_000, summary.p50(), 50_000 / 16.0);
+        assertEquals(90_000, summary.p90(), 90_000 / 16.0);
+        assertEquals(99_000, summary.p99(), 99_000 / 16.0);
+        assertEquals(99_900, summary.p999(), 99_900 / 16.0);
+        assertTrue(summary.p999() <= summary.max());
+    }
+
+    @Test
+    @DisplayName("Should keep small values exact and accept the whole range of a long")
+    void shouldRecordExtremeValues() {
+        LatencyRecorder recorder = PipelineMetrics.QUEUE_TAKE_WAIT;
+        for (int i = 0; i < 10; i++) {
+            recorder.record(7);
+        }
+        recorder.record(-5);
+        recorder.record(Long.MAX_VALUE);
+
+        LatencySummary summary = recorder.summary();
+
+        assertEquals(12, summary.count());
+        assertEquals(7, summary.p50());
+        assertEquals(Long.MAX_VALUE, summary.max());
+    }
+
+    @Test
+    @DisplayName("Should not lose counts incremented from many threads")
+    void shouldCountConcurrently() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    PipelineMetrics.SAN_MOVES.increment();
+                    PipelineMetrics.SAN_PARSE.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        MetricsSnapshot snapshot = PipelineMetrics.snapshot();
+
+        assertEquals(80_000, snapshot.counters().get("san.moves"));
+        assertEquals(80_000, snapshot.latencies().get("san.parse").count());
+    }
+
+    @Test
+    @DisplayName("Should time every stage of a pipeline run")
+    void shouldInstrumentPipeline() throws Exception {
+        Path file = tempDir.resolve("games.pgn");
+        Files.writeString(file, GAMES.repeat(10));
+
+        RunReport report = new ParallelProcessor().processFiles(List.of(file.toString()));
+        MetricsSnapshot snapshot = PipelineMetrics.snapshot();
+
+        assertEquals(10, report.gamesPassed());
+        assertEquals(20, snapshot.counters().get("pgn.games"));
+        assertEquals(10, snapshot.counters().get("games.passed"));
+        assertEquals(10, snapshot.counters().get("games.failed"));
+        assertEquals(110, snapshot.counters().get("san.moves"));
+        assertTrue(snapshot.counters().get("safety.checks") > 0);
+        for (String stage : List.of("pgn.lex", "san.parse", "move.make", "move.candidates", "move.validate",
+                "safety.check", "log.write", "queue.put.wait", "queue.take.wait")) {
+            assertTrue(snapshot.latencies().get(stage).count() > 0, stage);
+        }
+        assertEquals(20, snapshot.latencies().get("game.evaluate").count());
+    }
+
+    @Test
+    @DisplayName("Should write text and JSON snapshots from the importer")
+    void shouldWriteSnapshots() throws Exception {
+        Path pgn = tempDir.resolve("games.pgn");
+        Path json = tempDir.resolve("metrics.json");
+        Path text = tempDir.resolve("metrics.txt");
+        Files.writeString(pgn, GAMES);
+
+        Main.run(new String[]{"--log-level", "off", "--metrics", json.toString(), pgn.toString()});
+        Main.run(new String[]{"--log-level", "off", "--metrics", text.toString(), pgn.toString()});
+
+        String jsonSnapshot = Files.readString(json);
+        assertTrue(jsonSnapshot.startsWith("{\"uptimeMillis\":"), jsonSnapshot);
+        assertTrue(jsonSnapshot.contains("\"games.passed\":1"), jsonSnapshot);
+        assertTrue(jsonSnapshot.contains("\"move.validate\":{\"count\":"), jsonSnapshot);
+        assertTrue(Files.readString(text).contains("games.failed"));
+        assertFalse(Files.exists(tempDir.resolve("metrics.json.tmp")));
+    }
+}
@@ -29,17 +29,17 @@ class SafetyCheckerTest {
     @Test
     @DisplayName("Should detect king safety on initial board")
     void shouldDetectKingSafetyOnInitialBoard() {
-        assertTrue(safetyChecker.IsSquareSafeForKing("white", 7, 4));
-        assertTrue(safetyChecker.IsSquareSafeForKing("black", 0, 4));
+        assertTrue(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4));
+        assertTrue(safetyChecker.IsSquareSafeForKing(Color.BLACK, 0, 4));
     }
 
     @Test
     @DisplayName("Should detect enemy pawn attacks")
     void shouldDetectEnemyPawnAttacks() {
         // Place black pawn that attacks white king position
-        board.board[6][3] = new ChessPiece("Pawn", "black");
+        board.board[6][3] = new ChessPiece(PieceType.PAWN, Color.BLACK);
 
-        assertFalse(safetyChecker.IsSquareSafeForKing("white", 7, 4));
+        assertFalse(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4));
     }
 
     @Test
@@ -55,16 +55,16 @@ class SafetyCheckerTest {
         board.board[1][4] = board.board[0][0]; // Move black rook to e8
         board.board[0][0] = null;
 
-        assertFalse(safetyChecker.IsSquareSafeForKing("white", 7, 4));
+        assertFalse(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4));
     }
 
     @Test
     @DisplayName("Should detect king proximity")
     void shouldDetectKingProximity() {
         // Place enemy king next to current king position
-        board.board[6][4] = new ChessPiece("King", "black");
+        board.board[6][4] = new ChessPiece(PieceType.KING, Color.BLACK);
 
-        assertFalse(safetyChecker.IsSquareSafeForKing("white", 7, 4));
+        assertFalse(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4));
     }
 
     @Test
@@ -72,9 +72,9 @@ class SafetyCheckerTest {
     void shouldDetectQueenAttacks() {
         // Clear diagonal path and place attacking queen
         board.board[6][5] = null; // Remove white pawn
-        board.board[5][6] = new ChessPiece("Queen", "black");
+        board.board[5][6] = new ChessPiece(PieceType.QUEEN, Color.BLACK);
 
-        assertFalse(safetyChecker.IsSquareSafeForKing("white", 7, 4));
+        assertFalse(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4));
     }
 
     @Test
@@ -82,18 +82,18 @@ class SafetyCheckerTest {
     void shouldDetectBishopAttacks() {
         // Clear diagonal path and place attacking bishop
         board.board[6][3] = null; // Remove white pawn
-        board.board[5][2] = new ChessPiece("Bishop", "black");
+        board.board[5][2] = new ChessPiece(PieceType.BISHOP, Color.BLACK);
 
-        assertFalse(safetyChecker.IsSquareSafeForKing("white", 7, 4));
+        assertFalse(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4));
     }
 
     @Test
     @DisplayName("Should detect knight attacks")
     void shouldDetectKnightAttacks() {
         // Place attacking knight
-        board.board[5][3] = new ChessPiece("Knight", "black");
+        board.board[5][3] = new ChessPiece(PieceType.KNIGHT, Color.BLACK);
 
-        assertFalse(safetyChecker.IsSquareSafeForKing("white", 7, 4));
+        assertFalse(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4));
     }
 
     @Test
@@ -103,18 +103,18 @@ class SafetyCheckerTest {
         board.board[7][3] = null; // Remove white queen
         board.board[7][2] = null; // Remove white bishop
         board.board[7][1] = null; // Remove white knight
-        board.board[7][0] = new ChessPiece("Rook", "black");
+        board.board[7][0] = new ChessPiece(PieceType.ROOK, Color.BLACK);
 
-        assertFalse(safetyChecker.IsSquareSafeForKing("white", 7, 4));
+        assertFalse(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4));
     }
 
     @Test
     @DisplayName("Should ignore own pieces")
     void shouldIgnoreOwnPieces() {
         // Place own piece that would "attack" king
-        board.board[6][3] = new ChessPiece("Queen", "white");
+        board.board[6][3] = new ChessPiece(PieceType.QUEEN, Color.WHITE);
 
-        assertTrue(safetyChecker.IsSquareSafeForKing("white", 7, 4));
+        assertTrue(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4));
     }
 
     @Test
@@ -122,16 +122,16 @@ class SafetyCheckerTest {
     void shouldHandleBlockedAttacks() {
         // Place attacking piece but block the attack
         board.board[1][4] = null; // Remove black pawn
-        board.board[5][4] = new ChessPiece("Pawn", "white"); // Blocking piece
+        board.board[5][4] = new ChessPiece(PieceType.PAWN, Color.WHITE); // Blocking piece
 
-        assertTrue(safetyChecker.IsSquareSafeForKing("white", 7, 4));
+        assertTrue(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 4));
     }
 
     @Test
     @DisplayName("Should validate king safety after move")
     void shouldValidateKingSafetyAfterMove() {
         ChessMove move = new ChessMove();
-        move.color = "white";
+        move.color = Color.WHITE;
 
         assertTrue(safetyChecker.IsKingSafe(move));
     }
@@ -141,10 +141,10 @@ class SafetyCheckerTest {
     void shouldDetectKingInCheck() {
         // Place attacking piece
         board.board[6][4] = null; // Remove pawn
-        board.board[5][4] = new ChessPiece("Rook", "black");
+        board.board[5][4] = new ChessPiece(PieceType.ROOK, Color.BLACK);
 
         ChessMove move = new ChessMove();
-        move.color = "white";
+        move.color = Color.WHITE;
 
         assertFalse(safetyChecker.IsKingSafe(move));
     }
@@ -153,9 +153,9 @@ class SafetyCheckerTest {
     @DisplayName("Should handle edge cases for pawn attacks")
     void shouldHandleEdgeCasesForPawnAttacks() {
         // Test pawn attack from edge of board
-        board.board[6][7] = new ChessPiece("Pawn", "black");
+        board.board[6][7] = new ChessPiece(PieceType.PAWN, Color.BLACK);
 
-        assertFalse(safetyChecker.IsSquareSafeForKing("white", 7, 6));
-        assertTrue(safetyChecker.IsSquareSafeForKing("white", 7, 7)); // No pawn can attack this
+        assertFalse(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 6));
+        assertTrue(safetyChecker.IsSquareSafeForKing(Color.WHITE, 7, 7)); // No pawn can attack this
     }
 }
\ No newline at end of file
@@ -42,7 +42,7 @@ class SpecialMoveHandlerTest {
         @Test
         @DisplayName("Should allow valid kingside castling")
         void shouldAllowValidKingsideCastling() {
-            ChessMove castling = createCastlingMove("white", 7, 4, 7, 6);
+            ChessMove castling = createCastlingMove(Color.WHITE, 7, 4, 7, 6);
             ValidationResult result = specialMoveHandler.CanCastle(castling);
             assertTrue(result.isValid());
         }
@@ -55,7 +55,7 @@ class SpecialMoveHandlerTest {
             board.board[7][2] = null; // Bishop
             board.board[7][3] = null; // Queen
 
-            ChessMove castling = createCastlingMove("white", 7, 4, 7, 2);
+            ChessMove castling = createCastlingMove(Color.WHITE, 7, 4, 7, 2);
             ValidationResult result = specialMoveHandler.CanCastle(castling);
             assertTrue(result.isValid());
         }
@@ -65,7 +65,7 @@ class SpecialMoveHandlerTest {
         void shouldRejectCastlingWhenKingHasMoved() {
             board.board[7][4].SetMoved();
 
-            ChessMove castling = createCastlingMove("white", 7, 4, 7, 6);
+            ChessMove castling = createCastlingMove(Color.WHITE, 7, 4, 7, 6);
             ValidationResult result = specialMoveHandler.CanCastle(castling);
             assertFalse(result.isValid());
         }
@@ -75,7 +75,7 @@ class SpecialMoveHandlerTest {
         void shouldRejectCastlingWhenRookHasMoved() {
             board.board[7][7].SetMoved();
 
-            ChessMove castling = createCastlingMove("white", 7, 4, 7, 6);
+            ChessMove castling = createCastlingMove(Color.WHITE, 7, 4, 7, 6);
             ValidationResult result = specialMoveHandler.CanCastle(castling);
             assertFalse(result.isValid());
         }
@@ -86,7 +86,7 @@ class SpecialMoveHandlerTest {
             // Leave bishop in place
             board.board[7][5] = board.board[7][2]; // Place a piece in the way
 
-            ChessMove castling = createCastlingMove("white", 7, 4, 7, 6);
+            ChessMove castling = createCastlingMove(Color.WHITE, 7, 4, 7, 6);
             ValidationResult result = specialMoveHandler.CanCastle(castling);
             assertFalse(result.isValid());
         }
@@ -98,7 +98,7 @@ class SpecialMoveHandlerTest {
             board.board[6][5] = null; // Remove black pawn
             board.board[2][5] = board.board[0][0]; // Move black rook to attack f-file
 
-            ChessMove castling = createCastlingMove("white", 7, 4, 7, 6);
+            ChessMove castling = createCastlingMove(Color.WHITE, 7, 4, 7, 6);
             ValidationResult result = specialMoveHandler.CanCastle(castling);
             assertFalse(result.isValid());
         }
@@ -108,7 +108,7 @@ class SpecialMoveHandlerTest {
         void shouldRejectCastlingWithMissingKing() {
             board.board[7][4] = null; // Remove king
 
-            ChessMove castling = createCastlingMove("white", 7, 4, 7, 6);
+            ChessMove castling = createCastlingMove(Color.WHITE, 7, 4, 7, 6);
             ValidationResult result = specialMoveHandler.CanCastle(castling);
             assertFalse(result.isValid());
         }
@@ -118,15 +118,15 @@ class SpecialMoveHandlerTest {
         void shouldRejectCastlingWithMissingRook() {
             board.board[7][7] = null; // Remove rook
 
-            ChessMove castling = createCastlingMove("white", 7, 4, 7, 6);
+            ChessMove castling = createCastlingMove(Color.WHITE, 7, 4, 7, 6);
             ValidationResult result = specialMoveHandler.CanCastle(castling);
             assertFalse(result.isValid());
         }
 
-        private ChessMove createCastlingMove(String color, int fromRow, int fromCol, int toRow, int toCol) {
+        private ChessMove createCastlingMove(Color color, int fromRow, int fromCol, int toRow, int toCol) {
             ChessMove move = new ChessMove();
             move.color = color;
-            move.pieceType = "King";
+            move.pieceType = PieceType.KING;
             move.fromRow = fromRow;
             move.fromCol = fromCol;
             move.toRow = toRow;
@@ -146,7 +146,7 @@ class SpecialMoveHandlerTest {
             // Place white pawn on 7th rank
             board.board[1][0] = board.board[6][0]; // Move white pawn to 7th rank
             board.board[0][0] = null;
-            ValidationResult result = specialMoveHandler.CanPromote("white", "Pawn", 1, 0, 0, 0);
+            ValidationResult result = specialMoveHandler.CanPromote(Color.WHITE, PieceType.PAWN, 1, 0, 0, 0);
             assertTrue(result.isValid());
         }
 
@@ -157,28 +157,28 @@ class SpecialMoveHandlerTest {
             board.board[6][0] = board.board[1][0]; // Move black pawn to 2nd rank
             board.board[7][0] = null;
 
-            ValidationResult result = specialMoveHandler.CanPromote("black", "Pawn", 6, 0, 7, 0);
+            ValidationResult result = specialMoveHandler.CanPromote(Color.BLACK, PieceType.PAWN, 6, 0, 7, 0);
             assertTrue(result.isValid());
         }
 
         @Test
         @DisplayName("Should reject promotion for non-pawns")
         void shouldRejectPromotionForNonPawns() {
-            ValidationResult result = specialMoveHandler.CanPromote("white", "Queen", 1, 0, 0, 0);
+            ValidationResult result = specialMoveHandler.CanPromote(Color.WHITE, PieceType.QUEEN, 1, 0, 0, 0);
             assertFalse(result.isValid());
         }
 
         @Test
         @DisplayName("Should reject promotion on wrong rank for white")
         void shouldRejectPromotionOnWrongRankForWhite() {
-            ValidationResult result = specialMoveHandler.CanPromote("white", "Pawn", 6, 0, 5, 0);
+            ValidationResult result = specialMoveHandler.CanPromote(Color.WHITE, PieceType.PAWN, 6, 0, 5, 0);
             assertFalse(result.isValid());
         }
 
         @Test
         @DisplayName("Should reject promotion on wrong rank for black")
         void shouldRejectPromotionOnWrongRankForBlack() {
-            ValidationResult result = specialMoveHandler.CanPromote("black", "Pawn", 1, 0, 2, 0);
+            ValidationResult result = specialMoveHandler.CanPromote(Color.BLACK, PieceType.PAWN, 1, 0, 2, 0);
             assertFalse(result.isValid());
         }
 
@@ -191,7 +191,7 @@ class SpecialMoveHandlerTest {
             board.board[0][1] = board.board[1][1]; // Move black pawn to be captured
             board.board[1][1] = null;
 
-            ValidationResult result = specialMoveHandler.CanPromote("white", "Pawn", 1, 0, 0, 1);
+            ValidationResult result = specialMoveHandler.CanPromote(Color.WHITE, PieceType.PAWN, 1, 0, 0, 1);
             assertTrue(result.isValid());
         }
     }
@@ -208,7 +208,7 @@ class SpecialMoveHandlerTest {
             board.board[6][4] = board.board[0][3]; // Remove white pawn
             board.board[0][3] = null;
 
-            ValidationResult result = specialMoveHandler.CanCheck("black", "Queen", 6, 4, 7, 4);
+            ValidationResult result = specialMoveHandler.CanCheck(Color.BLACK, PieceType.QUEEN, 6, 4, 7, 4);
             assertTrue(result.isValid());
         }
 
@@ -216,7 +216,7 @@ class SpecialMoveHandlerTest {
         @DisplayName("Should reject invalid check")
         void shouldRejectInvalidCheck() {
             // Move that doesn't give check
-            ValidationResult result = specialMoveHandler.CanCheck("white", "Pawn", 6, 0, 5, 0);
+            ValidationResult result = specialMoveHandler.CanCheck(Color.WHITE, PieceType.PAWN, 6, 0, 5, 0);
             assertFalse(result.isValid());
         }
 
@@ -225,7 +225,7 @@ class SpecialMoveHandlerTest {
         void shouldHandleMissingOpponentKing() {
             board.board[0][4] = null; // Remove black king
 
-            ValidationResult result = specialMoveHandler.CanCheck("white", "Queen", 7, 3, 5, 3);
+            ValidationResult result = specialMoveHandler.CanCheck(Color.WHITE, PieceType.QUEEN, 7, 3, 5, 3);
             assertFalse(result.isValid());
         }
 
@@ -234,7 +234,7 @@ class SpecialMoveHandlerTest {
         void shouldHandleMultipleOpponentKings() {
             board.board[0][3] = board.board[0][4]; // Duplicate black king
 
-            ValidationResult result = specialMoveHandler.CanCheck("white", "Queen", 7, 3, 5, 3);
+            ValidationResult result = specialMoveHandler.CanCheck(Color.WHITE, PieceType.QUEEN, 7, 3, 5, 3);
             assertFalse(result.isValid());
         }
     }
@@ -99,14 +99,24 @@ public class CheckmateDetector {
                 capturedPiece
         );
 
-        // Create a copy of the board to test the move
-        Board simulationBoard = new Board(board);
-
-        // Execute the move on the copy
-        simulationBoard.executeMove(proposedMove);
+        // Play the move and check if the player's king would be in check after it
+        return !leavesKingInCheck(proposedMove, piece.getColor());
+    }
 
-        // Check if the player's king would be in check after this move
-        return !simulationBoard.isKingInCheck(piece.getColor());
+    /**
+     * Plays a move on the board, checks the mover's king and takes the move back
+     *
+     * @param move The move to try
+     * @param color The color of the moving side
+     * @return true if the move would leave that side's king in check
+     */
+    private boolean leavesKingInCheck(Move move, int color) {
+        MoveUndo undo = board.makeMove(move);
+        try {
+            return board.isKingInCheck(color);
+        } finally {
+            board.unmakeMove(undo);
+        }
     }
 
     /**
@@ -153,10 +163,7 @@ public class CheckmateDetector {
             for (Move move : possibleMoves) {
                 if (move.getDestination().equals(attacker.getPosition())) {
                     // Make sure this capture doesn't leave king in check
-                    Board tempBoard = new Board(board);
-                    tempBoard.executeMove(move);
-
-                    if (!tempBoard.isKingInCheck(color)) {
+                    if (!leavesKingInCheck(move, color)) {
                         return true;
                     }
                 }
@@ -203,10 +210,7 @@ public class CheckmateDetector {
             for (Move move : possibleMoves) {
                 if (pathSquares.contains(move.getDestination())) {
                     // Verify this block doesn't leave king in check
-                    Board tempBoard = new Board(board);
-                    tempBoard.executeMove(move);
-
-                    if (!tempBoard.isKingInCheck(color)) {
+                    if (!leavesKingInCheck(move, color)) {
                         return true;
                     }
                 }
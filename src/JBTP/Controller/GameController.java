@@ -1,21 +1,62 @@
 package JBTP.Controller;
 
+import JBTP.Engine.ParallelSearch;
+import JBTP.Engine.Search;
+import JBTP.Engine.SearchResult;
+import JBTP.Engine.TimeManager;
+import JBTP.Engine.TranspositionTable;
 import JBTP.Model.*;
 import JBTP.View.GameWindow;
 
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Main controller for the chess game that connects the model and view.
  * Handles game logic, user interactions, and time control.
+ * <p>
+ * The game state is changed on the Swing event dispatch thread only. The computer thinks on a single
+ * engine thread and hands its move back to the event thread; a new game or a surrender cancels the
+ * search, and a move from a cancelled search is dropped.
+ * <p>
+ * In Player vs Computer the computer ponders: after its move it searches the position after the reply it
+ * expects while the player thinks. If the player makes that move, the search carries on for what is left
+ * of the computer's thinking time, or its move is played at once if it already had that long; any other
+ * move drops the ponder search and a normal one starts.
  */
 public class GameController {
+    // How long the computer thinks about each move in untimed games; timed games budget from the clock
+    private static final long COMPUTER_MOVE_MILLIS = 1000;
+    // How often the clock display refreshes; the tenths it can miss never reach the clocks themselves
+    private static final int CLOCK_REFRESH_MILLIS = 100;
+    // Threads searching the computer's moves, set with -Djbtp.search.threads=N; half the processors by default
+    private static final int SEARCH_THREADS = Integer.getInteger("jbtp.search.threads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    // Think on the player's time in Player vs Computer; off with -Djbtp.ponder=false
+    private static final boolean PONDER = Boolean.parseBoolean(System.getProperty("jbtp.ponder", "true"));
+
+    private final ParallelSearch search = new ParallelSearch(SEARCH_THREADS);
+    private final ExecutorService engineExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jbtp-engine");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Tags each search with the game it was started for, so a cancelled search's move is never played
+    private final SearchGeneration searches = new SearchGeneration(search::stop);
+    // The reply the running ponder search expects, 0 when not pondering
+    private int ponderMove;
+    private long ponderStartNanos;
+    // A ponder search that ended before the player moved, kept for a ponder hit
+    private SearchResult ponderResult;
     private GameState gameState;
     private GameWindow view;
     private String gameMode;
+    // Refreshes the clock display and notices a flag; the clocks themselves keep time
     private Timer clockTimer;
     private boolean clockRunning;
 
@@ -42,6 +83,7 @@ public class GameController {
      * @param gameMode The game mode to use
      */
     public void startNewGame(String gameMode) {
+        cancelComputerMove();
         this.gameMode = gameMode;
         gameState.resetGame();
 
@@ -71,8 +113,24 @@ public class GameController {
      * @param seconds Seconds for each player's clock
      */
     public void startTimedGame(String gameMode, int hours, int minutes, int seconds) {
+        startTimedGame(gameMode, hours, minutes, seconds, Clock.Mode.SUDDEN_DEATH, 0);
+    }
+
+    /**
+     * Starts a new timed game with the specified mode, time control and per-move increment or delay.
+     *
+     * @param gameMode The game mode to use
+     * @param hours Hours for each player's clock
+     * @param minutes Minutes for each player's clock
+     * @param seconds Seconds for each player's clock
+     * @param clockMode How the clocks give time back per move
+     * @param bonusSeconds Increment or delay per move in seconds
+     */
+    public void startTimedGame(String gameMode, int hours, int minutes, int seconds, Clock.Mode clockMode, int bonusSeconds) {
+        cancelComputerMove();
+        stopClock();
         this.gameMode = gameMode;
-        gameState = new GameState(hours, minutes, seconds);
+        gameState = new GameState(hours, minutes, seconds, clockMode, bonusSeconds);
 
         // Start the clock
         startClock();
@@ -98,7 +156,7 @@ public class GameController {
         Board board = gameState.getBoard();
         Piece piece = board.getPiece(fromPosition);
 
-        if (piece == null || piece.getColor() != gameState.getCurrentPlayerColor()) {
+        if (piece == null || piece.getColor() != gameState.getCurrentPlayerColor() || isComputerTurn()) {
             return false;
         }
 
@@ -126,14 +184,17 @@ public class GameController {
             // Check if the game is over
             if (gameState.isGameOver()) {
                 stopClock();
-                view.showGameOver(gameState.getGameResult());
+                showGameOver();
                 return true;
             }
 
             // If playing against computer, make computer move
-            if ((gameMode.equals("Player vs Computer") && gameState.getCurrentPlayerColor() == PieceColor.BLACK) ||
-                    gameMode.equals("Computer vs Computer")) {
-                makeComputerMove();
+            if (isComputerTurn()) {
+                if (ponderMove != 0) {
+                    answerPonder(moveToMake);
+                } else {
+                    makeComputerMove();
+                }
             }
         }
 
@@ -141,43 +202,215 @@ public class GameController {
     }
 
     /**
-     * Makes a computer move using a simple AI.
+     * Checks if the side to move is played by the computer in the current game mode.
+     *
+     * @return True if the computer is to move
+     */
+    private boolean isComputerTurn() {
+        return "Computer vs Computer".equals(gameMode) ||
+                ("Player vs Computer".equals(gameMode) && gameState.getCurrentPlayerColor() == PieceColor.BLACK);
+    }
+
+    /**
+     * Starts a time-limited search for the computer's move on the engine thread.
+     * The move is played on the event dispatch thread when the search ends.
      */
     private void makeComputerMove() {
-        // Simple AI: choose a random legal move
+        int color = gameState.getCurrentPlayerColor();
+
+        if (!getAllLegalMoves(color).isEmpty()) {
+            // The search plays on its own copy of the position, taken before it starts
+            BitboardPosition position = gameState.getBoard().createPosition(color);
+            TimeManager timeManager = computerTimeManager();
+            int generation = searches.current();
+
+            searches.started(engineExecutor.submit(() -> {
+                SearchResult result = search.search(position, timeManager, Search.MAX_DEPTH);
+                if (!Thread.currentThread().isInterrupted()) {
+                    SwingUtilities.invokeLater(() -> playComputerMove(generation, result));
+                }
+            }));
+        }
+    }
+
+    /**
+     * Budgets the computer's thinking time for the move it is about to make: from the side's clock in a
+     * timed game, a fixed time otherwise.
+     *
+     * @return The time manager for this move
+     */
+    private TimeManager computerTimeManager() {
+        if (!gameState.isTimedGame()) {
+            return TimeManager.fixed(COMPUTER_MOVE_MILLIS);
+        }
+        Clock clock = gameState.getClock(gameState.getCurrentPlayerColor());
+        return TimeManager.forClock(clock.getRemainingMillis(), clock.getBonusMillis());
+    }
+
+    /**
+     * Starts searching the position after the player's expected reply, until the player moves.
+     *
+     * @param result The search that chose the computer's last move, whose line gives the expected reply
+     */
+    private void startPondering(SearchResult result) {
+        int color = gameState.getCurrentPlayerColor();
+        int expected = expectedReply(result, gameState.getBoard().createPosition(color));
+        if (expected == 0) {
+            return;
+        }
+        // Play the reply on a copy of the board, so the ponder position is made like the normal search's
+        // and carries the halfmove clock and the game's earlier positions
+        Board afterReply = new Board(gameState.getBoard());
+        afterReply.makeMove(findMove(afterReply.getAllLegalMoves(color), expected));
+        BitboardPosition ponderPosition = afterReply.createPosition(PieceColor.opponent(color));
+        int generation = searches.current();
+
+        ponderMove = expected;
+        ponderStartNanos = System.nanoTime();
+        ponderResult = null;
+        search.preparePonder();
+        searches.started(engineExecutor.submit(() -> {
+            SearchResult ponder = search.ponder(ponderPosition);
+            if (!Thread.currentThread().isInterrupted()) {
+                SwingUtilities.invokeLater(() -> finishPonder(generation, ponder));
+            }
+        }));
+    }
+
+    /**
+     * The reply the search expects: the second move of its line, or the best move the transposition
+     * table holds for the position when the line is cut short.
+     *
+     * @param result The search of the computer's last move
+     * @param position The position with the player to move
+     * @return The expected reply, or 0 if there's no legal one
+     */
+    private int expectedReply(SearchResult result, BitboardPosition position) {
+        int[] line = result.getPrincipalVariation();
+        int expected = line.length >= 2 ? line[1] : TranspositionTable.move(search.getTable().probe(position.getKey()));
+        int[] legalMoves = new int[BitboardPosition.MAX_MOVES];
+        int count = position.generateLegalMoves(legalMoves, 0);
+        for (int i = 0; i < count; i++) {
+            if (legalMoves[i] == expected) {
+                return expected;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Handles the player's move while pondering: on a ponder hit the ponder search becomes the computer's
+     * search, otherwise it is dropped and a new one starts.
+     *
+     * @param played The move the player made
+     */
+    private void answerPonder(Move played) {
+        boolean hit = played.getOrigin().equals(Bitboards.position(BitboardPosition.from(ponderMove)))
+                && played.getDestination().equals(Bitboards.position(BitboardPosition.to(ponderMove)));
+        ponderMove = 0;
+        if (!hit) {
+            cancelComputerMove();
+            makeComputerMove();
+        } else if (ponderResult != null) {
+            // The ponder search finished while the player thought; its move is ready
+            SearchResult result = ponderResult;
+            ponderResult = null;
+            playComputerMove(searches.current(), result);
+        } else {
+            long ponderedMillis = (System.nanoTime() - ponderStartNanos) / 1_000_000;
+            long budgetMillis = computerTimeManager().getSoftLimitMillis();
+            if (ponderedMillis >= budgetMillis) {
+                search.stop();
+            } else {
+                search.setTimeLimit(budgetMillis - ponderedMillis);
+            }
+        }
+    }
+
+    /**
+     * Takes the result of a ponder search: played if the player already made the expected move,
+     * kept for a ponder hit otherwise.
+     *
+     * @param generation The game generation the search started in
+     * @param result The ponder search's result
+     */
+    private void finishPonder(int generation, SearchResult result) {
+        if (!searches.accept(generation, result)) {
+            return;
+        }
+        if (ponderMove != 0) {
+            ponderResult = result;
+        } else {
+            playComputerMove(generation, result);
+        }
+    }
+
+    /**
+     * Plays the computer's move unless the game it was searched for has ended or been replaced.
+     * Runs on the event dispatch thread; in Computer vs Computer it starts the next search.
+     *
+     * @param generation The game generation the search started in
+     * @param result The search's result
+     */
+    private void playComputerMove(int generation, SearchResult result) {
+        if (!searches.accept(generation, result) || gameState.isGameOver()) {
+            return;
+        }
         List<Move> legalMoves = getAllLegalMoves(gameState.getCurrentPlayerColor());
+        if (legalMoves.isEmpty()) {
+            return;
+        }
+        gameState.makeMove(findMove(legalMoves, result.getBestMove()));
+        updateView();
 
-        if (!legalMoves.isEmpty()) {
-            // For now, just pick the first legal move
-            // This could be improved with a proper chess AI
-            Move computerMove = legalMoves.get(0);
-
-            // Make the move after a short delay
-            new Thread(() -> {
-                try {
-                    Thread.sleep(500); // 0.5 second delay
-                    gameState.makeMove(computerMove);
-                    updateView();
-
-                    // Check if the game is over
-                    if (gameState.isGameOver()) {
-                        stopClock();
-                        view.showGameOver(gameState.getGameResult());
-                    } else if (gameMode.equals("Computer vs Computer")) {
-                        // Continue with next computer move
-                        makeComputerMove();
-                    }
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
+        // Check if the game is over
+        if (gameState.isGameOver()) {
+            stopClock();
+            showGameOver();
+        } else if (isComputerTurn()) {
+            makeComputerMove();
+        } else if (PONDER && "Player vs Computer".equals(gameMode)) {
+            startPondering(result);
         }
     }
 
+    /**
+     * Stops a running computer search and makes sure its move is never played.
+     */
+    private void cancelComputerMove() {
+        searches.cancel();
+        ponderMove = 0;
+        ponderResult = null;
+    }
+
+    /**
+     * Finds the board move matching a move from the search.
+     * The board only promotes to a queen, so any promotion maps to that.
+     *
+     * @param legalMoves The legal moves of the side to move
+     * @param searchMove The move as the search encodes it
+     * @return The matching move, or the first legal move if none matches
+     */
+    private Move findMove(List<Move> legalMoves, int searchMove) {
+        Position from = Bitboards.position(BitboardPosition.from(searchMove));
+        Position to = Bitboards.position(BitboardPosition.to(searchMove));
+        for (Move move : legalMoves) {
+            if (move.getOrigin().equals(from) && move.getDestination().equals(to)) {
+                return move;
+            }
+        }
+        return legalMoves.get(0);
+    }
+
     /**
      * Updates the view to reflect the current game state.
+     * Safe to call from any thread; the view is updated on the event dispatch thread.
      */
     private void updateView() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::updateView);
+            return;
+        }
         if (view != null) {
             view.refreshBoard();
 
@@ -257,9 +490,22 @@ public class GameController {
      * Forfeits the current game for the current player.
      */
     public void surrender() {
+        cancelComputerMove();
         gameState.surrender();
         stopClock();
-        view.showGameOver(gameState.getGameResult());
+        showGameOver();
+    }
+
+    /**
+     * Shows the game result on the event dispatch thread.
+     */
+    private void showGameOver() {
+        String result = gameState.getGameResult();
+        SwingUtilities.invokeLater(() -> {
+            if (view != null) {
+                view.showGameOver(result);
+            }
+        });
     }
 
     /**
@@ -298,45 +544,46 @@ public class GameController {
      */
     public void setTimeControl(int hours, int minutes, int seconds) {
         gameState.setTimeControl(hours, minutes, seconds);
-        if (gameState.isTimedGame() && !clockRunning) {
+        if (gameState.isTimedGame() && !gameState.isGameOver()) {
             startClock();
         }
         updateView();
     }
 
     /**
-     * Starts the chess clock timer.
+     * Starts the current player's clock and the timer that refreshes its display.
      */
     private void startClock() {
         if (clockTimer != null) {
-            clockTimer.cancel();
+            clockTimer.stop();
         }
 
-        clockTimer = new Timer();
+        gameState.startClock();
         clockRunning = true;
 
-        clockTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if (gameState.decrementCurrentPlayerClock()) {
-                    // Time ran out
-                    stopClock();
-                    view.showGameOver(gameState.getGameResult());
-                }
-                updateView();
+        // Swing timer so the check runs on the EDT with the moves; the display reads the clocks each tick
+        clockTimer = new Timer(CLOCK_REFRESH_MILLIS, e -> {
+            if (gameState.checkCurrentPlayerTime()) {
+                // Time ran out
+                stopClock();
+                cancelComputerMove();
+                showGameOver();
             }
-        }, 1000, 1000); // Update every second
+            updateView();
+        });
+        clockTimer.start();
     }
 
     /**
-     * Stops the chess clock timer.
+     * Pauses the clocks and stops refreshing their display.
      */
     private void stopClock() {
+        gameState.pauseClock();
         if (clockTimer != null) {
-            clockTimer.cancel();
+            clockTimer.stop();
             clockTimer = null;
-            clockRunning = false;
         }
+        clockRunning = false;
     }
 
     /**
@@ -0,0 +1,61 @@
+package JBTP.Controller;
+
+import JBTP.Engine.SearchResult;
+
+import java.util.concurrent.Future;
+
+/**
+ * Keeps the computer's searches in step with the game. Each search is tagged with the generation it
+ * started in; cancelling, e.g. for a new game or a resignation, stops the running search and moves on to
+ * a new generation, so a result that still arrives from an older search is dropped instead of played.
+ * Used on the event dispatch thread, but holds nothing of Swing.
+ */
+public class SearchGeneration {
+    private final Runnable stopSearch;
+    private int generation;
+    private Future<?> running;
+
+    /**
+     * @param stopSearch Asks the engine to end its running search, e.g. Search::stop
+     */
+    public SearchGeneration(Runnable stopSearch) {
+        this.stopSearch = stopSearch;
+    }
+
+    /**
+     * The generation a search starting now belongs to
+     */
+    public int current() {
+        return generation;
+    }
+
+    /**
+     * Remembers the search now running, so {@link #cancel()} can end it
+     */
+    public void started(Future<?> search) {
+        running = search;
+    }
+
+    /**
+     * Whether a search result should be played: only one from the current generation
+     *
+     * @param searchGeneration The generation the search started in
+     * @param result The search's result
+     * @return True to play the result, false to drop it
+     */
+    public boolean accept(int searchGeneration, SearchResult result) {
+        return searchGeneration == generation && result != null;
+    }
+
+    /**
+     * Stops the running search and starts a new generation, so no result from before is ever accepted
+     */
+    public void cancel() {
+        generation++;
+        if (running != null) {
+            stopSearch.run();
+            running.cancel(true);
+            running = null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package JBTP.Engine;
+
+import JBTP.Model.BitboardPosition;
+
+/**
+ * Static evaluation: material plus piece-square tables, in centipawns from the side to move's point of view.
+ * <p>
+ * The tables are the "simplified evaluation function" ones, written from white's side with a8 first, so they
+ * index white squares directly and black squares mirrored (square ^ 56). The king has a middlegame and an
+ * endgame table, blended by how much non-pawn material is left.
+ */
+public final class Evaluation {
+
+    public static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+    private static final int BISHOP_PAIR = 30;
+
+    // Phase weight of each piece type; 24 with all minor and major pieces on the board
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+    private static final int MAX_PHASE = 24;
+
+    private static final int[] PAWN_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    private static final int[] KING_MIDDLEGAME_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    private static final int[] KING_ENDGAME_TABLE = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[][] TABLES = {PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE};
+
+    private Evaluation() {
+    }
+
+    /**
+     * Score of the position for the side to move; positive means it stands better
+     */
+    public static int evaluate(BitboardPosition position) {
+        int score = 0;
+        int phase = 0;
+        int kingMiddlegame = 0;
+        int kingEndgame = 0;
+        for (int side = BitboardPosition.WHITE; side <= BitboardPosition.BLACK; side++) {
+            int sign = side == BitboardPosition.WHITE ? 1 : -1;
+            int mirror = side == BitboardPosition.WHITE ? 0 : 56;
+            for (int type = BitboardPosition.PAWN; type < BitboardPosition.KING; type++) {
+                long pieces = position.getPieces(side, type);
+                int[] table = TABLES[type];
+                for (; pieces != 0; pieces &= pieces - 1) {
+                    score += sign * (PIECE_VALUES[type] + table[Long.numberOfTrailingZeros(pieces) ^ mirror]);
+                    phase += PHASE_WEIGHTS[type];
+                }
+            }
+            if (Long.bitCount(position.getPieces(side, BitboardPosition.BISHOP)) >= 2) {
+                score += sign * BISHOP_PAIR;
+            }
+            long king = position.getPieces(side, BitboardPosition.KING);
+            if (king != 0) {
+                int square = Long.numberOfTrailingZeros(king) ^ mirror;
+                kingMiddlegame += sign * KING_MIDDLEGAME_TABLE[square];
+                kingEndgame += sign * KING_ENDGAME_TABLE[square];
+            }
+        }
+        phase = Math.min(phase, MAX_PHASE);
+        score += (kingMiddlegame * phase + kingEndgame * (MAX_PHASE - phase)) / MAX_PHASE;
+        return position.getSideToMove() == BitboardPosition.WHITE ? score : -score;
+    }
+}
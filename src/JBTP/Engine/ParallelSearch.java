@@ -0,0 +1,194 @@
+package JBTP.Engine;
+
+import JBTP.Model.BitboardPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lazy SMP: several {@link Search}es of the same root at once, sharing only a {@link TranspositionTable}.
+ * <p>
+ * The calling thread runs the main search while helper threads search their own copies of the position.
+ * There is no other coordination; the helpers fill the shared table with results the main search then
+ * finds, and start their iterations a ply out of step so they don't all walk the same tree in the same
+ * order. Whichever thread first finishes the last depth, or the time limit, stops them all, and the move
+ * of the deepest finished iteration is played.
+ * <p>
+ * It can also ponder: search the position after the opponent's expected reply for as long as the opponent
+ * thinks. Call {@link #preparePonder()} first on the thread that will end the search, then {@link #ponder}
+ * on the searching thread. When the opponent plays the expected move, {@link #setTimeLimit} turns the
+ * ponder search into a normal one with the time that's left, or {@link #stop()} ends it at once; any other
+ * move makes the ponder search useless and it should be stopped.
+ * <p>
+ * One instance searches one position at a time. Helper threads are daemons kept between searches;
+ * {@link #shutdown()} releases them.
+ */
+public class ParallelSearch {
+
+    private final int threads;
+    private final TranspositionTable table;
+    private final AtomicBoolean stopSignal = new AtomicBoolean();
+    private final AtomicLong deadline = new AtomicLong();
+    private final Search mainSearch;
+    private final List<Search> helpers = new ArrayList<>();
+    private final ExecutorService helperPool;
+
+    /**
+     * @param threads how many threads search, the calling one included
+     */
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Search needs at least 1 thread, got: " + threads);
+        }
+        this.threads = threads;
+        this.table = table;
+        this.mainSearch = new Search(table, stopSignal, deadline, false);
+        for (int i = 1; i < threads; i++) {
+            helpers.add(new Search(table, stopSignal, deadline, true));
+        }
+        AtomicInteger helperNumber = new AtomicInteger();
+        this.helperPool = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper-" + helperNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Search the position with every thread until the time limit or the maximum depth is reached; see
+     * {@link Search#search}. Nodes and table statistics are the sums over all threads.
+     */
+    public SearchResult search(BitboardPosition position, long timeLimitMillis, int maxDepth) {
+        stopSignal.set(false);
+        deadline.set(Search.deadlineAfter(timeLimitMillis));
+        return run(position, maxDepth, null);
+    }
+
+    /**
+     * Search the position within the time manager's hard limit; the main thread asks it after each iteration
+     * whether to go on and stops the helpers when it doesn't
+     */
+    public SearchResult search(BitboardPosition position, TimeManager timeManager, int maxDepth) {
+        stopSignal.set(false);
+        deadline.set(Search.deadlineAfter(timeManager.getHardLimitMillis()));
+        return run(position, maxDepth, timeManager);
+    }
+
+    /**
+     * Clear the stop signal and take away the time limit for a {@link #ponder} about to start, so a
+     * {@link #stop()} or {@link #setTimeLimit} that comes before the search itself starts still counts
+     */
+    public void preparePonder() {
+        stopSignal.set(false);
+        deadline.set(Long.MAX_VALUE);
+    }
+
+    /**
+     * Search the position until stopped or out of the time set since {@link #preparePonder()}
+     */
+    public SearchResult ponder(BitboardPosition position) {
+        return run(position, Search.MAX_DEPTH, null);
+    }
+
+    /**
+     * Move the end of a running search, e.g. a ponder search on a ponder hit, to the given time from now;
+     * safe to call from another thread
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        deadline.set(Search.deadlineAfter(timeLimitMillis));
+    }
+
+    private SearchResult run(BitboardPosition position, int maxDepth, TimeManager timeManager) {
+        long start = System.nanoTime();
+        List<Future<SearchResult>> helperResults = new ArrayList<>();
+        for (Search helper : helpers) {
+            BitboardPosition copy = position.copy();
+            helperResults.add(helperPool.submit(() -> {
+                try {
+                    return helper.run(copy, maxDepth, null);
+                } finally {
+                    stopSignal.set(true);
+                }
+            }));
+        }
+
+        SearchResult best;
+        try {
+            best = mainSearch.run(position, maxDepth, timeManager);
+        } finally {
+            stopSignal.set(true);
+        }
+        long nodes = best.getNodes();
+        long tableProbes = best.getTableProbes();
+        long tableHits = best.getTableHits();
+        for (Future<SearchResult> future : helperResults) {
+            SearchResult result = waitFor(future);
+            nodes += result.getNodes();
+            tableProbes += result.getTableProbes();
+            tableHits += result.getTableHits();
+            if (result.getDepth() > best.getDepth() && result.getBestMove() != 0) {
+                best = result;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), nodes, elapsedMillis,
+                best.getPrincipalVariation(), tableProbes, tableHits);
+    }
+
+    /**
+     * Ask a running search to return as soon as possible; safe to call from another thread
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    /**
+     * Stop the helper threads; the instance can't search with helpers afterwards
+     */
+    public void shutdown() {
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+        }
+    }
+
+    // Helpers stop within a few thousand nodes once signalled, so an interrupt only stops them sooner:
+    // the next search mustn't start while they still run
+    private SearchResult waitFor(Future<SearchResult> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    stopSignal.set(true);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
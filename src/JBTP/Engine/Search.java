@@ -0,0 +1,448 @@
+package JBTP.Engine;
+
+import JBTP.Model.BitboardPosition;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Iterative-deepening alpha-beta search on a {@link BitboardPosition}.
+ * <p>
+ * Each iteration is a negamax search one ply deeper than the last, ending in a quiescence search over captures
+ * so that no line is scored in the middle of an exchange. Moves are tried in the order most likely to cut off:
+ * captures by most valuable victim / least valuable attacker, then the two killer moves of the ply, then quiet
+ * moves by their history score. The search checks the clock every few thousand nodes and, when time is up or
+ * {@link #stop()} is called, falls back to the best move of the deepest finished iteration.
+ * <p>
+ * Results are kept in a {@link TranspositionTable} by the position's Zobrist key: a position reached again by
+ * another move order is cut off from its stored bound when that was searched deep enough, and otherwise its
+ * stored best move is tried first. Repetitions score as draws, within the searched line and of the game
+ * positions the root carries in {@link BitboardPosition#getGameHistory()}, as do positions past the fifty-move
+ * rule.
+ * <p>
+ * One instance searches one position at a time; the killer, history and transposition tables are kept
+ * between searches.
+ */
+public class Search {
+
+    public static final int MAX_PLY = BitboardPosition.MAX_PLY;
+    public static final int MAX_DEPTH = MAX_PLY / 2;
+    public static final int MATE = 30_000;
+
+    private static final int INFINITY = 32_000;
+    private static final int TIME_CHECK_INTERVAL = 2048;     // Nodes between clock reads, a power of two
+    // Earlier game positions kept for repetitions; past 100 reversible plies the fifty-move rule draws first
+    private static final int MAX_GAME_HISTORY = 100;
+
+    // Move ordering scores; history scores stay below the killers
+    private static final int TABLE_MOVE_SCORE = 4_000_000;
+    private static final int CAPTURE_SCORE = 2_000_000;
+    private static final int KILLER_SCORE = 1_000_000;
+    private static final int HISTORY_LIMIT = 500_000;
+
+    private final int[] moves = new int[MAX_PLY * BitboardPosition.MAX_MOVES];
+    private final int[] moveScores = new int[MAX_PLY * BitboardPosition.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][][] history = new int[2][64][64];
+    private final int[][] principalVariation = new int[MAX_PLY][MAX_PLY];
+    private final int[] principalVariationLength = new int[MAX_PLY];
+    // Keys of the game before the root, then of the current line; a repetition can reach back to either
+    private final long[] keys = new long[MAX_GAME_HISTORY + MAX_PLY];
+    private int rootIndex;
+    private final TranspositionTable table;
+
+    // Read every few thousand nodes and changeable from other threads: stop now, or stop at this System.nanoTime()
+    private final AtomicBoolean stopSignal;
+    private final AtomicLong deadline;
+    private final boolean ownsControls;
+    private final boolean helper;
+
+    private BitboardPosition position;
+    private long nodes;
+    private long tableProbes;
+    private long tableHits;
+    private boolean aborted;
+
+    /**
+     * A search with its own transposition table of {@link TranspositionTable#DEFAULT_SIZE_MB}
+     */
+    public Search() {
+        this(new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    /**
+     * @param table the transposition table to use, or null to search without one
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+        this.stopSignal = new AtomicBoolean();
+        this.deadline = new AtomicLong();
+        this.ownsControls = true;
+        this.helper = false;
+    }
+
+    /**
+     * A search whose stop signal and deadline are shared with others and set by their owner, for
+     * {@link ParallelSearch}, which runs it with {@link #run}. A helper also leaves the table's age alone and
+     * starts at depth 2, so its iterations run out of step with the main thread's.
+     */
+    Search(TranspositionTable table, AtomicBoolean stopSignal, AtomicLong deadline, boolean helper) {
+        this.table = table;
+        this.stopSignal = stopSignal;
+        this.deadline = deadline;
+        this.ownsControls = false;
+        this.helper = helper;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Search the position until the time limit or the maximum depth is reached. Moves are made and unmade on
+     * the position itself, which is left as it was found.
+     *
+     * @param timeLimitMillis how long to search; the move of the last finished iteration is returned
+     * @param maxDepth        the deepest iteration to start, at most {@link #MAX_DEPTH}
+     */
+    public SearchResult search(BitboardPosition position, long timeLimitMillis, int maxDepth) {
+        if (ownsControls) {
+            stopSignal.set(false);
+            deadline.set(deadlineAfter(timeLimitMillis));
+        }
+        return run(position, maxDepth, null);
+    }
+
+    /**
+     * Search the position within the time manager's hard limit, asking it after each iteration whether to go on
+     */
+    public SearchResult search(BitboardPosition position, TimeManager timeManager, int maxDepth) {
+        if (ownsControls) {
+            stopSignal.set(false);
+            deadline.set(deadlineAfter(timeManager.getHardLimitMillis()));
+        }
+        return run(position, maxDepth, timeManager);
+    }
+
+    /**
+     * The System.nanoTime() a time limit starting now ends at; no end for {@link Long#MAX_VALUE}
+     */
+    static long deadlineAfter(long timeLimitMillis) {
+        long now = System.nanoTime();
+        return timeLimitMillis >= (Long.MAX_VALUE - now) / 1_000_000 ? Long.MAX_VALUE : now + Math.max(0, timeLimitMillis) * 1_000_000;
+    }
+
+    // Iterative deepening under the stop signal and deadline as they are now set, and the time manager if any
+    SearchResult run(BitboardPosition position, int maxDepth, TimeManager timeManager) {
+        long start = System.nanoTime();
+        this.position = position;
+        this.nodes = 0;
+        this.tableProbes = 0;
+        this.tableHits = 0;
+        this.aborted = false;
+        prepareTables();
+        long[] gameHistory = position.getGameHistory();
+        rootIndex = Math.min(gameHistory.length, MAX_GAME_HISTORY);
+        System.arraycopy(gameHistory, gameHistory.length - rootIndex, keys, 0, rootIndex);
+
+        int bestMove = 0;
+        int bestScore = 0;
+        int completedDepth = 0;
+        int[] bestLine = new int[0];
+        for (int depth = helper ? Math.min(2, maxDepth) : 1; depth <= Math.min(maxDepth, MAX_DEPTH); depth++) {
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (aborted) {
+                break;
+            }
+            completedDepth = depth;
+            bestScore = score;
+            bestLine = Arrays.copyOf(principalVariation[0], principalVariationLength[0]);
+            bestMove = bestLine.length > 0 ? bestLine[0] : 0;
+            if (bestMove == 0 || Math.abs(score) >= MATE - MAX_PLY) {
+                break;                                       // No moves, or a forced mate found
+            }
+            if (timeManager != null && timeManager.shouldStop((System.nanoTime() - start) / 1_000_000, depth, bestMove, score)) {
+                break;
+            }
+        }
+        if (bestMove == 0) {
+            // Out of time before the first iteration finished: any legal move beats none
+            int count = position.generateLegalMoves(moves, 0);
+            if (count > 0) {
+                bestMove = moves[0];
+                bestLine = new int[]{bestMove};
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, elapsedMillis, bestLine, tableProbes, tableHits);
+    }
+
+    /**
+     * Ask a running search to return as soon as possible; safe to call from another thread
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    /**
+     * Move the end of a running search to the given time from now; safe to call from another thread
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        deadline.set(deadlineAfter(timeLimitMillis));
+    }
+
+    // Killers are about the last position's plies; history is kept but scaled down so new cutoffs count
+    private void prepareTables() {
+        if (table != null && !helper) {
+            table.newSearch();
+        }
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = 0;
+            plyKillers[1] = 0;
+        }
+        for (int[][] sideHistory : history) {
+            for (int[] fromHistory : sideHistory) {
+                for (int to = 0; to < 64; to++) {
+                    fromHistory[to] /= 8;
+                }
+            }
+        }
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        principalVariationLength[ply] = ply;
+        long key = position.getKey();
+        keys[rootIndex + ply] = key;
+        if (ply > 0 && (position.getHalfmoveClock() >= 100 || isRepetition(ply))) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(position);
+        }
+        int side = position.getSideToMove();
+        boolean inCheck = position.isInCheck(side);
+        if (inCheck) {
+            depth++;                                         // Check extension: never stop the search in check
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        int tableMove = 0;
+        if (table != null) {
+            tableProbes++;
+            long entry = table.probe(key);
+            if (entry != 0) {
+                tableHits++;
+                tableMove = TranspositionTable.move(entry);
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    int score = fromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || bound == TranspositionTable.LOWER_BOUND && score >= beta
+                            || bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        int offset = ply * BitboardPosition.MAX_MOVES;
+        int count = position.generateLegalMoves(moves, offset);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(offset, count, ply, tableMove);
+
+        int originalAlpha = alpha;
+        int bestMove = 0;
+        int bestScore = -INFINITY;
+        for (int i = offset; i < offset + count; i++) {
+            int move = nextMove(i, offset + count);
+            boolean quiet = isQuiet(move);
+            position.makeMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            position.unmakeMove(move);
+            if (aborted) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+                updatePrincipalVariation(move, ply);
+                if (score >= beta) {
+                    if (quiet) {
+                        rememberCutoff(move, side, depth, ply);
+                    }
+                    break;
+                }
+            }
+        }
+        if (table != null) {
+            int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                    : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+            table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        }
+        return bestScore;
+    }
+
+    // The same position earlier in the line or the game, looking back only to the last capture or pawn move
+    private boolean isRepetition(int ply) {
+        int current = rootIndex + ply;
+        int earliest = Math.max(0, current - position.getHalfmoveClock());
+        for (int i = current - 2; i >= earliest; i -= 2) {
+            if (keys[i] == keys[current]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Mate scores are stored relative to the position, not the root, so they stay right when it's reached at another ply
+    private static int toTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score + ply : score <= -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score - ply : score <= -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    // Only captures (all evasions in check) until the position is quiet, standing pat on the static evaluation
+    private int quiescence(int alpha, int beta, int ply) {
+        principalVariationLength[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(position);
+        }
+        boolean inCheck = position.isInCheck(position.getSideToMove());
+        int bestScore = -INFINITY;
+        if (!inCheck) {
+            bestScore = Evaluation.evaluate(position);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        int offset = ply * BitboardPosition.MAX_MOVES;
+        int count = inCheck ? position.generateLegalMoves(moves, offset) : position.generateLegalCaptures(moves, offset);
+        if (count == 0 && inCheck) {
+            return -MATE + ply;
+        }
+        scoreMoves(offset, count, ply, 0);
+
+        for (int i = offset; i < offset + count; i++) {
+            int move = nextMove(i, offset + count);
+            position.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove(move);
+            if (aborted) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePrincipalVariation(move, ply);
+                if (score >= beta) {
+                    break;
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    // Count the node and read the clock now and then; true once the search has to unwind
+    private boolean countNode() {
+        if ((++nodes & (TIME_CHECK_INTERVAL - 1)) == 0 && (stopSignal.get() || System.nanoTime() >= deadline.get())) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    private void scoreMoves(int offset, int count, int ply, int tableMove) {
+        int side = position.getSideToMove();
+        for (int i = offset; i < offset + count; i++) {
+            int move = moves[i];
+            int from = BitboardPosition.from(move);
+            int to = BitboardPosition.to(move);
+            if (move == tableMove) {
+                moveScores[i] = TABLE_MOVE_SCORE;
+            } else if (!isQuiet(move)) {
+                int victim = position.getPiece(to);
+                int victimValue = victim == BitboardPosition.EMPTY
+                        ? (move & BitboardPosition.EN_PASSANT) != 0 ? Evaluation.PIECE_VALUES[BitboardPosition.PAWN] : 0
+                        : Evaluation.PIECE_VALUES[victim % 6];
+                int promotion = BitboardPosition.promotion(move);
+                if (promotion != 0) {
+                    victimValue += Evaluation.PIECE_VALUES[promotion];
+                }
+                moveScores[i] = CAPTURE_SCORE + victimValue * 8 - position.getPiece(from) % 6;
+            } else if (move == killers[ply][0]) {
+                moveScores[i] = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                moveScores[i] = KILLER_SCORE;
+            } else {
+                moveScores[i] = history[side][from][to];
+            }
+        }
+    }
+
+    // Selection sort one step at a time: most nodes cut off after a move or two, so sorting all would be wasted
+    private int nextMove(int index, int end) {
+        int best = index;
+        for (int i = index + 1; i < end; i++) {
+            if (moveScores[i] > moveScores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        moves[best] = moves[index];
+        moves[index] = move;
+        int score = moveScores[best];
+        moveScores[best] = moveScores[index];
+        moveScores[index] = score;
+        return move;
+    }
+
+    private boolean isQuiet(int move) {
+        return position.getPiece(BitboardPosition.to(move)) == BitboardPosition.EMPTY
+                && (move & BitboardPosition.EN_PASSANT) == 0 && BitboardPosition.promotion(move) == 0;
+    }
+
+    private void rememberCutoff(int move, int side, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] fromHistory = history[side][BitboardPosition.from(move)];
+        int to = BitboardPosition.to(move);
+        fromHistory[to] += depth * depth;
+        if (fromHistory[to] > HISTORY_LIMIT) {
+            for (int[] row : history[side]) {
+                for (int square = 0; square < 64; square++) {
+                    row[square] /= 2;
+                }
+            }
+        }
+    }
+
+    private void updatePrincipalVariation(int move, int ply) {
+        principalVariation[ply][ply] = move;
+        int childLength = principalVariationLength[ply + 1];
+        for (int i = ply + 1; i < childLength; i++) {
+            principalVariation[ply][i] = principalVariation[ply + 1][i];
+        }
+        principalVariationLength[ply] = Math.max(childLength, ply + 1);
+    }
+}
@@ -0,0 +1,96 @@
+package JBTP.Engine;
+
+import JBTP.Model.BitboardPosition;
+import JBTP.Model.Perft;
+
+/**
+ * Fixed-depth searches of the perft reference positions. By default each is searched with and without a
+ * transposition table, printing the nodes each needed, the table's hit rate and how many nodes it saved.
+ * With {@code smp} it measures {@link ParallelSearch} instead: the time to reach the depth with 1, 2, 4 and
+ * so on up to the given number of threads, and the speedup over one thread:
+ * <pre>
+ *  java -cp jbtp-engine.jar JBTP.Engine.SearchBenchmark [depth] [table MB]
+ *  java -cp jbtp-engine.jar JBTP.Engine.SearchBenchmark smp [max threads] [depth] [table MB]
+ * </pre>
+ */
+public final class SearchBenchmark {
+
+    private static final int DEFAULT_DEPTH = 6;
+    private static final int DEFAULT_SMP_DEPTH = 8;
+
+    private SearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("smp")) {
+            int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+            int depth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SMP_DEPTH;
+            int megabytes = args.length > 3 ? Integer.parseInt(args[3]) : TranspositionTable.DEFAULT_SIZE_MB * 4;
+            timeToDepth(maxThreads, depth, megabytes);
+            return;
+        }
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int megabytes = args.length > 1 ? Integer.parseInt(args[1]) : TranspositionTable.DEFAULT_SIZE_MB;
+        compareTable(depth, megabytes);
+    }
+
+    /**
+     * Search each reference position to the depth once without and once with a fresh table and print both
+     */
+    public static void compareTable(int depth, int megabytes) {
+        System.out.printf("Depth %d, table %d MB%n%n", depth, megabytes);
+        System.out.printf("%-34s %14s %14s %10s %10s %8s%n", "Position", "Nodes (none)", "Nodes (table)", "Saved", "Hit rate", "Same");
+        long totalWithout = 0;
+        long totalWith = 0;
+        long totalMillisWithout = 0;
+        long totalMillisWith = 0;
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            SearchResult without = new Search(null).search(BitboardPosition.fromFen(reference.getFen()), Long.MAX_VALUE, depth);
+            SearchResult with = new Search(new TranspositionTable(megabytes))
+                    .search(BitboardPosition.fromFen(reference.getFen()), Long.MAX_VALUE, depth);
+            totalWithout += without.getNodes();
+            totalWith += with.getNodes();
+            totalMillisWithout += without.getElapsedMillis();
+            totalMillisWith += with.getElapsedMillis();
+            System.out.printf("%-34s %,14d %,14d %9.1f%% %9.1f%% %8s%n", reference.getName(), without.getNodes(),
+                    with.getNodes(), saved(without.getNodes(), with.getNodes()), with.getTableHitRate() * 100,
+                    without.getBestMove() == with.getBestMove() ? "yes" : "no");
+        }
+        System.out.printf("%nTotal: %,d nodes in %d ms without a table, %,d nodes in %d ms with one, %.1f%% fewer nodes%n",
+                totalWithout, totalMillisWithout, totalWith, totalMillisWith, saved(totalWithout, totalWith));
+    }
+
+    /**
+     * Search every reference position to the depth with a fresh table per thread count and print the total
+     * time, nodes and speedup for each count
+     */
+    public static void timeToDepth(int maxThreads, int depth, int megabytes) {
+        System.out.printf("Depth %d, table %d MB, %d processors%n%n", depth, megabytes,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %12s %16s %14s %9s%n", "Threads", "Time (ms)", "Nodes", "Nodes/s", "Speedup");
+        // Warm up the JIT first so the single-thread run isn't measured on interpreted code
+        new Search().search(BitboardPosition.fromFen(BitboardPosition.START_FEN), Long.MAX_VALUE, Math.max(1, depth - 1));
+
+        long singleThreadMillis = 0;
+        for (int threads = 1; threads <= maxThreads; threads = threads == maxThreads ? threads + 1 : Math.min(threads * 2, maxThreads)) {
+            long millis = 0;
+            long nodes = 0;
+            for (Perft.Reference reference : Perft.REFERENCES) {
+                ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(megabytes));
+                SearchResult result = search.search(BitboardPosition.fromFen(reference.getFen()), Long.MAX_VALUE, depth);
+                search.shutdown();
+                millis += result.getElapsedMillis();
+                nodes += result.getNodes();
+            }
+            if (threads == 1) {
+                singleThreadMillis = millis;
+            }
+            System.out.printf("%8d %,12d %,16d %,14.0f %8.2fx%n", threads, millis, nodes,
+                    nodes / Math.max(millis / 1000.0, 0.001), (double) singleThreadMillis / Math.max(millis, 1));
+        }
+    }
+
+    private static double saved(long without, long with) {
+        return without == 0 ? 0 : 100.0 * (without - with) / without;
+    }
+}
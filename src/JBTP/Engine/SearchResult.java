@@ -0,0 +1,95 @@
+package JBTP.Engine;
+
+import JBTP.Model.BitboardPosition;
+
+/**
+ * Outcome of a {@link Search}: the best move of the deepest finished iteration with its score and principal
+ * variation, and how much work it took. Moves are encoded as in {@link BitboardPosition}.
+ */
+public class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final int[] principalVariation;
+    private final long tableProbes;
+    private final long tableHits;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis, int[] principalVariation,
+                        long tableProbes, long tableHits) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.principalVariation = principalVariation;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+    }
+
+    /**
+     * The move to play, 0 if the side to move has none
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Centipawns for the side to move, or a mate score within {@link Search#MAX_PLY} of {@link Search#MATE}
+     */
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    /**
+     * Share of transposition table probes that found an entry, 0 without a table
+     */
+    public double getTableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("depth ").append(depth);
+        if (isMate()) {
+            int plies = Search.MATE - Math.abs(score);
+            text.append(" score mate ").append(score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2);
+        } else {
+            text.append(" score cp ").append(score);
+        }
+        text.append(" nodes ").append(nodes).append(" time ").append(elapsedMillis).append(" pv");
+        for (int move : principalVariation) {
+            text.append(' ').append(BitboardPosition.toUci(move));
+        }
+        return text.toString();
+    }
+}
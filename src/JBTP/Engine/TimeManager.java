@@ -0,0 +1,87 @@
+package JBTP.Engine;
+
+/**
+ * Thinking time for one move: a soft limit the search aims at and a hard limit it never passes.
+ * <p>
+ * From a clock, the soft limit is an even share of the remaining time over the moves still expected plus
+ * most of the increment, and the hard limit a few times that but never more than a fraction of what's left,
+ * so the engine can't flag at fast controls yet spends long games' time. Between iterations the search asks
+ * {@link #shouldStop} whether to go on: a best move that stayed the same for several iterations stops it well
+ * before the soft limit, a best move that just changed or a score that dropped (a fail-low, where the
+ * expected move turned out worse) lets it run past the soft limit towards the hard one.
+ */
+public class TimeManager {
+
+    // Moves the rest of the game is assumed to last when the time control doesn't say
+    private static final int MOVES_TO_GO = 30;
+    // Kept back for the time between the search ending and the move landing on the clock
+    private static final long MOVE_OVERHEAD_MILLIS = 50;
+    // Hard limit: at most this many soft limits and this share of the remaining time
+    private static final int MAX_STRETCH = 4;
+    private static final double MAX_SHARE_OF_REMAINING = 0.4;
+    // A root score drop of this many centipawns from the last iteration counts as a fail-low
+    private static final int FAIL_LOW_MARGIN = 30;
+    // A new iteration takes at least as long as all before it, so none starts after this share of the target
+    private static final double NEXT_ITERATION_SHARE = 0.6;
+
+    private final long softLimitMillis;
+    private final long hardLimitMillis;
+
+    private int previousBestMove;
+    private int previousScore;
+    private int stableIterations;
+
+    private TimeManager(long softLimitMillis, long hardLimitMillis) {
+        this.softLimitMillis = softLimitMillis;
+        this.hardLimitMillis = hardLimitMillis;
+    }
+
+    /**
+     * Limits for a side with the given time left and increment per move
+     */
+    public static TimeManager forClock(long remainingMillis, long incrementMillis) {
+        long available = Math.max(0, remainingMillis - MOVE_OVERHEAD_MILLIS);
+        long soft = available / MOVES_TO_GO + incrementMillis * 3 / 4;
+        long hard = Math.min(soft * MAX_STRETCH, (long) (available * MAX_SHARE_OF_REMAINING));
+        return new TimeManager(Math.min(soft, hard), hard);
+    }
+
+    /**
+     * The same time for every move, e.g. without a clock; a stable best move still stops early
+     */
+    public static TimeManager fixed(long millis) {
+        return new TimeManager(millis, millis);
+    }
+
+    public long getSoftLimitMillis() {
+        return softLimitMillis;
+    }
+
+    public long getHardLimitMillis() {
+        return hardLimitMillis;
+    }
+
+    /**
+     * Called by the search after each finished iteration: whether to stop rather than start the next
+     *
+     * @param elapsedMillis time since the search started
+     * @param bestMove      the iteration's best move
+     * @param score         its score
+     */
+    public boolean shouldStop(long elapsedMillis, int depth, int bestMove, int score) {
+        boolean failLow = depth > 1 && score < previousScore - FAIL_LOW_MARGIN;
+        stableIterations = depth > 1 && bestMove == previousBestMove ? stableIterations + 1 : 0;
+        previousBestMove = bestMove;
+        previousScore = score;
+        return elapsedMillis >= targetMillis(failLow) * NEXT_ITERATION_SHARE;
+    }
+
+    // The soft limit scaled by how settled the search looks, capped by the hard limit
+    private long targetMillis(boolean failLow) {
+        double scale = stableIterations >= 4 ? 0.4 : stableIterations >= 2 ? 0.7 : stableIterations == 1 ? 1.0 : 1.3;
+        if (failLow) {
+            scale *= 2;
+        }
+        return Math.min(hardLimitMillis, (long) (softLimitMillis * scale));
+    }
+}
@@ -0,0 +1,134 @@
+package JBTP.Engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table of search results, packed into a {@code long[]} and shared without locks.
+ * <p>
+ * The table is an array of buckets of two entries: the first is replaced only by a search at least as deep or
+ * from a newer search, the second always, so deep results survive while recent shallow ones still get a slot.
+ * An entry is two longs, the key XOR the data and the data itself. A reader recomputes the key from both and
+ * drops the entry if it doesn't match, so an entry torn by two threads writing at once is simply a miss.
+ * <p>
+ * Data layout: move (bits 0-17), bound (18-19), depth (20-27), search age (28-33), score (48-63, signed).
+ */
+public class TranspositionTable {
+
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;                 // Failed high: the score is at least this
+    public static final int UPPER_BOUND = 3;                 // Failed low: the score is at most this
+
+    private static final int LONGS_PER_BUCKET = 4;
+    private static final int BUCKET_BYTES = LONGS_PER_BUCKET * Long.BYTES;
+    private static final int AGE_MASK = 0x3F;
+
+    private final long[] table;
+    private final long bucketMask;
+    private final int sizeMegabytes;
+    private int age;
+
+    /**
+     * @param sizeMegabytes memory for the table, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(int sizeMegabytes) {
+        if (sizeMegabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB, got: " + sizeMegabytes);
+        }
+        long buckets = Long.highestOneBit((long) sizeMegabytes * 1024 * 1024 / BUCKET_BYTES);
+        if (buckets * LONGS_PER_BUCKET > Integer.MAX_VALUE - 8) {
+            buckets = Long.highestOneBit((Integer.MAX_VALUE - 8) / LONGS_PER_BUCKET);
+        }
+        this.table = new long[(int) (buckets * LONGS_PER_BUCKET)];
+        this.bucketMask = buckets - 1;
+        this.sizeMegabytes = sizeMegabytes;
+    }
+
+    public int getSizeMegabytes() {
+        return sizeMegabytes;
+    }
+
+    /**
+     * Mark the start of a new search, so entries of earlier ones give way in the depth-preferred slots
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        age = 0;
+    }
+
+    /**
+     * The data stored for the key, or 0 if there is none; read it with the static accessors
+     */
+    public long probe(long key) {
+        int index = (int) (key & bucketMask) * LONGS_PER_BUCKET;
+        for (int slot = index; slot < index + LONGS_PER_BUCKET; slot += 2) {
+            long data = table[slot + 1];
+            if ((table[slot] ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = (int) (key & bucketMask) * LONGS_PER_BUCKET;
+        long data = pack(move, score, depth, bound, age);
+        long existing = table[index + 1];
+        boolean sameKey = (table[index] ^ existing) == key;
+        if (sameKey || existing == 0 || depth >= depth(existing) || age(existing) != age) {
+            if (sameKey && move == 0) {
+                // Keep the best move of an earlier search of this position when this one has none
+                data = pack(move(existing), score, depth, bound, age);
+            }
+            table[index] = key ^ data;
+            table[index + 1] = data;
+        } else {
+            table[index + 2] = key ^ data;
+            table[index + 3] = data;
+        }
+    }
+
+    /**
+     * Permille of depth-preferred slots filled by the current search, as a measure of how full the table is
+     */
+    public int hashfull() {
+        int buckets = Math.min(1000, table.length / LONGS_PER_BUCKET);
+        int used = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            long data = table[bucket * LONGS_PER_BUCKET + 1];
+            if (data != 0 && age(data) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / buckets;
+    }
+
+    private static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0x3FFFFL) | (long) bound << 18 | (long) depth << 20 | (long) age << 28 | (long) score << 48;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0x3FFFF);
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 18 & 3);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 20 & 0xFF);
+    }
+
+    public static int score(long data) {
+        return (int) (data >> 48);
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> 28 & AGE_MASK);
+    }
+}
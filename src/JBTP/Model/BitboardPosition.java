@@ -0,0 +1,579 @@
+package JBTP.Model;
+
+import java.util.Arrays;
+
+/**
+ * Chess position as bitboards, with a move generator that writes int-encoded moves into a caller's buffer.
+ * <p>
+ * {@link Board} keeps one in step with its piece array and builds its legal move lists and check tests on
+ * it; it can also be set up from FEN, e.g. for perft. Squares are numbered as in {@link Bitboards}. Sides are
+ * {@link #WHITE} and {@link #BLACK} (not {@link PieceColor} values), piece codes are side * 6 + type.
+ * <p>
+ * A move packs its origin (bits 0-5), destination (bits 6-11), promotion type (bits 12-14, 0 for none) and
+ * the {@link #EN_PASSANT}, {@link #CASTLING} and {@link #DOUBLE_PUSH} flags.
+ * <p>
+ * A Zobrist key of the whole position, state included, is kept up to date by every piece placement, move and
+ * unmake, see {@link #getKey()}.
+ */
+public class BitboardPosition {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+    public static final int EMPTY = -1;
+
+    public static final int EN_PASSANT = 1 << 15;
+    public static final int CASTLING = 1 << 16;
+    public static final int DOUBLE_PUSH = 1 << 17;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    public static final int MAX_MOVES = 256;                 // More than any position has (218)
+    public static final int MAX_PLY = 64;
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "PNBRQKpnbrqk";
+
+    // Rights lost when a move starts or ends on the square: a king or rook moving, or a rook being taken
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[60] = ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[63] = ~WHITE_KINGSIDE;
+        CASTLING_MASK[56] = ~WHITE_QUEENSIDE;
+        CASTLING_MASK[4] = ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[7] = ~BLACK_KINGSIDE;
+        CASTLING_MASK[0] = ~BLACK_QUEENSIDE;
+    }
+
+    private final long[] pieces = new long[12];
+    private final long[] sides = new long[2];
+    private long occupied;
+    private final int[] mailbox = new int[64];
+
+    private int sideToMove = WHITE;
+    private int castlingRights;
+    private int enPassantSquare = -1;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long key;
+
+    // Keys of the game's positions before this one, oldest first, for repetitions reaching back past it
+    private long[] gameHistory = new long[0];
+
+    // Per ply made: captured piece + 1 (bits 0-3), castling rights (4-7), en passant square + 1 (8-14), halfmove clock (15+)
+    private final int[] history = new int[MAX_PLY];
+    private int ply;
+
+    private int[] perftMoves;
+
+    public BitboardPosition() {
+        Arrays.fill(mailbox, EMPTY);
+    }
+
+    /**
+     * Set up a position from Forsyth-Edwards Notation
+     *
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static BitboardPosition fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("FEN needs at least 4 fields: " + fen);
+        }
+        BitboardPosition position = new BitboardPosition();
+        int row = 0;
+        int col = 0;
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                row++;
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                int code = PIECE_LETTERS.indexOf(c);
+                if (code < 0 || row > 7 || col > 7) {
+                    throw new IllegalArgumentException("Bad piece placement in FEN: " + fen);
+                }
+                position.put(row * 8 + col++, code);
+            }
+        }
+        if (row != 7 || col != 8) {
+            throw new IllegalArgumentException("Bad piece placement in FEN: " + fen);
+        }
+
+        position.sideToMove = switch (fields[1]) {
+            case "w" -> WHITE;
+            case "b" -> BLACK;
+            default -> throw new IllegalArgumentException("Bad side to move in FEN: " + fen);
+        };
+        for (char c : fields[2].toCharArray()) {
+            position.castlingRights |= switch (c) {
+                case 'K' -> WHITE_KINGSIDE;
+                case 'Q' -> WHITE_QUEENSIDE;
+                case 'k' -> BLACK_KINGSIDE;
+                case 'q' -> BLACK_QUEENSIDE;
+                case '-' -> 0;
+                default -> throw new IllegalArgumentException("Bad castling rights in FEN: " + fen);
+            };
+        }
+        if (!fields[3].equals("-")) {
+            if (!fields[3].matches("[a-h][36]")) {
+                throw new IllegalArgumentException("Bad en passant square in FEN: " + fen);
+            }
+            position.enPassantSquare = ('8' - fields[3].charAt(1)) * 8 + (fields[3].charAt(0) - 'a');
+        }
+        if (fields.length >= 6) {
+            position.halfmoveClock = Integer.parseInt(fields[4]);
+            position.fullmoveNumber = Integer.parseInt(fields[5]);
+        }
+        position.key ^= Zobrist.state(position.sideToMove, position.castlingRights, position.enPassantSquare);
+        return position;
+    }
+
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int code = mailbox[row * 8 + col];
+                if (code == EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(PIECE_LETTERS.charAt(code));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row < 7) {
+                fen.append('/');
+            }
+        }
+        fen.append(sideToMove == WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        }
+        if ((castlingRights & WHITE_KINGSIDE) != 0) fen.append('K');
+        if ((castlingRights & WHITE_QUEENSIDE) != 0) fen.append('Q');
+        if ((castlingRights & BLACK_KINGSIDE) != 0) fen.append('k');
+        if ((castlingRights & BLACK_QUEENSIDE) != 0) fen.append('q');
+        fen.append(' ').append(enPassantSquare < 0 ? "-" : squareName(enPassantSquare));
+        return fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber).toString();
+    }
+
+    /**
+     * An independent copy of the pieces and state, e.g. for a search that mustn't touch the original
+     */
+    public BitboardPosition copy() {
+        BitboardPosition copy = new BitboardPosition();
+        System.arraycopy(pieces, 0, copy.pieces, 0, pieces.length);
+        System.arraycopy(sides, 0, copy.sides, 0, sides.length);
+        System.arraycopy(mailbox, 0, copy.mailbox, 0, mailbox.length);
+        copy.occupied = occupied;
+        copy.sideToMove = sideToMove;
+        copy.castlingRights = castlingRights;
+        copy.enPassantSquare = enPassantSquare;
+        copy.halfmoveClock = halfmoveClock;
+        copy.fullmoveNumber = fullmoveNumber;
+        copy.key = key;
+        copy.gameHistory = gameHistory;
+        return copy;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Plies since the last capture or pawn move, for the fifty-move rule
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Keys of the positions the game went through before this one, oldest first; empty unless set
+     */
+    public long[] getGameHistory() {
+        return gameHistory.clone();
+    }
+
+    /**
+     * Set the keys of the positions the game went through before this one, oldest first and ending with the
+     * position just before it, e.g. those since the last capture or pawn move. Moves made on this position
+     * don't add to them.
+     */
+    public void setGameHistory(long[] keys) {
+        this.gameHistory = keys.clone();
+    }
+
+    /**
+     * Zobrist key of the pieces, side to move, castling rights and en passant square; positions that only
+     * differ in move counters share a key
+     */
+    public long getKey() {
+        return key;
+    }
+
+    public int getPiece(int square) {
+        return mailbox[square];
+    }
+
+    public long getPieces(int side, int type) {
+        return pieces[side * 6 + type];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Side to move, castling rights, en passant square and halfmove clock, for a position whose pieces were
+     * placed with {@link #put}
+     */
+    void setState(int sideToMove, int castlingRights, int enPassantSquare, int halfmoveClock) {
+        key ^= Zobrist.state(this.sideToMove, this.castlingRights, this.enPassantSquare)
+                ^ Zobrist.state(sideToMove, castlingRights, enPassantSquare);
+        this.sideToMove = sideToMove;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    void put(int square, int code) {
+        long bit = 1L << square;
+        pieces[code] |= bit;
+        sides[code / 6] |= bit;
+        occupied |= bit;
+        mailbox[square] = code;
+        key ^= Zobrist.PIECES[code][square];
+    }
+
+    void remove(int square) {
+        int code = mailbox[square];
+        if (code == EMPTY) {
+            return;
+        }
+        long bit = ~(1L << square);
+        pieces[code] &= bit;
+        sides[code / 6] &= bit;
+        occupied &= bit;
+        mailbox[square] = EMPTY;
+        key ^= Zobrist.PIECES[code][square];
+    }
+
+    void clear() {
+        Arrays.fill(pieces, 0);
+        Arrays.fill(sides, 0);
+        Arrays.fill(mailbox, EMPTY);
+        occupied = 0;
+        key = Zobrist.state(sideToMove, castlingRights, enPassantSquare);
+    }
+
+    public boolean isSquareAttacked(int square, int bySide) {
+        int base = bySide * 6;
+        return (Bitboards.PAWN_ATTACKS[bySide ^ 1][square] & pieces[base + PAWN]) != 0
+                || (Bitboards.KNIGHT_ATTACKS[square] & pieces[base + KNIGHT]) != 0
+                || (Bitboards.KING_ATTACKS[square] & pieces[base + KING]) != 0
+                || (Bitboards.bishopAttacks(square, occupied) & (pieces[base + BISHOP] | pieces[base + QUEEN])) != 0
+                || (Bitboards.rookAttacks(square, occupied) & (pieces[base + ROOK] | pieces[base + QUEEN])) != 0;
+    }
+
+    /**
+     * Whether the side's king is attacked; false if the side has no king
+     */
+    public boolean isInCheck(int side) {
+        long king = pieces[side * 6 + KING];
+        return king != 0 && isSquareAttacked(Long.numberOfTrailingZeros(king), side ^ 1);
+    }
+
+    /**
+     * Write the legal moves of the side to move into the buffer
+     *
+     * @param moves  Buffer with room for {@link #MAX_MOVES} moves from the offset
+     * @param offset Where the first move goes
+     * @return the number of moves written
+     */
+    public int generateLegalMoves(int[] moves, int offset) {
+        return filterLegal(moves, offset, generatePseudoLegalMoves(moves, offset, false));
+    }
+
+    /**
+     * Write the legal captures and queen promotions of the side to move into the buffer, for a quiescence search
+     *
+     * @return the number of moves written
+     */
+    public int generateLegalCaptures(int[] moves, int offset) {
+        return filterLegal(moves, offset, generatePseudoLegalMoves(moves, offset, true));
+    }
+
+    // Keep the moves between offset and end that don't leave the own king attacked; returns how many
+    private int filterLegal(int[] moves, int offset, int end) {
+        int us = sideToMove;
+        int legal = offset;
+        for (int i = offset; i < end; i++) {
+            int move = moves[i];
+            makeMove(move);
+            if (!isInCheck(us)) {
+                moves[legal++] = move;
+            }
+            unmakeMove(move);
+        }
+        return legal - offset;
+    }
+
+    // Every move by the rules of piece movement, some of which may leave the own king attacked; returns the end offset.
+    // Captures only leaves out quiet moves, castling and underpromotions.
+    private int generatePseudoLegalMoves(int[] moves, int count, boolean capturesOnly) {
+        int us = sideToMove;
+        int them = us ^ 1;
+        long own = sides[us];
+        long enemy = sides[them];
+        long empty = ~occupied;
+        long targets = capturesOnly ? enemy : ~own;
+        int base = us * 6;
+
+        // Pawns
+        int forward = us == WHITE ? -8 : 8;
+        int startRow = us == WHITE ? 6 : 1;
+        int promotionRow = us == WHITE ? 0 : 7;
+        for (long pawns = pieces[base + PAWN]; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            int to = from + forward;
+            if ((empty & 1L << to) != 0) {
+                if (!capturesOnly) {
+                    count = addPawnMove(moves, count, from, to, promotionRow);
+                    int twoAhead = to + forward;
+                    if (from >>> 3 == startRow && (empty & 1L << twoAhead) != 0) {
+                        moves[count++] = from | twoAhead << 6 | DOUBLE_PUSH;
+                    }
+                } else if (to >>> 3 == promotionRow) {
+                    moves[count++] = from | to << 6 | QUEEN << 12;
+                }
+            }
+            long attacks = Bitboards.PAWN_ATTACKS[us][from];
+            for (long captures = attacks & enemy; captures != 0; captures &= captures - 1) {
+                int target = Long.numberOfTrailingZeros(captures);
+                if (capturesOnly && target >>> 3 == promotionRow) {
+                    moves[count++] = from | target << 6 | QUEEN << 12;
+                } else {
+                    count = addPawnMove(moves, count, from, target, promotionRow);
+                }
+            }
+            if (enPassantSquare >= 0 && (attacks & 1L << enPassantSquare) != 0) {
+                moves[count++] = from | enPassantSquare << 6 | EN_PASSANT;
+            }
+        }
+
+        // Pieces
+        for (long knights = pieces[base + KNIGHT]; knights != 0; knights &= knights - 1) {
+            int from = Long.numberOfTrailingZeros(knights);
+            count = addMoves(moves, count, from, Bitboards.KNIGHT_ATTACKS[from] & targets);
+        }
+        for (long bishops = pieces[base + BISHOP] | pieces[base + QUEEN]; bishops != 0; bishops &= bishops - 1) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            count = addMoves(moves, count, from, Bitboards.bishopAttacks(from, occupied) & targets);
+        }
+        for (long rooks = pieces[base + ROOK] | pieces[base + QUEEN]; rooks != 0; rooks &= rooks - 1) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            count = addMoves(moves, count, from, Bitboards.rookAttacks(from, occupied) & targets);
+        }
+        long king = pieces[base + KING];
+        if (king != 0) {
+            int from = Long.numberOfTrailingZeros(king);
+            count = addMoves(moves, count, from, Bitboards.KING_ATTACKS[from] & targets);
+        }
+        if (capturesOnly) {
+            return count;
+        }
+
+        // Castling: the path is empty and the king neither starts in, passes through nor lands on an attacked square
+        if (us == WHITE) {
+            if ((castlingRights & WHITE_KINGSIDE) != 0 && (occupied & 0x60L << 56) == 0
+                    && canCastleThrough(60, 61, 62, them)) {
+                moves[count++] = 60 | 62 << 6 | CASTLING;
+            }
+            if ((castlingRights & WHITE_QUEENSIDE) != 0 && (occupied & 0x0EL << 56) == 0
+                    && canCastleThrough(60, 59, 58, them)) {
+                moves[count++] = 60 | 58 << 6 | CASTLING;
+            }
+        } else {
+            if ((castlingRights & BLACK_KINGSIDE) != 0 && (occupied & 0x60L) == 0
+                    && canCastleThrough(4, 5, 6, them)) {
+                moves[count++] = 4 | 6 << 6 | CASTLING;
+            }
+            if ((castlingRights & BLACK_QUEENSIDE) != 0 && (occupied & 0x0EL) == 0
+                    && canCastleThrough(4, 3, 2, them)) {
+                moves[count++] = 4 | 2 << 6 | CASTLING;
+            }
+        }
+        return count;
+    }
+
+    private boolean canCastleThrough(int kingSquare, int passSquare, int toSquare, int them) {
+        return !isSquareAttacked(kingSquare, them) && !isSquareAttacked(passSquare, them) && !isSquareAttacked(toSquare, them);
+    }
+
+    private static int addPawnMove(int[] moves, int count, int from, int to, int promotionRow) {
+        int move = from | to << 6;
+        if (to >>> 3 == promotionRow) {
+            moves[count++] = move | QUEEN << 12;
+            moves[count++] = move | ROOK << 12;
+            moves[count++] = move | BISHOP << 12;
+            moves[count++] = move | KNIGHT << 12;
+        } else {
+            moves[count++] = move;
+        }
+        return count;
+    }
+
+    private static int addMoves(int[] moves, int count, int from, long targets) {
+        for (; targets != 0; targets &= targets - 1) {
+            moves[count++] = from | Long.numberOfTrailingZeros(targets) << 6;
+        }
+        return count;
+    }
+
+    /**
+     * Play a move produced by the generator for this position; {@link #unmakeMove} takes it back
+     */
+    public void makeMove(int move) {
+        int from = from(move);
+        int to = to(move);
+        int promotion = promotion(move);
+        int piece = mailbox[from];
+        int captured = mailbox[to];
+
+        history[ply++] = (captured + 1) | castlingRights << 4 | (enPassantSquare + 1) << 8 | halfmoveClock << 15;
+        key ^= Zobrist.state(sideToMove, castlingRights, enPassantSquare);
+
+        if (captured != EMPTY) {
+            remove(to);
+        }
+        if ((move & EN_PASSANT) != 0) {
+            remove(sideToMove == WHITE ? to + 8 : to - 8);
+        }
+        remove(from);
+        put(to, promotion != 0 ? sideToMove * 6 + promotion : piece);
+        if ((move & CASTLING) != 0) {
+            int rookFrom = to > from ? to + 1 : to - 2;
+            int rookTo = to > from ? to - 1 : to + 1;
+            int rook = mailbox[rookFrom];
+            remove(rookFrom);
+            put(rookTo, rook);
+        }
+
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        enPassantSquare = (move & DOUBLE_PUSH) != 0 ? (from + to) >>> 1 : -1;
+        halfmoveClock = piece % 6 == PAWN || captured != EMPTY ? 0 : halfmoveClock + 1;
+        if (sideToMove == BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove ^= 1;
+        key ^= Zobrist.state(sideToMove, castlingRights, enPassantSquare);
+    }
+
+    public void unmakeMove(int move) {
+        int from = from(move);
+        int to = to(move);
+        key ^= Zobrist.state(sideToMove, castlingRights, enPassantSquare);
+        sideToMove ^= 1;
+        if (sideToMove == BLACK) {
+            fullmoveNumber--;
+        }
+        int state = history[--ply];
+        int captured = (state & 0xF) - 1;
+        castlingRights = state >>> 4 & 0xF;
+        enPassantSquare = (state >>> 8 & 0x7F) - 1;
+        halfmoveClock = state >>> 15;
+        key ^= Zobrist.state(sideToMove, castlingRights, enPassantSquare);
+
+        int piece = promotion(move) != 0 ? sideToMove * 6 + PAWN : mailbox[to];
+        remove(to);
+        put(from, piece);
+        if (captured != EMPTY) {
+            put(to, captured);
+        }
+        if ((move & EN_PASSANT) != 0) {
+            put(sideToMove == WHITE ? to + 8 : to - 8, (sideToMove ^ 1) * 6 + PAWN);
+        }
+        if ((move & CASTLING) != 0) {
+            int rookFrom = to > from ? to + 1 : to - 2;
+            int rookTo = to > from ? to - 1 : to + 1;
+            int rook = mailbox[rookTo];
+            remove(rookTo);
+            put(rookFrom, rook);
+        }
+    }
+
+    /**
+     * Count the leaf nodes of the legal move tree to the given depth
+     */
+    public long perft(int depth) {
+        if (depth < 0 || depth > MAX_PLY) {
+            throw new IllegalArgumentException("Perft depth must be between 0 and " + MAX_PLY + ", got: " + depth);
+        }
+        if (perftMoves == null) {
+            perftMoves = new int[MAX_PLY * MAX_MOVES];
+        }
+        return depth == 0 ? 1 : perft(depth, 0);
+    }
+
+    private long perft(int depth, int offset) {
+        int count = generateLegalMoves(perftMoves, offset);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int move = perftMoves[i];
+            makeMove(move);
+            nodes += perft(depth - 1, offset + count);
+            unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return move >>> 6 & 0x3F;
+    }
+
+    /**
+     * Piece type a pawn promotes to, 0 if the move isn't a promotion
+     */
+    public static int promotion(int move) {
+        return move >>> 12 & 0x7;
+    }
+
+    /**
+     * The move in coordinate notation, e.g. "e2e4" or "a7a8q"
+     */
+    public static String toUci(int move) {
+        String uci = squareName(from(move)) + squareName(to(move));
+        return promotion(move) == 0 ? uci : uci + "pnbrqk".charAt(promotion(move));
+    }
+
+    public static String squareName(int square) {
+        return "" + (char) ('a' + (square & 7)) + (char) ('8' - (square >>> 3));
+    }
+}
@@ -0,0 +1,97 @@
+package JBTP.Model;
+
+/**
+ * Attack tables and bit helpers for {@link BitboardPosition}.
+ * <p>
+ * Squares follow the board array: square = row * 8 + column, so a8 is 0, h8 is 7 and h1 is 63, and white
+ * pawns move towards lower squares. Sliding attacks use precomputed rays: the ray in a direction is cut at
+ * its first blocker, found with a single bit scan (lowest bit for directions that increase the square,
+ * highest bit for the others), so no loop over squares is needed.
+ */
+public final class Bitboards {
+
+    public static final long RANK_8 = 0xFFL;                 // Row 0, black's back rank
+    public static final long RANK_1 = 0xFFL << 56;           // Row 7, white's back rank
+
+    // Directions as (column, row) steps; the first four increase the square number
+    private static final int[][] DIRECTIONS = {
+            {1, 0}, {0, 1}, {1, 1}, {-1, 1},                 // East, south, south-east, south-west
+            {-1, 0}, {0, -1}, {-1, -1}, {1, -1}              // West, north, north-west, north-east
+    };
+    private static final int[] ROOK_DIRECTIONS = {0, 1, 4, 5};
+    private static final int[] BISHOP_DIRECTIONS = {2, 3, 6, 7};
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    // Squares a pawn of the given side attacks from each square, indexed [side][square] with white = 0
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+
+    static {
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        for (int square = 0; square < 64; square++) {
+            int col = square & 7;
+            int row = square >>> 3;
+            for (int[] step : knightSteps) {
+                KNIGHT_ATTACKS[square] |= bit(col + step[0], row + step[1]);
+            }
+            for (int[] direction : DIRECTIONS) {
+                KING_ATTACKS[square] |= bit(col + direction[0], row + direction[1]);
+            }
+            PAWN_ATTACKS[0][square] = bit(col - 1, row - 1) | bit(col + 1, row - 1);
+            PAWN_ATTACKS[1][square] = bit(col - 1, row + 1) | bit(col + 1, row + 1);
+            for (int d = 0; d < 8; d++) {
+                for (int c = col + DIRECTIONS[d][0], r = row + DIRECTIONS[d][1]; onBoard(c, r);
+                     c += DIRECTIONS[d][0], r += DIRECTIONS[d][1]) {
+                    RAYS[d][square] |= bit(c, r);
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    public static int square(Position position) {
+        return position.getRow() * 8 + position.getColumn();
+    }
+
+    public static Position position(int square) {
+        return new Position(square & 7, square >>> 3);
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        long attacks = 0;
+        for (int direction : ROOK_DIRECTIONS) {
+            attacks |= rayAttacks(direction, square, occupied);
+        }
+        return attacks;
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        long attacks = 0;
+        for (int direction : BISHOP_DIRECTIONS) {
+            attacks |= rayAttacks(direction, square, occupied);
+        }
+        return attacks;
+    }
+
+    // The ray from the square up to and including its first blocker
+    private static long rayAttacks(int direction, int square, long occupied) {
+        long ray = RAYS[direction][square];
+        long blockers = ray & occupied;
+        if (blockers == 0) {
+            return ray;
+        }
+        int blocker = direction < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[direction][blocker];
+    }
+
+    private static boolean onBoard(int col, int row) {
+        return col >= 0 && col < 8 && row >= 0 && row < 8;
+    }
+
+    private static long bit(int col, int row) {
+        return onBoard(col, row) ? 1L << (row * 8 + col) : 0;
+    }
+}
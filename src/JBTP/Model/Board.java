@@ -3,6 +3,7 @@ package JBTP.Model;
 import JBTP.Model.pieces.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class Board {
@@ -13,6 +14,16 @@ public class Board {
     private King lightKing;
     private King darkKing;
 
+    // The same pieces as bitboards, kept in step by setSquare; move generation and check tests run on these
+    private final BitboardPosition bitboards = new BitboardPosition();
+    private final int[] moveBuffer = new int[BitboardPosition.MAX_MOVES];
+
+    // Plies since the last capture or pawn move, and the Zobrist key of the position before each move made,
+    // so a search can see the fifty-move rule and repetitions of positions from earlier in the game
+    private int halfmoveClock;
+    private long[] positionKeys = new long[64];
+    private int positionCount;
+
     public Board() {
         boardArray = new Piece[8][8];
         lightPieces = new ArrayList<>();
@@ -27,6 +38,9 @@ public class Board {
         this.lightPieces = new ArrayList<>();
         this.darkPieces = new ArrayList<>();
         this.moveSequence = new ArrayList<>(original.moveSequence);
+        this.halfmoveClock = original.halfmoveClock;
+        this.positionKeys = original.positionKeys.clone();
+        this.positionCount = original.positionCount;
 
         // Copy the light pieces
         for (Piece lightPiece : original.lightPieces) {
@@ -34,7 +48,7 @@ public class Board {
             lightPieces.add(copiedPiece);
             Position pos = copiedPiece.getPosition();
             if (pos != null) {
-                boardArray[pos.getRow()][pos.getColumn()] = copiedPiece;
+                setSquare(pos.getRow(), pos.getColumn(), copiedPiece);
             }
 
             // Track king reference
@@ -49,7 +63,7 @@ public class Board {
             darkPieces.add(copiedPiece);
             Position pos = copiedPiece.getPosition();
             if (pos != null) {
-                boardArray[pos.getRow()][pos.getColumn()] = copiedPiece;
+                setSquare(pos.getRow(), pos.getColumn(), copiedPiece);
             }
 
             // Track king reference
@@ -59,6 +73,65 @@ public class Board {
         }
     }
 
+    /**
+     * A board set up from Forsyth-Edwards Notation. The moved flags of kings and rooks follow the castling rights,
+     * and an en passant square becomes a last move of the pawn that skipped it. The side to move isn't kept by
+     * the board; read it from the FEN's second field.
+     *
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static Board fromFen(String fen) {
+        BitboardPosition position = BitboardPosition.fromFen(fen);
+        String castling = fen.trim().split("\\s+")[2];
+        Board board = new Board();
+        board.clearBoard();
+        board.lightKing = null;
+        board.darkKing = null;
+
+        for (int square = 0; square < 64; square++) {
+            int code = position.getPiece(square);
+            if (code == BitboardPosition.EMPTY) {
+                continue;
+            }
+            int color = code / 6 == BitboardPosition.WHITE ? PieceColor.WHITE : PieceColor.BLACK;
+            Position pos = Bitboards.position(square);
+            Piece piece = switch (code % 6) {
+                case BitboardPosition.PAWN -> new Pawn(color, pos);
+                case BitboardPosition.KNIGHT -> new Knight(color, pos);
+                case BitboardPosition.BISHOP -> new Bishop(color, pos);
+                case BitboardPosition.ROOK -> new Rook(color, pos);
+                case BitboardPosition.QUEEN -> new Queen(color, pos);
+                default -> new King(color, pos);
+            };
+            int homeRow = color == PieceColor.WHITE ? 7 : 0;
+            String kingside = color == PieceColor.WHITE ? "K" : "k";
+            String queenside = color == PieceColor.WHITE ? "Q" : "q";
+            if (piece instanceof Pawn) {
+                piece.setHasMoved(pos.getRow() != (color == PieceColor.WHITE ? 6 : 1));
+            } else if (piece instanceof King) {
+                piece.setHasMoved(!castling.contains(kingside) && !castling.contains(queenside));
+            } else if (piece instanceof Rook) {
+                boolean canCastle = pos.getRow() == homeRow
+                        && (pos.getColumn() == 7 && castling.contains(kingside) || pos.getColumn() == 0 && castling.contains(queenside));
+                piece.setHasMoved(!canCastle);
+            }
+            board.placePieceForTesting(piece);
+        }
+
+        String enPassant = fen.trim().split("\\s+")[3];
+        if (!enPassant.equals("-")) {
+            int column = enPassant.charAt(0) - 'a';
+            int skippedRow = '8' - enPassant.charAt(1);
+            int pawnRow = skippedRow == 2 ? 3 : 4;
+            Piece pawn = board.boardArray[pawnRow][column];
+            if (pawn instanceof Pawn) {
+                board.moveSequence.add(Move.createMove(new Position(column, 2 * skippedRow - pawnRow), new Position(column, pawnRow), pawn, null));
+            }
+        }
+        board.halfmoveClock = position.getHalfmoveClock();
+        return board;
+    }
+
     private void setupInitialPosition() {
         // Setup pawns
         for (int col = 0; col < 8; col++) {
@@ -97,7 +170,7 @@ public class Board {
 
     private void addPieceToBoard(Piece piece) {
         Position pos = piece.getPosition();
-        boardArray[pos.getRow()][pos.getColumn()] = piece;
+        setSquare(pos.getRow(), pos.getColumn(), piece);
 
         if (piece.getColor() == PieceColor.WHITE) {
             lightPieces.add(piece);
@@ -106,6 +179,27 @@ public class Board {
         }
     }
 
+    private void setSquare(int row, int column, Piece piece) {
+        boardArray[row][column] = piece;
+        int square = row * 8 + column;
+        bitboards.remove(square);
+        if (piece != null) {
+            bitboards.put(square, side(piece.getColor()) * 6 + pieceType(piece));
+        }
+    }
+
+    private static int pieceType(Piece piece) {
+        return switch (piece.getType()) {
+            case "Pawn" -> BitboardPosition.PAWN;
+            case "Knight" -> BitboardPosition.KNIGHT;
+            case "Bishop" -> BitboardPosition.BISHOP;
+            case "Rook" -> BitboardPosition.ROOK;
+            case "Queen" -> BitboardPosition.QUEEN;
+            case "King" -> BitboardPosition.KING;
+            default -> throw new IllegalArgumentException("Unknown piece type: " + piece.getType());
+        };
+    }
+
     public Piece getPiece(Position position) {
         if (!isPositionInBounds(position)) {
             return null;
@@ -128,112 +222,201 @@ public class Board {
     }
 
     public boolean executeMove(Move move) {
+        makeMove(move);
+        return true;
+    }
+
+    /**
+     * Play a move and remember what it changed, so {@link #unmakeMove(MoveUndo)} can take it back.
+     * Legality checks play a candidate on this board and take it back instead of copying the board.
+     */
+    public MoveUndo makeMove(Move move) {
         Position from = move.getOrigin();
         Position to = move.getDestination();
         Piece piece = move.getMovingPiece();
+        boolean pieceHadMoved = piece.hasMoved();
 
-        // Handle captured piece
-        if (move.getTakenPiece() != null) {
-            Piece capturedPiece = move.getTakenPiece();
-            if (capturedPiece.getColor() == PieceColor.WHITE) {
-                lightPieces.remove(capturedPiece);
-            } else {
-                darkPieces.remove(capturedPiece);
-            }
+        // Remember the position being left and restart the fifty-move count on a capture or pawn move
+        if (positionCount == positionKeys.length) {
+            positionKeys = Arrays.copyOf(positionKeys, positionCount * 2);
         }
+        positionKeys[positionCount++] = getZobristKey(piece.getColor());
+        int previousHalfmoveClock = halfmoveClock;
+        halfmoveClock = piece instanceof Pawn || move.getTakenPiece() != null || move.isEnPassantCapture() ? 0 : halfmoveClock + 1;
+
+        // Handle captured piece
+        Piece capturedPiece = move.getTakenPiece();
+        int capturedIndex = capturedPiece != null ? removePiece(capturedPiece) : -1;
 
         // Special handling for en passant
+        Piece enPassantPawn = null;
+        int enPassantIndex = -1;
         if (move.isEnPassantCapture()) {
-            Position capturedPawnPos = new Position(to.getColumn(), from.getRow());
-            Piece capturedPawn = getPiece(capturedPawnPos);
+            Piece capturedPawn = boardArray[from.getRow()][to.getColumn()];
 
             if (capturedPawn != null) {
-                if (capturedPawn.getColor() == PieceColor.WHITE) {
-                    lightPieces.remove(capturedPawn);
-                } else {
-                    darkPieces.remove(capturedPawn);
+                int index = removePiece(capturedPawn);
+                if (index >= 0) {
+                    enPassantPawn = capturedPawn;
+                    enPassantIndex = index;
                 }
-                boardArray[capturedPawnPos.getRow()][capturedPawnPos.getColumn()] = null;
+                setSquare(from.getRow(), to.getColumn(), null);
             }
         }
 
         // Special handling for castling moves
+        Piece rook = null;
+        Position rookOrigin = null;
+        boolean rookHadMoved = false;
         if (move.isCastlingMove()) {
             int row = from.getRow();
             // Determine if it's kingside or queenside castling
-            if (to.getColumn() > from.getColumn()) {  // Kingside
-                // Move the rook
-                Piece rook = getPiece(new Position(7, row));
-                Position rookNewPos = new Position(5, row);
-                boardArray[row][7] = null;  // Remove rook from old position
-                boardArray[row][5] = rook;  // Place rook in new position
-                rook.setPosition(rookNewPos);
-                rook.setHasMoved(true);
-            } else {  // Queenside
-                // Move the rook
-                Piece rook = getPiece(new Position(0, row));
-                Position rookNewPos = new Position(3, row);
-                boardArray[row][0] = null;  // Remove rook from old position
-                boardArray[row][3] = rook;  // Place rook in new position
-                rook.setPosition(rookNewPos);
-                rook.setHasMoved(true);
-            }
+            boolean kingside = to.getColumn() > from.getColumn();
+            int rookFromCol = kingside ? 7 : 0;
+            int rookToCol = kingside ? 5 : 3;
+
+            // Move the rook
+            rook = boardArray[row][rookFromCol];
+            rookOrigin = rook.getPosition();
+            rookHadMoved = rook.hasMoved();
+            setSquare(row, rookFromCol, null);  // Remove rook from old position
+            setSquare(row, rookToCol, rook);    // Place rook in new position
+            rook.setPosition(new Position(rookToCol, row));
+            rook.setHasMoved(true);
         }
 
         // Update the board array
-        boardArray[from.getRow()][from.getColumn()] = null;
-        boardArray[to.getRow()][to.getColumn()] = piece;
+        setSquare(from.getRow(), from.getColumn(), null);
+        setSquare(to.getRow(), to.getColumn(), piece);
 
         // Update the piece's position and move status
         piece.setPosition(to);
         piece.setHasMoved(true);
 
         // Handle pawn promotion
+        Queen queen = null;
+        int pawnIndex = -1;
         if (move.isPromotion()) {
-            // Replace pawn with a queen at the destination
-            Queen queen = new Queen(piece.getColor(), to);
-
-            // Remove the pawn
-            if (piece.getColor() == PieceColor.WHITE) {
-                lightPieces.remove(piece);
-                lightPieces.add(queen);
-            } else {
-                darkPieces.remove(piece);
-                darkPieces.add(queen);
+            // Replace pawn with a queen at the destination, in the pawn's place in the list
+            queen = new Queen(piece.getColor(), to);
+            List<Piece> pieces = piece.getColor() == PieceColor.WHITE ? lightPieces : darkPieces;
+            pawnIndex = pieces.indexOf(piece);
+            if (pawnIndex >= 0) {
+                pieces.set(pawnIndex, queen);
             }
 
             // Update the board array
-            boardArray[to.getRow()][to.getColumn()] = queen;
+            setSquare(to.getRow(), to.getColumn(), queen);
         }
 
         // Add to move history
         moveSequence.add(move);
-        return true;
+        return new MoveUndo(move, pieceHadMoved, capturedPiece, capturedIndex, enPassantPawn, enPassantIndex,
+                rook, rookOrigin, rookHadMoved, queen, pawnIndex, previousHalfmoveClock);
     }
 
-    public List<Move> getAllLegalMoves(int color) {
-        List<Move> legalMoves = new ArrayList<>();
-        List<Piece> pieces = color == PieceColor.WHITE ? lightPieces : darkPieces;
+    /**
+     * Take back the last move played, restoring the board exactly as it was before {@link #makeMove(Move)}
+     */
+    public void unmakeMove(MoveUndo undo) {
+        Move move = undo.move;
+        Position from = move.getOrigin();
+        Position to = move.getDestination();
+        Piece piece = move.getMovingPiece();
+
+        moveSequence.remove(moveSequence.size() - 1);
+        positionCount--;
+        halfmoveClock = undo.halfmoveClock;
+
+        // Put the pawn back in place of its queen
+        if (undo.promotedPiece != null && undo.promotedIndex >= 0) {
+            (piece.getColor() == PieceColor.WHITE ? lightPieces : darkPieces).set(undo.promotedIndex, piece);
+        }
+
+        setSquare(to.getRow(), to.getColumn(), null);
+        setSquare(from.getRow(), from.getColumn(), piece);
+        piece.setPosition(from);
+        piece.setHasMoved(undo.movingPieceHadMoved);
+
+        if (undo.castlingRook != null) {
+            Position rookPosition = undo.castlingRook.getPosition();
+            setSquare(rookPosition.getRow(), rookPosition.getColumn(), null);
+            setSquare(undo.castlingRookOrigin.getRow(), undo.castlingRookOrigin.getColumn(), undo.castlingRook);
+            undo.castlingRook.setPosition(undo.castlingRookOrigin);
+            undo.castlingRook.setHasMoved(undo.castlingRookHadMoved);
+        }
+
+        // Restore taken pieces in the reverse order of their removal, so the list indices line up
+        if (undo.enPassantPawn != null) {
+            restorePiece(undo.enPassantPawn, undo.enPassantIndex);
+        }
+        if (undo.capturedPiece != null) {
+            restorePiece(undo.capturedPiece, undo.capturedIndex);
+        }
+    }
+
+    // Take a piece off its color's list; returns where it was, -1 if it wasn't listed
+    private int removePiece(Piece piece) {
+        List<Piece> pieces = piece.getColor() == PieceColor.WHITE ? lightPieces : darkPieces;
+        int index = pieces.indexOf(piece);
+        if (index >= 0) {
+            pieces.remove(index);
+        }
+        return index;
+    }
 
-        for (Piece piece : pieces) {
-            legalMoves.addAll(piece.getLegalMoves(this));
+    private void restorePiece(Piece piece, int index) {
+        if (index >= 0) {
+            (piece.getColor() == PieceColor.WHITE ? lightPieces : darkPieces).add(index, piece);
+        }
+        Position pos = piece.getPosition();
+        setSquare(pos.getRow(), pos.getColumn(), piece);
+    }
+
+    public List<Move> getAllLegalMoves(int color) {
+        int count = generateLegalMoves(color);
+        List<Move> legalMoves = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            int move = moveBuffer[i];
+            int promotion = BitboardPosition.promotion(move);
+            if (promotion != 0 && promotion != BitboardPosition.QUEEN) {
+                continue; // Pawns here always promote to a queen
+            }
+            Position from = Bitboards.position(BitboardPosition.from(move));
+            Position to = Bitboards.position(BitboardPosition.to(move));
+            Piece piece = boardArray[from.getRow()][from.getColumn()];
+
+            if ((move & BitboardPosition.CASTLING) != 0) {
+                legalMoves.add(Move.createCastling(from, to, piece));
+            } else if ((move & BitboardPosition.EN_PASSANT) != 0) {
+                legalMoves.add(Move.createEnPassant(from, to, piece, boardArray[from.getRow()][to.getColumn()]));
+            } else if (promotion != 0) {
+                legalMoves.add(Move.createPromotion(from, to, piece, boardArray[to.getRow()][to.getColumn()]));
+            } else {
+                legalMoves.add(Move.createMove(from, to, piece, boardArray[to.getRow()][to.getColumn()]));
+            }
         }
 
         return legalMoves;
     }
 
+    /**
+     * Fill the move buffer with the side's legal moves as the bitboard generator encodes them
+     *
+     * @return the number of moves
+     */
+    private int generateLegalMoves(int color) {
+        bitboards.setState(side(color), castlingRights(), enPassantSquare(color), halfmoveClock);
+        return bitboards.generateLegalMoves(moveBuffer, 0);
+    }
+
     public boolean isKingInCheck(int color) {
         King king = color == PieceColor.WHITE ? lightKing : darkKing;
-        Position kingPosition = king.getPosition();
-        List<Piece> opponentPieces = color == PieceColor.WHITE ? darkPieces : lightPieces;
-
-        for (Piece piece : opponentPieces) {
-            List<Position> attackPositions = piece.getAttackPositions(this);
-            if (attackPositions.contains(kingPosition)) {
-                return true;
-            }
+        if (king == null) {
+            return false;
         }
-        return false;
+        return bitboards.isSquareAttacked(Bitboards.square(king.getPosition()), side(PieceColor.opponent(color)));
     }
 
     public boolean isCheckmate(int color) {
@@ -241,8 +424,7 @@ public class Board {
             return false;
         }
 
-        List<Move> legalMoves = getAllLegalMoves(color);
-        return legalMoves.isEmpty();
+        return generateLegalMoves(color) == 0;
     }
 
     public boolean isStalemate(int color) {
@@ -250,8 +432,81 @@ public class Board {
             return false;
         }
 
-        List<Move> legalMoves = getAllLegalMoves(color);
-        return legalMoves.isEmpty();
+        return generateLegalMoves(color) == 0;
+    }
+
+    /**
+     * The position as bitboards, e.g. for perft. Its side to move and castling and en passant state are only
+     * set while this board generates moves; use it read-only.
+     */
+    public BitboardPosition getBitboards() {
+        return bitboards;
+    }
+
+    /**
+     * A copy of the position with the given side to move and the castling and en passant state this board
+     * allows, for a search to play moves on without touching the board. It carries the halfmove clock and
+     * the keys of the positions played since the last capture or pawn move, so the search scores fifty-move
+     * draws and repetitions of earlier positions of the game.
+     */
+    public BitboardPosition createPosition(int color) {
+        bitboards.setState(side(color), castlingRights(), enPassantSquare(color), halfmoveClock);
+        BitboardPosition position = bitboards.copy();
+        int reversible = Math.min(halfmoveClock, positionCount);
+        position.setGameHistory(Arrays.copyOfRange(positionKeys, positionCount - reversible, positionCount));
+        return position;
+    }
+
+    /**
+     * Plies since the last capture or pawn move, for the fifty-move rule
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Zobrist key of the position with the given side to move. The piece part is updated incrementally as
+     * moves are made and unmade; equal keys mean the same position for repetition and transposition purposes.
+     */
+    public long getZobristKey(int color) {
+        bitboards.setState(side(color), castlingRights(), enPassantSquare(color), halfmoveClock);
+        return bitboards.getKey();
+    }
+
+    private static int side(int color) {
+        return color == PieceColor.WHITE ? BitboardPosition.WHITE : BitboardPosition.BLACK;
+    }
+
+    // A right stays while the king and that rook are unmoved on their starting squares
+    private int castlingRights() {
+        int rights = 0;
+        if (canStillCastle(PieceColor.WHITE, 7)) rights |= BitboardPosition.WHITE_KINGSIDE;
+        if (canStillCastle(PieceColor.WHITE, 0)) rights |= BitboardPosition.WHITE_QUEENSIDE;
+        if (canStillCastle(PieceColor.BLACK, 7)) rights |= BitboardPosition.BLACK_KINGSIDE;
+        if (canStillCastle(PieceColor.BLACK, 0)) rights |= BitboardPosition.BLACK_QUEENSIDE;
+        return rights;
+    }
+
+    private boolean canStillCastle(int color, int rookColumn) {
+        int row = color == PieceColor.WHITE ? 7 : 0;
+        Piece king = boardArray[row][4];
+        Piece rook = boardArray[row][rookColumn];
+        return king instanceof King && king.getColor() == color && !king.hasMoved()
+                && rook instanceof Rook && rook.getColor() == color && !rook.hasMoved();
+    }
+
+    // The square an enemy pawn skipped with the last move, -1 if the last move wasn't such a double step
+    private int enPassantSquare(int color) {
+        Move lastMove = getLastMove();
+        if (lastMove == null || !(lastMove.getMovingPiece() instanceof Pawn) || lastMove.getMovingPiece().getColor() == color) {
+            return -1;
+        }
+        Position from = lastMove.getOrigin();
+        Position to = lastMove.getDestination();
+        if (Math.abs(from.getRow() - to.getRow()) != 2 || getPiece(to) != lastMove.getMovingPiece()) {
+            return -1;
+        }
+        return (from.getRow() + to.getRow()) / 2 * 8 + to.getColumn();
     }
 
     public Move getLastMove() {
@@ -291,18 +546,20 @@ public class Board {
     public void clearBoard() {
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
-                boardArray[row][col] = null;
+                setSquare(row, col, null);
             }
         }
         lightPieces.clear();
         darkPieces.clear();
         moveSequence.clear();
+        halfmoveClock = 0;
+        positionCount = 0;
     }
 
     // Place a piece on the board for testing
     public void placePieceForTesting(Piece piece) {
         Position pos = piece.getPosition();
-        boardArray[pos.getRow()][pos.getColumn()] = piece;
+        setSquare(pos.getRow(), pos.getColumn(), piece);
 
         if (piece.getColor() == PieceColor.WHITE) {
             lightPieces.add(piece);
@@ -1,68 +1,212 @@
 package JBTP.Model;
 
+import java.util.function.LongSupplier;
+
 /**
- * Represents a chess clock with hours, minutes, and seconds.
- * Handles time tracking for each player in a chess game.
+ * Represents a chess clock for one player, with an optional increment or delay per move.
+ * Time is measured with a monotonic nanosecond source and charged when the player's turn ends,
+ * so the clock is exact to the move and doesn't drift however often it is displayed.
  */
 public class Clock {
-    private int hh; // hours
-    private int mm; // minutes
-    private int ss; // seconds
 
     /**
-     * Creates a new chess clock with the specified time.
+     * How the clock gives time back per move.
+     */
+    public enum Mode {
+        SUDDEN_DEATH("No increment"),
+        FISCHER("Fischer increment"),   // The bonus is added after every move
+        BRONSTEIN("Bronstein delay"),   // The time used for a move is given back, up to the bonus
+        SIMPLE_DELAY("Simple delay");   // The clock only starts counting down once the bonus has passed
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final long initialNanos;
+    private final Mode mode;
+    private final long bonusNanos;
+    private final LongSupplier timeSource;
+
+    private long remainingNanos;    // At the start of the current turn
+    private long turnUsedNanos;     // Used in this turn before the current running stretch (pauses split a turn)
+    private long runningSinceNanos;
+    private boolean running;
+
+    /**
+     * Creates a new chess clock with the specified time and no increment.
      *
      * @param hh Initial hours
      * @param mm Initial minutes
      * @param ss Initial seconds
      */
     public Clock(int hh, int mm, int ss) {
-        this.hh = Math.max(0, hh);
-        this.mm = Math.max(0, Math.min(59, mm));
-        this.ss = Math.max(0, Math.min(59, ss));
+        this(hh, mm, ss, Mode.SUDDEN_DEATH, 0);
     }
 
     /**
-     * Checks if the clock has run out of time.
+     * Creates a new chess clock with the specified time and per-move bonus.
      *
-     * @return True if the clock is at 0:00:00
+     * @param hh Initial hours
+     * @param mm Initial minutes
+     * @param ss Initial seconds
+     * @param mode How the bonus is given
+     * @param bonusSeconds Increment or delay per move in seconds
      */
-    public boolean outOfTime() {
-        return (hh == 0 && mm == 0 && ss == 0);
+    public Clock(int hh, int mm, int ss, Mode mode, int bonusSeconds) {
+        this(toMillis(hh, mm, ss), mode, Math.max(0, bonusSeconds) * 1000L, System::nanoTime);
+    }
+
+    /**
+     * Creates a new chess clock reading time from the given nanosecond source, e.g. a fake one in tests.
+     *
+     * @param initialMillis Initial time in milliseconds
+     * @param mode How the bonus is given
+     * @param bonusMillis Increment or delay per move in milliseconds
+     * @param timeSource Monotonic time in nanoseconds, like System.nanoTime()
+     */
+    public Clock(long initialMillis, Mode mode, long bonusMillis, LongSupplier timeSource) {
+        this.initialNanos = Math.max(0, initialMillis) * NANOS_PER_MILLI;
+        this.mode = mode;
+        this.bonusNanos = mode == Mode.SUDDEN_DEATH ? 0 : Math.max(0, bonusMillis) * NANOS_PER_MILLI;
+        this.timeSource = timeSource;
+        this.remainingNanos = initialNanos;
+    }
+
+    private static long toMillis(int hh, int mm, int ss) {
+        return (Math.max(0, hh) * 3600L + Math.max(0, Math.min(59, mm)) * 60L + Math.max(0, Math.min(59, ss))) * 1000L;
     }
 
     /**
-     * Decrements the clock by one second.
-     * Maintains proper time format with cascading decrements.
+     * Starts or resumes counting down the player's turn.
      */
-    public void decr() {
-        if (outOfTime()) {
-            return;
+    public synchronized void start() {
+        if (!running) {
+            running = true;
+            runningSinceNanos = timeSource.getAsLong();
         }
+    }
 
-        if (this.mm == 0 && this.ss == 0) {
-            this.ss = 59;
-            this.mm = 59;
-            this.hh--;
-        } else if (this.ss == 0) {
-            this.ss = 59;
-            this.mm--;
-        } else {
-            this.ss--;
+    /**
+     * Stops counting down without ending the turn, e.g. while the game is paused.
+     */
+    public synchronized void pause() {
+        if (running) {
+            turnUsedNanos += timeSource.getAsLong() - runningSinceNanos;
+            running = false;
         }
     }
 
+    /**
+     * Ends the player's turn when their move is made: charges the time it took and gives the bonus.
+     *
+     * @return True if the move was made in time, false if the clock ran out first
+     */
+    public synchronized boolean endTurn() {
+        pause();
+        long used = turnUsedNanos;
+        turnUsedNanos = 0;
+        remainingNanos -= charged(used);
+        if (remainingNanos <= 0) {
+            remainingNanos = 0;
+            return false;
+        }
+        if (mode == Mode.FISCHER) {
+            remainingNanos += bonusNanos;
+        } else if (mode == Mode.BRONSTEIN) {
+            remainingNanos += Math.min(used, bonusNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Sets the clock back to its initial time, stopped.
+     */
+    public synchronized void reset() {
+        remainingNanos = initialNanos;
+        turnUsedNanos = 0;
+        running = false;
+    }
+
+    // Time taken off the clock for a turn that used this long; a simple delay is free
+    private long charged(long usedNanos) {
+        return mode == Mode.SIMPLE_DELAY ? Math.max(0, usedNanos - bonusNanos) : usedNanos;
+    }
+
+    /**
+     * Gets the remaining time in nanoseconds, counting the running turn so far.
+     *
+     * @return Nanoseconds remaining, never negative
+     */
+    public synchronized long getRemainingNanos() {
+        long used = turnUsedNanos + (running ? timeSource.getAsLong() - runningSinceNanos : 0);
+        return Math.max(0, remainingNanos - charged(used));
+    }
+
+    /**
+     * Gets the remaining time in milliseconds, e.g. for the engine to budget its thinking time.
+     *
+     * @return Milliseconds remaining
+     */
+    public long getRemainingMillis() {
+        return getRemainingNanos() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Gets the increment or delay per move in milliseconds, 0 without one.
+     *
+     * @return Milliseconds of bonus per move
+     */
+    public long getBonusMillis() {
+        return bonusNanos / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Gets how the clock gives time back per move.
+     *
+     * @return The clock mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Checks whether the clock is counting down.
+     *
+     * @return True while the player's turn is being timed
+     */
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Checks if the clock has run out of time.
+     *
+     * @return True if no time remains
+     */
+    public boolean outOfTime() {
+        return getRemainingNanos() == 0;
+    }
+
     /**
      * Gets the current time as a formatted string.
+     * Seconds are rounded up, so it reads 00:00:00 only once time is out.
      *
      * @return Time in "HH:MM:SS" format
      */
     public String getTime() {
-        String fHrs = String.format("%02d", this.hh);
-        String fMins = String.format("%02d", this.mm);
-        String fSecs = String.format("%02d", this.ss);
-        String fTime = fHrs + ":" + fMins + ":" + fSecs;
-        return fTime;
+        long totalSeconds = displaySeconds();
+        return String.format("%02d:%02d:%02d", totalSeconds / 3600, totalSeconds / 60 % 60, totalSeconds % 60);
     }
 
     /**
@@ -71,7 +215,7 @@ public class Clock {
      * @return Hours remaining
      */
     public int getHours() {
-        return hh;
+        return (int) (displaySeconds() / 3600);
     }
 
     /**
@@ -80,7 +224,7 @@ public class Clock {
      * @return Minutes remaining
      */
     public int getMinutes() {
-        return mm;
+        return (int) (displaySeconds() / 60 % 60);
     }
 
     /**
@@ -89,38 +233,19 @@ public class Clock {
      * @return Seconds remaining
      */
     public int getSeconds() {
-        return ss;
+        return (int) (displaySeconds() % 60);
     }
 
-    /**
-     * Adds time to the clock (useful for increment/delay time controls).
-     *
-     * @param additionalSeconds Seconds to add
-     */
-    public void addTime(int additionalSeconds) {
-        int totalSeconds = toTotalSeconds() + additionalSeconds;
-        fromTotalSeconds(totalSeconds);
-    }
-
-    /**
-     * Converts the time to total seconds.
-     *
-     * @return Total seconds represented by the current time
-     */
-    private int toTotalSeconds() {
-        return hh * 3600 + mm * 60 + ss;
+    private long displaySeconds() {
+        return (getRemainingNanos() + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
     }
 
     /**
-     * Sets the time from total seconds.
+     * Adds time to the clock.
      *
-     * @param totalSeconds Total seconds to convert to HH:MM:SS
+     * @param additionalSeconds Seconds to add
      */
-    private void fromTotalSeconds(int totalSeconds) {
-        totalSeconds = Math.max(0, totalSeconds);
-        hh = totalSeconds / 3600;
-        totalSeconds %= 3600;
-        mm = totalSeconds / 60;
-        ss = totalSeconds % 60;
+    public synchronized void addTime(int additionalSeconds) {
+        remainingNanos = Math.max(0, remainingNanos + additionalSeconds * NANOS_PER_SECOND);
     }
-}
\ No newline at end of file
+}
@@ -16,6 +16,7 @@ public class GameState {
     private Clock whiteTimer;
     private Clock blackTimer;
     private boolean timedGame;
+    private boolean clockRunning;
 
     /**
      * Constructs a new chess game state with default settings.
@@ -41,10 +42,21 @@ public class GameState {
      * @param seconds Seconds for each player's clock
      */
     public GameState(int hours, int minutes, int seconds) {
+        this(hours, minutes, seconds, Clock.Mode.SUDDEN_DEATH, 0);
+    }
+
+    /**
+     * Constructs a chess game state with custom time controls and a per-move increment or delay.
+     *
+     * @param hours Hours for each player's clock
+     * @param minutes Minutes for each player's clock
+     * @param seconds Seconds for each player's clock
+     * @param mode How the clocks give time back per move
+     * @param bonusSeconds Increment or delay per move in seconds
+     */
+    public GameState(int hours, int minutes, int seconds, Clock.Mode mode, int bonusSeconds) {
         this();
-        this.whiteTimer = new Clock(hours, minutes, seconds);
-        this.blackTimer = new Clock(hours, minutes, seconds);
-        this.timedGame = true;
+        setTimeControl(hours, minutes, seconds, mode, bonusSeconds);
     }
 
     /**
@@ -119,34 +131,70 @@ public class GameState {
      * @param seconds Seconds for each player's clock
      */
     public void setTimeControl(int hours, int minutes, int seconds) {
-        this.whiteTimer = new Clock(hours, minutes, seconds);
-        this.blackTimer = new Clock(hours, minutes, seconds);
+        setTimeControl(hours, minutes, seconds, Clock.Mode.SUDDEN_DEATH, 0);
+    }
+
+    /**
+     * Sets custom time controls with a per-move increment or delay for both players.
+     *
+     * @param hours Hours for each player's clock
+     * @param minutes Minutes for each player's clock
+     * @param seconds Seconds for each player's clock
+     * @param mode How the clocks give time back per move
+     * @param bonusSeconds Increment or delay per move in seconds
+     */
+    public void setTimeControl(int hours, int minutes, int seconds, Clock.Mode mode, int bonusSeconds) {
+        this.whiteTimer = new Clock(hours, minutes, seconds, mode, bonusSeconds);
+        this.blackTimer = new Clock(hours, minutes, seconds, mode, bonusSeconds);
         this.timedGame = true;
+        this.clockRunning = false;
+    }
+
+    /**
+     * Starts or resumes the current player's clock; from then on each move hands the turn to the other clock.
+     */
+    public void startClock() {
+        clockRunning = true;
+        if (timedGame && !gameOver) {
+            getClock(currentPlayerColor).start();
+        }
+    }
+
+    /**
+     * Pauses both clocks until {@link #startClock()} is called again.
+     */
+    public void pauseClock() {
+        clockRunning = false;
+        whiteTimer.pause();
+        blackTimer.pause();
     }
 
     /**
-     * Decrements the clock of the current player.
-     * Should be called regularly when the game is in progress.
+     * Checks whether the current player's clock has run out, ending the game if so.
+     * The clocks keep time themselves, so this only needs calling as often as the flag should be noticed.
      *
      * @return True if the player has run out of time
      */
-    public boolean decrementCurrentPlayerClock() {
+    public boolean checkCurrentPlayerTime() {
         if (!timedGame || gameOver) {
             return false;
         }
 
-        Clock activeClock = (currentPlayerColor == PieceColor.WHITE) ? whiteTimer : blackTimer;
-        activeClock.decr();
-
-        if (activeClock.outOfTime()) {
-            gameOver = true;
-            int winner = PieceColor.opponent(currentPlayerColor);
-            result = PieceColor.colorName(winner) + " wins on time";
+        if (getClock(currentPlayerColor).outOfTime()) {
+            loseOnTime();
             return true;
         }
         return false;
     }
 
+    // The current player's flag has fallen
+    private void loseOnTime() {
+        gameOver = true;
+        pauseClock();
+        int winner = PieceColor.opponent(currentPlayerColor);
+        result = PieceColor.colorName(winner) + " wins on time";
+    }
+
     /**
      * Attempts to make a move on the board.
      *
@@ -165,6 +213,13 @@ public class GameState {
             return false;
         }
 
+        // Charge the move's time to the mover; a move made after the flag fell still loses
+        boolean inTime = !timedGame || getClock(currentPlayerColor).endTurn();
+        if (!inTime) {
+            loseOnTime();
+            return true;
+        }
+
         // Update move counters
         if (move.getMovingPiece().getType().equals("Pawn") || move.getTakenPiece() != null) {
             nonCaptureMoveCounter = 0;
@@ -183,6 +238,12 @@ public class GameState {
         // Check game end conditions
         checkEndConditions();
 
+        if (gameOver) {
+            pauseClock();
+        } else if (timedGame && clockRunning) {
+            getClock(currentPlayerColor).start();
+        }
+
         return true;
     }
 
@@ -257,17 +318,10 @@ public class GameState {
         this.nonCaptureMoveCounter = 0;
         this.moveNumber = 1;
 
-        // Reset timers if it's a timed game
-        if (timedGame) {
-            // Get current time settings
-            int hours = whiteTimer.getHours();
-            int minutes = whiteTimer.getMinutes();
-            int seconds = whiteTimer.getSeconds();
-
-            // Create new timers with the same settings
-            this.whiteTimer = new Clock(hours, minutes, seconds);
-            this.blackTimer = new Clock(hours, minutes, seconds);
-        }
+        // Put both clocks back to the time control's starting time
+        this.clockRunning = false;
+        whiteTimer.reset();
+        blackTimer.reset();
     }
 
     /**
@@ -275,6 +329,7 @@ public class GameState {
      */
     public void surrender() {
         gameOver = true;
+        pauseClock();
         int winner = PieceColor.opponent(currentPlayerColor);
         result = PieceColor.colorName(winner) + " wins by resignation";
     }
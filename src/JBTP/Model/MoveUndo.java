@@ -0,0 +1,52 @@
+package JBTP.Model;
+
+/**
+ * Everything {@link Board#unmakeMove(MoveUndo)} needs to take back a move made with
+ * {@link Board#makeMove(Move)}: the pieces the move removed or replaced, where they stood in the
+ * piece lists, the moved-flags it overwrote and the halfmove clock
+ */
+public final class MoveUndo {
+    final Move move;
+    final boolean movingPieceHadMoved;
+
+    // The piece taken by an ordinary capture and its index in its color's list, -1 if none was removed
+    final Piece capturedPiece;
+    final int capturedIndex;
+
+    // The pawn taken en passant when it wasn't already removed as the captured piece
+    final Piece enPassantPawn;
+    final int enPassantIndex;
+
+    // The rook moved by castling, null otherwise
+    final Piece castlingRook;
+    final Position castlingRookOrigin;
+    final boolean castlingRookHadMoved;
+
+    // The queen a promoting pawn was replaced with, null otherwise
+    final Piece promotedPiece;
+    final int promotedIndex;
+
+    // The board's halfmove clock before the move
+    final int halfmoveClock;
+
+    MoveUndo(Move move, boolean movingPieceHadMoved, Piece capturedPiece, int capturedIndex,
+             Piece enPassantPawn, int enPassantIndex, Piece castlingRook, Position castlingRookOrigin,
+             boolean castlingRookHadMoved, Piece promotedPiece, int promotedIndex, int halfmoveClock) {
+        this.move = move;
+        this.movingPieceHadMoved = movingPieceHadMoved;
+        this.capturedPiece = capturedPiece;
+        this.capturedIndex = capturedIndex;
+        this.enPassantPawn = enPassantPawn;
+        this.enPassantIndex = enPassantIndex;
+        this.castlingRook = castlingRook;
+        this.castlingRookOrigin = castlingRookOrigin;
+        this.castlingRookHadMoved = castlingRookHadMoved;
+        this.promotedPiece = promotedPiece;
+        this.promotedIndex = promotedIndex;
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public Move getMove() {
+        return move;
+    }
+}
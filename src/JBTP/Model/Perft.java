@@ -0,0 +1,166 @@
+package JBTP.Model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Perft driver: counts the leaf nodes of the legal move tree and compares them with the published counts
+ * of the standard test positions, so a change to move generation can be shown correct and timed.
+ * <p>
+ * Without arguments it runs the reference suite and prints nodes per second; with a depth (and optionally a
+ * FEN, default the start position) it prints the divide, the node count below each root move, which is how
+ * a wrong count is tracked down to the move that is missing or extra:
+ * <pre>
+ *  java -cp jbtp-engine.jar JBTP.Model.Perft
+ *  java -cp jbtp-engine.jar JBTP.Model.Perft 4 "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"
+ * </pre>
+ */
+public final class Perft {
+
+    /**
+     * A test position and its node counts from depth 1 on
+     */
+    public static final class Reference {
+        private final String name;
+        private final String fen;
+        private final long[] nodes;
+
+        Reference(String name, String fen, long... nodes) {
+            this.name = name;
+            this.fen = fen;
+            this.nodes = nodes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getFen() {
+            return fen;
+        }
+
+        public int getMaxDepth() {
+            return nodes.length;
+        }
+
+        public long getNodes(int depth) {
+            return nodes[depth - 1];
+        }
+    }
+
+    // Counts from the Chess Programming Wiki's perft results page
+    public static final List<Reference> REFERENCES = List.of(
+            new Reference("Start position", BitboardPosition.START_FEN,
+                    20, 400, 8_902, 197_281, 4_865_609, 119_060_324),
+            new Reference("Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2_039, 97_862, 4_085_603, 193_690_690),
+            new Reference("Position 3 (en passant pins)", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2_812, 43_238, 674_624, 11_030_083),
+            new Reference("Position 4 (promotions, castling)", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9_467, 422_333, 15_833_292),
+            new Reference("Position 4 mirrored", "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1",
+                    6, 264, 9_467, 422_333, 15_833_292),
+            new Reference("Position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1_486, 62_379, 2_103_487, 89_941_194),
+            new Reference("Position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2_079, 89_890, 3_894_594, 164_075_551)
+    );
+
+    // The suite stops at the deepest count below this, a few seconds in all
+    private static final long DEFAULT_NODE_LIMIT = 20_000_000;
+
+    private Perft() {
+    }
+
+    /**
+     * Node count below each legal root move, keyed by the move in coordinate notation
+     */
+    public static Map<String, Long> divide(BitboardPosition position, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide needs a depth of at least 1, got: " + depth);
+        }
+        int[] moves = new int[BitboardPosition.MAX_MOVES];
+        int count = position.generateLegalMoves(moves, 0);
+        Map<String, Long> divide = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            divide.put(BitboardPosition.toUci(moves[i]), position.perft(depth - 1));
+            position.unmakeMove(moves[i]);
+        }
+        return divide;
+    }
+
+    /**
+     * Perft through the public {@link Board} API: {@link Board#getAllLegalMoves} with make and unmake of
+     * {@link Move} objects. Slower than {@link BitboardPosition#perft}, but checks the board's own bookkeeping
+     * of castling and en passant. Promotions count once, as the board only promotes to a queen.
+     */
+    public static long perft(Board board, int color, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        List<Move> moves = board.getAllLegalMoves(color);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (Move move : moves) {
+            MoveUndo undo = board.makeMove(move);
+            nodes += perft(board, PieceColor.opponent(color), depth - 1);
+            board.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.exit(runSuite(DEFAULT_NODE_LIMIT) ? 0 : 1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        BitboardPosition position = BitboardPosition.fromFen(args.length > 1 ? args[1] : BitboardPosition.START_FEN);
+
+        long start = System.nanoTime();
+        Map<String, Long> divide = divide(position, depth);
+        long nanos = System.nanoTime() - start;
+
+        long total = 0;
+        for (Map.Entry<String, Long> entry : divide.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.println();
+        System.out.println("Moves: " + divide.size());
+        System.out.println("Nodes: " + total);
+        System.out.printf("Time: %.3f s, %,.0f nodes/s%n", nanos / 1e9, total / (nanos / 1e9));
+    }
+
+    /**
+     * Run every reference position up to the deepest count within the node limit and print a line per depth
+     *
+     * @return true if every count matched
+     */
+    public static boolean runSuite(long nodeLimit) {
+        boolean allMatch = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (Reference reference : REFERENCES) {
+            BitboardPosition position = BitboardPosition.fromFen(reference.getFen());
+            for (int depth = 1; depth <= reference.getMaxDepth() && reference.getNodes(depth) <= nodeLimit; depth++) {
+                long start = System.nanoTime();
+                long nodes = position.perft(depth);
+                long nanos = System.nanoTime() - start;
+                boolean match = nodes == reference.getNodes(depth);
+                allMatch &= match;
+                totalNodes += nodes;
+                totalNanos += nanos;
+                System.out.printf("%-34s depth %d  %,14d nodes  %8.3f s  %,13.0f nodes/s  %s%n", reference.getName(), depth,
+                        nodes, nanos / 1e9, nodes / Math.max(nanos / 1e9, 1e-9),
+                        match ? "OK" : "FAILED, expected " + reference.getNodes(depth));
+            }
+        }
+        System.out.printf("%nTotal: %,d nodes in %.3f s, %,.0f nodes/s, %s%n", totalNodes, totalNanos / 1e9,
+                totalNodes / Math.max(totalNanos / 1e9, 1e-9), allMatch ? "all counts match" : "COUNTS DIFFER");
+        return allMatch;
+    }
+}
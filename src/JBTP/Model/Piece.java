@@ -79,25 +79,13 @@ public abstract class Piece {
      * Check if the move would leave the king in check
      */
     protected boolean wouldMakeOwnKingVulnerable(Board board, Move move) {
-        // Create a temporary board to simulate the move
-        Board tempBoard = new Board(board);
-
-        // Find the same piece on the copied board
-        Piece tempPiece = tempBoard.getPiece(move.getOrigin());
-
-        // Create a move for the temporary board
-        Move tempMove = Move.createMove(
-                move.getOrigin(),
-                move.getDestination(),
-                tempPiece,
-                tempBoard.getPiece(move.getDestination())
-        );
-
-        // Execute the move on the temporary board
-        tempBoard.executeMove(tempMove);
-
-        // Check if the king is in check after the move
-        return tempBoard.isKingInCheck(this.getColor());
+        // Play the move on the board itself and take it back afterwards
+        MoveUndo undo = board.makeMove(move);
+        try {
+            return board.isKingInCheck(this.getColor());
+        } finally {
+            board.unmakeMove(undo);
+        }
     }
 
     /**
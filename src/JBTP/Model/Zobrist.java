@@ -0,0 +1,54 @@
+package JBTP.Model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing: a position's key is the XOR of a key per piece on its square plus keys for
+ * the side to move, the castling rights and the en passant file, so a move updates it with a few XORs.
+ * The seed is fixed, so keys are the same in every run.
+ */
+final class Zobrist {
+
+    static final long[][] PIECES = new long[12][64];
+    static final long BLACK_TO_MOVE;
+    static final long[] CASTLING = new long[16];              // By rights mask; no rights hashes to 0
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x4A4254505A4F4252L);
+        for (long[] squares : PIECES) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        long[] rightKeys = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int rights = 1; rights < 16; rights++) {
+            for (int bit = 0; bit < 4; bit++) {
+                if ((rights & 1 << bit) != 0) {
+                    CASTLING[rights] ^= rightKeys[bit];
+                }
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * The part of the key that isn't pieces; 0 for white to move without castling rights or en passant square
+     */
+    static long state(int sideToMove, int castlingRights, int enPassantSquare) {
+        long key = CASTLING[castlingRights];
+        if (sideToMove == BitboardPosition.BLACK) {
+            key ^= BLACK_TO_MOVE;
+        }
+        if (enPassantSquare >= 0) {
+            key ^= EN_PASSANT_FILE[enPassantSquare & 7];
+        }
+        return key;
+    }
+}
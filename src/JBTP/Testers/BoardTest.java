@@ -0,0 +1,177 @@
+package JBTP.Testers;
+
+import JBTP.Model.*;
+import JBTP.Model.pieces.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BoardTest {
+    private Board board;
+    private King whiteKing;
+    private King blackKing;
+
+    @Before
+    public void setUp() {
+        board = new Board();
+        board.clearBoard();
+
+        whiteKing = new King(PieceColor.WHITE, new Position(4, 7));
+        blackKing = new King(PieceColor.BLACK, new Position(4, 0));
+        board.placePieceForTesting(whiteKing);
+        board.placePieceForTesting(blackKing);
+    }
+
+    // Every square's piece, plus each piece's position and moved flag
+    private String describe(Board board) {
+        StringBuilder description = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board.getPiece(new Position(col, row));
+                description.append(piece == null ? "." : piece.getType().charAt(0) + "" + piece.hasMoved());
+            }
+        }
+        for (int color : new int[]{PieceColor.WHITE, PieceColor.BLACK}) {
+            for (Piece piece : board.getPiecesByColor(color)) {
+                description.append(' ').append(piece.getType()).append('@').append(piece.getPosition());
+            }
+        }
+        return description.append(' ').append(board.getMoveHistory().size()).toString();
+    }
+
+    @Test
+    public void testUnmakeCapture() {
+        Rook whiteRook = new Rook(PieceColor.WHITE, new Position(0, 7));
+        Knight blackKnight = new Knight(PieceColor.BLACK, new Position(0, 2));
+        board.placePieceForTesting(whiteRook);
+        board.placePieceForTesting(blackKnight);
+        String before = describe(board);
+
+        MoveUndo undo = board.makeMove(Move.createMove(new Position(0, 7), new Position(0, 2), whiteRook, blackKnight));
+        assertSame("Rook should stand on the knight's square", whiteRook, board.getPiece(new Position(0, 2)));
+        assertFalse("Knight should be off the piece list", board.getPiecesByColor(PieceColor.BLACK).contains(blackKnight));
+
+        board.unmakeMove(undo);
+        assertEquals("Board should be exactly as before the capture", before, describe(board));
+        assertFalse("Rook should not count as moved", whiteRook.hasMoved());
+    }
+
+    @Test
+    public void testUnmakeEnPassant() {
+        Pawn whitePawn = new Pawn(PieceColor.WHITE, new Position(3, 3));
+        whitePawn.setHasMoved(true);
+        Pawn blackPawn = new Pawn(PieceColor.BLACK, new Position(2, 1));
+        board.placePieceForTesting(whitePawn);
+        board.placePieceForTesting(blackPawn);
+        board.executeMove(Move.createMove(new Position(2, 1), new Position(2, 3), blackPawn, null));
+        String before = describe(board);
+
+        MoveUndo undo = board.makeMove(Move.createEnPassant(new Position(3, 3), new Position(2, 2), whitePawn, blackPawn));
+        assertNull("Captured pawn should be gone", board.getPiece(new Position(2, 3)));
+
+        board.unmakeMove(undo);
+        assertEquals("Board should be exactly as before en passant", before, describe(board));
+        assertSame("Last move should be the double step again", blackPawn, board.getLastMove().getMovingPiece());
+    }
+
+    @Test
+    public void testUnmakeCastling() {
+        Rook whiteRook = new Rook(PieceColor.WHITE, new Position(7, 7));
+        board.placePieceForTesting(whiteRook);
+        String before = describe(board);
+
+        MoveUndo undo = board.makeMove(Move.createCastling(new Position(4, 7), new Position(6, 7), whiteKing));
+        assertSame("Rook should have jumped the king", whiteRook, board.getPiece(new Position(5, 7)));
+
+        board.unmakeMove(undo);
+        assertEquals("Board should be exactly as before castling", before, describe(board));
+        assertFalse("Rook should be able to castle again", whiteRook.hasMoved());
+    }
+
+    @Test
+    public void testUnmakePromotion() {
+        Pawn whitePawn = new Pawn(PieceColor.WHITE, new Position(0, 1));
+        whitePawn.setHasMoved(true);
+        Rook blackRook = new Rook(PieceColor.BLACK, new Position(1, 0));
+        board.placePieceForTesting(whitePawn);
+        board.placePieceForTesting(blackRook);
+        String before = describe(board);
+
+        MoveUndo undo = board.makeMove(Move.createPromotion(new Position(0, 1), new Position(1, 0), whitePawn, blackRook));
+        assertEquals("Pawn should have become a queen", "Queen", board.getPiece(new Position(1, 0)).getType());
+
+        board.unmakeMove(undo);
+        assertEquals("Board should be exactly as before the promotion", before, describe(board));
+        assertTrue("Pawn should be back on the list", board.getPiecesByColor(PieceColor.WHITE).contains(whitePawn));
+    }
+
+    @Test
+    public void testLegalMoveGenerationLeavesBoardUntouched() {
+        Board fullBoard = new Board();
+        String before = describe(fullBoard);
+
+        List<Move> whiteMoves = fullBoard.getAllLegalMoves(PieceColor.WHITE);
+        List<Move> blackMoves = fullBoard.getAllLegalMoves(PieceColor.BLACK);
+
+        assertEquals("White should have 20 moves in the initial position", 20, whiteMoves.size());
+        assertEquals("Black should have 20 moves in the initial position", 20, blackMoves.size());
+        assertEquals("Generating moves should not change the board", before, describe(fullBoard));
+    }
+
+    @Test
+    public void testZobristKeyRestoredByUnmake() {
+        Board fullBoard = new Board();
+        long before = fullBoard.getZobristKey(PieceColor.WHITE);
+
+        for (Move move : fullBoard.getAllLegalMoves(PieceColor.WHITE)) {
+            MoveUndo undo = fullBoard.makeMove(move);
+            assertNotEquals("Every move should change the key", before, fullBoard.getZobristKey(PieceColor.BLACK));
+            fullBoard.unmakeMove(undo);
+            assertEquals("Unmake should restore the key", before, fullBoard.getZobristKey(PieceColor.WHITE));
+        }
+        assertNotEquals("Side to move should be part of the key", before, fullBoard.getZobristKey(PieceColor.BLACK));
+    }
+
+    @Test
+    public void testZobristKeyOfTransposition() {
+        // 1. Nf3 Nf6 2. Nc3 and 1. Nc3 Nf6 2. Nf3 reach the same position
+        Board first = new Board();
+        Board second = new Board();
+        TestMoves.play(first, "g1f3", "g8f6", "b1c3");
+        TestMoves.play(second, "b1c3", "g8f6", "g1f3");
+
+        assertEquals("Transposed move orders should give the same key",
+                first.getZobristKey(PieceColor.BLACK), second.getZobristKey(PieceColor.BLACK));
+        assertEquals("Incremental key should match a key built from scratch",
+                BitboardPosition.fromFen("rnbqkb1r/pppppppp/5n2/8/8/2N2N2/PPPPPPPP/R1BQKB1R b KQkq - 3 2").getKey(),
+                first.getZobristKey(PieceColor.BLACK));
+    }
+
+    @Test
+    public void testClearBoardForgetsGameHistory() {
+        Board played = new Board();
+        TestMoves.play(played, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertEquals(4, played.getHalfmoveClock());
+
+        played.clearBoard();
+        assertEquals("Fifty-move count should start again", 0, played.getHalfmoveClock());
+        assertEquals("Earlier positions should not count as repetitions", 0,
+                played.createPosition(PieceColor.WHITE).getGameHistory().length);
+    }
+
+    @Test
+    public void testPinnedPieceCannotMove() {
+        // White bishop on e2 pinned against the king by a rook on e8
+        Bishop whiteBishop = new Bishop(PieceColor.WHITE, new Position(4, 6));
+        Rook blackRook = new Rook(PieceColor.BLACK, new Position(4, 1));
+        board.placePieceForTesting(whiteBishop);
+        board.placePieceForTesting(blackRook);
+        String before = describe(board);
+
+        assertTrue("Pinned bishop should have no moves", whiteBishop.getLegalMoves(board).isEmpty());
+        assertEquals("Trying the pinned moves should not change the board", before, describe(board));
+    }
+}
@@ -0,0 +1,126 @@
+package JBTP.Testers;
+
+import JBTP.Model.Clock;
+import JBTP.Model.GameState;
+import JBTP.Model.Move;
+import JBTP.Model.PieceColor;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ClockTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    // Fake monotonic time the clocks read, moved forward by the test
+    private final AtomicLong now = new AtomicLong(123_456_789L);
+
+    private Clock clock(long initialMillis, Clock.Mode mode, long bonusMillis) {
+        return new Clock(initialMillis, mode, bonusMillis, now::get);
+    }
+
+    private void think(long millis) {
+        now.addAndGet(millis * MILLI);
+    }
+
+    @Test
+    public void testTimeChargedOnMoveCompletion() {
+        Clock clock = clock(60_000, Clock.Mode.SUDDEN_DEATH, 0);
+        clock.start();
+        think(1_500);
+
+        assertEquals("Running clock should count down live", 58_500, clock.getRemainingMillis());
+        assertTrue("Move should be in time", clock.endTurn());
+        assertFalse(clock.isRunning());
+        think(10_000);
+        assertEquals("Stopped clock should not lose time", 58_500, clock.getRemainingMillis());
+        assertEquals("00:00:59", clock.getTime());
+    }
+
+    @Test
+    public void testFischerIncrement() {
+        Clock clock = clock(60_000, Clock.Mode.FISCHER, 2_000);
+        clock.start();
+        think(500);
+        clock.endTurn();
+
+        assertEquals("Increment should be added after the move", 61_500, clock.getRemainingMillis());
+    }
+
+    @Test
+    public void testBronsteinDelay() {
+        Clock clock = clock(60_000, Clock.Mode.BRONSTEIN, 2_000);
+        clock.start();
+        think(500);
+        clock.endTurn();
+        assertEquals("A quick move should get all its time back", 60_000, clock.getRemainingMillis());
+
+        clock.start();
+        think(5_000);
+        clock.endTurn();
+        assertEquals("A slow move should get back only the delay", 57_000, clock.getRemainingMillis());
+    }
+
+    @Test
+    public void testSimpleDelay() {
+        Clock clock = clock(60_000, Clock.Mode.SIMPLE_DELAY, 2_000);
+        clock.start();
+        think(1_500);
+        assertEquals("Clock should not count down during the delay", 60_000, clock.getRemainingMillis());
+        think(1_500);
+        assertEquals("Clock should count down once the delay has passed", 59_000, clock.getRemainingMillis());
+        clock.endTurn();
+        assertEquals(59_000, clock.getRemainingMillis());
+    }
+
+    @Test
+    public void testPauseKeepsTurn() {
+        Clock clock = clock(60_000, Clock.Mode.SIMPLE_DELAY, 2_000);
+        clock.start();
+        think(1_500);
+        clock.pause();
+        think(30_000);
+        clock.start();
+        think(1_500);
+        clock.endTurn();
+
+        assertEquals("Paused time should not count, and the delay should cover the whole turn", 59_000, clock.getRemainingMillis());
+    }
+
+    @Test
+    public void testFlagAndReset() {
+        Clock clock = clock(1_000, Clock.Mode.FISCHER, 5_000);
+        clock.start();
+        think(1_200);
+
+        assertTrue(clock.outOfTime());
+        assertEquals("00:00:00", clock.getTime());
+        assertFalse("A move after the flag should not be in time", clock.endTurn());
+        assertEquals("No increment after the flag", 0, clock.getRemainingMillis());
+
+        clock.reset();
+        assertEquals(1_000, clock.getRemainingMillis());
+        assertFalse(clock.isRunning());
+    }
+
+    @Test
+    public void testGameStateHandsTurnToOpponentClock() {
+        GameState gameState = new GameState(0, 5, 0, Clock.Mode.FISCHER, 3);
+        gameState.startClock();
+        assertTrue(gameState.getClock(PieceColor.WHITE).isRunning());
+        assertFalse(gameState.getClock(PieceColor.BLACK).isRunning());
+
+        Move move = gameState.getBoard().getAllLegalMoves(PieceColor.WHITE).get(0);
+        assertTrue(gameState.makeMove(move));
+
+        assertFalse(gameState.getClock(PieceColor.WHITE).isRunning());
+        assertTrue(gameState.getClock(PieceColor.BLACK).isRunning());
+        assertTrue("White should have the increment on top of the time left",
+                gameState.getClock(PieceColor.WHITE).getRemainingMillis() > 300_000);
+
+        gameState.pauseClock();
+        assertFalse(gameState.getClock(PieceColor.BLACK).isRunning());
+    }
+}
@@ -0,0 +1,130 @@
+package JBTP.Testers;
+
+import JBTP.Model.BitboardPosition;
+import JBTP.Model.Board;
+import JBTP.Model.Perft;
+import JBTP.Model.PieceColor;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Node counts of the bitboard move generator against the published perft results of the standard test positions
+ */
+public class PerftTest {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+    private void assertPerft(String fen, long... expected) {
+        BitboardPosition position = BitboardPosition.fromFen(fen);
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertEquals("Perft " + depth + " of " + fen, expected[depth - 1], position.perft(depth));
+        }
+        assertEquals("Perft should leave the position as it found it", BitboardPosition.fromFen(fen).toFen(), position.toFen());
+    }
+
+    @Test
+    public void testStartPosition() {
+        assertPerft(BitboardPosition.START_FEN, 20, 400, 8902, 197281);
+    }
+
+    @Test
+    public void testKiwipete() {
+        // Castling, pins and en passant
+        assertPerft(KIWIPETE, 48, 2039, 97862);
+    }
+
+    @Test
+    public void testEndgameWithEnPassantPins() {
+        assertPerft(POSITION_3, 14, 191, 2812, 43238);
+    }
+
+    @Test
+    public void testPromotionsAndCastlingThroughCheck() {
+        assertPerft(POSITION_4, 6, 264, 9467);
+    }
+
+    @Test
+    public void testPromotionWithCapture() {
+        assertPerft(POSITION_5, 44, 1486, 62379);
+    }
+
+    @Test
+    public void testReferenceSuite() {
+        // Every reference position to the deepest count under half a million nodes
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            BitboardPosition position = BitboardPosition.fromFen(reference.getFen());
+            for (int depth = 1; depth <= reference.getMaxDepth() && reference.getNodes(depth) < 500_000; depth++) {
+                assertEquals(reference.getName() + " at depth " + depth, reference.getNodes(depth), position.perft(depth));
+            }
+        }
+    }
+
+    @Test
+    public void testDivide() {
+        Map<String, Long> divide = Perft.divide(BitboardPosition.fromFen(KIWIPETE), 2);
+
+        assertEquals("Kiwipete should have 48 root moves", 48, divide.size());
+        assertEquals(2039L, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals("Castling kingside should be a root move", Long.valueOf(43), divide.get("e1g1"));
+        assertEquals("Castling queenside should be a root move", Long.valueOf(43), divide.get("e1c1"));
+    }
+
+    @Test
+    public void testBoardPerft() {
+        // The same counts through Board, Move objects and make/unmake; no promotions happen this shallow
+        assertEquals(8902, Perft.perft(new Board(), PieceColor.WHITE, 3));
+        assertEquals(97862, Perft.perft(Board.fromFen(KIWIPETE), PieceColor.WHITE, 3));
+        assertEquals(43238, Perft.perft(Board.fromFen(POSITION_3), PieceColor.WHITE, 4));
+    }
+
+    @Test
+    public void testBoardEnPassantFromFen() {
+        String fen = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3";
+        long expected = BitboardPosition.fromFen(fen).perft(2);
+
+        assertEquals("Board should take en passant on f6 like the generator", expected,
+                Perft.perft(Board.fromFen(fen), PieceColor.WHITE, 2));
+    }
+
+    @Test
+    public void testFenRoundTrip() {
+        assertEquals(KIWIPETE, BitboardPosition.fromFen(KIWIPETE).toFen());
+        assertEquals(POSITION_5, BitboardPosition.fromFen(POSITION_5).toFen());
+        assertThrows(IllegalArgumentException.class, () -> BitboardPosition.fromFen("8/8/8 w - -"));
+    }
+
+    @Test
+    public void testIncrementalKeyMatchesFen() {
+        // After every move two plies deep, the updated key equals the key of the position set up afresh
+        BitboardPosition position = BitboardPosition.fromFen(KIWIPETE);
+        int[] moves = new int[2 * BitboardPosition.MAX_MOVES];
+        int count = position.generateLegalMoves(moves, 0);
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            assertEquals(BitboardPosition.fromFen(position.toFen()).getKey(), position.getKey());
+            int replies = position.generateLegalMoves(moves, BitboardPosition.MAX_MOVES);
+            for (int j = BitboardPosition.MAX_MOVES; j < BitboardPosition.MAX_MOVES + replies; j++) {
+                position.makeMove(moves[j]);
+                assertEquals("Key after " + BitboardPosition.toUci(moves[i]) + " " + BitboardPosition.toUci(moves[j]),
+                        BitboardPosition.fromFen(position.toFen()).getKey(), position.getKey());
+                position.unmakeMove(moves[j]);
+            }
+            position.unmakeMove(moves[i]);
+        }
+        assertEquals(BitboardPosition.fromFen(KIWIPETE).getKey(), position.getKey());
+    }
+
+    @Test
+    public void testBoardMatchesGenerator() {
+        // A fresh game board is the start position
+        Board board = new Board();
+        assertEquals(20, board.getAllLegalMoves(PieceColor.WHITE).size());
+        assertEquals(BitboardPosition.START_FEN.split(" ")[0], board.getBitboards().toFen().split(" ")[0]);
+    }
+}
@@ -0,0 +1,72 @@
+package JBTP.Testers;
+
+import JBTP.Controller.SearchGeneration;
+import JBTP.Engine.Search;
+import JBTP.Engine.SearchResult;
+import JBTP.Engine.TranspositionTable;
+import JBTP.Model.BitboardPosition;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class SearchGenerationTest {
+
+    private static SearchResult result() {
+        return new SearchResult(1, 0, 1, 1, 0, new int[]{1}, 0, 0);
+    }
+
+    @Test
+    public void testCurrentResultAccepted() {
+        SearchGeneration searches = new SearchGeneration(() -> { });
+        int generation = searches.current();
+
+        assertTrue(searches.accept(generation, result()));
+        assertFalse("No result, nothing to play", searches.accept(generation, null));
+    }
+
+    @Test
+    public void testStaleResultDropped() {
+        SearchGeneration searches = new SearchGeneration(() -> { });
+        int beforeNewGame = searches.current();
+
+        searches.cancel();   // A new game
+        assertFalse("A result from the old game should be dropped", searches.accept(beforeNewGame, result()));
+
+        int beforeSurrender = searches.current();
+        searches.cancel();   // A resignation, or a player's move the ponder search didn't expect
+        assertFalse(searches.accept(beforeSurrender, result()));
+        assertFalse(searches.accept(beforeNewGame, result()));
+        assertTrue(searches.accept(searches.current(), result()));
+    }
+
+    @Test
+    public void testNewGameCancelsRunningSearch() throws Exception {
+        Search search = new Search(new TranspositionTable(1));
+        SearchGeneration searches = new SearchGeneration(search::stop);
+        ExecutorService engine = Executors.newSingleThreadExecutor();
+        AtomicReference<SearchResult> found = new AtomicReference<>();
+        try {
+            int generation = searches.current();
+            Future<?> running = engine.submit(() -> found.set(search.search(
+                    BitboardPosition.fromFen(BitboardPosition.START_FEN), Long.MAX_VALUE, Search.MAX_DEPTH)));
+            searches.started(running);
+            Thread.sleep(100);
+
+            searches.cancel();   // A new game
+            assertTrue("The running search should be cancelled", running.isCancelled());
+            engine.shutdown();
+            assertTrue("The search should stop without a time limit or depth reached",
+                    engine.awaitTermination(10, TimeUnit.SECONDS));
+            assertNotNull("The search still returns when stopped", found.get());
+            assertFalse("Its move belongs to the old game", searches.accept(generation, found.get()));
+        } finally {
+            engine.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package JBTP.Testers;
+
+import JBTP.Engine.Evaluation;
+import JBTP.Engine.ParallelSearch;
+import JBTP.Engine.Search;
+import JBTP.Engine.SearchResult;
+import JBTP.Engine.TranspositionTable;
+import JBTP.Model.BitboardPosition;
+import JBTP.Model.Board;
+import JBTP.Model.PieceColor;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SearchTest {
+
+    private SearchResult search(String fen, int maxDepth) {
+        return new Search().search(BitboardPosition.fromFen(fen), 10_000, maxDepth);
+    }
+
+    @Test
+    public void testFindsBackRankMate() {
+        SearchResult result = search("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 4);
+
+        assertEquals("Rook should mate on the back rank", "a1a8", BitboardPosition.toUci(result.getBestMove()));
+        assertEquals("Score should be mate in one", Search.MATE - 1, result.getScore());
+        assertTrue(result.isMate());
+    }
+
+    @Test
+    public void testFindsScholarsMate() {
+        SearchResult result = search("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4", 4);
+
+        assertEquals("Queen should take on f7 with mate", "h5f7", BitboardPosition.toUci(result.getBestMove()));
+    }
+
+    @Test
+    public void testTakesHangingQueen() {
+        SearchResult result = search("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1", 4);
+
+        assertEquals("Rook should take the undefended queen", "d2d5", BitboardPosition.toUci(result.getBestMove()));
+        assertTrue("White should be winning after the capture", result.getScore() > 300);
+    }
+
+    @Test
+    public void testAvoidsLosingExchange() {
+        // Taking the defended pawn on d5 loses the queen to the e6 pawn; quiescence has to see the recapture
+        SearchResult result = search("4k3/8/4p3/3p4/8/8/3Q4/4K3 w - - 0 1", 2);
+
+        assertNotEquals("Queen should not take the defended pawn", "d2d5", BitboardPosition.toUci(result.getBestMove()));
+    }
+
+    @Test
+    public void testStopsAtTimeLimit() {
+        BitboardPosition position = BitboardPosition.fromFen(BitboardPosition.START_FEN);
+        SearchResult result = new Search().search(position, 200, Search.MAX_DEPTH);
+
+        assertTrue("Search should return soon after its time limit, took " + result.getElapsedMillis() + " ms",
+                result.getElapsedMillis() < 1000);
+        assertNotEquals("Search should still return a move", 0, result.getBestMove());
+        assertEquals("Search should leave the position as it found it", BitboardPosition.START_FEN, position.toFen());
+    }
+
+    @Test
+    public void testNoMoveWhenMated() {
+        SearchResult result = search("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1", 3);
+
+        assertEquals("Mated side should have no move", 0, result.getBestMove());
+    }
+
+    @Test
+    public void testTranspositionTableSavesNodes() {
+        String kiwipete = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        SearchResult without = new Search(null).search(BitboardPosition.fromFen(kiwipete), Long.MAX_VALUE, 4);
+        SearchResult with = new Search(new TranspositionTable(1)).search(BitboardPosition.fromFen(kiwipete), Long.MAX_VALUE, 4);
+
+        assertTrue("Table should cut the tree, " + with.getNodes() + " vs " + without.getNodes() + " nodes",
+                with.getNodes() < without.getNodes());
+        assertTrue("Table should be hit", with.getTableHitRate() > 0);
+        assertEquals("No table means no probes", 0, without.getTableProbes());
+    }
+
+    @Test
+    public void testTableEntryRoundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL;
+        table.store(key, 0x1F3C, -250, 7, TranspositionTable.UPPER_BOUND);
+
+        long entry = table.probe(key);
+        assertEquals(0x1F3C, TranspositionTable.move(entry));
+        assertEquals("Negative scores should survive packing", -250, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.bound(entry));
+        assertEquals("Another key should miss", 0, table.probe(key + 1));
+    }
+
+    @Test
+    public void testDeepEntrySurvivesShallowStore() {
+        TranspositionTable table = new TranspositionTable(1);
+        long deep = 42;
+        long shallow = deep + (1L << 40);                    // Same bucket, different key
+        table.store(deep, 1, 10, 8, TranspositionTable.EXACT);
+        table.store(shallow, 2, 20, 2, TranspositionTable.EXACT);
+
+        assertEquals("Deep entry should keep its slot", 8, TranspositionTable.depth(table.probe(deep)));
+        assertEquals("Shallow entry should go to the always-replace slot", 2, TranspositionTable.depth(table.probe(shallow)));
+    }
+
+    @Test
+    public void testParallelSearchFindsMate() {
+        ParallelSearch search = new ParallelSearch(3, new TranspositionTable(1));
+        try {
+            BitboardPosition position = BitboardPosition.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+            SearchResult result = search.search(position, 10_000, 4);
+
+            assertEquals("a1a8", BitboardPosition.toUci(result.getBestMove()));
+            assertEquals("Threads should not touch the caller's position", "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", position.toFen());
+        } finally {
+            search.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelSearchReachesDepth() {
+        ParallelSearch search = new ParallelSearch(2, new TranspositionTable(1));
+        try {
+            SearchResult result = search.search(BitboardPosition.fromFen(BitboardPosition.START_FEN), Long.MAX_VALUE, 5);
+
+            assertEquals("Some thread should finish the last depth", 5, result.getDepth());
+            assertNotEquals(0, result.getBestMove());
+        } finally {
+            search.shutdown();
+        }
+    }
+
+    @Test
+    public void testPonderHitEndsSearchWithinTimeLeft() throws Exception {
+        ParallelSearch search = new ParallelSearch(2, new TranspositionTable(1));
+        ExecutorService engine = Executors.newSingleThreadExecutor();
+        try {
+            search.preparePonder();
+            Future<SearchResult> ponder = engine.submit(() -> search.ponder(BitboardPosition.fromFen(BitboardPosition.START_FEN)));
+            Thread.sleep(100);
+            assertFalse("Ponder search should run until told otherwise", ponder.isDone());
+
+            search.setTimeLimit(100);
+            SearchResult result = ponder.get(5, TimeUnit.SECONDS);
+            assertNotEquals(0, result.getBestMove());
+            assertTrue("Pondering should have finished some iterations", result.getDepth() > 0);
+        } finally {
+            engine.shutdownNow();
+            search.shutdown();
+        }
+    }
+
+    @Test
+    public void testStopBeforePonderStartsCounts() {
+        ParallelSearch search = new ParallelSearch(1, new TranspositionTable(1));
+        search.preparePonder();
+        search.stop();
+
+        SearchResult result = search.ponder(BitboardPosition.fromFen(BitboardPosition.START_FEN));
+        assertTrue("Stopped ponder search should return at once", result.getNodes() < 10_000);
+        assertNotEquals("Stopped ponder search should still have a move", 0, result.getBestMove());
+    }
+
+    @Test
+    public void testEvaluationIsSymmetric() {
+        assertEquals("Start position should be level", 0, Evaluation.evaluate(BitboardPosition.fromFen(BitboardPosition.START_FEN)));
+
+        // The same position with the colours swapped scores the same for the side to move
+        int white = Evaluation.evaluate(BitboardPosition.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"));
+        int black = Evaluation.evaluate(BitboardPosition.fromFen("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1"));
+        assertEquals(white, black);
+    }
+
+    @Test
+    public void testRepetitionOfGamePositionIsDraw() {
+        // Black is a queen down, but the knight going back to f6 repeats the position after 1...Nf6
+        Board board = Board.fromFen("6nk/8/8/8/8/Q7/8/4K3 w - - 0 1");
+        TestMoves.play(board, "a3a4", "g8f6", "a4a3", "f6g8", "a3a4");
+        assertEquals("Only reversible moves were played", 5, board.getHalfmoveClock());
+
+        BitboardPosition position = board.createPosition(PieceColor.BLACK);
+        SearchResult result = new Search(null).search(position, 10_000, 4);
+        assertEquals("Black should repeat the position", "g8f6", BitboardPosition.toUci(result.getBestMove()));
+        assertEquals("Repetition should score as a draw", 0, result.getScore());
+
+        position.setGameHistory(new long[0]);
+        assertTrue("Without the game's history the queen down should show",
+                new Search(null).search(position, 10_000, 4).getScore() < -500);
+    }
+
+    @Test
+    public void testFiftyMoveRuleCarriedFromBoard() {
+        Board board = Board.fromFen("6nk/8/8/8/Q7/8/8/4K3 b - - 99 60");
+
+        SearchResult result = new Search(null).search(board.createPosition(PieceColor.BLACK), 10_000, 4);
+        assertEquals("Any black move should reach the fifty-move draw", 0, result.getScore());
+    }}
@@ -0,0 +1,29 @@
+package JBTP.Testers;
+
+import JBTP.Model.Board;
+import JBTP.Model.Move;
+import JBTP.Model.PieceColor;
+import JBTP.Model.Position;
+
+/**
+ * Plays games on a {@link Board} for the tests
+ */
+final class TestMoves {
+
+    private TestMoves() {
+    }
+
+    // Play moves given in coordinate notation, alternating colours from white
+    static void play(Board board, String... moves) {
+        int color = PieceColor.WHITE;
+        for (String uci : moves) {
+            Position from = new Position(uci.charAt(0) - 'a', '8' - uci.charAt(1));
+            Position to = new Position(uci.charAt(2) - 'a', '8' - uci.charAt(3));
+            Move move = board.getAllLegalMoves(color).stream()
+                    .filter(m -> m.getOrigin().equals(from) && m.getDestination().equals(to))
+                    .findFirst().orElseThrow();
+            board.executeMove(move);
+            color = PieceColor.opponent(color);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package JBTP.Testers;
+
+import JBTP.Engine.Search;
+import JBTP.Engine.SearchResult;
+import JBTP.Engine.TimeManager;
+import JBTP.Engine.TranspositionTable;
+import JBTP.Model.BitboardPosition;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimeManagerTest {
+
+    @Test
+    public void testLimitsFitTheClock() {
+        TimeManager blitz = TimeManager.forClock(60_000, 0);
+        assertTrue("Soft limit should not pass the hard limit", blitz.getSoftLimitMillis() <= blitz.getHardLimitMillis());
+        assertTrue("A minute for the game should leave well under half of it per move", blitz.getHardLimitMillis() < 30_000);
+        assertTrue("There should still be time to think", blitz.getSoftLimitMillis() > 500);
+
+        TimeManager scramble = TimeManager.forClock(300, 0);
+        assertTrue("Nearly flagged, the hard limit should stay below what's left",
+                scramble.getHardLimitMillis() < 300);
+
+        TimeManager flagged = TimeManager.forClock(0, 0);
+        assertEquals(0, flagged.getHardLimitMillis());
+    }
+
+    @Test
+    public void testIncrementAddsThinkingTime() {
+        long without = TimeManager.forClock(60_000, 0).getSoftLimitMillis();
+        long with = TimeManager.forClock(60_000, 2_000).getSoftLimitMillis();
+
+        assertTrue("Increment should buy time per move", with > without + 1_000);
+    }
+
+    @Test
+    public void testLongGamesUseLongerBudgets() {
+        assertTrue(TimeManager.forClock(3_600_000, 0).getSoftLimitMillis() > 60 * TimeManager.forClock(60_000, 0).getSoftLimitMillis() / 2);
+    }
+
+    @Test
+    public void testStableBestMoveStopsEarly() {
+        TimeManager stable = TimeManager.fixed(1_000);
+        TimeManager unsettled = TimeManager.fixed(1_000);
+        for (int depth = 1; depth <= 6; depth++) {
+            stable.shouldStop(10, depth, 100, 20);
+            unsettled.shouldStop(10, depth, 100 + depth, 20);
+        }
+
+        assertTrue("Five iterations on the same move should stop at 300 ms", stable.shouldStop(300, 7, 100, 20));
+        assertFalse("A move that keeps changing should keep searching", unsettled.shouldStop(300, 7, 107, 20));
+    }
+
+    @Test
+    public void testFailLowExtendsSearch() {
+        TimeManager steady = TimeManager.forClock(600_000, 0);
+        TimeManager failing = TimeManager.forClock(600_000, 0);
+        steady.shouldStop(10, 1, 100, 50);
+        failing.shouldStop(10, 1, 100, 50);
+        long elapsed = steady.getSoftLimitMillis();
+
+        assertTrue("Same move and score past the soft limit should stop", steady.shouldStop(elapsed, 2, 100, 50));
+        assertFalse("A score drop should buy more time", failing.shouldStop(elapsed, 2, 100, -100));
+    }
+
+    @Test
+    public void testSearchKeepsToHardLimit() {
+        TimeManager timeManager = TimeManager.forClock(2_000, 0);
+        SearchResult result = new Search(new TranspositionTable(1))
+                .search(BitboardPosition.fromFen(BitboardPosition.START_FEN), timeManager, Search.MAX_DEPTH);
+
+        assertTrue("Search took " + result.getElapsedMillis() + " ms of a " + timeManager.getHardLimitMillis() + " ms hard limit",
+                result.getElapsedMillis() <= timeManager.getHardLimitMillis() + 100);
+        assertNotEquals(0, result.getBestMove());
+    }
+}
@@ -1,6 +1,7 @@
 package JBTP.View;
 
 import JBTP.Controller.GameController;
+import JBTP.Model.Clock;
 
 import javax.swing.*;
 import java.awt.*;
@@ -152,18 +153,32 @@ public class GameWindow extends JFrame {
 
         panel.add(timePanel);
 
+        // Increment or delay per move
+        JPanel bonusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JComboBox<Clock.Mode> clockModeCombo = new JComboBox<>(Clock.Mode.values());
+        JSpinner bonusSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 60, 1));
+        bonusPanel.add(clockModeCombo);
+        bonusPanel.add(bonusSpinner);
+        bonusPanel.add(new JLabel("s"));
+
+        panel.add(bonusPanel);
+
         // Enable/disable time controls based on checkbox
         timedGameCheckbox.addActionListener(e -> {
             boolean enabled = timedGameCheckbox.isSelected();
             hoursSpinner.setEnabled(enabled);
             minutesSpinner.setEnabled(enabled);
             secondsSpinner.setEnabled(enabled);
+            clockModeCombo.setEnabled(enabled);
+            bonusSpinner.setEnabled(enabled);
         });
 
         // Initial state
         hoursSpinner.setEnabled(false);
         minutesSpinner.setEnabled(false);
         secondsSpinner.setEnabled(false);
+        clockModeCombo.setEnabled(false);
+        bonusSpinner.setEnabled(false);
 
         // Buttons
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
@@ -176,7 +191,9 @@ public class GameWindow extends JFrame {
                 int hours = (Integer) hoursSpinner.getValue();
                 int minutes = (Integer) minutesSpinner.getValue();
                 int seconds = (Integer) secondsSpinner.getValue();
-                controller.startTimedGame(gameMode, hours, minutes, seconds);
+                Clock.Mode clockMode = (Clock.Mode) clockModeCombo.getSelectedItem();
+                int bonusSeconds = (Integer) bonusSpinner.getValue();
+                controller.startTimedGame(gameMode, hours, minutes, seconds, clockMode, bonusSeconds);
                 pauseResumeButton.setVisible(true);
                 pauseResumeButton.setText("Pause");
             } else {
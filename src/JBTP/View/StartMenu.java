@@ -1,6 +1,7 @@
 package JBTP.View;
 
 import JBTP.Controller.GameController;
+import JBTP.Model.Clock;
 
 import javax.swing.*;
 import java.awt.*;
@@ -16,6 +17,8 @@ public class StartMenu extends JFrame {
     private JSpinner hoursSpinner;
     private JSpinner minutesSpinner;
     private JSpinner secondsSpinner;
+    private JComboBox<Clock.Mode> clockModeComboBox;
+    private JSpinner bonusSpinner;
 
     /**
      * Creates a new start menu.
@@ -26,7 +29,7 @@ public class StartMenu extends JFrame {
         // Set up the window
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
-        setSize(300, 250);
+        setSize(360, 300);
 
         JPanel mainPanel = new JPanel();
         mainPanel.setLayout(new BoxLayout(mainPanel, BoxLayout.Y_AXIS));
@@ -60,6 +63,14 @@ public class StartMenu extends JFrame {
         timeSpinnersPanel.add(secondsSpinner);
         timeSpinnersPanel.add(new JLabel("s"));
 
+        // Increment or delay per move
+        JPanel bonusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        clockModeComboBox = new JComboBox<>(Clock.Mode.values());
+        bonusSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 60, 1));
+        bonusPanel.add(clockModeComboBox);
+        bonusPanel.add(bonusSpinner);
+        bonusPanel.add(new JLabel("s"));
+
         // Start button
         JButton startButton = new JButton("Start Game");
         startButton.addActionListener(new ActionListener() {
@@ -75,6 +86,7 @@ public class StartMenu extends JFrame {
         mainPanel.add(timeControlPanel);
         mainPanel.add(Box.createVerticalStrut(5));
         mainPanel.add(timeSpinnersPanel);
+        mainPanel.add(bonusPanel);
         mainPanel.add(Box.createVerticalStrut(20));
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
@@ -92,6 +104,8 @@ public class StartMenu extends JFrame {
                 hoursSpinner.setEnabled(enabled);
                 minutesSpinner.setEnabled(enabled);
                 secondsSpinner.setEnabled(enabled);
+                clockModeComboBox.setEnabled(enabled);
+                bonusSpinner.setEnabled(enabled);
             }
         });
 
@@ -100,6 +114,8 @@ public class StartMenu extends JFrame {
         hoursSpinner.setEnabled(false);
         minutesSpinner.setEnabled(false);
         secondsSpinner.setEnabled(false);
+        clockModeComboBox.setEnabled(false);
+        bonusSpinner.setEnabled(false);
 
         // Center on screen
         setLocationRelativeTo(null);
@@ -119,7 +135,9 @@ public class StartMenu extends JFrame {
             int hours = (Integer) hoursSpinner.getValue();
             int minutes = (Integer) minutesSpinner.getValue();
             int seconds = (Integer) secondsSpinner.getValue();
-            controller.startTimedGame(gameMode, hours, minutes, seconds);
+            Clock.Mode clockMode = (Clock.Mode) clockModeComboBox.getSelectedItem();
+            int bonusSeconds = (Integer) bonusSpinner.getValue();
+            controller.startTimedGame(gameMode, hours, minutes, seconds, clockMode, bonusSeconds);
         } else {
             controller.startNewGame(gameMode);
         }